@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.dawnsci.analysis.api.expressions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compiled expression that gives each thread its own engine, in which the expression is created
+ * once, and loads variables into it for each evaluation
+ */
+class EngineCompiledExpression implements ICompiledExpression {
+
+	private final String expression;
+	private final Collection<String> names;
+	private final ThreadLocal<IExpressionEngine> engines;
+
+	EngineCompiledExpression(IExpressionService service, String expression) throws Exception {
+		this.expression = expression;
+		IExpressionEngine engine = createEngine(service, expression);
+		names = Collections.unmodifiableList(new ArrayList<>(engine.getVariableNamesFromExpression()));
+		engines = ThreadLocal.withInitial(() -> {
+			try {
+				return createEngine(service, expression);
+			} catch (Exception e) {
+				throw new IllegalStateException("Could not create expression: " + expression, e);
+			}
+		});
+		engines.set(engine);
+	}
+
+	private static IExpressionEngine createEngine(IExpressionService service, String expression) throws Exception {
+		IExpressionEngine engine = service.getExpressionEngine();
+		engine.createExpression(expression);
+		return engine;
+	}
+
+	@Override
+	public String getExpression() {
+		return expression;
+	}
+
+	@Override
+	public Collection<String> getVariableNames() {
+		return names;
+	}
+
+	@Override
+	public <T> T evaluate(Map<String, Object> variables) throws Exception {
+		IExpressionEngine engine = engines.get();
+		engine.setLoadedVariables(new HashMap<>(variables));
+		return engine.evaluate();
+	}
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.dawnsci.analysis.api.expressions;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * An expression that has been parsed once and can be evaluated many times, concurrently, with
+ * different variables. Unlike {@link IExpressionEngine}, it holds no variables between evaluations
+ * so the same instance can be shared between threads.
+ */
+public interface ICompiledExpression {
+
+	/**
+	 * @return expression string
+	 */
+	public String getExpression();
+
+	/**
+	 * Gets names of *all* variables from the expression in the order they were first encountered
+	 * 
+	 * @return names
+	 */
+	public Collection<String> getVariableNames();
+
+	/**
+	 * Evaluates the expression with given variables, throws exception if cannot evaluate
+	 * 
+	 * @param variables map of names to values which is not modified or retained
+	 * @return Object
+	 * @throws Exception
+	 */
+	public <T> T evaluate(Map<String, Object> variables) throws Exception;
+}
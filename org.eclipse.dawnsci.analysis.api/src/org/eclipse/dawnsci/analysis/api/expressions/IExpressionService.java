@@ -21,5 +21,16 @@ public interface IExpressionService {
 	 * @return IExpressionEngine
 	 */
 	public IExpressionEngine getExpressionEngine();
-	
+
+	/**
+	 * Method to parse an expression once so it can be evaluated many times from any thread.
+	 * By default, each thread is given its own engine from {@link #getExpressionEngine()}
+	 * 
+	 * @param expression
+	 * @return compiled expression
+	 * @throws Exception if the expression cannot be parsed
+	 */
+	public default ICompiledExpression compileExpression(String expression) throws Exception {
+		return new EngineCompiledExpression(this, expression);
+	}
 }
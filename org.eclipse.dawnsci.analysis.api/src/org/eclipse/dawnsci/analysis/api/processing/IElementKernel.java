@@ -0,0 +1,60 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.dawnsci.analysis.api.processing;
+
+import org.eclipse.january.dataset.IDataset;
+
+/**
+ * Per-element form of an {@link IElementwiseOperation} for one slice.
+ * <p>
+ * Positions are indexes of elements in the slice in row-major order. Uncertainties are
+ * standard deviations.
+ */
+public interface IElementKernel {
+
+	/**
+	 * @return true if results have uncertainties even when values have none, e.g. from an
+	 * operand with uncertainties
+	 */
+	public boolean hasUncertainty();
+
+	/**
+	 * @return false if results have no uncertainties even when values have them
+	 */
+	public default boolean keepsUncertainty() {
+		return true;
+	}
+
+	/**
+	 * Apply to value when neither it nor the result has an uncertainty
+	 * @param position
+	 * @param value
+	 * @return result
+	 */
+	public double apply(int position, double value);
+
+	/**
+	 * Apply to value with uncertainty
+	 * @param position
+	 * @param value
+	 * @param error uncertainty of value, zero if value has none
+	 * @param out result value and uncertainty
+	 */
+	public void apply(int position, double value, double error, double[] out);
+
+	/**
+	 * Called once all elements of the slice have been processed
+	 * @param result dataset of results with the metadata of the slice
+	 * @throws OperationException
+	 */
+	public default void finish(IDataset result) throws OperationException {
+		// do nothing
+	}
+}
@@ -0,0 +1,37 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.dawnsci.analysis.api.processing;
+
+import org.eclipse.january.dataset.IDataset;
+
+/**
+ * Operation whose result at each position of a slice depends only on the value (and its
+ * uncertainty) at that position, and which keeps the shape of the slice.
+ * <p>
+ * A runner may fuse consecutive element-wise operations of a series into one pass over each
+ * slice that writes a single result in place of one dataset per operation. In that case
+ * {@link IOperation#execute} is not called so the kernel, together with a copy of the slice's
+ * metadata, must give the same values and uncertainties as executing the operation would.
+ */
+public interface IElementwiseOperation {
+
+	/**
+	 * Create kernel to apply this operation to a slice. Kernel values are double precision so
+	 * an operation that would not give a double dataset for the given element class should
+	 * return null.
+	 * @param slice first slice of the fused run, which has the shape and metadata of the slice
+	 * that would be passed to {@link IOperation#execute}
+	 * @param elementClass class of elements of the dataset that would be passed to execute
+	 * @return kernel or null if this operation must be executed on its own for this slice
+	 * @throws OperationException
+	 */
+	public IElementKernel createKernel(IDataset slice, Class<?> elementClass) throws OperationException;
+
+}
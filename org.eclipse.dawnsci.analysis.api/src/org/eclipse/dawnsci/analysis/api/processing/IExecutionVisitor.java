@@ -58,6 +58,18 @@ public interface IExecutionVisitor {
 	 */
 	public void executed(OperationData result, IMonitor monitor) throws Exception;
 	
+	/**
+	 * Called once all slices have been processed when profiling is switched on
+	 * in the context, before the visitor is closed
+	 * 
+	 * @param summary human-readable summary of where time was spent
+	 * @throws Exception
+	 * @see IOperationContext#isProfiling()
+	 */
+	public default void profiled(String summary) throws Exception {
+		
+	}
+	
 	
 	public class Stub implements IExecutionVisitor {
 
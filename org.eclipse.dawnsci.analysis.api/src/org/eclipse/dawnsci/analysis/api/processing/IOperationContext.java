@@ -199,6 +199,65 @@ public interface IOperationContext {
 	 * return the count
 	 */
 	public void setPoolSize(int count);
+
+	/**
+	 * The maximum number of bytes of loaded slices which may be held at once
+	 * in PARALLEL mode, either queued, being processed or waiting to be passed
+	 * to the visitor in order. A value of zero or less uses the default.
+	 * 
+	 * @return number of bytes
+	 */
+	public long getMaxBytesInFlight();
+
+	/**
+	 * @param maxBytes
+	 * @see #getMaxBytesInFlight()
+	 */
+	public void setMaxBytesInFlight(long maxBytes);
+
+	/**
+	 * Whether in PARALLEL mode results are passed to {@link IExecutionVisitor#executed}
+	 * in slice order. By default results are passed on as soon as they are complete.
+	 * 
+	 * @return true if ordered
+	 */
+	public boolean isOrderedResults();
+
+	/**
+	 * @param ordered
+	 * @see #isOrderedResults()
+	 */
+	public void setOrderedResults(boolean ordered);
+
+	/**
+	 * The number of slices to read ahead of processing on a separate I/O thread.
+	 * By default the value is 0 meaning slices are read when they are needed.
+	 * 
+	 * @return number of slices
+	 */
+	public int getReadAhead();
+
+	/**
+	 * @param count
+	 * @see #getReadAhead()
+	 */
+	public void setReadAhead(int count);
+
+	/**
+	 * Whether the runner records the time taken by each operation, by reading slices
+	 * and by passing results to the visitor. While running, the measurements are available
+	 * as JMX metrics and JFR events; at the end, a summary is passed to
+	 * {@link IExecutionVisitor#profiled(String)}.
+	 * 
+	 * @return true if profiling
+	 */
+	public boolean isProfiling();
+
+	/**
+	 * @param profiling
+	 * @see #isProfiling()
+	 */
+	public void setProfiling(boolean profiling);
 	
 	public void setLiveInfo(ILiveOperationInfo info);
 	
@@ -0,0 +1,58 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.dawnsci.analysis.api.processing;
+
+import org.eclipse.january.dataset.IDataset;
+
+/**
+ * Operation which reduces every slice of a series to a single result.
+ * <p>
+ * Slices are added to accumulators which can be combined in any grouping, so a runner
+ * may keep one accumulator per thread, add slices in any order and then merge the
+ * accumulators in a tree once all slices have been processed.
+ * <p>
+ * None of these methods change the state of the operation itself so they may be called
+ * concurrently with different accumulators.
+ *
+ * @param <A> accumulator type
+ */
+public interface IReducingOperation<A> {
+
+	/**
+	 * @return new accumulator with no slices
+	 */
+	public A createAccumulator();
+
+	/**
+	 * Add slice to accumulator
+	 * @param accumulator
+	 * @param slice as passed to {@link IOperation#execute}
+	 * @return updated accumulator (may be the given one)
+	 * @throws OperationException
+	 */
+	public A accumulate(A accumulator, IDataset slice) throws OperationException;
+
+	/**
+	 * Combine accumulators of two disjoint sets of slices
+	 * @param a
+	 * @param b
+	 * @return combined accumulator (may be one of the given ones)
+	 * @throws OperationException
+	 */
+	public A combine(A a, A b) throws OperationException;
+
+	/**
+	 * @param accumulator
+	 * @return result of reduction, null if no slices were accumulated
+	 * @throws OperationException
+	 */
+	public OperationData finish(A accumulator) throws OperationException;
+
+}
@@ -9,6 +9,7 @@
 
 package org.eclipse.dawnsci.analysis.dataset;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 import org.eclipse.dawnsci.analysis.dataset.impl.FFT;
@@ -787,6 +788,36 @@ public class FFTTest {
 		}
 	}
 
+	@Test
+	public void testRealFFT() {
+		Dataset a = DatasetFactory.createRange(DoubleDataset.class, 12);
+		a.imultiply(a).isubtract(7);
+		for (int n : new int[] {12, 15, 8, 1}) {
+			checkRealFFT(a, n, 0);
+		}
+
+		a.setShape(3, 4);
+		checkRealFFT(a, 4, 1);
+		checkRealFFT(a, 3, 0);
+		checkRealFFT(a, 6, 0);
+		checkRealFFT(a.getSliceView(null, null, new int[] {1, 2}), 5, 1);
+	}
+
+	private void checkRealFFT(Dataset a, int n, int axis) {
+		Dataset f = FFT.fft(a, n, axis);
+		Dataset r = FFT.rfft(a, n, axis);
+		int[] shape = f.getShape();
+		shape[axis] = n / 2 + 1;
+		assertArrayEquals("Shape", shape, r.getShapeRef());
+		int[] stop = shape.clone();
+		TestUtils.assertDatasetEquals(f.getSlice(null, stop, null), r, dabstol, dabstol);
+
+		Dataset g = FFT.irfft(r, n, axis);
+		Dataset h = FFT.ifft(f, n, axis);
+		assertArrayEquals("Shape", h.getShapeRef(), g.getShapeRef());
+		TestUtils.assertDatasetEquals(h.getRealView(), g, dabstol, dabstol);
+	}
+
 	@Test
 	public void testShift() {
 		Dataset a;
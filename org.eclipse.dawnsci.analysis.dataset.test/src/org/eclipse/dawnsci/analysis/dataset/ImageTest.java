@@ -17,8 +17,11 @@ import org.eclipse.january.dataset.Dataset;
 import org.eclipse.january.dataset.DatasetFactory;
 import org.eclipse.january.dataset.DatasetUtils;
 import org.eclipse.january.dataset.DoubleDataset;
+import org.eclipse.january.dataset.IndexIterator;
 import org.eclipse.january.dataset.IntegerDataset;
+import org.eclipse.january.dataset.Maths;
 import org.eclipse.january.dataset.Random;
+import org.eclipse.january.dataset.Stats;
 import org.junit.Test;
 
 
@@ -72,6 +75,76 @@ public class ImageTest {
 		assertEquals(result.getDouble(5,5,5), ds.getDouble(5,5,5), 0.001);
 	}
 	
+	@Test
+	public void testRankFilters() {
+		Random.seed(12371);
+		Dataset[] images = new Dataset[] {Random.randint(-20, 300, new int[] {23, 41}),
+				Maths.floor(Maths.multiply(Random.randn(new int[] {23, 41}), 10))};
+		int[][] kernels = new int[][] {{5, 5}, {4, 7}, {1, 60}};
+		for (Dataset image : images) {
+			for (int[] kernel : kernels) {
+				Dataset median = Image.medianFilter(image, kernel);
+				Dataset min = Image.minFilter(image, kernel);
+				Dataset max = Image.maxFilter(image, kernel);
+				assertEquals(image.getClass(), median.getClass());
+				int[] start = new int[2];
+				int[] stop = new int[2];
+				IndexIterator it = image.getIterator(true);
+				int[] pos = it.getPos();
+				while (it.hasNext()) {
+					for (int i = 0; i < 2; i++) {
+						start[i] = Math.max(0, pos[i] - kernel[i] / 2);
+						stop[i] = Math.min(image.getShapeRef()[i], pos[i] - kernel[i] / 2 + kernel[i]);
+					}
+					Dataset slice = image.getSlice(start, stop, null);
+					double expected = Stats.median(slice).doubleValue();
+					if (image instanceof IntegerDataset) {
+						expected = (int) expected;
+					}
+					assertEquals(expected, median.getDouble(pos), 0);
+					assertEquals(slice.min().doubleValue(), min.getDouble(pos), 0);
+					assertEquals(slice.max().doubleValue(), max.getDouble(pos), 0);
+				}
+			}
+		}
+
+		// signed zeros compare equal but are sorted apart
+		double[] values = new double[] {-0.0, 0.0, 1.5, -1.5};
+		Dataset choice = Random.randint(0, values.length, new int[] {23, 41});
+		Dataset signed = DatasetFactory.zeros(DoubleDataset.class, 23, 41);
+		IndexIterator sit = signed.getIterator();
+		while (sit.hasNext()) {
+			signed.setObjectAbs(sit.index, values[(int) choice.getElementLongAbs(sit.index)]);
+		}
+		for (int[] kernel : kernels) {
+			Dataset median = Image.medianFilter(signed, kernel);
+			Dataset min = Image.minFilter(signed, kernel);
+			Dataset max = Image.maxFilter(signed, kernel);
+			int[] start = new int[2];
+			int[] stop = new int[2];
+			IndexIterator it = signed.getIterator(true);
+			int[] pos = it.getPos();
+			while (it.hasNext()) {
+				for (int i = 0; i < 2; i++) {
+					start[i] = Math.max(0, pos[i] - kernel[i] / 2);
+					stop[i] = Math.min(signed.getShapeRef()[i], pos[i] - kernel[i] / 2 + kernel[i]);
+				}
+				Dataset slice = signed.getSlice(start, stop, null);
+				assertEquals(Stats.median(slice).doubleValue(), median.getDouble(pos), 0);
+				assertEquals(slice.min().doubleValue(), min.getDouble(pos), 0);
+				assertEquals(slice.max().doubleValue(), max.getDouble(pos), 0);
+			}
+		}
+
+		Dataset ds = DatasetFactory.createRange(DoubleDataset.class, 1000).reshape(20, 50);
+		Dataset result = Image.medianFilter(ds, 2);
+		assertEquals(ds.getDouble(10, 10), result.getDouble(10, 10), 0);
+		result = Image.minFilter(ds, 2);
+		assertEquals(ds.getDouble(8, 8), result.getDouble(10, 10), 0);
+		result = Image.maxFilter(ds, 2);
+		assertEquals(ds.getDouble(12, 12), result.getDouble(10, 10), 0);
+	}
+
 	@Test
 	public void testConvolutionFilter() {
 		Dataset ds = DatasetFactory.createRange(DoubleDataset.class, 1000);
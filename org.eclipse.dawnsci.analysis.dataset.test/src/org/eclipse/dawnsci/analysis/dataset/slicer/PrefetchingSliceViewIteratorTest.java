@@ -0,0 +1,154 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.dawnsci.analysis.dataset.slicer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.january.IMonitor;
+import org.eclipse.january.asserts.TestUtils;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetFactory;
+import org.eclipse.january.dataset.DatasetUtils;
+import org.eclipse.january.dataset.DoubleDataset;
+import org.eclipse.january.dataset.IDataset;
+import org.eclipse.january.dataset.ILazyDataset;
+import org.eclipse.january.dataset.LazyDynamicDataset;
+import org.eclipse.january.dataset.SliceND;
+import org.eclipse.january.io.ILazyLoader;
+import org.junit.Test;
+
+public class PrefetchingSliceViewIteratorTest {
+
+	private static final int[] SHAPE = new int[] {8, 4, 5};
+
+	private final Dataset data = DatasetFactory.createRange(8 * 4 * 5.).reshape(SHAPE);
+	private final AtomicInteger reads = new AtomicInteger();
+
+	private ILazyDataset createLazy(int[] chunks) {
+		ILazyLoader loader = new ILazyLoader() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public boolean isFileReadable() {
+				return true;
+			}
+
+			@Override
+			public IDataset getDataset(IMonitor mon, SliceND slice) throws IOException {
+				reads.incrementAndGet();
+				return data.getSlice(slice);
+			}
+		};
+		return new LazyDynamicDataset(loader, "data", 1, DoubleDataset.class, SHAPE, SHAPE, chunks);
+	}
+
+	private void checkSlices(ISliceViewIterator it) throws Exception {
+		int count = 0;
+		while (it.hasNext()) {
+			ILazyDataset view = it.next();
+			assertTrue(view instanceof Dataset);
+			SliceFromSeriesMetadata ssm = view.getFirstMetadata(SliceFromSeriesMetadata.class);
+			assertEquals(count, ssm.getSliceInfo().getSliceNumber());
+			Dataset expected = data.getSlice(ssm.getSliceFromInput());
+			TestUtils.assertDatasetEquals(expected, DatasetUtils.convertToDataset(view));
+			count++;
+		}
+		assertEquals(SHAPE[0], count);
+		assertFalse(it.hasNext());
+	}
+
+	@Test
+	public void testMergedReadsInSameChunk() throws Exception {
+		ILazyDataset lazy = createLazy(new int[] {4, 4, 5});
+		try (PrefetchingSliceViewIterator it = new PrefetchingSliceViewIterator(new SliceViewIterator(lazy, null, 1, 2), lazy, 4)) {
+			checkSlices(it);
+		}
+		assertEquals(2, reads.get());
+	}
+
+	@Test
+	public void testNoMergeAcrossChunks() throws Exception {
+		ILazyDataset lazy = createLazy(new int[] {1, 4, 5});
+		try (PrefetchingSliceViewIterator it = new PrefetchingSliceViewIterator(new SliceViewIterator(lazy, null, 1, 2), lazy, 4)) {
+			checkSlices(it);
+		}
+		assertEquals(SHAPE[0], reads.get());
+	}
+
+	@Test
+	public void testReset() throws Exception {
+		ILazyDataset lazy = createLazy(new int[] {2, 4, 5});
+		try (PrefetchingSliceViewIterator it = new PrefetchingSliceViewIterator(new SliceViewIterator(lazy, null, 1, 2), lazy, 3)) {
+			it.next();
+			it.reset();
+			checkSlices(it);
+		}
+	}
+
+	@Test
+	public void testIteratorFailure() throws Exception {
+		ILazyDataset lazy = createLazy(new int[] {2, 4, 5});
+		final RuntimeException failure = new IllegalStateException("Timed out waiting for frame");
+		final SliceViewIterator source = new SliceViewIterator(lazy, null, 1, 2);
+		ISliceViewIterator failing = new ISliceViewIterator() {
+			private int count = 0;
+
+			@Override
+			public boolean hasNext() {
+				return source.hasNext();
+			}
+
+			@Override
+			public ILazyDataset next() {
+				if (count++ == 3) {
+					throw failure;
+				}
+				return source.next();
+			}
+
+			@Override
+			public int[] getShape() {
+				return source.getShape();
+			}
+
+			@Override
+			public void reset() {
+				source.reset();
+			}
+		};
+
+		try (PrefetchingSliceViewIterator it = new PrefetchingSliceViewIterator(failing, lazy, 4)) {
+			for (int i = 0; i < 3; i++) {
+				assertTrue(it.hasNext());
+				SliceFromSeriesMetadata ssm = it.next().getFirstMetadata(SliceFromSeriesMetadata.class);
+				assertEquals(i, ssm.getSliceInfo().getSliceNumber());
+			}
+			try {
+				it.hasNext();
+				fail("Failure of iterator should be thrown");
+			} catch (IllegalStateException e) {
+				assertSame(failure, e);
+			}
+			try {
+				it.next();
+				fail("Failure of iterator should be thrown");
+			} catch (IllegalStateException e) {
+				assertSame(failure, e);
+			}
+		}
+	}
+}
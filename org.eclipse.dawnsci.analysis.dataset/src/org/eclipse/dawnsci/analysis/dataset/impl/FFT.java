@@ -13,8 +13,12 @@
 package org.eclipse.dawnsci.analysis.dataset.impl;
 
 import java.util.Arrays;
+import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 import org.eclipse.january.dataset.ComplexDoubleDataset;
 import org.eclipse.january.dataset.ComplexFloatDataset;
@@ -28,8 +32,6 @@ import org.eclipse.january.dataset.Slice;
 import org.eclipse.january.dataset.SliceIterator;
 import org.eclipse.january.dataset.SliceND;
 import org.jtransforms.fft.DoubleFFT_1D;
-import org.jtransforms.fft.DoubleFFT_2D;
-import org.jtransforms.fft.DoubleFFT_3D;
 import org.jtransforms.fft.FloatFFT_1D;
 import org.jtransforms.fft.FloatFFT_2D;
 import org.jtransforms.fft.FloatFFT_3D;
@@ -51,6 +53,61 @@ public class FFT {
 	 */
 	private static final Logger logger = LoggerFactory.getLogger(FFT.class);
 
+	/**
+	 * Maximum number of plans held in cache
+	 */
+	private static final int MAX_PLANS = 64;
+
+	/**
+	 * Minimum number of items in transform for lines to be transformed in parallel
+	 */
+	private static final long PARALLEL_THRESHOLD = 1 << 15;
+
+	private record PlanKey(Class<?> type, int n0, int n1, int n2) {
+	}
+
+	private static final Map<PlanKey, Object> plans = new ConcurrentHashMap<>();
+
+	/**
+	 * Get plan from cache or create it. Plans hold precomputed tables and are used for both forward
+	 * and inverse transforms by many threads
+	 * @param type of plan
+	 * @param n dimensions of transform
+	 * @return plan
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> T getPlan(Class<T> type, int... n) {
+		PlanKey key = new PlanKey(type, n[0], n.length > 1 ? n[1] : 0, n.length > 2 ? n[2] : 0);
+		Object plan = plans.get(key);
+		if (plan == null) {
+			if (plans.size() >= MAX_PLANS) {
+				plans.clear();
+			}
+			plan = plans.computeIfAbsent(key, k -> createPlan(type, n));
+		}
+		return (T) plan;
+	}
+
+	private static Object createPlan(Class<?> type, int[] n) {
+		if (type == DoubleFFT_1D.class) {
+			return new DoubleFFT_1D(n[0]);
+		} else if (type == FloatFFT_1D.class) {
+			return new FloatFFT_1D(n[0]);
+		} else if (type == FloatFFT_2D.class) {
+			return new FloatFFT_2D(n[0], n[1]);
+		} else if (type == FloatFFT_3D.class) {
+			return new FloatFFT_3D(n[0], n[1], n[2]);
+		}
+		throw new IllegalArgumentException("Unknown type of plan: " + type);
+	}
+
+	/**
+	 * Clear cache of plans
+	 */
+	public static void clearPlans() {
+		plans.clear();
+	}
+
 	/**
 	 * forward 1D fast Fourier transform
 	 * @param a dataset
@@ -192,7 +249,150 @@ public class FFT {
 		return nshape;
 	}
 
+	/**
+	 * Transform double dataset as a batch of 1D transforms along each axis in turn. All lines along
+	 * an axis are transformed in place in the result and lines along the last axis are not copied
+	 * @param a dataset
+	 * @param s shape of FFT dataset
+	 * @param axes for FFT
+	 * @param forward if true, do forward transform, else do inverse transform
+	 * @return new dataset holding transform
+	 */
+	private static Dataset transformDouble(final Dataset a, final int[] s, final int[] axes, final boolean forward) {
+		Dataset in = a.getStrides() == null ? a : a.clone();
+		int[] shape = newShape(in.getShapeRef(), s, axes);
+		ComplexDoubleDataset result = DatasetFactory.zeros(ComplexDoubleDataset.class, shape);
+		double[] data = result.getData();
+		copyOverlap((double[]) in.getBuffer(), in instanceof ComplexDoubleDataset, in.getShapeRef(), data, shape);
+
+		for (int axis : axes) {
+			final int n = shape[axis];
+			final int inner = innerSize(shape, axis);
+			final DoubleFFT_1D plan = getPlan(DoubleFFT_1D.class, n);
+			if (inner == 1) {
+				runLines(data.length / (2 * n), n, l -> {
+					if (forward) {
+						plan.complexForward(data, 2 * l * n);
+					} else {
+						plan.complexInverse(data, 2 * l * n, true);
+					}
+				});
+			} else {
+				final ThreadLocal<double[]> scratch = ThreadLocal.withInitial(() -> new double[2 * n]);
+				runLines(data.length / (2 * n), n, l -> {
+					double[] line = scratch.get();
+					int b = 2 * lineStart(l, n, inner);
+					int step = 2 * inner;
+					for (int k = 0, j = b; k < line.length; k += 2, j += step) {
+						line[k] = data[j];
+						line[k + 1] = data[j + 1];
+					}
+					if (forward) {
+						plan.complexForward(line);
+					} else {
+						plan.complexInverse(line, true);
+					}
+					for (int k = 0, j = b; k < line.length; k += 2, j += step) {
+						data[j] = line[k];
+						data[j + 1] = line[k + 1];
+					}
+				});
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * @param shape
+	 * @param axis
+	 * @return number of items in dimensions after axis
+	 */
+	private static int innerSize(final int[] shape, final int axis) {
+		int inner = 1;
+		for (int i = axis + 1; i < shape.length; i++) {
+			inner *= shape[i];
+		}
+		return inner;
+	}
+
+	/**
+	 * @param l index of line
+	 * @param n length of line
+	 * @param inner number of items in dimensions after axis of line
+	 * @return index of first item of line
+	 */
+	private static int lineStart(final int l, final int n, final int inner) {
+		return (l / inner) * n * inner + l % inner;
+	}
+
+	/**
+	 * Run transform on each line, in parallel if there are enough items
+	 * @param lines number of lines
+	 * @param n length of each line
+	 * @param transform
+	 */
+	private static void runLines(final int lines, final int n, final IntConsumer transform) {
+		IntStream stream = IntStream.range(0, lines);
+		if (lines > 1 && (long) lines * n >= PARALLEL_THRESHOLD) {
+			stream = stream.parallel();
+		}
+		stream.forEach(transform);
+	}
+
+	/**
+	 * Copy overlapping region of source into complex destination. Both must be contiguous and of the same rank
+	 * @param src
+	 * @param isComplex if true, source is complex
+	 * @param sShape shape of source
+	 * @param dst
+	 * @param dShape shape of destination
+	 */
+	private static void copyOverlap(final double[] src, final boolean isComplex, final int[] sShape, final double[] dst, final int[] dShape) {
+		int rank = sShape.length;
+		int[] overlap = new int[rank];
+		for (int i = 0; i < rank; i++) {
+			overlap[i] = Math.min(sShape[i], dShape[i]);
+			if (overlap[i] == 0) {
+				return;
+			}
+		}
+
+		int run = overlap[rank - 1];
+		int[] pos = new int[rank];
+		while (true) {
+			int sb = 0;
+			int db = 0;
+			for (int i = 0; i < rank - 1; i++) {
+				sb = (sb + pos[i]) * sShape[i + 1];
+				db = (db + pos[i]) * dShape[i + 1];
+			}
+			if (isComplex) {
+				System.arraycopy(src, 2 * sb, dst, 2 * db, 2 * run);
+			} else {
+				for (int k = 0; k < run; k++) {
+					dst[2 * (db + k)] = src[sb + k];
+				}
+			}
+
+			int i = rank - 2;
+			for (; i >= 0; i--) {
+				if (++pos[i] < overlap[i]) {
+					break;
+				}
+				pos[i] = 0;
+			}
+			if (i < 0) {
+				break;
+			}
+		}
+	}
+
 	private static Dataset fft1d(final Dataset a, final int n, final int axis) {
+		if (a instanceof DoubleDataset || a instanceof ComplexDoubleDataset) {
+			return transformDouble(a, new int[] {n}, new int[] {axis}, true);
+		}
+
 		Dataset result = null;
 		Dataset dest = null;
 
@@ -202,7 +402,7 @@ public class FFT {
 		boolean[] hit;
 
 		if (a instanceof FloatDataset || a instanceof ComplexFloatDataset) {
-			FloatFFT_1D ffft = new FloatFFT_1D(n);
+			FloatFFT_1D ffft = getPlan(FloatFFT_1D.class, n);
 			shape = a.getShape();
 			shape[axis] = n;
 			result = DatasetFactory.zeros(ComplexFloatDataset.class, shape);
@@ -217,22 +417,6 @@ public class FFT {
 				ffft.complexForward(fdata);
 				result.setItemsOnAxes(pos, hit, fdata);
 			}
-		} else if (a instanceof DoubleDataset || a instanceof ComplexDoubleDataset) {
-			DoubleFFT_1D dfft = new DoubleFFT_1D(n);
-			shape = a.getShape();
-			shape[axis] = n;
-			result = DatasetFactory.zeros(ComplexDoubleDataset.class, shape);
-			dest = DatasetFactory.zeros(ComplexDoubleDataset.class, new int[] {2*n});
-			double[] ddata = (double[]) dest.getBuffer();
-			pi = a.getPositionIterator(axis);
-			pos = pi.getPos();
-			hit = pi.getOmit();
-			while (pi.hasNext()) {
-				Arrays.fill(ddata, 0.);
-				a.copyItemsFromAxes(pos, hit, dest);
-				dfft.complexForward(ddata);
-				result.setItemsOnAxes(pos, hit, ddata);
-			}
 		} else {
 			logger.warn("Non-float dataset not yet supported");
 		}
@@ -241,6 +425,10 @@ public class FFT {
 	}
 
 	private static Dataset fft2d(final Dataset a, final int[] s, final int[] axes) {
+		if (a instanceof DoubleDataset || a instanceof ComplexDoubleDataset) {
+			return transformDouble(a, s, axes, true);
+		}
+
 		Dataset result = null;
 		Dataset dest = null;
 
@@ -249,7 +437,7 @@ public class FFT {
 		boolean[] hit;
 
 		if (a instanceof FloatDataset || a instanceof ComplexFloatDataset) {
-			FloatFFT_2D ffft = new FloatFFT_2D(s[0], s[1]);
+			FloatFFT_2D ffft = getPlan(FloatFFT_2D.class, s);
 			float[] fdata = null;
 			result = DatasetFactory.zeros(ComplexFloatDataset.class, newShape(a.getShapeRef(), s, axes));
 			dest = DatasetFactory.zeros(ComplexFloatDataset.class, s);
@@ -263,21 +451,6 @@ public class FFT {
 				ffft.complexForward(fdata);
 				result.setItemsOnAxes(pos, hit, fdata);
 			}
-		} else if (a instanceof DoubleDataset || a instanceof ComplexDoubleDataset) {
-			DoubleFFT_2D dfft = new DoubleFFT_2D(s[0], s[1]);
-			double[] ddata = null;
-			result = DatasetFactory.zeros(ComplexDoubleDataset.class, newShape(a.getShapeRef(), s, axes));
-			dest = DatasetFactory.zeros(ComplexDoubleDataset.class, s);
-			ddata = (double[]) dest.getBuffer();
-			pi = a.getPositionIterator(axes);
-			pos = pi.getPos();
-			hit = pi.getOmit();
-			while (pi.hasNext()) {
-				Arrays.fill(ddata, 0.);
-				a.copyItemsFromAxes(pos, hit, dest);
-				dfft.complexForward(ddata);
-				result.setItemsOnAxes(pos, hit, ddata);
-			}
 		} else {
 			logger.warn("Non-float dataset not yet supported");
 		}
@@ -286,6 +459,10 @@ public class FFT {
 	}
 
 	private static Dataset fft3d(final Dataset a, final int[] s, final int[] axes) {
+		if (a instanceof DoubleDataset || a instanceof ComplexDoubleDataset) {
+			return transformDouble(a, s, axes, true);
+		}
+
 		Dataset result = null;
 		Dataset dest = null;
 
@@ -294,7 +471,7 @@ public class FFT {
 		boolean[] hit;
 
 		if (a instanceof FloatDataset || a instanceof ComplexFloatDataset) {
-			FloatFFT_3D ffft = new FloatFFT_3D(s[0], s[1], s[2]);
+			FloatFFT_3D ffft = getPlan(FloatFFT_3D.class, s);
 
 			float[] fdata = null;
 			result = DatasetFactory.zeros(ComplexFloatDataset.class, newShape(a.getShapeRef(), s, axes));
@@ -309,22 +486,6 @@ public class FFT {
 				ffft.complexForward(fdata);
 				result.setItemsOnAxes(pos, hit, fdata);
 			}
-		} else if (a instanceof DoubleDataset || a instanceof ComplexDoubleDataset) {
-			DoubleFFT_3D dfft = new DoubleFFT_3D(s[0], s[1], s[2]);
-
-			double[] ddata = null;
-			result = DatasetFactory.zeros(ComplexDoubleDataset.class, newShape(a.getShapeRef(), s, axes));
-			dest = DatasetFactory.zeros(ComplexDoubleDataset.class, s);
-			ddata = (double[]) dest.getBuffer();
-			pi = a.getPositionIterator(axes);
-			pos = pi.getPos();
-			hit = pi.getOmit();
-			while (pi.hasNext()) {
-				Arrays.fill(ddata, 0.);
-				a.copyItemsFromAxes(pos, hit, dest);
-				dfft.complexForward(ddata);
-				result.setItemsOnAxes(pos, hit, ddata);
-			}
 		} else {
 			logger.warn("Non-float dataset not yet supported");
 		}
@@ -463,6 +624,10 @@ public class FFT {
 	}
 
 	private static Dataset ifft1d(final Dataset a, final int n, final int axis) {
+		if (a instanceof DoubleDataset || a instanceof ComplexDoubleDataset) {
+			return transformDouble(a, new int[] {n}, new int[] {axis}, false);
+		}
+
 		Dataset result = null;
 		Dataset dest = null;
 
@@ -472,7 +637,7 @@ public class FFT {
 		boolean[] hit;
 
 		if (a instanceof FloatDataset || a instanceof ComplexFloatDataset) {
-			FloatFFT_1D ffft = new FloatFFT_1D(n);
+			FloatFFT_1D ffft = getPlan(FloatFFT_1D.class, n);
 			float[] fdata = null;
 			shape = a.getShape();
 			shape[axis] = n;
@@ -488,23 +653,6 @@ public class FFT {
 				ffft.complexInverse(fdata, true);
 				result.setItemsOnAxes(pos, hit, fdata);
 			}
-		} else if (a instanceof DoubleDataset || a instanceof ComplexDoubleDataset) {
-			DoubleFFT_1D dfft = new DoubleFFT_1D(n);
-			double[] ddata = null;
-			shape = a.getShape();
-			shape[axis] = n;
-			result = DatasetFactory.zeros(ComplexDoubleDataset.class, shape);
-			dest = DatasetFactory.zeros(ComplexDoubleDataset.class, new int[] {n});
-			ddata = (double[]) dest.getBuffer();
-			pi = a.getPositionIterator(axis);
-			pos = pi.getPos();
-			hit = pi.getOmit();
-			while (pi.hasNext()) {
-				Arrays.fill(ddata, 0.);
-				a.copyItemsFromAxes(pos, hit, dest);
-				dfft.complexInverse(ddata, true);
-				result.setItemsOnAxes(pos, hit, ddata);
-			}
 		} else {
 			logger.warn("Non-float dataset not yet supported");
 		}
@@ -513,6 +661,10 @@ public class FFT {
 	}
 
 	private static Dataset ifft2d(final Dataset a, final int[] s, final int[] axes) {
+		if (a instanceof DoubleDataset || a instanceof ComplexDoubleDataset) {
+			return transformDouble(a, s, axes, false);
+		}
+
 		Dataset result = null;
 		Dataset dest = null;
 
@@ -521,7 +673,7 @@ public class FFT {
 		boolean[] hit;
 
 		if (a instanceof FloatDataset || a instanceof ComplexFloatDataset) {
-			FloatFFT_2D ffft = new FloatFFT_2D(s[0], s[1]);
+			FloatFFT_2D ffft = getPlan(FloatFFT_2D.class, s);
 			float[] fdata = null;
 			result = DatasetFactory.zeros(ComplexFloatDataset.class, newShape(a.getShapeRef(), s, axes));
 			dest = DatasetFactory.zeros(ComplexFloatDataset.class, s);
@@ -535,21 +687,6 @@ public class FFT {
 				ffft.complexInverse(fdata, true);
 				result.setItemsOnAxes(pos, hit, fdata);
 			}
-		} else if (a instanceof DoubleDataset || a instanceof ComplexDoubleDataset) {
-			DoubleFFT_2D dfft = new DoubleFFT_2D(s[0], s[1]);
-			double[] ddata = null;
-			result = DatasetFactory.zeros(ComplexDoubleDataset.class, newShape(a.getShapeRef(), s, axes));
-			dest = DatasetFactory.zeros(ComplexDoubleDataset.class, s);
-			ddata = (double[]) dest.getBuffer();
-			pi = a.getPositionIterator(axes);
-			pos = pi.getPos();
-			hit = pi.getOmit();
-			while (pi.hasNext()) {
-				Arrays.fill(ddata, 0.);
-				a.copyItemsFromAxes(pos, hit, dest);
-				dfft.complexInverse(ddata, true);
-				result.setItemsOnAxes(pos, hit, ddata);
-			}
 		} else {
 			logger.warn("Non-float dataset not yet supported");
 		}
@@ -558,6 +695,10 @@ public class FFT {
 	}
 
 	private static Dataset ifft3d(final Dataset a, final int[] s, final int[] axes) {
+		if (a instanceof DoubleDataset || a instanceof ComplexDoubleDataset) {
+			return transformDouble(a, s, axes, false);
+		}
+
 		Dataset result = null;
 		Dataset dest = null;
 
@@ -566,7 +707,7 @@ public class FFT {
 		boolean[] hit;
 
 		if (a instanceof FloatDataset || a instanceof ComplexFloatDataset) {
-			FloatFFT_3D ffft = new FloatFFT_3D(s[0], s[1], s[2]);
+			FloatFFT_3D ffft = getPlan(FloatFFT_3D.class, s);
 			float[] fdata = null;
 			result = DatasetFactory.zeros(ComplexFloatDataset.class, newShape(a.getShapeRef(), s, axes));
 			dest = DatasetFactory.zeros(ComplexFloatDataset.class, s);
@@ -580,21 +721,6 @@ public class FFT {
 				ffft.complexInverse(fdata, true);
 				result.setItemsOnAxes(pos, hit, fdata);
 			}
-		} else if (a instanceof DoubleDataset || a instanceof ComplexDoubleDataset) {
-			DoubleFFT_3D dfft = new DoubleFFT_3D(s[0], s[1], s[2]);
-			double[] ddata = null;
-			result = DatasetFactory.zeros(ComplexDoubleDataset.class, newShape(a.getShapeRef(), s, axes));
-			dest = DatasetFactory.zeros(ComplexDoubleDataset.class, s);
-			ddata = (double[]) dest.getBuffer();
-			pi = a.getPositionIterator(axes);
-			pos = pi.getPos();
-			hit = pi.getOmit();
-			while (pi.hasNext()) {
-				Arrays.fill(ddata, 0.);
-				a.copyItemsFromAxes(pos, hit, dest);
-				dfft.complexInverse(ddata, true);
-				result.setItemsOnAxes(pos, hit, ddata);
-			}
 		} else {
 			logger.warn("Non-float dataset not yet supported");
 		}
@@ -602,6 +728,173 @@ public class FFT {
 		return result;
 	}
 
+	/**
+	 * forward 1D fast Fourier transform of real data
+	 * @param a real dataset
+	 * @return new dataset holding non-negative frequency terms of transform
+	 */
+	public static Dataset rfft(final Dataset a) {
+		return rfft(a, a.getShapeRef()[a.getRank() - 1], -1);
+	}
+
+	/**
+	 * forward 1D fast Fourier transform of real data
+	 * @param a real dataset
+	 * @param n number of points
+	 * @param axis (negative numbers refer to axes from end, eg. -1 is last axis)
+	 * @return new dataset holding n/2 + 1 non-negative frequency terms of transform
+	 */
+	public static Dataset rfft(final Dataset a, final int n, int axis) {
+		if (n <= 0) {
+			logger.error("number of points should be greater than zero");
+			throw new IllegalArgumentException("number of points should be greater than zero");
+		}
+		if (a.getElementsPerItem() != 1) {
+			logger.error("dataset should be real");
+			throw new IllegalArgumentException("dataset should be real");
+		}
+		axis = a.checkAxis(axis);
+
+		DoubleDataset in = DatasetUtils.cast(DoubleDataset.class, a);
+		if (in.getStrides() != null) {
+			in = in.clone();
+		}
+		final int[] shape = in.getShape();
+		final int m = n / 2 + 1;
+		final int c = Math.min(n, shape[axis]);
+		final int inner = innerSize(shape, axis);
+		final int iLength = shape[axis];
+		shape[axis] = m;
+		final ComplexDoubleDataset result = DatasetFactory.zeros(ComplexDoubleDataset.class, shape);
+		final double[] id = in.getData();
+		final double[] rd = result.getData();
+		final DoubleFFT_1D plan = getPlan(DoubleFFT_1D.class, n);
+		final ThreadLocal<double[]> scratch = ThreadLocal.withInitial(() -> new double[2 * m]);
+
+		runLines(rd.length / (2 * m), n, l -> {
+			int ib = lineStart(l, iLength, inner);
+			double[] line;
+			int off;
+			if (inner == 1) { // transform in place in result
+				line = rd;
+				off = 2 * l * m;
+			} else {
+				line = scratch.get();
+				off = 0;
+				Arrays.fill(line, 0);
+			}
+			for (int k = 0, j = ib; k < c; k++, j += inner) {
+				line[off + k] = id[j];
+			}
+
+			plan.realForward(line, off);
+
+			// unpack terms at zero and n/2 frequencies, others are already interleaved
+			double t = line[off + 1];
+			line[off + 1] = 0;
+			if (n > 1) {
+				line[off + n] = t;
+				if (n % 2 == 0) {
+					line[off + n + 1] = 0;
+				}
+			}
+
+			if (inner != 1) {
+				int step = 2 * inner;
+				for (int k = 0, j = 2 * lineStart(l, m, inner); k < line.length; k += 2, j += step) {
+					rd[j] = line[k];
+					rd[j + 1] = line[k + 1];
+				}
+			}
+		});
+
+		return result;
+	}
+
+	/**
+	 * inverse 1D fast Fourier transform to real data
+	 * @param a dataset holding non-negative frequency terms
+	 * @return new dataset holding real transform
+	 */
+	public static Dataset irfft(final Dataset a) {
+		return irfft(a, 2 * (a.getShapeRef()[a.getRank() - 1] - 1), -1);
+	}
+
+	/**
+	 * inverse 1D fast Fourier transform to real data
+	 * @param a dataset holding non-negative frequency terms
+	 * @param n number of points in output
+	 * @param axis (negative numbers refer to axes from end, eg. -1 is last axis)
+	 * @return new dataset holding real transform
+	 */
+	public static Dataset irfft(final Dataset a, final int n, int axis) {
+		if (n <= 0) {
+			logger.error("number of points should be greater than zero");
+			throw new IllegalArgumentException("number of points should be greater than zero");
+		}
+		axis = a.checkAxis(axis);
+
+		ComplexDoubleDataset in = DatasetUtils.cast(ComplexDoubleDataset.class, a);
+		if (in.getStrides() != null) {
+			in = in.clone();
+		}
+		final int[] shape = in.getShape();
+		final int h = n / 2;
+		final int c = Math.min(h + 1, shape[axis]);
+		final int inner = innerSize(shape, axis);
+		final int iLength = shape[axis];
+		shape[axis] = n;
+		final DoubleDataset result = DatasetFactory.zeros(DoubleDataset.class, shape);
+		final double[] id = in.getData();
+		final double[] rd = result.getData();
+		final DoubleFFT_1D plan = getPlan(DoubleFFT_1D.class, n);
+		final ThreadLocal<double[]> scratch = ThreadLocal.withInitial(() -> new double[n]);
+
+		runLines(rd.length / n, n, l -> {
+			double[] line;
+			int off;
+			if (inner == 1) { // transform in place in result
+				line = rd;
+				off = l * n;
+			} else {
+				line = scratch.get();
+				off = 0;
+			}
+
+			// pack terms in order used by real transform, dropping imaginary parts at zero and n/2 frequencies
+			int ib = 2 * lineStart(l, iLength, inner);
+			int step = 2 * inner;
+			for (int k = 0, j = ib; k < h; k++, j += step) {
+				if (k < c) {
+					line[off + 2 * k] = id[j];
+					line[off + 2 * k + 1] = id[j + 1];
+				} else {
+					line[off + 2 * k] = 0;
+					line[off + 2 * k + 1] = 0;
+				}
+			}
+			double last = h < c ? id[ib + h * step] : 0;
+			if (n % 2 == 0) {
+				line[off + 1] = last;
+			} else {
+				line[off + n - 1] = last;
+				if (n > 1) {
+					line[off + 1] = h < c ? id[ib + h * step + 1] : 0;
+				}
+			}
+
+			plan.realInverse(line, off, true);
+
+			if (inner != 1) {
+				for (int k = 0, j = lineStart(l, n, inner); k < n; k++, j += inner) {
+					rd[j] = line[k];
+				}
+			}
+		});
+
+		return result;
+	}
+
 	/**
 	 * Shift zero-frequency component to centre of dataset
 	 * @param a
@@ -210,7 +210,8 @@ public class Image {
 	}
 
 	/**
-	 * Applies a minimum filter (slower)
+	 * Applies a minimum filter. Images of rank two or less are filtered in a time that
+	 * does not depend on the kernel size, otherwise this is slower
 	 * 
 	 * @param input
 	 * @param kernel
@@ -221,7 +222,8 @@ public class Image {
 	}
 
 	/**
-	 * Applies a maximum filter (slower)
+	 * Applies a maximum filter. Images of rank two or less are filtered in a time that
+	 * does not depend on the kernel size, otherwise this is slower
 	 * 
 	 * @param input
 	 * @param kernel
@@ -232,7 +234,8 @@ public class Image {
 	}
 
 	/**
-	 * Applies a median filter (slower)
+	 * Applies a median filter. Images of rank two or less are filtered in a time that
+	 * does not depend on the kernel size, otherwise this is slower
 	 * 
 	 * @param input
 	 * @param kernel
@@ -264,6 +267,28 @@ public class Image {
 		return filter(input, radius, FilterType.MEDIAN);
 	}
 
+	/**
+	 * Applies a minimum filter (faster)
+	 * 
+	 * @param input
+	 * @param radius
+	 * @return filtered data
+	 */
+	public static Dataset minFilter(Dataset input, int radius) {
+		return filter(input, radius, FilterType.MIN);
+	}
+
+	/**
+	 * Applies a maximum filter (faster)
+	 * 
+	 * @param input
+	 * @param radius
+	 * @return filtered data
+	 */
+	public static Dataset maxFilter(Dataset input, int radius) {
+		return filter(input, radius, FilterType.MAX);
+	}
+
 	/**
 	 * Applies a mean filter, using BoofCV mean filter and its integral image implementation
 	 * 
@@ -314,6 +339,12 @@ public class Image {
 	}
 
 	private static Dataset filter(Dataset input, int radius, FilterType type) {
+		if (radius >= 0 && RankFilter.isSupported(input)) {
+			Dataset result = rankFilter(input, new int[] {radius, radius}, new int[] {radius, radius}, type);
+			if (result != null) {
+				return result;
+			}
+		}
 		if (type == FilterType.MEDIAN) {
 			return DatasetUtils.convertToDataset(filterService.filterMedian(input, radius));
 		} else if (type == FilterType.MIN) {
@@ -335,6 +366,26 @@ public class Image {
 		if (kernel.length != shape.length)
 			throw new IllegalArgumentException("Kernel shape must be the same shape as the input dataset");
 
+		if (shape.length > 0 && shape.length <= 2) {
+			Dataset image = shape.length == 1 ? input.reshape(1, shape[0]) : input;
+			int[] before = new int[2];
+			int[] after = new int[2];
+			boolean valid = true;
+			for (int i = 0; i < kernel.length; i++) {
+				int j = i + 2 - kernel.length;
+				before[j] = kernel[i] / 2;
+				after[j] = kernel[i] - 1 - before[j];
+				valid &= kernel[i] > 0;
+			}
+			if (valid && RankFilter.isSupported(image)) {
+				Dataset result = rankFilter(image, before, after, type);
+				if (result != null) {
+					result.setShape(shape);
+					return result;
+				}
+			}
+		}
+
 		Dataset result = input.clone();
 		int[] offset = kernel.clone();
 		for (int i = 0; i < offset.length; i++) {
@@ -369,6 +420,26 @@ public class Image {
 		return result;
 	}
 
+	/**
+	 * @param image 2D dataset
+	 * @param before number of pixels before each position to include in window, for each axis
+	 * @param after number of pixels after each position to include in window, for each axis
+	 * @param type
+	 * @return filtered image or null if filter is not available for image or type
+	 */
+	private static Dataset rankFilter(Dataset image, int[] before, int[] after, FilterType type) {
+		switch (type) {
+		case MEDIAN:
+			return RankFilter.median(image, before, after);
+		case MIN:
+			return RankFilter.minimum(image, before, after);
+		case MAX:
+			return RankFilter.maximum(image, before, after);
+		default:
+			return null;
+		}
+	}
+
 	/**
 	 * Applies a filter by subtracting the pseudo-flat field of the image from the original image. The
 	 * pseudo-flat field is found by performing a large-kernel filter (Gaussian blur) on the image to be corrected.
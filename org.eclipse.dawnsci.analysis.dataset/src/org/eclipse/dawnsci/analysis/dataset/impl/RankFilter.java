@@ -0,0 +1,501 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.dawnsci.analysis.dataset.impl;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import org.eclipse.january.dataset.CompoundDataset;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetFactory;
+import org.eclipse.january.dataset.DatasetUtils;
+import org.eclipse.january.dataset.DoubleDataset;
+import org.eclipse.january.dataset.InterfaceUtils;
+
+/**
+ * Rank filters of 2D images whose cost per pixel does not depend on the size of the kernel.
+ * <p>
+ * Minimum and maximum filters use the van Herk/Gil-Werman algorithm along each axis in turn.
+ * The median filter uses the running column histograms of Perreault and H&eacute;bert with coarse
+ * and fine levels, so values must fall into at most {@link #MAX_BINS} distinct levels as is
+ * usual for integer detector data. Windows are truncated at the edges of images and medians of
+ * even numbers of values are the mean of the middle two, as in {@link Image#medianFilter(Dataset, int[])}.
+ * Large images are split into lines or strips of columns that are filtered in parallel.
+ */
+final class RankFilter {
+
+	/**
+	 * Maximum number of distinct levels in an image for the median filter
+	 */
+	static final int MAX_BINS = 1 << 16;
+
+	/**
+	 * Minimum number of pixels for an image to be filtered in parallel
+	 */
+	private static final long PARALLEL_THRESHOLD = 1 << 15;
+
+	/**
+	 * Number of histogram entries that each strip aims to hold
+	 */
+	private static final int HISTOGRAM_BUDGET = 1 << 23;
+
+	private static final int MIN_STRIP_WIDTH = 16;
+
+	private RankFilter() {
+	}
+
+	/**
+	 * @param image
+	 * @return true if image can be filtered
+	 */
+	static boolean isSupported(Dataset image) {
+		Class<? extends Dataset> clazz = image.getClass();
+		return image.getRank() == 2 && !(image instanceof CompoundDataset)
+				&& (InterfaceUtils.isInteger(clazz) || InterfaceUtils.isFloating(clazz));
+	}
+
+	/**
+	 * @param image 2D dataset
+	 * @param before number of pixels before each position to include in window, for each axis
+	 * @param after number of pixels after each position to include in window, for each axis
+	 * @return minimum filtered image of same class
+	 */
+	static Dataset minimum(Dataset image, int[] before, int[] after) {
+		return extremum(image, before, after, false);
+	}
+
+	/**
+	 * @param image 2D dataset
+	 * @param before number of pixels before each position to include in window, for each axis
+	 * @param after number of pixels after each position to include in window, for each axis
+	 * @return maximum filtered image of same class
+	 */
+	static Dataset maximum(Dataset image, int[] before, int[] after) {
+		return extremum(image, before, after, true);
+	}
+
+	/**
+	 * @param image 2D dataset
+	 * @param before number of pixels before each position to include in window, for each axis
+	 * @param after number of pixels after each position to include in window, for each axis
+	 * @return median filtered image of same class or null if image has NaNs or too many distinct values
+	 * or window has too many rows
+	 */
+	static Dataset median(Dataset image, int[] before, int[] after) {
+		if (before[0] + after[0] >= Character.MAX_VALUE) { // column histograms hold counts as chars
+			return null;
+		}
+		int[] shape = image.getShape();
+		double[] data = getData(image);
+		int[] bins = new int[data.length];
+		double[] levels = getLevels(image, data, bins);
+		if (levels == null) {
+			return null;
+		}
+
+		final int h = shape[0];
+		final int w = shape[1];
+		int width = Math.max(MIN_STRIP_WIDTH, HISTOGRAM_BUDGET / levels.length - before[1] - after[1]);
+		if ((long) h * w >= PARALLEL_THRESHOLD) {
+			int tasks = 4 * ForkJoinPool.getCommonPoolParallelism();
+			width = Math.min(width, Math.max(MIN_STRIP_WIDTH, (w + tasks - 1) / tasks));
+		}
+		final int stripWidth = Math.min(width, w);
+		final double[] out = new double[data.length];
+		run((w + stripWidth - 1) / stripWidth, (long) h * w, s -> {
+			MedianStrip strip = new MedianStrip(bins, levels, out, h, w, before, after);
+			strip.filter(s * stripWidth, Math.min(w, (s + 1) * stripWidth));
+		});
+		return createResult(image, out);
+	}
+
+	private static Dataset extremum(Dataset image, int[] before, int[] after, boolean max) {
+		int[] shape = image.getShape();
+		final int h = shape[0];
+		final int w = shape[1];
+		final double[] in = getData(image);
+		final double[] tmp = new double[in.length];
+		final double[] out = new double[in.length];
+		long size = (long) h * w;
+
+		final int rowLength = w + before[1] + after[1];
+		final ThreadLocal<double[][]> rowBuffers = ThreadLocal.withInitial(() -> new double[2][rowLength]);
+		run(h, size, y -> {
+			double[][] b = rowBuffers.get();
+			extremumLine(in, tmp, y * w, 1, w, before[1], after[1], max, b[0], b[1]);
+		});
+
+		final int columnLength = h + before[0] + after[0];
+		final ThreadLocal<double[][]> columnBuffers = ThreadLocal.withInitial(() -> new double[2][columnLength]);
+		run(w, size, x -> {
+			double[][] b = columnBuffers.get();
+			extremumLine(tmp, out, x, w, h, before[0], after[0], max, b[0], b[1]);
+		});
+
+		return createResult(image, out);
+	}
+
+	/**
+	 * Filter a line with the van Herk/Gil-Werman algorithm. The padded line is split into blocks
+	 * as long as the window and the extremum over a window is found from the suffix extremum of the
+	 * block holding its start and the prefix extremum of the block holding its end
+	 * @param in
+	 * @param out
+	 * @param start index of first item in line
+	 * @param step between items in line
+	 * @param n number of items in line
+	 * @param a number of items before each position in window
+	 * @param b number of items after each position in window
+	 * @param max if true, find maximum otherwise minimum
+	 * @param prefix buffer of at least n + a + b
+	 * @param suffix buffer of at least n + a + b
+	 */
+	private static void extremumLine(double[] in, double[] out, int start, int step, int n, int a, int b, boolean max, double[] prefix, double[] suffix) {
+		final int k = a + b + 1;
+		final int l = n + a + b;
+		final double identity = max ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+		for (int p = 0; p < l; p++) {
+			int i = p - a;
+			double v = i >= 0 && i < n ? in[start + i * step] : identity;
+			prefix[p] = p % k == 0 ? v : (max ? Math.max(prefix[p - 1], v) : Math.min(prefix[p - 1], v));
+		}
+		for (int p = l - 1; p >= 0; p--) {
+			int i = p - a;
+			double v = i >= 0 && i < n ? in[start + i * step] : identity;
+			suffix[p] = p == l - 1 || (p + 1) % k == 0 ? v : (max ? Math.max(suffix[p + 1], v) : Math.min(suffix[p + 1], v));
+		}
+		for (int i = 0, j = start; i < n; i++, j += step) {
+			double s = suffix[i];
+			double e = prefix[i + k - 1];
+			out[j] = max ? Math.max(s, e) : Math.min(s, e);
+		}
+	}
+
+	/**
+	 * Map values to bins of distinct levels
+	 * @param image
+	 * @param data values of image
+	 * @param bins array to receive bin of each value
+	 * @return levels or null if there are NaNs or too many levels
+	 */
+	private static double[] getLevels(Dataset image, double[] data, int[] bins) {
+		if (data.length == 0) {
+			return null;
+		}
+
+		if (InterfaceUtils.isInteger(image.getClass())) {
+			double min = Double.POSITIVE_INFINITY;
+			double max = Double.NEGATIVE_INFINITY;
+			for (double v : data) {
+				min = Math.min(min, v);
+				max = Math.max(max, v);
+			}
+			if (max - min < MAX_BINS) {
+				double[] levels = new double[(int) (max - min) + 1];
+				for (int i = 0; i < levels.length; i++) {
+					levels[i] = min + i;
+				}
+				final double offset = min;
+				run(data.length, data.length, i -> bins[i] = (int) (data[i] - offset));
+				return levels;
+			}
+		}
+
+		double[] sorted = data.clone();
+		Arrays.parallelSort(sorted);
+		if (Double.isNaN(sorted[sorted.length - 1])) {
+			return null;
+		}
+		int n = 1;
+		for (int i = 1; i < sorted.length; i++) {
+			if (Double.compare(sorted[i], sorted[n - 1]) != 0) { // same order as sort so -0 and 0 are distinct levels
+				if (n == MAX_BINS) {
+					return null;
+				}
+				sorted[n++] = sorted[i];
+			}
+		}
+		double[] levels = Arrays.copyOf(sorted, n);
+		run(data.length, data.length, i -> bins[i] = Arrays.binarySearch(levels, data[i]));
+		return levels;
+	}
+
+	/**
+	 * Median filter over a strip of columns. Each column in the strip and its margins has a histogram
+	 * of values in the rows of the window, updated by adding and removing one value per row. The
+	 * window snakes along alternate rows in opposite directions so the kernel histogram is updated
+	 * from column histograms when it moves along a row and from the values in the entering and
+	 * leaving rows when it moves down. Histograms have a coarse level that is always kept up to date
+	 * and a fine level whose segments are only updated when a rank is sought within them.
+	 */
+	private static class MedianStrip {
+		private final int[] bins;
+		private final double[] levels;
+		private final double[] out;
+		private final int h;
+		private final int w;
+		private final int rowsBefore;
+		private final int rowsAfter;
+		private final int columnsBefore;
+		private final int columnsAfter;
+		private final int shift; // fine bins per coarse bin is 2^shift
+		private final int coarse;
+		private final int fine;
+
+		private int first; // first column with histogram
+		private char[] columnCoarse;
+		private char[] columnFine;
+		private final int[] kernelCoarse;
+		private final int[] kernelFine;
+		private final int[] fineLo; // range of columns summed in each fine segment of kernel histogram
+		private final int[] fineHi;
+		private int lo; // range of columns summed in coarse kernel histogram
+		private int hi;
+
+		MedianStrip(int[] bins, double[] levels, double[] out, int h, int w, int[] before, int[] after) {
+			this.bins = bins;
+			this.levels = levels;
+			this.out = out;
+			this.h = h;
+			this.w = w;
+			rowsBefore = before[0];
+			rowsAfter = after[0];
+			columnsBefore = before[1];
+			columnsAfter = after[1];
+			int bits = 32 - Integer.numberOfLeadingZeros(levels.length - 1);
+			shift = (bits + 1) / 2;
+			coarse = ((levels.length - 1) >> shift) + 1;
+			fine = coarse << shift;
+			kernelCoarse = new int[coarse];
+			kernelFine = new int[fine];
+			fineLo = new int[coarse];
+			fineHi = new int[coarse];
+		}
+
+		/**
+		 * Filter columns of image
+		 * @param x0 start column
+		 * @param x1 stop column (exclusive)
+		 */
+		void filter(int x0, int x1) {
+			first = Math.max(0, x0 - columnsBefore);
+			int end = Math.min(w, x1 + columnsAfter);
+			columnCoarse = new char[(end - first) * coarse];
+			columnFine = new char[(end - first) * fine];
+
+			int rlo = 0;
+			int rhi = Math.min(h - 1, rowsAfter);
+			for (int r = rlo; r <= rhi; r++) {
+				updateColumns(r, end, 1);
+			}
+			Arrays.fill(fineHi, -1);
+			lo = Math.max(0, x0 - columnsBefore);
+			hi = Math.min(w - 1, x0 + columnsAfter);
+			for (int c = lo; c <= hi; c++) {
+				updateCoarse(c, 1);
+			}
+
+			for (int y = 0; y < h; y++) {
+				if (y > 0) {
+					int nlo = Math.max(0, y - rowsBefore);
+					int nhi = Math.min(h - 1, y + rowsAfter);
+					invalidateFine();
+					for (int r = rhi + 1; r <= nhi; r++) {
+						updateColumns(r, end, 1);
+						updateKernel(r, 1);
+					}
+					for (int r = rlo; r < nlo; r++) {
+						updateColumns(r, end, -1);
+						updateKernel(r, -1);
+					}
+					rlo = nlo;
+					rhi = nhi;
+				}
+				int rows = rhi - rlo + 1;
+
+				boolean forward = y % 2 == 0;
+				for (int i = 0; i < x1 - x0; i++) {
+					int x = forward ? x0 + i : x1 - 1 - i;
+					moveTo(x);
+					int n = rows * (hi - lo + 1);
+					int m = select((n - 1) / 2);
+					int u = n % 2 == 0 ? select(n / 2) : m;
+					out[y * w + x] = m == u ? levels[m] : 0.5 * (levels[m] + levels[u]);
+				}
+			}
+		}
+
+		private void updateColumns(int row, int end, int delta) {
+			int b = row * w;
+			for (int c = first; c < end; c++) {
+				int v = bins[b + c];
+				int i = c - first;
+				columnCoarse[i * coarse + (v >> shift)] += delta;
+				columnFine[i * fine + v] += delta;
+			}
+		}
+
+		/**
+		 * Add or remove values of row in window to kernel histogram
+		 * @param row
+		 * @param delta
+		 */
+		private void updateKernel(int row, int delta) {
+			int b = row * w;
+			for (int c = lo; c <= hi; c++) {
+				int v = bins[b + c];
+				int s = v >> shift;
+				kernelCoarse[s] += delta;
+				if (fineHi[s] >= fineLo[s]) {
+					kernelFine[v] += delta;
+				}
+			}
+		}
+
+		/**
+		 * Invalidate fine segments that do not cover the window's columns
+		 */
+		private void invalidateFine() {
+			for (int s = 0; s < coarse; s++) {
+				if (fineLo[s] != lo || fineHi[s] != hi) {
+					fineLo[s] = 0;
+					fineHi[s] = -1;
+				}
+			}
+		}
+
+		/**
+		 * Move window to column and update coarse kernel histogram
+		 * @param x
+		 */
+		private void moveTo(int x) {
+			int clo = Math.max(0, x - columnsBefore);
+			int chi = Math.min(w - 1, x + columnsAfter);
+			for (int c = hi + 1; c <= chi; c++) {
+				updateCoarse(c, 1);
+			}
+			for (int c = clo; c < lo; c++) {
+				updateCoarse(c, 1);
+			}
+			for (int c = lo; c < clo; c++) {
+				updateCoarse(c, -1);
+			}
+			for (int c = chi + 1; c <= hi; c++) {
+				updateCoarse(c, -1);
+			}
+			lo = clo;
+			hi = chi;
+		}
+
+		private void updateCoarse(int c, int delta) {
+			int b = (c - first) * coarse;
+			if (delta > 0) {
+				for (int i = 0; i < coarse; i++) {
+					kernelCoarse[i] += columnCoarse[b + i];
+				}
+			} else {
+				for (int i = 0; i < coarse; i++) {
+					kernelCoarse[i] -= columnCoarse[b + i];
+				}
+			}
+		}
+
+		/**
+		 * @param k rank
+		 * @return bin of k-th smallest value in window
+		 */
+		private int select(int k) {
+			int c = 0;
+			int sum = 0;
+			while (sum + kernelCoarse[c] <= k) {
+				sum += kernelCoarse[c++];
+			}
+			updateFine(c);
+			int j = c << shift;
+			while (sum + kernelFine[j] <= k) {
+				sum += kernelFine[j++];
+			}
+			return j;
+		}
+
+		/**
+		 * Bring segment of fine kernel histogram up to date with window's columns
+		 * @param s coarse bin
+		 */
+		private void updateFine(int s) {
+			int start = s << shift;
+			int stop = start + (1 << shift);
+			int flo = fineLo[s];
+			int fhi = fineHi[s];
+			if (fhi < flo || fhi < lo || flo > hi) { // no columns in common so start afresh
+				Arrays.fill(kernelFine, start, stop, 0);
+				flo = lo;
+				fhi = lo - 1;
+			}
+			for (int c = fhi + 1; c <= hi; c++) {
+				updateFine(c, start, stop, 1);
+			}
+			for (int c = lo; c < flo; c++) {
+				updateFine(c, start, stop, 1);
+			}
+			for (int c = flo; c < lo; c++) {
+				updateFine(c, start, stop, -1);
+			}
+			for (int c = hi + 1; c <= fhi; c++) {
+				updateFine(c, start, stop, -1);
+			}
+			fineLo[s] = lo;
+			fineHi[s] = hi;
+		}
+
+		private void updateFine(int c, int start, int stop, int delta) {
+			int b = (c - first) * fine;
+			if (delta > 0) {
+				for (int j = start; j < stop; j++) {
+					kernelFine[j] += columnFine[b + j];
+				}
+			} else {
+				for (int j = start; j < stop; j++) {
+					kernelFine[j] -= columnFine[b + j];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Run tasks, in parallel if the total size is large enough
+	 * @param tasks number of tasks
+	 * @param total size of all tasks
+	 * @param task
+	 */
+	private static void run(int tasks, long total, IntConsumer task) {
+		IntStream stream = IntStream.range(0, tasks);
+		if (tasks > 1 && total >= PARALLEL_THRESHOLD) {
+			stream = stream.parallel();
+		}
+		stream.forEach(task);
+	}
+
+	private static double[] getData(Dataset image) {
+		if (image.getStrides() != null) { // make contiguous
+			image = image.getSlice();
+		}
+		return DatasetUtils.cast(DoubleDataset.class, image).getData();
+	}
+
+	private static Dataset createResult(Dataset image, double[] out) {
+		DoubleDataset result = DatasetFactory.createFromObject(DoubleDataset.class, out, image.getShape());
+		Dataset cast = DatasetUtils.cast(image.getClass(), result);
+		cast.setName(image.getName());
+		return cast;
+	}
+}
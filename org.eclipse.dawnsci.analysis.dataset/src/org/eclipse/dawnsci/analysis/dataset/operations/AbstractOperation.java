@@ -76,7 +76,7 @@ public abstract class AbstractOperation<T extends IOperationModel, D extends Ope
 	 * @return operationData
 	 * @throws OperationException
 	 */
-	private OperationData updateOutputToFullRank(OperationData output, IDataset original) throws OperationException {
+	protected OperationData updateOutputToFullRank(OperationData output, IDataset original) throws OperationException {
 		int outr = output.getData().getRank();
 		int inr = original.getRank();
 	
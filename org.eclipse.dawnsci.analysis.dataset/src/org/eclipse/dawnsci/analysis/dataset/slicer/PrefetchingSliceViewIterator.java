@@ -0,0 +1,303 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.dawnsci.analysis.dataset.slicer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.eclipse.dawnsci.analysis.dataset.SlicingUtils;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.IDynamicDataset;
+import org.eclipse.january.dataset.ILazyDataset;
+import org.eclipse.january.dataset.SliceND;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decorator of a slice view iterator which reads slices ahead of time on a dedicated I/O thread.
+ * <p>
+ * The views returned by {@link #next()} are datasets already loaded, with the {@link SliceFromSeriesMetadata}
+ * of the original views attached, so reading overlaps with whatever is done with the previous slices.
+ * <p>
+ * If the lazy dataset being iterated over is given and is chunked, consecutive views which lie in the
+ * same chunks are read with a single hyperslab read and then split up, so each chunk is only read
+ * (and decompressed) once.
+ * <p>
+ * If a read fails, the unloaded view is passed on instead so the error is reported when it is sliced.
+ * If the decorated iterator fails, its exception is thrown by {@link #hasNext()} or {@link #next()}
+ * once the views before it have been returned.
+ */
+public class PrefetchingSliceViewIterator implements ISliceViewIterator, AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(PrefetchingSliceViewIterator.class);
+
+	private static final Item END = new Item((ILazyDataset) null);
+
+	private final ISliceViewIterator iterator;
+	private final ILazyDataset source;
+	private final int[] chunking;
+	private final int readAhead;
+
+	private BlockingQueue<Item> queue;
+	private Thread reader;
+	private Item peeked;
+
+	/**
+	 * @param iterator to decorate
+	 * @param readAhead maximum number of slices to read ahead
+	 */
+	public PrefetchingSliceViewIterator(ISliceViewIterator iterator, int readAhead) {
+		this(iterator, null, readAhead);
+	}
+
+	/**
+	 * @param iterator to decorate
+	 * @param source lazy dataset the iterator is over, used to merge reads of views in the same chunks (can be null)
+	 * @param readAhead maximum number of slices to read ahead
+	 */
+	public PrefetchingSliceViewIterator(ISliceViewIterator iterator, ILazyDataset source, int readAhead) {
+		this.iterator = iterator;
+		this.source = source;
+		this.chunking = source instanceof IDynamicDataset d ? d.getChunking() : null;
+		this.readAhead = Math.max(1, readAhead);
+	}
+
+	@Override
+	public synchronized boolean hasNext() {
+		return peek().check() != END;
+	}
+
+	@Override
+	public synchronized ILazyDataset next() {
+		Item item = peek().check();
+		if (item == END) {
+			throw new NoSuchElementException();
+		}
+		peeked = null;
+		return item.view;
+	}
+
+	@Override
+	public int[] getShape() {
+		return iterator.getShape();
+	}
+
+	@Override
+	public synchronized void reset() {
+		close();
+		iterator.reset();
+	}
+
+	/**
+	 * Stop reading ahead
+	 */
+	@Override
+	public synchronized void close() {
+		if (reader != null) {
+			reader.interrupt();
+			try {
+				reader.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		reader = null;
+		queue = null;
+		peeked = null;
+	}
+
+	private Item peek() {
+		if (peeked != null) {
+			return peeked;
+		}
+		if (reader == null) {
+			start();
+		}
+		try {
+			peeked = queue.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			peeked = END;
+		}
+		return peeked;
+	}
+
+	private void start() {
+		final BlockingQueue<Item> q = new ArrayBlockingQueue<>(readAhead);
+		queue = q;
+		reader = new Thread(() -> read(q), "Slice prefetch");
+		reader.setDaemon(true);
+		reader.start();
+	}
+
+	private void read(BlockingQueue<Item> q) {
+		try {
+			ILazyDataset pending = null;
+			while (pending != null || iterator.hasNext()) {
+				List<ILazyDataset> block = new ArrayList<>();
+				block.add(pending != null ? pending : iterator.next());
+				pending = null;
+
+				SliceND merged = getSlice(block.get(0));
+				int dim = -1;
+				RuntimeException failure = null;
+				try {
+					while (merged != null && block.size() < readAhead && iterator.hasNext()) {
+						ILazyDataset v = iterator.next();
+						SliceND s = getSlice(v);
+						int d = s == null ? -1 : findMergeDimension(merged, s, dim);
+						if (d < 0) {
+							pending = v;
+							break;
+						}
+						dim = d;
+						block.add(v);
+						merged.setSlice(d, merged.getStart()[d], s.getStop()[d], 1);
+					}
+				} catch (RuntimeException e) {
+					// pass on views before failure first
+					failure = e;
+				}
+
+				for (ILazyDataset v : load(block, merged, dim)) {
+					q.put(new Item(v));
+				}
+				if (failure != null) {
+					throw failure;
+				}
+			}
+
+			q.put(END);
+		} catch (InterruptedException e) {
+			// closed
+		} catch (RuntimeException | Error e) {
+			try {
+				q.put(new Item(e));
+			} catch (InterruptedException ie) {
+				// closed
+			}
+		}
+	}
+
+	private SliceND getSlice(ILazyDataset view) {
+		if (chunking == null || source == null || view instanceof Dataset) {
+			return null;
+		}
+		SliceFromSeriesMetadata ssm = view.getFirstMetadata(SliceFromSeriesMetadata.class);
+		if (ssm == null || ssm.getSliceInfo() == null) {
+			return null;
+		}
+		return new SliceND(source.getShape(), ssm.getSliceFromInput());
+	}
+
+	/**
+	 * @param block slice of views so far
+	 * @param next slice of next view
+	 * @param dim dimension merged along so far, or -1
+	 * @return dimension along which next view continues the block within the same chunk, or -1
+	 */
+	private int findMergeDimension(SliceND block, SliceND next, int dim) {
+		int[] bStart = block.getStart();
+		int[] bStop = block.getStop();
+		int[] bStep = block.getStep();
+		int[] nStart = next.getStart();
+		int[] nStop = next.getStop();
+		int[] nStep = next.getStep();
+
+		int found = -1;
+		for (int i = 0; i < bStart.length; i++) {
+			if (bStart[i] == nStart[i] && bStop[i] == nStop[i] && bStep[i] == nStep[i]) {
+				continue;
+			}
+			if (found >= 0 || (dim >= 0 && i != dim)) {
+				return -1;
+			}
+			if (nStep[i] != 1 || bStep[i] != 1 || nStart[i] != bStop[i] || chunking[i] <= 1
+					|| bStart[i] / chunking[i] != (nStop[i] - 1) / chunking[i]) {
+				return -1;
+			}
+			found = i;
+		}
+		return found;
+	}
+
+	private List<ILazyDataset> load(List<ILazyDataset> block, SliceND merged, int dim) {
+		List<ILazyDataset> loaded = new ArrayList<>(block.size());
+		if (block.size() > 1) {
+			try {
+				Dataset all = SlicingUtils.sliceWithAxesMetadata(source, merged);
+				int offset = merged.getStart()[dim];
+				for (ILazyDataset v : block) {
+					SliceFromSeriesMetadata ssm = v.getFirstMetadata(SliceFromSeriesMetadata.class);
+					SliceND local = new SliceND(all.getShape());
+					SliceND s = getSlice(v);
+					local.setSlice(dim, s.getStart()[dim] - offset, s.getStop()[dim] - offset, 1);
+					Dataset d = all.getSliceView(local);
+					d.clearMetadata(SliceFromSeriesMetadata.class);
+					d.setMetadata(ssm);
+					loaded.add(d);
+				}
+				return loaded;
+			} catch (Exception e) {
+				logger.warn("Could not read merged slice {}, reading individually", merged, e);
+				loaded.clear();
+			}
+		}
+
+		for (ILazyDataset v : block) {
+			try {
+				SliceFromSeriesMetadata ssm = v.getFirstMetadata(SliceFromSeriesMetadata.class);
+				Dataset d = SlicingUtils.sliceWithAxesMetadata(v);
+				d.clearMetadata(SliceFromSeriesMetadata.class);
+				d.setMetadata(ssm);
+				loaded.add(d);
+			} catch (Exception e) {
+				logger.warn("Could not read ahead slice, passing on unread view", e);
+				loaded.add(v);
+			}
+		}
+		return loaded;
+	}
+
+	private static class Item {
+		private final ILazyDataset view;
+		private final Throwable error;
+
+		Item(ILazyDataset view) {
+			this.view = view;
+			this.error = null;
+		}
+
+		/**
+		 * @param error thrown by decorated iterator
+		 */
+		Item(Throwable error) {
+			this.view = null;
+			this.error = error;
+		}
+
+		/**
+		 * @return this
+		 * @throws RuntimeException or Error if the decorated iterator failed
+		 */
+		Item check() {
+			if (error instanceof RuntimeException r) {
+				throw r;
+			}
+			if (error instanceof Error e) {
+				throw e;
+			}
+			return this;
+		}
+	}
+}
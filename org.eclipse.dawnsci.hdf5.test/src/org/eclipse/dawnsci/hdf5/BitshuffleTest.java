@@ -0,0 +1,121 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.dawnsci.hdf5;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class BitshuffleTest {
+
+	private static byte[] createData(int n, int elementSize) {
+		Random r = new Random(12345);
+		byte[] data = new byte[n * elementSize];
+		for (int i = 0; i < n; i++) {
+			long v = Math.round(100 + 20 * r.nextGaussian());
+			for (int b = 0; b < elementSize; b++) {
+				data[i * elementSize + b] = (byte) (v >>> (8 * b));
+			}
+		}
+		return data;
+	}
+
+	@Test
+	public void testShuffle() {
+		for (int s : new int[] {1, 2, 4, 8}) {
+			int n = 256;
+			byte[] data = createData(n, s);
+			byte[] expected = new byte[data.length];
+			int rowBytes = n / 8;
+			for (int i = 0; i < n; i++) {
+				for (int b = 0; b < s; b++) {
+					for (int j = 0; j < 8; j++) {
+						int bit = (data[i * s + b] >> j) & 1;
+						expected[(b * 8 + j) * rowBytes + i / 8] |= bit << (i % 8);
+					}
+				}
+			}
+
+			byte[] shuffled = new byte[data.length];
+			Bitshuffle.shuffle(data, 0, shuffled, 0, n, s);
+			assertArrayEquals(expected, shuffled);
+		}
+	}
+
+	@Test
+	public void testCompressLZ4Format() {
+		int s = 4;
+		int n = 5003; // two full blocks, one partial block and left over elements
+		byte[] data = createData(n, s);
+		byte[] compressed = Bitshuffle.compressLZ4(data, s);
+		assertTrue(compressed.length < data.length / 2);
+
+		ByteBuffer b = ByteBuffer.wrap(compressed); // big-endian
+		assertEquals(data.length, b.getLong());
+		int blockSize = Bitshuffle.getDefaultBlockSize(s);
+		assertEquals(2048, blockSize);
+		assertEquals(blockSize * s, b.getInt());
+		for (int i = 0; i < 3; i++) {
+			int length = b.getInt();
+			b.position(b.position() + length);
+		}
+		int left = n % 8;
+		assertEquals(left * s, b.remaining());
+		for (int i = 0; i < left * s; i++) {
+			assertEquals(data[data.length - left * s + i], b.get());
+		}
+	}
+
+	@Test
+	public void testDecompressLZ4() {
+		for (int s : new int[] {1, 2, 4, 8}) {
+			for (int n : new int[] {0, 7, 8, 5003, 300000}) {
+				byte[] data = createData(n, s);
+				assertArrayEquals(data, Bitshuffle.decompressLZ4(Bitshuffle.compressLZ4(data, s), s));
+			}
+		}
+	}
+
+	@Test
+	public void testUnshuffleChunk() {
+		int s = 2;
+		int n = 1003; // seven full blocks of 128, one partial block and left over elements
+		byte[] data = createData(n, s);
+		byte[] shuffled = data.clone();
+		for (int i = 0; i < 7; i++) {
+			Bitshuffle.shuffle(data, i * 128 * s, shuffled, i * 128 * s, 128, s);
+		}
+		Bitshuffle.shuffle(data, 896 * s, shuffled, 896 * s, 104, s);
+		assertArrayEquals(data, Bitshuffle.unshuffleChunk(shuffled, s, 128));
+	}
+
+	@Test
+	public void testLZ4() {
+		byte[] data = createData(20000, 2);
+		byte[] compressed = new byte[LZ4.maxCompressedLength(data.length)];
+		int length = LZ4.compress(data, 0, data.length, compressed, 0, LZ4.createTable());
+		byte[] out = new byte[data.length];
+		assertEquals(data.length, LZ4.decompress(compressed, 0, length, out, 0, out.length));
+		assertArrayEquals(data, out);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testLZ4Malformed() {
+		byte[] data = createData(1000, 1);
+		byte[] compressed = new byte[LZ4.maxCompressedLength(data.length)];
+		int length = LZ4.compress(data, 0, data.length, compressed, 0, LZ4.createTable());
+		LZ4.decompress(compressed, 0, length / 2, new byte[data.length], 0, data.length);
+	}
+}
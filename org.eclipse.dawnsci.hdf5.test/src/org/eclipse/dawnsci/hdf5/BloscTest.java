@@ -0,0 +1,87 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.dawnsci.hdf5;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.Test;
+
+public class BloscTest {
+
+	private static ByteBuffer createHeader(int flags, int typeSize, int nbytes, int blockSize, int cbytes) {
+		ByteBuffer b = ByteBuffer.allocate(cbytes).order(ByteOrder.LITTLE_ENDIAN);
+		b.put((byte) 2).put((byte) 1).put((byte) flags).put((byte) typeSize);
+		b.putInt(nbytes).putInt(blockSize).putInt(cbytes);
+		return b;
+	}
+
+	@Test
+	public void testMemcpyed() {
+		byte[] data = {1, 2, 3, 4, 5, 6, 7};
+		ByteBuffer b = createHeader(0x2, 1, data.length, data.length, 16 + data.length);
+		b.put(data);
+		assertArrayEquals(data, Blosc.decompress(b.array()));
+	}
+
+	@Test
+	public void testShuffledStreams() {
+		// one block of 128 shorts split into two streams stored as they are
+		int n = 128;
+		byte[] data = new byte[2 * n];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) (i * 7);
+		}
+		int cbytes = 16 + 4 + 2 * (4 + n);
+		ByteBuffer b = createHeader(0x1, 2, data.length, data.length, cbytes);
+		b.putInt(20);
+		for (int j = 0; j < 2; j++) {
+			b.putInt(n);
+			for (int i = 0; i < n; i++) {
+				b.put(data[2 * i + j]);
+			}
+		}
+		assertArrayEquals(data, Blosc.decompress(b.array()));
+	}
+
+	@Test
+	public void testBloscLZ() {
+		byte[] expected = "abcabcabcabcx".getBytes();
+		byte[] stream = {2, 'a', 'b', 'c', (byte) 0xe0, 0, 2, 0, 'x'}; // match of 9 at distance of 3
+		int cbytes = 16 + 4 + 4 + stream.length;
+		ByteBuffer b = createHeader(0x10, 1, expected.length, expected.length, cbytes);
+		b.putInt(20);
+		b.putInt(stream.length);
+		b.put(stream);
+		assertArrayEquals(expected, Blosc.decompress(b.array()));
+	}
+
+	@Test
+	public void testLZ4Blocks() {
+		// two blocks with LZ4 compression where the last is short
+		byte[] data = new byte[300];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) (i % 10);
+		}
+		int blockSize = 256;
+		byte[] c0 = new byte[LZ4.maxCompressedLength(blockSize)];
+		int l0 = LZ4.compress(data, 0, blockSize, c0, 0, LZ4.createTable());
+		byte[] c1 = new byte[LZ4.maxCompressedLength(data.length - blockSize)];
+		int l1 = LZ4.compress(data, blockSize, data.length - blockSize, c1, 0, LZ4.createTable());
+		int cbytes = 16 + 8 + 4 + l0 + 4 + l1;
+		ByteBuffer b = createHeader(0x10 | (1 << 5), 1, data.length, blockSize, cbytes);
+		b.putInt(24).putInt(28 + l0);
+		b.putInt(l0).put(c0, 0, l0);
+		b.putInt(l1).put(c1, 0, l1);
+		assertArrayEquals(data, Blosc.decompress(b.array()));
+	}
+}
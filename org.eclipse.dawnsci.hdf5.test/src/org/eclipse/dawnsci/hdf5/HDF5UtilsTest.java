@@ -23,7 +23,9 @@ import org.eclipse.january.dataset.ByteDataset;
 import org.eclipse.january.dataset.Dataset;
 import org.eclipse.january.dataset.DatasetFactory;
 import org.eclipse.january.dataset.FloatDataset;
+import org.eclipse.january.dataset.IntegerDataset;
 import org.eclipse.january.dataset.ShortDataset;
+import org.eclipse.january.dataset.SliceND;
 import org.junit.Test;
 
 public class HDF5UtilsTest extends TestBase {
@@ -108,4 +110,35 @@ public class HDF5UtilsTest extends TestBase {
 		assertThrows("Not supported", ScanFileHolderException.class, () -> HDF5Utils.loadDataset(f, "scalar_f"));
 		assertThrows("Not supported", ScanFileHolderException.class, () -> HDF5Utils.loadDataset(f, "array_f"));
 	}
+
+	@Test
+	public void testReadDatasetCached() throws Throwable {
+		File f = File.createTempFile("cached", ".h5");
+		String path = f.getAbsolutePath();
+
+		int[] shape = new int[] {64, 64};
+		int[] chunks = new int[] {16, 16};
+		Dataset data = DatasetFactory.createRange(IntegerDataset.class, 64 * 64).reshape(shape);
+		HDF5Utils.createDataset(path, "/entry", "data", shape, shape, chunks, IntegerDataset.class, new int[] {0}, false);
+		HDF5Utils.setDatasetSlice(path, "/entry", "data", new SliceND(shape), data);
+		HDF5FileFactory.releaseFile(path, true);
+
+		HDF5ChunkCache.Statistics before = HDF5ChunkCache.getStatistics();
+		HDF5File fid = HDF5FileFactory.acquireFile(path, false);
+		try {
+			for (int i = 0; i < shape[0]; i++) { // rows
+				Dataset d = HDF5Utils.readDatasetCached(fid, "/entry/data", new int[] {i, 0}, new int[] {1, shape[1]}, new int[] {1, 1}, -1, null, false);
+				TestUtils.assertDatasetEquals(data.getSlice(new int[] {i, 0}, new int[] {i + 1, shape[1]}, null), d);
+			}
+			for (int j = 0; j < shape[1]; j += 5) { // columns
+				Dataset d = HDF5Utils.readDatasetCached(fid, "/entry/data", new int[] {0, j}, new int[] {shape[0], 1}, new int[] {1, 1}, -1, null, false);
+				TestUtils.assertDatasetEquals(data.getSlice(new int[] {0, j}, new int[] {shape[0], j + 1}, null), d);
+			}
+		} finally {
+			HDF5FileFactory.releaseFile(path, true);
+		}
+		HDF5ChunkCache.Statistics after = HDF5ChunkCache.getStatistics();
+		assertEquals(1, after.opens() - before.opens());
+		assertTrue(after.reuses() - before.reuses() >= shape[0]);
+	}
 }
@@ -21,9 +21,11 @@ import java.util.Set;
 import org.eclipse.dawnsci.analysis.api.tree.Attribute;
 import org.eclipse.dawnsci.analysis.api.tree.DataNode;
 import org.eclipse.dawnsci.analysis.api.tree.GroupNode;
+import org.eclipse.dawnsci.hdf5.HDF5ChunkDecoder;
 import org.eclipse.dawnsci.hdf5.HDF5DatasetResource;
 import org.eclipse.dawnsci.hdf5.HDF5DatatypeResource;
 import org.eclipse.dawnsci.hdf5.HDF5FileResource;
+import org.eclipse.dawnsci.hdf5.HDF5PropertiesResource;
 import org.eclipse.dawnsci.hdf5.HDF5Resource;
 import org.eclipse.dawnsci.hdf5.TestBase;
 import org.eclipse.dawnsci.nexus.NexusException;
@@ -37,7 +39,9 @@ import org.eclipse.january.dataset.DatasetUtils;
 import org.eclipse.january.dataset.IDataset;
 import org.eclipse.january.dataset.ILazyDataset;
 import org.eclipse.january.dataset.ILazyWriteableDataset;
+import org.eclipse.january.dataset.IntegerDataset;
 import org.eclipse.january.dataset.LazyWriteableDataset;
+import org.eclipse.january.dataset.Slice;
 import org.eclipse.january.dataset.SliceND;
 import org.junit.Test;
 
@@ -189,4 +193,78 @@ public class NexusFileHDF5Test extends TestBase {
 			assertEquals(DatasetFactory.createFromObject(boolData, 1, 4), bd);
 		}
 	}
+
+	@Test
+	public void testParallelDeflate() throws Exception {
+		for (boolean async : new boolean[] {false, true}) {
+			checkParallelDeflate(async);
+		}
+	}
+
+	private void checkParallelDeflate(boolean async) throws Exception {
+		Dataset expected = DatasetFactory.createRange(6 * 10 * 7).reshape(6, 10, 7);
+		try (NexusFileHDF5 nf = new NexusFileHDF5(FILE_NAME, true)) {
+			nf.createAndOpenToWrite();
+			nf.setWritesAsync(async);
+			ILazyWriteableDataset lazy = new LazyWriteableDataset("d", Double.class, new int[] {0, 10, 7},
+					new int[] {ILazyWriteableDataset.UNLIMITED, 10, 7}, new int[] {1, 4, 7}, null);
+			nf.createData("/a", lazy, NexusFile.COMPRESSION_DEFLATE_PARALLEL, true);
+			for (int i = 0; i < 5; i++) { // whole chunks with padded edges
+				Slice[] slice = new Slice[] {new Slice(i, i + 1), null, null};
+				lazy.setSlice(null, expected.getSliceView(slice), new SliceND(lazy.getShape(), lazy.getMaxShape(), slice));
+			}
+			// part of chunks
+			for (Slice s : new Slice[] {new Slice(0, 5), new Slice(5, 10)}) {
+				Slice[] slice = new Slice[] {new Slice(5, 6), s, null};
+				lazy.setSlice(null, expected.getSliceView(slice), new SliceND(lazy.getShape(), lazy.getMaxShape(), slice));
+			}
+			nf.flush();
+		}
+
+		try (HDF5Resource fRes = new HDF5FileResource(
+				H5.H5Fopen(FILE_NAME, HDF5Constants.H5F_ACC_RDONLY, HDF5Constants.H5P_DEFAULT));
+				HDF5Resource dRes = new HDF5DatasetResource(
+						H5.H5Dopen(fRes.getResource(), "/a/d", HDF5Constants.H5P_DEFAULT));
+				HDF5Resource pRes = new HDF5PropertiesResource(H5.H5Dget_create_plist(dRes.getResource()))) {
+			assertEquals(1, H5.H5Pget_nfilters(pRes.getResource()));
+		}
+
+		try (NexusFileHDF5 nf = new NexusFileHDF5(FILE_NAME, true)) {
+			nf.openToRead();
+			Dataset actual = DatasetUtils.sliceAndConvertLazyDataset(nf.getData("/a/d").getDataset());
+			assertEquals(expected, actual);
+		}
+	}
+
+	@Test
+	public void testJavaFilterRead() throws Exception {
+		Dataset expected = DatasetFactory.createRange(IntegerDataset.class, 5 * 10 * 7).reshape(5, 10, 7);
+		try (NexusFileHDF5 nf = new NexusFileHDF5(FILE_NAME, true)) {
+			nf.createAndOpenToWrite();
+			ILazyWriteableDataset lazy = new LazyWriteableDataset("d", Integer.class, new int[] {0, 10, 7},
+					new int[] {ILazyWriteableDataset.UNLIMITED, 10, 7}, new int[] {1, 5, 7}, null);
+			nf.createData("/a", lazy, NexusFile.COMPRESSION_BITSHUFFLE_LZ4, true);
+			for (int i = 0; i < 5; i++) {
+				Slice[] slice = new Slice[] {new Slice(i, i + 1), null, null};
+				lazy.setSlice(null, expected.getSliceView(slice), new SliceND(lazy.getShape(), lazy.getMaxShape(), slice));
+			}
+			nf.flush();
+		}
+
+		Slice[][] slices = new Slice[][] {{null, null, null}, {new Slice(1, 5), new Slice(2, 9, 3), new Slice(1, 7, 2)}};
+		try {
+			for (boolean java : new boolean[] {true, false}) {
+				HDF5ChunkDecoder.setEnabled(java);
+				try (NexusFileHDF5 nf = new NexusFileHDF5(FILE_NAME, true)) {
+					nf.openToRead();
+					ILazyDataset lazy = nf.getData("/a/d").getDataset();
+					for (Slice[] slice : slices) {
+						assertEquals(expected.getSlice(slice), DatasetUtils.convertToDataset(lazy.getSlice(slice)));
+					}
+				}
+			}
+		} finally {
+			HDF5ChunkDecoder.setEnabled(true);
+		}
+	}
 }
@@ -0,0 +1,265 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.dawnsci.hdf5;
+
+import java.util.stream.IntStream;
+
+/**
+ * Bitshuffle transform and its chunk formats as used by the HDF5 bitshuffle filter.
+ * <p>
+ * Bitshuffle transposes a block of n elements, each of s bytes, as a matrix of n rows by 8s bits
+ * so that bit j of byte b of all elements are packed together. This groups the bits which
+ * rarely change in detector data and makes them compressible with a fast compressor like LZ4.
+ * <p>
+ * A compressed chunk starts with the uncompressed size in bytes as a big-endian 64-bit integer
+ * and the block size in bytes as a big-endian 32-bit integer. Each block follows as its
+ * compressed size as a big-endian 32-bit integer and the LZ4 compressed shuffled block. The
+ * last block holds the remaining multiple of 8 elements and any elements left over after that
+ * are copied verbatim. Without compression, a chunk consists of the shuffled blocks and the
+ * elements left over.
+ */
+public class Bitshuffle {
+
+	/**
+	 * HDF5 filter ID registered for bitshuffle
+	 */
+	public static final int FILTER_ID = 32008;
+
+	/**
+	 * Filter option to compress shuffled blocks with LZ4
+	 */
+	public static final int LZ4_COMPRESSION = 2;
+
+	private static final int VERSION_MAJOR = 0;
+	private static final int VERSION_MINOR = 3;
+	private static final int BLOCKED_MULT = 8;
+	private static final int TARGET_BLOCK_BYTES = 8192;
+	private static final int MIN_BLOCK_SIZE = 128;
+	private static final int HEADER_BYTES = 12;
+	private static final int PARALLEL_BYTES = 1 << 20;
+
+	private Bitshuffle() {
+	}
+
+	/**
+	 * @param elementSize
+	 * @return filter options for HDF5 dataset creation property list
+	 */
+	public static int[] getFilterOptions(int elementSize) {
+		return new int[] {VERSION_MAJOR, VERSION_MINOR, elementSize, 0, LZ4_COMPRESSION};
+	}
+
+	/**
+	 * @param elementSize
+	 * @return default number of elements in block
+	 */
+	public static int getDefaultBlockSize(int elementSize) {
+		int size = (TARGET_BLOCK_BYTES / elementSize / BLOCKED_MULT) * BLOCKED_MULT;
+		return Math.max(size, MIN_BLOCK_SIZE);
+	}
+
+	/**
+	 * Bitshuffle block
+	 * @param src
+	 * @param srcOff
+	 * @param dst
+	 * @param dstOff
+	 * @param n number of elements (must be a multiple of 8)
+	 * @param elementSize
+	 */
+	public static void shuffle(byte[] src, int srcOff, byte[] dst, int dstOff, int n, int elementSize) {
+		final int rowBytes = n / BLOCKED_MULT;
+		for (int b = 0; b < elementSize; b++) {
+			int row = dstOff + b * BLOCKED_MULT * rowBytes;
+			for (int g = 0; g < rowBytes; g++) {
+				int i = srcOff + g * BLOCKED_MULT * elementSize + b;
+				long x = 0;
+				for (int m = 0; m < BLOCKED_MULT; m++, i += elementSize) {
+					x |= (src[i] & 0xffL) << (8 * m);
+				}
+				x = transpose(x);
+				for (int j = 0; j < BLOCKED_MULT; j++, x >>>= 8) {
+					dst[row + j * rowBytes + g] = (byte) x;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reverse bitshuffle of block
+	 * @param src
+	 * @param srcOff
+	 * @param dst
+	 * @param dstOff
+	 * @param n number of elements (must be a multiple of 8)
+	 * @param elementSize
+	 */
+	public static void unshuffle(byte[] src, int srcOff, byte[] dst, int dstOff, int n, int elementSize) {
+		final int rowBytes = n / BLOCKED_MULT;
+		for (int b = 0; b < elementSize; b++) {
+			int row = srcOff + b * BLOCKED_MULT * rowBytes;
+			for (int g = 0; g < rowBytes; g++) {
+				long x = 0;
+				for (int j = 0; j < BLOCKED_MULT; j++) {
+					x |= (src[row + j * rowBytes + g] & 0xffL) << (8 * j);
+				}
+				x = transpose(x);
+				int i = dstOff + g * BLOCKED_MULT * elementSize + b;
+				for (int m = 0; m < BLOCKED_MULT; m++, i += elementSize, x >>>= 8) {
+					dst[i] = (byte) x;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Transpose 8x8 bit matrix held as 8 bytes
+	 * @param x
+	 * @return transposed matrix
+	 */
+	static long transpose(long x) {
+		long t = (x ^ (x >>> 7)) & 0x00AA00AA00AA00AAL;
+		x ^= t ^ (t << 7);
+		t = (x ^ (x >>> 14)) & 0x0000CCCC0000CCCCL;
+		x ^= t ^ (t << 14);
+		t = (x ^ (x >>> 28)) & 0x00000000F0F0F0F0L;
+		return x ^ t ^ (t << 28);
+	}
+
+	/**
+	 * Bitshuffle and compress chunk with LZ4
+	 * @param src
+	 * @param elementSize
+	 * @return compressed chunk
+	 */
+	public static byte[] compressLZ4(byte[] src, int elementSize) {
+		final int blockSize = getDefaultBlockSize(elementSize);
+		final int n = src.length / elementSize;
+		final int blockBytes = blockSize * elementSize;
+		byte[] dst = new byte[HEADER_BYTES + (n / blockSize + 1) * (4 + LZ4.maxCompressedLength(blockBytes)) + BLOCKED_MULT * elementSize];
+		writeLong(dst, 0, src.length);
+		writeInt(dst, 8, blockBytes);
+
+		byte[] shuffled = new byte[blockBytes];
+		int[] table = LZ4.createTable();
+		int op = HEADER_BYTES;
+		int ip = 0;
+		int remaining = n;
+		while (remaining >= BLOCKED_MULT) {
+			int size = Math.min(blockSize, remaining - remaining % BLOCKED_MULT);
+			shuffle(src, ip, shuffled, 0, size, elementSize);
+			int length = LZ4.compress(shuffled, 0, size * elementSize, dst, op + 4, table);
+			writeInt(dst, op, length);
+			op += 4 + length;
+			ip += size * elementSize;
+			remaining -= size;
+		}
+		int left = src.length - ip;
+		System.arraycopy(src, ip, dst, op, left);
+		op += left;
+
+		byte[] out = new byte[op];
+		System.arraycopy(dst, 0, out, 0, op);
+		return out;
+	}
+
+	/**
+	 * Decompress chunk compressed with LZ4 and reverse bitshuffle. Blocks of large chunks are
+	 * decompressed in parallel
+	 * @param src
+	 * @param elementSize
+	 * @return chunk
+	 * @throws IllegalArgumentException if chunk is malformed
+	 */
+	public static byte[] decompressLZ4(byte[] src, int elementSize) {
+		long total = readLong(src, 0);
+		int blockBytes = readInt(src, 8);
+		if (total > Integer.MAX_VALUE || blockBytes <= 0 || blockBytes % (BLOCKED_MULT * elementSize) != 0) {
+			throw new IllegalArgumentException("Malformed bitshuffle chunk header");
+		}
+		final byte[] dst = new byte[(int) total];
+		final int blockSize = blockBytes / elementSize;
+		final int n = dst.length / elementSize;
+		final int full = n / blockSize;
+		final int last = (n % blockSize) / BLOCKED_MULT * BLOCKED_MULT;
+		final int nblocks = full + (last > 0 ? 1 : 0);
+
+		// find blocks from their compressed sizes
+		final int[] starts = new int[nblocks + 1];
+		int ip = HEADER_BYTES;
+		for (int b = 0; b < nblocks; b++) {
+			starts[b] = ip;
+			ip += 4 + readInt(src, ip);
+		}
+		starts[nblocks] = ip;
+		int done = full * blockBytes + last * elementSize;
+		System.arraycopy(src, ip, dst, done, dst.length - done);
+
+		IntStream blocks = IntStream.range(0, nblocks);
+		if (dst.length >= PARALLEL_BYTES) {
+			blocks = blocks.parallel();
+		}
+		blocks.forEach(b -> {
+			int size = b < full ? blockSize : last;
+			int bytes = size * elementSize;
+			byte[] shuffled = new byte[bytes];
+			int start = starts[b] + 4;
+			if (LZ4.decompress(src, start, starts[b + 1] - start, shuffled, 0, bytes) != bytes) {
+				throw new IllegalArgumentException("Malformed bitshuffle block");
+			}
+			unshuffle(shuffled, 0, dst, b * blockBytes, size, elementSize);
+		});
+		return dst;
+	}
+
+	/**
+	 * Reverse bitshuffle of uncompressed chunk
+	 * @param src
+	 * @param elementSize
+	 * @param blockSize number of elements in block or zero for default
+	 * @return chunk
+	 */
+	public static byte[] unshuffleChunk(byte[] src, int elementSize, int blockSize) {
+		if (blockSize <= 0) {
+			blockSize = getDefaultBlockSize(elementSize);
+		}
+		byte[] dst = new byte[src.length];
+		int op = 0;
+		int remaining = src.length / elementSize;
+		while (remaining >= BLOCKED_MULT) {
+			int size = Math.min(blockSize, remaining - remaining % BLOCKED_MULT);
+			unshuffle(src, op, dst, op, size, elementSize);
+			op += size * elementSize;
+			remaining -= size;
+		}
+		System.arraycopy(src, op, dst, op, src.length - op);
+		return dst;
+	}
+
+	private static long readLong(byte[] b, int i) {
+		return ((long) readInt(b, i) << 32) | (readInt(b, i + 4) & 0xffffffffL);
+	}
+
+	private static int readInt(byte[] b, int i) {
+		return (b[i] & 0xff) << 24 | (b[i + 1] & 0xff) << 16 | (b[i + 2] & 0xff) << 8 | (b[i + 3] & 0xff);
+	}
+
+	private static void writeLong(byte[] b, int i, long v) {
+		writeInt(b, i, (int) (v >>> 32));
+		writeInt(b, i + 4, (int) v);
+	}
+
+	private static void writeInt(byte[] b, int i, int v) {
+		b[i] = (byte) (v >>> 24);
+		b[i + 1] = (byte) (v >>> 16);
+		b[i + 2] = (byte) (v >>> 8);
+		b[i + 3] = (byte) v;
+	}
+}
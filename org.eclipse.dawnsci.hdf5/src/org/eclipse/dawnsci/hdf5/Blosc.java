@@ -0,0 +1,241 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.dawnsci.hdf5;
+
+import java.util.stream.IntStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Decompression of Blosc (version 1) buffers as written by the HDF5 Blosc filter.
+ * <p>
+ * A buffer starts with a 16-byte header holding the format versions, flags, type size and the
+ * uncompressed, block and compressed sizes as little-endian 32-bit integers. Unless the data
+ * was stored uncompressed, the offsets of the blocks follow. Each block is split into one
+ * stream per byte of its type or kept as one stream, and each stream is stored as its
+ * compressed size and data. Blocks are then unshuffled by bytes or bits. Blocks of large
+ * buffers are decompressed in parallel.
+ * <p>
+ * The BloscLZ, LZ4 and zlib compressors are supported.
+ */
+public class Blosc {
+
+	/**
+	 * HDF5 filter ID registered for Blosc
+	 */
+	public static final int FILTER_ID = 32001;
+
+	/**
+	 * Index of compressor in filter options
+	 */
+	public static final int COMPRESSOR_OPTION = 6;
+
+	private static final int HEADER_BYTES = 16;
+	private static final int DOSHUFFLE = 0x1;
+	private static final int MEMCPYED = 0x2;
+	private static final int DOBITSHUFFLE = 0x4;
+	private static final int DONT_SPLIT = 0x10;
+	private static final int MAX_SPLITS = 16;
+	private static final int MIN_BUFFERSIZE = 128;
+	private static final int PARALLEL_BYTES = 1 << 20;
+
+	private static final int BLOSCLZ = 0;
+	private static final int LZ4_FORMAT = 1;
+	private static final int ZLIB = 3;
+	private static final int BLOSCLZ_MAX_DISTANCE = 8191;
+
+	private Blosc() {
+	}
+
+	/**
+	 * @param compressor code from filter options or header
+	 * @return true if compressor is supported
+	 */
+	public static boolean isSupported(int compressor) {
+		return compressor == BLOSCLZ || compressor == LZ4_FORMAT || compressor == ZLIB;
+	}
+
+	/**
+	 * Decompress buffer
+	 * @param src
+	 * @return data
+	 * @throws IllegalArgumentException if buffer is malformed or uses an unsupported compressor
+	 */
+	public static byte[] decompress(byte[] src) {
+		final int version = src[0] & 0xff;
+		final int flags = src[2] & 0xff;
+		final int typeSize = Math.max(1, src[3] & 0xff);
+		final int nbytes = readInt(src, 4);
+		final int blockSize = readInt(src, 8);
+		if (nbytes < 0 || (nbytes > 0 && blockSize <= 0)) {
+			throw new IllegalArgumentException("Malformed Blosc header");
+		}
+
+		byte[] dst = new byte[nbytes];
+		if ((flags & MEMCPYED) != 0) {
+			System.arraycopy(src, HEADER_BYTES, dst, 0, nbytes);
+			return dst;
+		}
+
+		final int compressor = flags >>> 5;
+		if (!isSupported(compressor)) {
+			throw new IllegalArgumentException("Unsupported Blosc compressor: " + compressor);
+		}
+		final boolean dontSplit = (flags & DONT_SPLIT) != 0;
+		final int leftover = nbytes % blockSize;
+		final int nblocks = nbytes / blockSize + (leftover > 0 ? 1 : 0);
+
+		IntStream blocks = IntStream.range(0, nblocks);
+		if (nbytes >= PARALLEL_BYTES) {
+			blocks = blocks.parallel();
+		}
+		blocks.forEach(b -> {
+			final int size = b == nblocks - 1 && leftover > 0 ? leftover : blockSize;
+			final int off = b * blockSize;
+			final boolean shuffle = (flags & DOSHUFFLE) != 0 && typeSize > 1;
+			final boolean bitshuffle = !shuffle && (flags & DOBITSHUFFLE) != 0 && size >= typeSize;
+			byte[] tmp = shuffle || bitshuffle ? new byte[size] : null;
+			byte[] out = tmp == null ? dst : tmp;
+			int op = tmp == null ? off : 0;
+
+			int splits = !dontSplit && size == blockSize && typeSize <= MAX_SPLITS && size / typeSize >= MIN_BUFFERSIZE ? typeSize : 1;
+			int length = size / splits;
+			int ip = readInt(src, HEADER_BYTES + 4 * b);
+			for (int s = 0; s < splits; s++) {
+				int cbytes = readInt(src, ip);
+				ip += 4;
+				if (cbytes == length) {
+					System.arraycopy(src, ip, out, op, length);
+				} else if (decompress(compressor, src, ip, cbytes, out, op, length) != length) {
+					throw new IllegalArgumentException("Malformed Blosc stream");
+				}
+				ip += cbytes;
+				op += length;
+			}
+
+			if (shuffle) {
+				unshuffle(tmp, 0, dst, off, size, typeSize);
+			} else if (bitshuffle) {
+				int n = size / typeSize;
+				if (version <= 2 && n % 8 != 0) {
+					System.arraycopy(tmp, 0, dst, off, size);
+				} else {
+					n -= n % 8;
+					Bitshuffle.unshuffle(tmp, 0, dst, off, n, typeSize);
+					int done = n * typeSize;
+					System.arraycopy(tmp, done, dst, off + done, size - done);
+				}
+			}
+		});
+		return dst;
+	}
+
+	/**
+	 * Reverse byte shuffle as done by Blosc and the HDF5 shuffle filter. Bytes left over after
+	 * the last whole element are copied
+	 * @param src
+	 * @param srcOff
+	 * @param dst
+	 * @param dstOff
+	 * @param length number of bytes
+	 * @param typeSize
+	 */
+	public static void unshuffle(byte[] src, int srcOff, byte[] dst, int dstOff, int length, int typeSize) {
+		final int n = length / typeSize;
+		for (int j = 0; j < typeSize; j++) {
+			int i = srcOff + j * n;
+			int o = dstOff + j;
+			for (int k = 0; k < n; k++, o += typeSize) {
+				dst[o] = src[i++];
+			}
+		}
+		int done = n * typeSize;
+		System.arraycopy(src, srcOff + done, dst, dstOff + done, length - done);
+	}
+
+	private static int decompress(int compressor, byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff, int dstLen) {
+		switch (compressor) {
+		case LZ4_FORMAT:
+			return LZ4.decompress(src, srcOff, srcLen, dst, dstOff, dstLen);
+		case ZLIB:
+			Inflater inflater = new Inflater();
+			try {
+				inflater.setInput(src, srcOff, srcLen);
+				return inflater.inflate(dst, dstOff, dstLen);
+			} catch (DataFormatException e) {
+				throw new IllegalArgumentException("Malformed zlib stream", e);
+			} finally {
+				inflater.end();
+			}
+		default:
+			return decompressBloscLZ(src, srcOff, srcLen, dst, dstOff, dstLen);
+		}
+	}
+
+	/**
+	 * Decompress BloscLZ stream, a variant of FastLZ with 16-bit distances
+	 */
+	private static int decompressBloscLZ(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff, int dstLen) {
+		final int end = srcOff + srcLen;
+		final int dstEnd = dstOff + dstLen;
+		int ip = srcOff;
+		int op = dstOff;
+		try {
+			int ctrl = src[ip++] & 31;
+			while (true) {
+				if (ctrl >= 32) { // match
+					int length = (ctrl >>> 5) - 1;
+					int offset = (ctrl & 31) << 8;
+					if (length == 6) {
+						int code;
+						do {
+							code = src[ip++] & 0xff;
+							length += code;
+						} while (code == 255);
+					}
+					int code = src[ip++] & 0xff;
+					length += 3;
+					int ref = op - offset - code;
+					if (code == 255 && offset == (31 << 8)) {
+						offset = (src[ip] & 0xff) << 8 | (src[ip + 1] & 0xff);
+						ip += 2;
+						ref = op - offset - BLOSCLZ_MAX_DISTANCE;
+					}
+					ref--;
+					if (ref < dstOff || op + length > dstEnd) {
+						throw new IllegalArgumentException("Malformed BloscLZ stream");
+					}
+					for (int i = 0; i < length; i++) {
+						dst[op++] = dst[ref++];
+					}
+				} else { // literal run
+					int length = ctrl + 1;
+					if (ip + length > end || op + length > dstEnd) {
+						throw new IllegalArgumentException("Malformed BloscLZ stream");
+					}
+					System.arraycopy(src, ip, dst, op, length);
+					ip += length;
+					op += length;
+				}
+				if (ip >= end) {
+					break;
+				}
+				ctrl = src[ip++] & 0xff;
+			}
+		} catch (ArrayIndexOutOfBoundsException e) {
+			throw new IllegalArgumentException("Malformed BloscLZ stream: truncated", e);
+		}
+		return op - dstOff;
+	}
+
+	private static int readInt(byte[] b, int i) {
+		return (b[i] & 0xff) | (b[i + 1] & 0xff) << 8 | (b[i + 2] & 0xff) << 16 | (b[i + 3] & 0xff) << 24;
+	}
+}
@@ -0,0 +1,258 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.dawnsci.hdf5;
+
+import java.math.BigInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.dawnsci.nexus.NexusException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import hdf.hdf5lib.H5;
+import hdf.hdf5lib.HDF5Constants;
+import hdf.hdf5lib.exceptions.HDF5Exception;
+
+/**
+ * Dataset kept open for reading with its own raw data chunk cache.
+ * <p>
+ * An instance is held by a {@link HDF5File} for each dataset read through
+ * {@link HDF5Utils#readDatasetCached(HDF5File, String, int[], int[], int[], int, Class, boolean)}
+ * and closed when the file is finished with. The chunk cache is sized to hold all the chunks
+ * touched by the largest read so far, up to {@link #getMaxBytes()}, so that consecutive reads of
+ * sub-slices (e.g. rows or columns of a frame) do not decompress the same chunks repeatedly.
+ * <p>
+ * The maximum size of each cache can be set with the system property {@value #CACHE_SIZE} and
+ * a size of zero disables this read path.
+ */
+public class HDF5ChunkCache {
+	private static final Logger logger = LoggerFactory.getLogger(HDF5ChunkCache.class);
+
+	/**
+	 * System property for maximum size in bytes of each dataset's chunk cache
+	 */
+	public static final String CACHE_SIZE = "org.eclipse.dawnsci.hdf5.chunkcache";
+
+	private static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+	private static final long MIN_BYTES = 1024 * 1024; // HDF5 default
+	private static final int MIN_SLOTS = 521; // HDF5 default
+	private static final int SLOTS_PER_CHUNK = 100; // recommended by HDF Group
+	private static final double PREEMPTION = 0.75; // HDF5 default
+
+	private static volatile long maxBytes = Long.getLong(CACHE_SIZE, DEFAULT_MAX_BYTES);
+
+	private static final LongAdder opens = new LongAdder();
+	private static final LongAdder reuses = new LongAdder();
+	private static final LongAdder resizes = new LongAdder();
+	private static final LongAdder refreshes = new LongAdder();
+
+	/**
+	 * @return maximum size in bytes of each dataset's chunk cache
+	 */
+	public static long getMaxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * Set maximum size of each dataset's chunk cache. This affects datasets opened afterwards
+	 * @param bytes zero to disable keeping datasets open for reading
+	 */
+	public static void setMaxBytes(long bytes) {
+		maxBytes = bytes;
+	}
+
+	/**
+	 * @return true if datasets are kept open with chunk caches
+	 */
+	public static boolean isEnabled() {
+		return maxBytes > 0;
+	}
+
+	/**
+	 * Statistics of dataset accesses
+	 * @param opens number of times datasets were opened
+	 * @param reuses number of reads which used an already opened dataset
+	 * @param resizes number of times datasets were reopened with larger chunk caches
+	 * @param refreshes number of times dataset metadata was refreshed as the requested slice lay beyond its known shape
+	 */
+	public record Statistics(long opens, long reuses, long resizes, long refreshes) {
+	}
+
+	/**
+	 * @return statistics over all files
+	 */
+	public static Statistics getStatistics() {
+		return new Statistics(opens.sum(), reuses.sum(), resizes.sum(), refreshes.sum());
+	}
+
+	private final String dataPath;
+	private long id = -1;
+	private long[] chunks; // null if not chunked
+	private long itemBytes;
+	private long cacheBytes;
+
+	HDF5ChunkCache(String dataPath) {
+		this.dataPath = dataPath;
+	}
+
+	/**
+	 * Open dataset if necessary with a chunk cache large enough for given slice. Must hold lock on this
+	 * @param f
+	 * @param start
+	 * @param count
+	 * @param step
+	 * @return dataset ID
+	 * @throws NexusException
+	 */
+	long open(HDF5File f, int[] start, int[] count, int[] step) throws NexusException {
+		try {
+			if (id < 0) {
+				readLayout(f);
+				opens.increment();
+				openWithCache(f, estimateBytes(start, count, step));
+			} else {
+				long needed = estimateBytes(start, count, step);
+				if (needed > cacheBytes && cacheBytes < maxBytes) {
+					resizes.increment();
+					close();
+					openWithCache(f, needed);
+				} else {
+					reuses.increment();
+				}
+			}
+			if (isBeyondExtent(start, count, step)) {
+				refreshes.increment();
+				H5.H5Drefresh(id);
+			}
+		} catch (HDF5Exception e) {
+			close();
+			String msg = String.format("Could not open dataset %s in %s", dataPath, f);
+			logger.error(msg, e);
+			throw new NexusException(msg, e);
+		}
+		return id;
+	}
+
+	private void readLayout(HDF5File f) throws HDF5Exception {
+		long did = -1;
+		long pid = -1;
+		long tid = -1;
+		long sid = -1;
+		try {
+			did = H5.H5Dopen(f.getID(), dataPath, HDF5Constants.H5P_DEFAULT);
+			tid = H5.H5Dget_type(did);
+			itemBytes = H5.H5Tget_size(tid);
+			pid = H5.H5Dget_create_plist(did);
+			if (H5.H5Pget_layout(pid) == HDF5Constants.H5D_CHUNKED) {
+				sid = H5.H5Dget_space(did);
+				int rank = H5.H5Sget_simple_extent_ndims(sid);
+				chunks = new long[rank];
+				H5.H5Pget_chunk(pid, rank, chunks);
+			} else {
+				chunks = null;
+			}
+		} finally {
+			if (sid != -1) {
+				H5.H5Sclose(sid);
+			}
+			if (pid != -1) {
+				H5.H5Pclose(pid);
+			}
+			if (tid != -1) {
+				H5.H5Tclose(tid);
+			}
+			if (did != -1) {
+				H5.H5Dclose(did);
+			}
+		}
+	}
+
+	private void openWithCache(HDF5File f, long bytes) throws HDF5Exception {
+		long apid = -1;
+		try {
+			apid = H5.H5Pcreate(HDF5Constants.H5P_DATASET_ACCESS);
+			if (chunks != null) {
+				cacheBytes = Math.min(maxBytes, Math.max(MIN_BYTES, bytes));
+				long chunkBytes = getChunkBytes();
+				long slots = Math.max(MIN_SLOTS, SLOTS_PER_CHUNK * Math.max(1, cacheBytes / chunkBytes));
+				slots = BigInteger.valueOf(slots).nextProbablePrime().longValue();
+				H5.H5Pset_chunk_cache(apid, slots, cacheBytes, PREEMPTION);
+				logger.trace("Opening {} in {} with {} byte chunk cache", dataPath, f, cacheBytes);
+			} else {
+				cacheBytes = Long.MAX_VALUE; // never resize
+			}
+			id = H5.H5Dopen(f.getID(), dataPath, apid);
+		} finally {
+			if (apid != -1) {
+				H5.H5Pclose(apid);
+			}
+		}
+	}
+
+	private long getChunkBytes() {
+		long size = itemBytes;
+		for (long c : chunks) {
+			size *= c;
+		}
+		return size;
+	}
+
+	/**
+	 * @return bytes of all chunks touched by slice
+	 */
+	private long estimateBytes(int[] start, int[] count, int[] step) {
+		if (chunks == null || chunks.length != start.length) {
+			return 0;
+		}
+		long n = 1;
+		for (int i = 0; i < chunks.length; i++) {
+			if (count[i] <= 0) {
+				return 0;
+			}
+			long last = start[i] + (long) (count[i] - 1) * step[i];
+			n *= last / chunks[i] - start[i] / chunks[i] + 1;
+		}
+		return n * getChunkBytes();
+	}
+
+	private boolean isBeyondExtent(int[] start, int[] count, int[] step) throws HDF5Exception {
+		long sid = H5.H5Dget_space(id);
+		try {
+			int rank = H5.H5Sget_simple_extent_ndims(sid);
+			if (rank != start.length) {
+				return false;
+			}
+			long[] dims = new long[rank];
+			H5.H5Sget_simple_extent_dims(sid, dims, null);
+			for (int i = 0; i < rank; i++) {
+				if (count[i] > 0 && start[i] + (long) (count[i] - 1) * step[i] >= dims[i]) {
+					return true;
+				}
+			}
+			return false;
+		} finally {
+			H5.H5Sclose(sid);
+		}
+	}
+
+	/**
+	 * Close dataset. Must hold lock on this
+	 */
+	void close() {
+		if (id != -1) {
+			try {
+				H5.H5Dclose(id);
+			} catch (HDF5Exception e) {
+				logger.error("Could not close {}", dataPath, e);
+			}
+			id = -1;
+		}
+	}
+}
@@ -0,0 +1,471 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.dawnsci.hdf5;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import hdf.hdf5lib.H5;
+import hdf.hdf5lib.HDF5Constants;
+import hdf.hdf5lib.exceptions.HDF5Exception;
+
+/**
+ * Reader of chunked datasets which decodes raw chunks in Java.
+ * <p>
+ * The HDF5 library runs a dataset's filter pipeline serially within each read and needs the
+ * filter plugins to be found. For datasets of integers or floats compressed with known filters
+ * (shuffle, deflate, LZ4, bitshuffle and Blosc), this reads the chunks touched by a selection
+ * with direct chunk reads and decodes them in parallel. When the library can decode the chunks
+ * itself, this is only used if the selection covers at least half of the touched chunks as
+ * the library decodes less then.
+ * <p>
+ * Decoding in Java can be disabled with the system property {@value #JAVA_FILTERS}.
+ */
+public class HDF5ChunkDecoder {
+	private static final Logger logger = LoggerFactory.getLogger(HDF5ChunkDecoder.class);
+
+	/**
+	 * System property to enable decoding of chunks in Java (true by default)
+	 */
+	public static final String JAVA_FILTERS = "org.eclipse.dawnsci.hdf5.javafilters";
+
+	private static final int SHUFFLE_ID = 2;
+	private static final int DEFLATE_ID = 1;
+	private static final int LZ4_ID = 32004;
+	private static final int PLUGIN_MIN_ID = 256;
+	private static final int MAX_OPTIONS = 16;
+	private static final int LZ4_HEADER_BYTES = 12;
+
+	private static volatile boolean enabled = Boolean.parseBoolean(System.getProperty(JAVA_FILTERS, "true"));
+
+	private final int[] chunks;
+	private final int itemBytes;
+	private final int[] filters;
+	private final int[][] options;
+	private final byte[] fill;
+	private final boolean libraryCanDecode;
+
+	/**
+	 * @return true if chunks can be decoded in Java
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Set whether chunks can be decoded in Java
+	 * @param enable
+	 */
+	public static void setEnabled(boolean enable) {
+		enabled = enable;
+	}
+
+	/**
+	 * Create decoder for dataset
+	 * @param did dataset ID
+	 * @return decoder or null if dataset is not chunked, has unsupported type or filters, or uses
+	 * no filter plugins
+	 */
+	public static HDF5ChunkDecoder create(long did) {
+		if (!enabled) {
+			return null;
+		}
+		long pid = -1;
+		long tid = -1;
+		long ntid = -1;
+		long sid = -1;
+		try {
+			pid = H5.H5Dget_create_plist(did);
+			if (H5.H5Pget_layout(pid) != HDF5Constants.H5D_CHUNKED) {
+				return null;
+			}
+
+			tid = H5.H5Dget_type(did);
+			int tclass = H5.H5Tget_class(tid);
+			if (tclass != HDF5Constants.H5T_INTEGER && tclass != HDF5Constants.H5T_FLOAT) {
+				return null;
+			}
+			ntid = H5.H5Tget_native_type(tid);
+			if (!H5.H5Tequal(tid, ntid)) { // needs conversion
+				return null;
+			}
+
+			int n = H5.H5Pget_nfilters(pid);
+			int[] filters = new int[n];
+			int[][] options = new int[n][];
+			boolean plugins = false;
+			boolean available = true;
+			for (int i = 0; i < n; i++) {
+				int[] flags = new int[1];
+				long[] nelmts = {MAX_OPTIONS};
+				int[] values = new int[MAX_OPTIONS];
+				String[] name = new String[1];
+				int[] config = new int[1];
+				int id = H5.H5Pget_filter(pid, i, flags, nelmts, values, 120, name, config);
+				options[i] = Arrays.copyOf(values, (int) Math.min(nelmts[0], MAX_OPTIONS));
+				if (!isSupported(id, options[i])) {
+					return null;
+				}
+				filters[i] = id;
+				if (id >= PLUGIN_MIN_ID) {
+					plugins = true;
+					available &= H5.H5Zfilter_avail(id) > 0;
+				}
+			}
+			if (!plugins) {
+				return null;
+			}
+
+			sid = H5.H5Dget_space(did);
+			int rank = H5.H5Sget_simple_extent_ndims(sid);
+			long[] lchunks = new long[rank];
+			H5.H5Pget_chunk(pid, rank, lchunks);
+			int itemBytes = (int) H5.H5Tget_size(tid);
+			int[] chunks = new int[rank];
+			long chunkBytes = itemBytes;
+			for (int i = 0; i < rank; i++) {
+				chunks[i] = (int) lchunks[i];
+				chunkBytes *= lchunks[i];
+			}
+			if (chunkBytes > Integer.MAX_VALUE) {
+				return null;
+			}
+
+			byte[] fill = new byte[itemBytes];
+			try {
+				H5.H5Pget_fill_value(pid, ntid, fill);
+			} catch (HDF5Exception e) {
+				logger.trace("Could not get fill value so using zero", e);
+				Arrays.fill(fill, (byte) 0);
+			}
+			return new HDF5ChunkDecoder(chunks, itemBytes, filters, options, fill, available);
+		} catch (HDF5Exception e) {
+			logger.debug("Could not get dataset information to decode chunks", e);
+			return null;
+		} finally {
+			close(sid, H5::H5Sclose);
+			close(ntid, H5::H5Tclose);
+			close(tid, H5::H5Tclose);
+			close(pid, H5::H5Pclose);
+		}
+	}
+
+	private interface Closer {
+		void close(long id) throws HDF5Exception;
+	}
+
+	private static void close(long id, Closer closer) {
+		if (id != -1) {
+			try {
+				closer.close(id);
+			} catch (HDF5Exception e) {
+			}
+		}
+	}
+
+	private static boolean isSupported(int id, int[] options) {
+		switch (id) {
+		case DEFLATE_ID:
+		case SHUFFLE_ID:
+		case LZ4_ID:
+			return true;
+		case Bitshuffle.FILTER_ID:
+			return options.length < 5 || options[4] == 0 || options[4] == Bitshuffle.LZ4_COMPRESSION;
+		case Blosc.FILTER_ID:
+			return options.length <= Blosc.COMPRESSOR_OPTION || Blosc.isSupported(options[Blosc.COMPRESSOR_OPTION]);
+		default:
+			return false;
+		}
+	}
+
+	private HDF5ChunkDecoder(int[] chunks, int itemBytes, int[] filters, int[][] options, byte[] fill, boolean libraryCanDecode) {
+		this.chunks = chunks;
+		this.itemBytes = itemBytes;
+		this.filters = filters;
+		this.options = options;
+		this.fill = fill;
+		this.libraryCanDecode = libraryCanDecode;
+	}
+
+	/**
+	 * @return true if HDF5 library has all the filters needed
+	 */
+	public boolean canLibraryDecode() {
+		return libraryCanDecode;
+	}
+
+	/**
+	 * Read selection from dataset
+	 * @param did dataset ID
+	 * @param start
+	 * @param count
+	 * @param step
+	 * @param buffer primitive array to hold selection
+	 * @return false if selection was not read and should be read by the HDF5 library
+	 */
+	public boolean read(long did, int[] start, int[] count, int[] step, Object buffer) {
+		if (!enabled || elementBytes(buffer) != itemBytes) {
+			return false;
+		}
+		final int rank = chunks.length;
+		if (start.length != rank) {
+			return false;
+		}
+
+		// chunks touched in each dimension
+		final int[][] touched = new int[rank][];
+		long selected = 1;
+		long total = 1;
+		for (int i = 0; i < rank; i++) {
+			final int d = i;
+			touched[i] = IntStream.range(0, count[i]).map(k -> (start[d] + k * step[d]) / chunks[d]).distinct().toArray();
+			selected *= count[i];
+			total *= (long) touched[i].length * chunks[i];
+		}
+		if (selected == 0) {
+			return true;
+		}
+		if (libraryCanDecode && 2 * selected < total) {
+			return false;
+		}
+
+		final int n = Arrays.stream(touched).mapToInt(t -> t.length).reduce(1, (a, b) -> a * b);
+		try {
+			IntStream.range(0, n).parallel().forEach(c -> {
+				int[] pos = new int[rank];
+				int r = c;
+				for (int i = rank - 1; i >= 0; i--) {
+					pos[i] = touched[i][r % touched[i].length] * chunks[i];
+					r /= touched[i].length;
+				}
+				scatter(readChunk(did, pos), pos, start, count, step, buffer);
+			});
+		} catch (RuntimeException e) {
+			logger.warn("Could not decode chunks in Java so reading with HDF5 library", e);
+			return false;
+		}
+		return true;
+	}
+
+	private static int elementBytes(Object buffer) {
+		if (buffer instanceof double[] || buffer instanceof long[]) {
+			return 8;
+		} else if (buffer instanceof float[] || buffer instanceof int[]) {
+			return 4;
+		} else if (buffer instanceof short[]) {
+			return 2;
+		} else if (buffer instanceof byte[]) {
+			return 1;
+		}
+		return -1;
+	}
+
+	private int getChunkBytes() {
+		int bytes = itemBytes;
+		for (int c : chunks) {
+			bytes *= c;
+		}
+		return bytes;
+	}
+
+	/**
+	 * Read and decode chunk
+	 * @param did
+	 * @param pos position of chunk in dataset
+	 * @return chunk in native byte order
+	 */
+	private byte[] readChunk(long did, int[] pos) {
+		final int chunkBytes = getChunkBytes();
+		long[] offset = Arrays.stream(pos).asLongStream().toArray();
+		byte[] raw;
+		int[] mask = new int[1];
+		try {
+			long size = H5.H5Dget_chunk_storage_size(did, offset);
+			if (size == 0) { // not written
+				byte[] chunk = new byte[chunkBytes];
+				for (int i = 0; i < chunkBytes; i += itemBytes) {
+					System.arraycopy(fill, 0, chunk, i, itemBytes);
+				}
+				return chunk;
+			}
+			raw = new byte[(int) size];
+			H5.H5Dread_chunk(did, HDF5Constants.H5P_DEFAULT, offset, mask, raw);
+		} catch (HDF5Exception e) {
+			throw new IllegalStateException("Could not read chunk at " + Arrays.toString(offset), e);
+		}
+
+		for (int i = filters.length - 1; i >= 0; i--) {
+			if ((mask[0] & (1 << i)) == 0) {
+				raw = decode(filters[i], options[i], raw, chunkBytes);
+			}
+		}
+		if (raw.length != chunkBytes) {
+			throw new IllegalArgumentException("Decoded chunk has wrong size at " + Arrays.toString(offset));
+		}
+		return raw;
+	}
+
+	private byte[] decode(int filter, int[] values, byte[] src, int chunkBytes) {
+		switch (filter) {
+		case DEFLATE_ID:
+			return inflate(src, chunkBytes);
+		case SHUFFLE_ID:
+			byte[] dst = new byte[src.length];
+			Blosc.unshuffle(src, 0, dst, 0, src.length, values.length > 0 ? values[0] : itemBytes);
+			return dst;
+		case LZ4_ID:
+			return decompressLZ4(src);
+		case Bitshuffle.FILTER_ID:
+			int elementSize = values.length > 2 ? values[2] : itemBytes;
+			if (values.length > 4 && values[4] == Bitshuffle.LZ4_COMPRESSION) {
+				return Bitshuffle.decompressLZ4(src, elementSize);
+			}
+			return Bitshuffle.unshuffleChunk(src, elementSize, values.length > 3 ? values[3] : 0);
+		case Blosc.FILTER_ID:
+			return Blosc.decompress(src);
+		default:
+			throw new IllegalArgumentException("Unsupported filter: " + filter);
+		}
+	}
+
+	private static byte[] inflate(byte[] src, int chunkBytes) {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(src);
+			byte[] dst = new byte[chunkBytes];
+			int n = inflater.inflate(dst);
+			if (!inflater.finished()) {
+				throw new IllegalArgumentException("Inflated chunk is too large");
+			}
+			return n == chunkBytes ? dst : Arrays.copyOf(dst, n);
+		} catch (DataFormatException e) {
+			throw new IllegalArgumentException("Malformed deflate stream", e);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	/**
+	 * Decompress chunk written by HDF5 LZ4 filter. This starts with the original size as a
+	 * big-endian 64-bit integer and the block size as a big-endian 32-bit integer. Each block
+	 * follows as its compressed size and data, which is stored uncompressed if that size equals
+	 * the block's original size
+	 */
+	private static byte[] decompressLZ4(byte[] src) {
+		ByteBuffer in = ByteBuffer.wrap(src); // big-endian
+		long total = in.getLong();
+		int blockSize = in.getInt();
+		if (total > Integer.MAX_VALUE || blockSize <= 0) {
+			throw new IllegalArgumentException("Malformed LZ4 chunk header");
+		}
+		byte[] dst = new byte[(int) total];
+		int ip = LZ4_HEADER_BYTES;
+		for (int op = 0; op < dst.length; op += blockSize) {
+			int size = Math.min(blockSize, dst.length - op);
+			int length = in.getInt(ip);
+			ip += 4;
+			if (length == size) {
+				System.arraycopy(src, ip, dst, op, size);
+			} else if (LZ4.decompress(src, ip, length, dst, op, size) != size) {
+				throw new IllegalArgumentException("Malformed LZ4 block");
+			}
+			ip += length;
+		}
+		return dst;
+	}
+
+	/**
+	 * Copy selected items in chunk to buffer
+	 * @param chunk
+	 * @param pos position of chunk in dataset
+	 * @param start
+	 * @param count
+	 * @param step
+	 * @param buffer
+	 */
+	private void scatter(byte[] chunk, int[] pos, int[] start, int[] count, int[] step, Object buffer) {
+		final int rank = chunks.length;
+		final int[] lo = new int[rank]; // range of selection indices within chunk
+		final int[] hi = new int[rank];
+		for (int i = 0; i < rank; i++) {
+			lo[i] = Math.max(0, Math.floorDiv(pos[i] - start[i] + step[i] - 1, step[i]));
+			hi[i] = Math.min(count[i], Math.floorDiv(pos[i] + chunks[i] - 1 - start[i], step[i]) + 1);
+			if (lo[i] >= hi[i]) {
+				return;
+			}
+		}
+
+		ByteBuffer in = ByteBuffer.wrap(chunk).order(ByteOrder.nativeOrder());
+		final int last = rank - 1;
+		final int length = hi[last] - lo[last];
+		final int[] k = lo.clone();
+		while (true) {
+			int src = 0;
+			int dst = 0;
+			for (int i = 0; i < rank; i++) {
+				src = src * chunks[i] + start[i] + k[i] * step[i] - pos[i];
+				dst = dst * count[i] + k[i];
+			}
+			copy(in, src, step[last], buffer, dst, length);
+
+			int i = last - 1;
+			while (i >= 0 && ++k[i] == hi[i]) {
+				k[i] = lo[i];
+				i--;
+			}
+			if (i < 0) {
+				break;
+			}
+		}
+	}
+
+	private static void copy(ByteBuffer src, int srcPos, int srcStep, Object dst, int dstPos, int length) {
+		if (srcStep == 1) {
+			if (dst instanceof double[] a) {
+				src.asDoubleBuffer().get(srcPos, a, dstPos, length);
+			} else if (dst instanceof float[] a) {
+				src.asFloatBuffer().get(srcPos, a, dstPos, length);
+			} else if (dst instanceof long[] a) {
+				src.asLongBuffer().get(srcPos, a, dstPos, length);
+			} else if (dst instanceof int[] a) {
+				src.asIntBuffer().get(srcPos, a, dstPos, length);
+			} else if (dst instanceof short[] a) {
+				src.asShortBuffer().get(srcPos, a, dstPos, length);
+			} else if (dst instanceof byte[] a) {
+				src.get(srcPos, a, dstPos, length);
+			}
+			return;
+		}
+
+		for (int j = 0; j < length; j++, srcPos += srcStep) {
+			int d = dstPos + j;
+			if (dst instanceof double[] a) {
+				a[d] = src.getDouble(8 * srcPos);
+			} else if (dst instanceof float[] a) {
+				a[d] = src.getFloat(4 * srcPos);
+			} else if (dst instanceof long[] a) {
+				a[d] = src.getLong(8 * srcPos);
+			} else if (dst instanceof int[] a) {
+				a[d] = src.getInt(4 * srcPos);
+			} else if (dst instanceof short[] a) {
+				a[d] = src.getShort(2 * srcPos);
+			} else if (dst instanceof byte[] a) {
+				a[d] = src.get(srcPos);
+			}
+		}
+	}
+}
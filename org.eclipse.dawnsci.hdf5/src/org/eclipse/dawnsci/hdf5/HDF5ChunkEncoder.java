@@ -0,0 +1,269 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.dawnsci.hdf5;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.zip.Deflater;
+
+import org.eclipse.dawnsci.nexus.NexusFile;
+import org.eclipse.january.dataset.BooleanDataset;
+import org.eclipse.january.dataset.ByteDataset;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetFactory;
+import org.eclipse.january.dataset.DatasetUtils;
+import org.eclipse.january.dataset.IDataset;
+import org.eclipse.january.dataset.SliceND;
+import org.eclipse.january.dataset.StringDataset;
+
+import hdf.hdf5lib.H5;
+import hdf.hdf5lib.HDF5Constants;
+import hdf.hdf5lib.exceptions.HDF5LibraryException;
+
+/**
+ * Compressor of whole chunks of a dataset for HDF5 direct chunk writes.
+ * <p>
+ * The HDF5 library applies filters serially within each write. For datasets created with
+ * {@link NexusFile#COMPRESSION_DEFLATE_PARALLEL} or {@link NexusFile#COMPRESSION_BITSHUFFLE_LZ4},
+ * a {@link HDF5File} holds an encoder which compresses the chunks covered by a slice on Java
+ * threads so that they can be written as they are. Slices which only cover parts of chunks are
+ * written through the library's filter pipeline as usual.
+ * <p>
+ * The bitshuffle filter is set as optional so that files can be written without the filter
+ * plugin being available to the library. Chunks written without it are stored uncompressed
+ * but readers need the plugin to read the other chunks.
+ */
+public class HDF5ChunkEncoder {
+
+	private static final int DEFLATE_LEVEL = 1;
+
+	private static final ThreadLocal<Deflater> deflaters = ThreadLocal.withInitial(() -> new Deflater(DEFLATE_LEVEL));
+
+	private final int compression;
+	private final Class<? extends Dataset> clazz;
+	private final int[] chunks;
+	private final int[] maxShape;
+	private final int itemBytes;
+
+	/**
+	 * Chunks compressed from a slice
+	 * @param offsets positions of chunks in dataset
+	 * @param buffers compressed chunks
+	 */
+	public record Chunks(long[][] offsets, byte[][] buffers) {
+	}
+
+	/**
+	 * Create encoder for dataset
+	 * @param compression
+	 * @param clazz dataset interface
+	 * @param chunks chunk shape
+	 * @param maxShape maximum shape of dataset (can be null)
+	 * @param itemBytes number of bytes in each item of file data type
+	 * @return encoder or null if compression is not done by encoders or dataset is not suitable
+	 */
+	public static HDF5ChunkEncoder create(int compression, Class<? extends Dataset> clazz, int[] chunks, int[] maxShape, int itemBytes) {
+		if (compression != NexusFile.COMPRESSION_DEFLATE_PARALLEL && compression != NexusFile.COMPRESSION_BITSHUFFLE_LZ4) {
+			return null;
+		}
+		if (chunks == null || chunks.length == 0 || StringDataset.class.isAssignableFrom(clazz)) {
+			return null;
+		}
+		if (BooleanDataset.class.isAssignableFrom(clazz)) {
+			clazz = ByteDataset.class;
+		}
+		if (DatasetFactory.zeros(clazz, 1).getItemBytes() != itemBytes) {
+			return null;
+		}
+		return new HDF5ChunkEncoder(compression, clazz, chunks, maxShape, itemBytes);
+	}
+
+	private HDF5ChunkEncoder(int compression, Class<? extends Dataset> clazz, int[] chunks, int[] maxShape, int itemBytes) {
+		this.compression = compression;
+		this.clazz = clazz;
+		this.chunks = chunks.clone();
+		this.maxShape = maxShape == null ? null : maxShape.clone();
+		this.itemBytes = itemBytes;
+	}
+
+	/**
+	 * Set filter in dataset creation property list
+	 * @param propertiesId
+	 * @throws HDF5LibraryException
+	 */
+	public void setFilter(long propertiesId) throws HDF5LibraryException {
+		if (compression == NexusFile.COMPRESSION_BITSHUFFLE_LZ4) {
+			int[] options = Bitshuffle.getFilterOptions(itemBytes);
+			H5.H5Pset_filter(propertiesId, Bitshuffle.FILTER_ID, HDF5Constants.H5Z_FLAG_OPTIONAL, options.length, options);
+		} else {
+			H5.H5Pset_deflate(propertiesId, DEFLATE_LEVEL);
+		}
+	}
+
+	/**
+	 * @param data
+	 * @param slice
+	 * @return true if slice covers whole chunks and can be encoded
+	 */
+	public boolean canEncode(IDataset data, SliceND slice) {
+		if (slice == null || data.getRank() == 0) {
+			return false;
+		}
+		int[] start = slice.getStart();
+		int[] stop = slice.getStop();
+		int[] step = slice.getStep();
+		if (start.length != chunks.length || data.getSize() != slice.getSize()) {
+			return false;
+		}
+		for (int i = 0; i < chunks.length; i++) {
+			int c = chunks[i];
+			if (step[i] != 1 || start[i] % c != 0) {
+				return false;
+			}
+			// edge chunks of a fixed size dimension are padded
+			if (stop[i] % c != 0 && (maxShape == null || maxShape[i] <= 0 || stop[i] != maxShape[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Compress chunks covered by slice in parallel
+	 * @param data
+	 * @param slice must satisfy {@link #canEncode(IDataset, SliceND)}
+	 * @return compressed chunks
+	 */
+	public Chunks encode(IDataset data, SliceND slice) {
+		Dataset d = DatasetUtils.convertToDataset(data);
+		if (!clazz.isInstance(d)) {
+			d = DatasetUtils.cast(clazz, d);
+		}
+		if (d.getItemBytes() != itemBytes) {
+			throw new IllegalArgumentException("Data has different item size to dataset");
+		}
+		final Object buffer = DatasetUtils.serializeDataset(d);
+		final int isize = d.getElementsPerItem();
+		final int elementBytes = itemBytes / isize;
+
+		final int rank = chunks.length;
+		final int[] start = slice.getStart();
+		final int[] shape = slice.getShape();
+		final int[] counts = new int[rank];
+		int total = 1;
+		for (int i = 0; i < rank; i++) {
+			counts[i] = (shape[i] + chunks[i] - 1) / chunks[i];
+			total *= counts[i];
+		}
+
+		final long[][] offsets = new long[total][];
+		final byte[][] buffers = new byte[total][];
+		IntStream.range(0, total).parallel().forEach(n -> {
+			int[] pos = new int[rank];
+			int r = n;
+			for (int i = rank - 1; i >= 0; i--) {
+				pos[i] = (r % counts[i]) * chunks[i];
+				r /= counts[i];
+			}
+			long[] offset = new long[rank];
+			for (int i = 0; i < rank; i++) {
+				offset[i] = start[i] + pos[i];
+			}
+			offsets[n] = offset;
+			buffers[n] = compress(gather(buffer, shape, pos, isize, elementBytes), elementBytes * isize);
+		});
+		return new Chunks(offsets, buffers);
+	}
+
+	/**
+	 * Copy chunk at given position from data, padding with zeros where the chunk lies beyond it
+	 * @param buffer primitive array of data
+	 * @param shape of data
+	 * @param pos position of chunk in data
+	 * @param isize
+	 * @param elementBytes
+	 * @return chunk in native byte order
+	 */
+	private byte[] gather(Object buffer, int[] shape, int[] pos, int isize, int elementBytes) {
+		final int rank = shape.length;
+		int chunkSize = 1;
+		for (int c : chunks) {
+			chunkSize *= c;
+		}
+		ByteBuffer out = ByteBuffer.allocate(chunkSize * isize * elementBytes).order(ByteOrder.nativeOrder());
+
+		final int last = rank - 1;
+		final int length = Math.min(chunks[last], shape[last] - pos[last]) * isize;
+		final int[] extent = new int[rank];
+		for (int i = 0; i < rank; i++) {
+			extent[i] = Math.min(chunks[i], shape[i] - pos[i]);
+		}
+
+		int[] k = new int[rank]; // row index within chunk
+		while (true) {
+			int src = 0;
+			int dst = 0;
+			for (int i = 0; i < rank; i++) {
+				src = src * shape[i] + pos[i] + k[i];
+				dst = dst * chunks[i] + k[i];
+			}
+			copy(buffer, src * isize, out, dst * isize, length);
+
+			int i = last - 1;
+			while (i >= 0 && ++k[i] == extent[i]) {
+				k[i--] = 0;
+			}
+			if (i < 0) {
+				break;
+			}
+		}
+		return out.array();
+	}
+
+	private static void copy(Object src, int srcPos, ByteBuffer dst, int dstPos, int length) {
+		if (src instanceof double[] a) {
+			dst.asDoubleBuffer().put(dstPos, a, srcPos, length);
+		} else if (src instanceof float[] a) {
+			dst.asFloatBuffer().put(dstPos, a, srcPos, length);
+		} else if (src instanceof long[] a) {
+			dst.asLongBuffer().put(dstPos, a, srcPos, length);
+		} else if (src instanceof int[] a) {
+			dst.asIntBuffer().put(dstPos, a, srcPos, length);
+		} else if (src instanceof short[] a) {
+			dst.asShortBuffer().put(dstPos, a, srcPos, length);
+		} else if (src instanceof byte[] a) {
+			dst.put(dstPos, a, srcPos, length);
+		} else {
+			throw new IllegalArgumentException("Unsupported buffer type: " + src.getClass());
+		}
+	}
+
+	private byte[] compress(byte[] chunk, int typeBytes) {
+		if (compression == NexusFile.COMPRESSION_BITSHUFFLE_LZ4) {
+			return Bitshuffle.compressLZ4(chunk, typeBytes);
+		}
+
+		Deflater deflater = deflaters.get();
+		deflater.reset();
+		deflater.setInput(chunk);
+		deflater.finish();
+		byte[] out = new byte[chunk.length + chunk.length / 1000 + 64];
+		int n = 0;
+		while (!deflater.finished()) {
+			if (n == out.length) {
+				out = Arrays.copyOf(out, 2 * out.length);
+			}
+			n += deflater.deflate(out, n, out.length - n);
+		}
+		return Arrays.copyOf(out, n);
+	}
+}
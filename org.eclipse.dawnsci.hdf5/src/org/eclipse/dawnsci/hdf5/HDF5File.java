@@ -13,6 +13,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -46,6 +47,10 @@ public class HDF5File {
 	private Map<String, long[]> datasetIDs;
 	private boolean cacheIDs;
 
+	private Map<String, HDF5ChunkCache> readDatasets;
+
+	private Map<String, HDF5ChunkEncoder> chunkEncoders;
+
 	/**
 	 * 
 	 * @param filePath
@@ -65,6 +70,8 @@ public class HDF5File {
 		}
 		datasetIDs = new HashMap<>();
 		cacheIDs = false;
+		readDatasets = new HashMap<>();
+		chunkEncoders = new HashMap<>();
 	}
 
 	public long getID() {
@@ -145,6 +152,26 @@ public class HDF5File {
 		}
 	}
 
+	private class ChunkWriteJob implements Runnable {
+		private final String dataPath;
+		private final SliceND slice;
+		private final CompletableFuture<HDF5ChunkEncoder.Chunks> chunks;
+		public ChunkWriteJob(final String dataPath, final SliceND slice, final CompletableFuture<HDF5ChunkEncoder.Chunks> chunks) {
+			this.dataPath = dataPath;
+			this.slice = slice;
+			this.chunks = chunks;
+		}
+
+		@Override
+		public void run() {
+			try {
+				HDF5Utils.writeDatasetChunks(HDF5File.this, dataPath, slice, chunks.join());
+			} catch (NexusException e) {
+				throw new RuntimeException(e);
+			}
+		}
+	}
+
 	/**
 	 * Add write job
 	 * @param destination
@@ -168,6 +195,34 @@ public class HDF5File {
 		return false;
 	}
 
+	/**
+	 * Add write job whose chunks are compressed in parallel with other jobs and then written
+	 * in order of submission
+	 * @param dataPath
+	 * @param encoder
+	 * @param data
+	 * @param slice must be encodable
+	 * @return true if writeable
+	 */
+	public synchronized boolean addWriteJob(String dataPath, HDF5ChunkEncoder encoder, IDataset data, SliceND slice) {
+		if (writeable) {
+			if (service == null) {
+				service = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>());
+			}
+			if (!service.isShutdown()) {
+				SliceND s = slice.clone();
+				CompletableFuture<HDF5ChunkEncoder.Chunks> chunks = CompletableFuture.supplyAsync(() -> encoder.encode(data, s));
+				try {
+					service.submit(new ChunkWriteJob(dataPath, s, chunks));
+					return true;
+				} catch (RejectedExecutionException e) {
+					chunks.cancel(false);
+				}
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Finish all writes (block until it is done)
 	 */
@@ -215,6 +270,14 @@ public class HDF5File {
 			}
 
 		}
+
+		for (HDF5ChunkCache c : readDatasets.values()) {
+			synchronized (c) {
+				c.close();
+			}
+		}
+		readDatasets.clear();
+		chunkEncoders.clear();
 	}
 
 	@Override
@@ -291,6 +354,32 @@ public class HDF5File {
 		}
 	}
 
+	/**
+	 * Get dataset kept open for reading until file is finished with
+	 * @param dataPath
+	 * @return dataset with its chunk cache
+	 */
+	public synchronized HDF5ChunkCache getReadDataset(final String dataPath) {
+		return readDatasets.computeIfAbsent(dataPath, HDF5ChunkCache::new);
+	}
+
+	/**
+	 * Set encoder to compress chunks of dataset written through this file
+	 * @param dataPath
+	 * @param encoder
+	 */
+	public synchronized void setChunkEncoder(final String dataPath, HDF5ChunkEncoder encoder) {
+		chunkEncoders.put(dataPath, encoder);
+	}
+
+	/**
+	 * @param dataPath
+	 * @return encoder to compress chunks of dataset or null if the library's filters are used
+	 */
+	public synchronized HDF5ChunkEncoder getChunkEncoder(final String dataPath) {
+		return chunkEncoders.get(dataPath);
+	}
+
 	/**
 	 * @param dataPath
 	 * @return true if dataset IDs are cached
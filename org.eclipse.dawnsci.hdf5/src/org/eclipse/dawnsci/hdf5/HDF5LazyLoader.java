@@ -131,10 +131,10 @@ public class HDF5LazyLoader implements ILazyLoader, ILazyDynamicLoader, Serializ
 					}
 				}
 
-				d = HDF5Utils.loadDataset(filePath, nodePath, tstart, tsize, tstep, isize, clazz, extendUnsigned);
+				d = HDF5Utils.loadDatasetCached(filePath, nodePath, tstart, tsize, tstep, isize, clazz, extendUnsigned);
 				d.setShape(newShape); // squeeze shape back
 			} else {
-				d = HDF5Utils.loadDataset(filePath, nodePath, lstart, newShape, lstep, isize, clazz, extendUnsigned);
+				d = HDF5Utils.loadDatasetCached(filePath, nodePath, lstart, newShape, lstep, isize, clazz, extendUnsigned);
 			}
 			if (d != null) {
 				d.setName(name);
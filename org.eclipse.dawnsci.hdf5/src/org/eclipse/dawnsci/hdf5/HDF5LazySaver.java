@@ -202,7 +202,12 @@ public class HDF5LazySaver extends HDF5LazyLoader implements ILazyAsyncSaver, Se
 		try {
 			HDF5File fid = HDF5FileFactory.acquireFile(filePath, true);
 			synchronized (fid) {
-				fid.addWriteJob(writeableDataset, data, slice);
+				HDF5ChunkEncoder encoder = fid.getChunkEncoder(dataPath);
+				if (encoder != null && encoder.canEncode(data, slice)) {
+					fid.addWriteJob(dataPath, encoder, data, slice);
+				} else {
+					fid.addWriteJob(writeableDataset, data, slice);
+				}
 				fid.decrementCount();
 			}
 			expandShape(slice);
@@ -338,6 +338,43 @@ public class HDF5Utils {
 		return loadDataset(fileName, node, start, count, step, isize, clazz, extend, false);
 	}
 
+	/**
+	 * Load dataset from given file, keeping the dataset open with a chunk cache while the file
+	 * is held open. This falls back to {@link #loadDataset(String, String, int[], int[], int[], int, Class, boolean)}
+	 * if {@link HDF5ChunkCache#isEnabled()} is false
+	 * @param fileName
+	 * @param node
+	 * @param start
+	 * @param count
+	 * @param step
+	 * @param isize can be -1 for item size from file
+	 * @param clazz can be null for dataset interface from file
+	 * @param extend
+	 * @return dataset
+	 * @throws ScanFileHolderException
+	 */
+	public static Dataset loadDatasetCached(final String fileName, final String node,
+				final int[] start, final int[] count, final int[] step,
+				final int isize, final Class<? extends Dataset> clazz, final boolean extend)
+				throws ScanFileHolderException {
+		if (!HDF5ChunkCache.isEnabled()) {
+			return loadDataset(fileName, node, start, count, step, isize, clazz, extend, false);
+		}
+
+		Dataset data = null;
+		try {
+			HDF5File fid = HDF5FileFactory.acquireFile(fileName, false);
+
+			data = readDatasetCached(fid, node, start, count, step, isize, clazz, extend);
+		} catch (Throwable le) {
+			logAndThrowSFHException(le, "Problem loading dataset from file");
+		} finally {
+			HDF5FileFactory.releaseFile(fileName);
+		}
+
+		return data;
+	}
+
 	/**
 	 * Load dataset from given file
 	 * @param fileName
@@ -502,10 +539,54 @@ public class HDF5Utils {
 		}
 
 		long did = -1;
+		try {
+			did = H5.H5Dopen(f.getID(), dataPath, HDF5Constants.H5P_DEFAULT);
+			data = readDataset(f, did, dataPath, start, count, step, isize, clazz, extend, checkUnsigned);
+		} catch (HDF5Exception ex) {
+			logAndThrowNexusException(ex, "Could not open dataset %s in %s", dataPath, f);
+		} finally {
+			if (did != -1) {
+				try {
+					H5.H5Dclose(did);
+				} catch (HDF5Exception ex) {
+				}
+			}
+		}
+
+		return data;
+	}
+
+	/**
+	 * Read dataset from given file ID, keeping the dataset open with a chunk cache sized to
+	 * the slices read until the file is finished with (see {@link HDF5ChunkCache})
+	 * @param f
+	 * @param dataPath
+	 * @param start
+	 * @param count
+	 * @param step
+	 * @param isize can be -1 for item size from file
+	 * @param clazz can be null for dataset interface from file
+	 * @param extend if true, then widen dataset type to accommodate all values as unsigned if necessary
+	 * @return dataset
+	 * @throws NexusException
+	 */
+	public static Dataset readDatasetCached(HDF5File f, final String dataPath, final int[] start, final int[] count,
+			final int[] step, final int isize, final Class<? extends Dataset> clazz, final boolean extend)
+					throws NexusException {
+		HDF5ChunkCache c = f.getReadDataset(dataPath);
+		synchronized (c) {
+			long did = c.open(f, start, count, step);
+			return readDataset(f, did, dataPath, start, count, step, isize, clazz, extend, false);
+		}
+	}
+
+	private static Dataset readDataset(HDF5File f, final long did, final String dataPath, final int[] start, final int[] count,
+			final int[] step, final int isize, final Class<? extends Dataset> clazz, final boolean extend, final boolean checkUnsigned)
+					throws NexusException {
+		Dataset data = null;
 		long tid = -1;
 		long ntid = -1;
 		try {
-			did = H5.H5Dopen(f.getID(), dataPath, HDF5Constants.H5P_DEFAULT);
 			tid = H5.H5Dget_type(did);
 			if (H5.H5Tequal(tid, HDF5Constants.H5T_STD_REF_OBJ)) {
 				logAndThrowNexusException(null, "Could not handle reference object data for %s in %s", dataPath, f);
@@ -561,7 +642,10 @@ public class HDF5Utils {
 						if (type.isVariableLength) {
 							logAndThrowNexusException(null, "Non-string variable length attribute are not supported for %s", dataPath);
 						}
-						H5.H5Dread(did, ntid, msid, sid, HDF5Constants.H5P_DEFAULT, odata);
+						HDF5ChunkDecoder decoder = rank == 0 || type.isize != 1 ? null : HDF5ChunkDecoder.create(did);
+						if (decoder == null || !decoder.read(did, start, count, step, odata)) {
+							H5.H5Dread(did, ntid, msid, sid, HDF5Constants.H5P_DEFAULT, odata);
+						}
 					}
 					if (convert) {
 						data = data.cast(isize, clazz, false);
@@ -603,12 +687,6 @@ public class HDF5Utils {
 				} catch (HDF5Exception ex) {
 				}
 			}
-			if (did != -1) {
-				try {
-					H5.H5Dclose(did);
-				} catch (HDF5Exception ex) {
-				}
-			}
 		}
 
 		return data;
@@ -828,22 +906,14 @@ public class HDF5Utils {
 					H5.H5Pset_layout(hdfPropertiesId, HDF5Constants.H5D_CHUNKED);
 					H5.H5Pset_chunk(hdfPropertiesId, chunks.length, chunks);
 				}
-				int deflateLevel = 0;
-				switch (compression) {
-				case NexusFile.COMPRESSION_LZW_L1:
-					deflateLevel = 1;
-					break;
-				default:
-					compression = NexusFile.COMPRESSION_NONE;
-					break;
-				}
-				if (compression != NexusFile.COMPRESSION_NONE) {
-					H5.H5Pset_deflate(hdfPropertiesId, deflateLevel);
-				}
+				HDF5ChunkEncoder encoder = setCompression(hdfPropertiesId, compression, clazz, iChunks, iMaxShape, hdfDatatypeId);
 				long hdfDatasetId = -1;
 				try {
 					hdfDatasetId = H5.H5Dcreate(f.getID(), dataPath, hdfDatatypeId, hdfDataspaceId,
 						HDF5Constants.H5P_DEFAULT, hdfPropertiesId, HDF5Constants.H5P_DEFAULT);
+					if (encoder != null) {
+						f.setChunkEncoder(dataPath, encoder);
+					}
 				} finally {
 					if (hdfDatasetId != -1) {
 						try {
@@ -881,6 +951,39 @@ public class HDF5Utils {
 		}
 	}
 
+	/**
+	 * Set compression filter in dataset creation property list
+	 * @param propertiesId
+	 * @param compression
+	 * @param clazz dataset interface
+	 * @param chunks
+	 * @param maxShape
+	 * @param datatypeId
+	 * @return encoder to compress chunks in parallel or null if the library's filter compresses them
+	 * @throws HDF5LibraryException
+	 */
+	public static HDF5ChunkEncoder setCompression(long propertiesId, int compression, Class<? extends Dataset> clazz, int[] chunks, int[] maxShape, long datatypeId) throws HDF5LibraryException {
+		switch (compression) {
+		case NexusFile.COMPRESSION_LZW_L1:
+			H5.H5Pset_deflate(propertiesId, 1);
+			break;
+		case NexusFile.COMPRESSION_DEFLATE_PARALLEL:
+		case NexusFile.COMPRESSION_BITSHUFFLE_LZ4:
+			HDF5ChunkEncoder encoder = HDF5ChunkEncoder.create(compression, clazz, chunks, maxShape, (int) H5.H5Tget_size(datatypeId));
+			if (encoder != null) {
+				encoder.setFilter(propertiesId);
+				return encoder;
+			}
+			if (chunks != null && chunks.length > 0) { // e.g. strings
+				H5.H5Pset_deflate(propertiesId, 1);
+			}
+			break;
+		default:
+			break;
+		}
+		return null;
+	}
+
 	private static void addDLSDatatype(HDF5File f, String nodePath, DLS_DATATYPE_ATTR attr) throws NexusException {
 		long fileID = f.getID();
 		String attrName = attr.getAttribute().getName();
@@ -1295,6 +1398,12 @@ public class HDF5Utils {
 	 * @throws NexusException
 	 */
 	public static void writeDatasetSlice(HDF5File f, String dataPath, SliceND slice, IDataset value) throws NexusException {
+		HDF5ChunkEncoder encoder = f.getChunkEncoder(dataPath);
+		if (encoder != null && encoder.canEncode(value, slice)) {
+			writeDatasetChunks(f, dataPath, slice, encoder.encode(value, slice));
+			return;
+		}
+
 		long[] ids = null;
 		try {
 			ids = f.openDataset(dataPath);
@@ -1314,34 +1423,10 @@ public class HDF5Utils {
 						throw new IllegalArgumentException(msg);
 					}
 				} else {
-
-					long[] dims = new long[rank];
-					long[] mdims = new long[rank];
-					if (rank > 0) {
-						H5.H5Sget_simple_extent_dims(hdfDataspaceId, dims, mdims);
-					}
+					hdfDataspaceId = extendDataset(ids, rank, slice);
 					long[] start = toLongArray(slice.getStart());
 					long[] stride = toLongArray(slice.getStep());
 					long[] shape = toLongArray(slice.getShape());
-	
-					long[] newShape = null;
-					if (slice.isExpanded()) {
-						newShape = toLongArray(slice.getSourceShape());
-					} else {
-						long[] mShape = toLongArray(slice.getStop());
-						if (expandToGreatestShape(mShape, dims)) {
-							newShape = mShape;
-						}
-					}
-					if (newShape != null) {
-						H5.H5Dset_extent(hdfDatasetId, newShape);
-						try {
-							H5.H5Sclose(hdfDataspaceId);
-						} catch (HDF5Exception ex) {
-						}
-						hdfDataspaceId = H5.H5Screate_simple(rank, newShape, mdims);
-						ids[1] = hdfDataspaceId;
-					}
 
 					H5.H5Sselect_hyperslab(hdfDataspaceId, HDF5Constants.H5S_SELECT_SET, start, stride, shape, null);
 				}
@@ -1420,6 +1505,76 @@ public class HDF5Utils {
 		}
 	}
 
+	/**
+	 * Write chunks compressed by an encoder directly to a dataset, bypassing the filter pipeline
+	 * @param f
+	 * @param dataPath
+	 * @param slice
+	 * @param chunks
+	 * @throws NexusException
+	 */
+	public static void writeDatasetChunks(HDF5File f, String dataPath, SliceND slice, HDF5ChunkEncoder.Chunks chunks) throws NexusException {
+		long[] ids = null;
+		try {
+			ids = f.openDataset(dataPath);
+			long hdfDatasetId = ids[0];
+			int rank = H5.H5Sget_simple_extent_ndims(ids[1]);
+			extendDataset(ids, rank, slice);
+
+			long[][] offsets = chunks.offsets();
+			byte[][] buffers = chunks.buffers();
+			for (int i = 0; i < offsets.length; i++) {
+				H5.H5Dwrite_chunk(hdfDatasetId, HDF5Constants.H5P_DEFAULT, 0, offsets[i], buffers[i]);
+			}
+			if (f.isSWMR()) {
+				H5.H5Dflush(hdfDatasetId);
+			}
+		} catch (HDF5Exception e) {
+			logAndThrowNexusException(e, "Could not write chunks of dataset slice (%s) to %s in %s", slice, dataPath, f);
+		} finally {
+			if (!f.containsDataset(dataPath)) {
+				closeDataset(ids);
+			}
+		}
+	}
+
+	/**
+	 * Extend dataset so that it contains slice
+	 * @param ids IDs of dataset and its data space, which is replaced if dataset is extended
+	 * @param rank
+	 * @param slice
+	 * @return ID of data space
+	 * @throws HDF5Exception
+	 */
+	private static long extendDataset(long[] ids, int rank, SliceND slice) throws HDF5Exception {
+		long hdfDataspaceId = ids[1];
+		long[] dims = new long[rank];
+		long[] mdims = new long[rank];
+		if (rank > 0) {
+			H5.H5Sget_simple_extent_dims(hdfDataspaceId, dims, mdims);
+		}
+
+		long[] newShape = null;
+		if (slice.isExpanded()) {
+			newShape = toLongArray(slice.getSourceShape());
+		} else {
+			long[] mShape = toLongArray(slice.getStop());
+			if (expandToGreatestShape(mShape, dims)) {
+				newShape = mShape;
+			}
+		}
+		if (newShape != null) {
+			H5.H5Dset_extent(ids[0], newShape);
+			try {
+				H5.H5Sclose(hdfDataspaceId);
+			} catch (HDF5Exception ex) {
+			}
+			hdfDataspaceId = H5.H5Screate_simple(rank, newShape, mdims);
+			ids[1] = hdfDataspaceId;
+		}
+		return hdfDataspaceId;
+	}
+
 	private static boolean expandToGreatestShape(long[] a, long[] b) {
 		int rank = a.length;
 		boolean isExpanded = false;
@@ -0,0 +1,207 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.dawnsci.hdf5;
+
+/**
+ * LZ4 block format compression and decompression.
+ * <p>
+ * The compressor is a greedy single-pass one which finds matches with a hash table of 4-byte
+ * sequences. Its output can be decompressed by any LZ4 block decoder.
+ */
+public class LZ4 {
+
+	private static final int MIN_MATCH = 4;
+	private static final int LAST_LITERALS = 5; // block must end with literals
+	private static final int MF_LIMIT = 12; // last match must start at least this far from end
+	private static final int MAX_DISTANCE = 65535;
+	private static final int RUN_MASK = 15;
+	private static final int HASH_LOG = 12;
+
+	private LZ4() {
+	}
+
+	/**
+	 * @param length
+	 * @return maximum size of compressed block
+	 */
+	public static int maxCompressedLength(int length) {
+		return length + length / 255 + 16;
+	}
+
+	/**
+	 * @return hash table to use in compression
+	 */
+	public static int[] createTable() {
+		return new int[1 << HASH_LOG];
+	}
+
+	/**
+	 * Compress block
+	 * @param src
+	 * @param srcOff
+	 * @param srcLen
+	 * @param dst must have space for {@link #maxCompressedLength(int)} bytes
+	 * @param dstOff
+	 * @param table hash table which can be reused between calls
+	 * @return number of bytes written
+	 */
+	public static int compress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff, int[] table) {
+		final int end = srcOff + srcLen;
+		final int matchLimit = end - LAST_LITERALS;
+		final int mfLimit = end - MF_LIMIT;
+		int anchor = srcOff;
+		int ip = srcOff;
+		int op = dstOff;
+
+		// stale entries from earlier blocks are safe as every candidate is checked
+		while (ip < mfLimit) {
+			int sequence = readInt(src, ip);
+			int h = hash(sequence);
+			int ref = table[h];
+			table[h] = ip;
+			if (ref < srcOff || ref >= ip || ip - ref > MAX_DISTANCE || readInt(src, ref) != sequence) {
+				ip++;
+				continue;
+			}
+
+			while (ip > anchor && ref > srcOff && src[ip - 1] == src[ref - 1]) {
+				ip--;
+				ref--;
+			}
+			int length = MIN_MATCH;
+			while (ip + length < matchLimit && src[ip + length] == src[ref + length]) {
+				length++;
+			}
+
+			int token = op;
+			op = writeSequence(src, anchor, ip - anchor, dst, op);
+			int offset = ip - ref;
+			dst[op++] = (byte) offset;
+			dst[op++] = (byte) (offset >>> 8);
+			int extra = length - MIN_MATCH;
+			if (extra >= RUN_MASK) {
+				dst[token] |= RUN_MASK;
+				op = writeLength(dst, op, extra - RUN_MASK);
+			} else {
+				dst[token] |= extra;
+			}
+
+			ip += length;
+			anchor = ip;
+			if (ip - 2 >= srcOff && ip < mfLimit) {
+				table[hash(readInt(src, ip - 2))] = ip - 2;
+			}
+		}
+
+		return writeSequence(src, anchor, end - anchor, dst, op) - dstOff;
+	}
+
+	/**
+	 * Decompress block
+	 * @param src
+	 * @param srcOff
+	 * @param srcLen length of compressed block
+	 * @param dst
+	 * @param dstOff
+	 * @param dstLen maximum number of bytes to write
+	 * @return number of bytes written
+	 * @throws IllegalArgumentException if block is malformed
+	 */
+	public static int decompress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff, int dstLen) {
+		final int end = srcOff + srcLen;
+		final int dstEnd = dstOff + dstLen;
+		int ip = srcOff;
+		int op = dstOff;
+		try {
+			while (true) {
+				int token = src[ip++] & 0xff;
+				int length = token >>> 4;
+				if (length == RUN_MASK) {
+					int b;
+					do {
+						b = src[ip++] & 0xff;
+						length += b;
+					} while (b == 255);
+				}
+				if (ip + length > end || op + length > dstEnd) {
+					throw new IllegalArgumentException("Malformed LZ4 block: literals overrun");
+				}
+				System.arraycopy(src, ip, dst, op, length);
+				ip += length;
+				op += length;
+				if (ip >= end) {
+					break;
+				}
+
+				int offset = (src[ip] & 0xff) | (src[ip + 1] & 0xff) << 8;
+				ip += 2;
+				int ref = op - offset;
+				if (offset == 0 || ref < dstOff) {
+					throw new IllegalArgumentException("Malformed LZ4 block: invalid offset");
+				}
+				length = token & RUN_MASK;
+				if (length == RUN_MASK) {
+					int b;
+					do {
+						b = src[ip++] & 0xff;
+						length += b;
+					} while (b == 255);
+				}
+				length += MIN_MATCH;
+				if (op + length > dstEnd) {
+					throw new IllegalArgumentException("Malformed LZ4 block: match overrun");
+				}
+				if (offset >= length) {
+					System.arraycopy(dst, ref, dst, op, length);
+					op += length;
+				} else { // overlapping so copy as repeating pattern
+					for (int i = 0; i < length; i++) {
+						dst[op++] = dst[ref++];
+					}
+				}
+			}
+		} catch (ArrayIndexOutOfBoundsException e) {
+			throw new IllegalArgumentException("Malformed LZ4 block: truncated", e);
+		}
+		return op - dstOff;
+	}
+
+	/**
+	 * Write token with literal length and the literals
+	 * @return position after literals
+	 */
+	private static int writeSequence(byte[] src, int start, int length, byte[] dst, int op) {
+		if (length >= RUN_MASK) {
+			dst[op++] = (byte) (RUN_MASK << 4);
+			op = writeLength(dst, op, length - RUN_MASK);
+		} else {
+			dst[op++] = (byte) (length << 4);
+		}
+		System.arraycopy(src, start, dst, op, length);
+		return op + length;
+	}
+
+	private static int writeLength(byte[] dst, int op, int length) {
+		while (length >= 255) {
+			dst[op++] = (byte) 255;
+			length -= 255;
+		}
+		dst[op++] = (byte) length;
+		return op;
+	}
+
+	private static int readInt(byte[] b, int i) {
+		return (b[i] & 0xff) | (b[i + 1] & 0xff) << 8 | (b[i + 2] & 0xff) << 16 | (b[i + 3] & 0xff) << 24;
+	}
+
+	private static int hash(int sequence) {
+		return (sequence * -1640531535) >>> (32 - HASH_LOG);
+	}
+}
@@ -33,6 +33,7 @@ import org.eclipse.dawnsci.analysis.api.tree.TreeFile;
 import org.eclipse.dawnsci.analysis.api.tree.TreeUtils;
 import org.eclipse.dawnsci.analysis.tree.TreeFactory;
 import org.eclipse.dawnsci.hdf5.HDF5AttributeResource;
+import org.eclipse.dawnsci.hdf5.HDF5ChunkEncoder;
 import org.eclipse.dawnsci.hdf5.HDF5DatasetResource;
 import org.eclipse.dawnsci.hdf5.HDF5DataspaceResource;
 import org.eclipse.dawnsci.hdf5.HDF5DatatypeResource;
@@ -1036,21 +1037,13 @@ public class NexusFileHDF5 implements NexusFile {
 					H5.H5Pset_layout(hdfPropertiesId, HDF5Constants.H5D_CHUNKED);
 					H5.H5Pset_chunk(hdfPropertiesId, chunks.length, chunks);
 				}
-				int deflateLevel = 0;
-				switch (compression) {
-				case COMPRESSION_LZW_L1:
-					deflateLevel = 1;
-					break;
-				default:
-					compression = COMPRESSION_NONE;
-					break;
-				}
-				if (compression != COMPRESSION_NONE) {
-					H5.H5Pset_deflate(hdfPropertiesId, deflateLevel);
-				}
+				HDF5ChunkEncoder encoder = HDF5Utils.setCompression(hdfPropertiesId, compression, clazz, iChunks, iMaxShape, hdfDatatypeId);
 				long datasetId = H5.H5Dcreate(fileId, dataPath, hdfDatatypeId, hdfDataspaceId,
 						HDF5Constants.H5P_DEFAULT, hdfPropertiesId, HDF5Constants.H5P_DEFAULT);
 				H5.H5Dclose(datasetId);
+				if (encoder != null) {
+					file.setChunkEncoder(dataPath, encoder);
+				}
 			}
 		} catch (HDF5Exception e) {
 			throw new NexusException("Could not create dataset: " + name + " in " + path, e);
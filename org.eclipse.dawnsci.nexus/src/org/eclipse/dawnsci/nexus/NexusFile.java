@@ -46,6 +46,19 @@ public interface NexusFile extends AutoCloseable {
 	 */
 	public static final int COMPRESSION_LZW_L1 = 1;
 
+	/**
+	 * Compression using deflate level 1 where chunks are compressed on parallel threads
+	 * and written directly when whole chunks are written
+	 */
+	public static final int COMPRESSION_DEFLATE_PARALLEL = 2;
+
+	/**
+	 * Compression using bitshuffle and LZ4 (HDF5 filter 32008) where chunks are compressed on
+	 * parallel threads and written directly when whole chunks are written. Reading needs the
+	 * bitshuffle filter plugin
+	 */
+	public static final int COMPRESSION_BITSHUFFLE_LZ4 = 3;
+
 	/**
 	 * Scheme for NeXus URI used to refer to external files
 	 */
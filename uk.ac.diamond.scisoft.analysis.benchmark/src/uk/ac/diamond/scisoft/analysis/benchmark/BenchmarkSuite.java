@@ -0,0 +1,66 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.benchmark;
+
+import static org.junit.Assert.assertFalse;
+
+import java.util.Collection;
+
+import org.junit.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run benchmarks and write their results as JSON so those of different releases can be compared.
+ * <p>
+ * This is run as a test by the {@code dawn-benchmark} Maven profile or can be launched from the IDE.
+ * Benchmarks are run in the current JVM as a forked JVM would not have the OSGi class path.
+ * The following system properties are read:
+ * <dl>
+ * <dt>{@value #RESULT_PROPERTY}</dt><dd>path of JSON results file (default is {@value #DEFAULT_RESULT})</dd>
+ * <dt>{@value #INCLUDE_PROPERTY}</dt><dd>regular expression for benchmarks to run (default is all)</dd>
+ * </dl>
+ */
+public class BenchmarkSuite {
+
+	public static final String RESULT_PROPERTY = "uk.ac.diamond.scisoft.analysis.benchmark.result";
+	public static final String INCLUDE_PROPERTY = "uk.ac.diamond.scisoft.analysis.benchmark.include";
+	public static final String DEFAULT_RESULT = "jmh-result.json";
+
+	/**
+	 * @return results of benchmarks
+	 * @throws RunnerException
+	 */
+	public static Collection<RunResult> run() throws RunnerException {
+		String include = System.getProperty(INCLUDE_PROPERTY, BenchmarkSuite.class.getPackageName() + "\\..*Benchmark");
+		Options options = new OptionsBuilder()
+				.include(include)
+				.forks(0)
+				.shouldFailOnError(true)
+				.resultFormat(ResultFormatType.JSON)
+				.result(System.getProperty(RESULT_PROPERTY, DEFAULT_RESULT))
+				.build();
+
+		return new Runner(options).run();
+	}
+
+	@Test
+	public void runBenchmarks() throws RunnerException {
+		assertFalse("No benchmarks were run", run().isEmpty());
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		run();
+	}
+}
@@ -0,0 +1,70 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.dawnsci.analysis.dataset.impl.FFT;
+import org.eclipse.january.dataset.Dataset;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Fourier transforms of images and of their rows. Sizes include a power of two and a
+ * non-power of two as they take different code paths
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FFTBenchmark {
+
+	@Param({"500", "512", "2048"})
+	public int size;
+
+	private Dataset image;
+	private Dataset transform;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		image = SyntheticData.createPowderImage(size, size);
+		transform = FFT.fft2(image, null, null);
+	}
+
+	@Benchmark
+	public Dataset fftRows() {
+		return FFT.fft(image, size, 1);
+	}
+
+	@Benchmark
+	public Dataset rfftRows() {
+		return FFT.rfft(image, size, 1);
+	}
+
+	@Benchmark
+	public Dataset fft2() {
+		return FFT.fft2(image, null, null);
+	}
+
+	@Benchmark
+	public Dataset ifft2() {
+		return FFT.ifft2(transform, null, null);
+	}
+}
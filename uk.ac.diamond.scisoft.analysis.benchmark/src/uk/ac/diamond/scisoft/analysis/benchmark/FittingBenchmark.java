@@ -0,0 +1,69 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.dawnsci.analysis.api.fitting.functions.IPeak;
+import org.eclipse.january.dataset.Dataset;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.ac.diamond.scisoft.analysis.fitting.Generic1DFitter;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.CompositeFunction;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.Gaussian;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.PseudoVoigt;
+
+/**
+ * Peak finding and fitting of a noisy spectrum with {@link Generic1DFitter}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FittingBenchmark {
+
+	@Param({"1000", "10000"})
+	public int points;
+
+	@Param({"1", "5"})
+	public int peaks;
+
+	@Param({"Gaussian", "PseudoVoigt"})
+	public String peak;
+
+	private Dataset x;
+	private Dataset y;
+	private Class<? extends IPeak> peakClass;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Dataset[] xy = SyntheticData.createPeaks(points, peaks);
+		x = xy[0];
+		y = xy[1];
+		peakClass = "Gaussian".equals(peak) ? Gaussian.class : PseudoVoigt.class;
+	}
+
+	@Benchmark
+	public List<CompositeFunction> fitPeaks() {
+		return Generic1DFitter.fitPeakFunctions(x, y, peakClass, peaks);
+	}
+}
@@ -0,0 +1,72 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.dawnsci.analysis.dataset.impl.Image;
+import org.eclipse.january.dataset.Dataset;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rank and mean filters of {@link Image} that do not need the image filter service
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ImageFilterBenchmark {
+
+	@Param({"512", "2048"})
+	public int size;
+
+	@Param({"3", "11"})
+	public int kernel;
+
+	private Dataset image;
+	private int[] shape;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		image = SyntheticData.createPowderImage(size, size);
+		shape = new int[] {kernel, kernel};
+	}
+
+	@Benchmark
+	public Dataset median() {
+		return Image.medianFilter(image, shape);
+	}
+
+	@Benchmark
+	public Dataset minimum() {
+		return Image.minFilter(image, shape);
+	}
+
+	@Benchmark
+	public Dataset maximum() {
+		return Image.maxFilter(image, shape);
+	}
+
+	@Benchmark
+	public Dataset meanSummedArea() throws Exception {
+		return Image.meanSummedAreaFilter(image, kernel / 2);
+	}
+}
@@ -0,0 +1,103 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.dawnsci.analysis.api.io.IDataHolder;
+import org.eclipse.january.dataset.IDataset;
+import org.eclipse.january.dataset.ILazyDataset;
+import org.eclipse.january.dataset.Slice;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.ac.diamond.scisoft.analysis.io.LoaderFactory;
+
+/**
+ * Reads of a frame-chunked image stack through {@link LoaderFactory} and the HDF5 loader
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LoaderBenchmark {
+
+	private static final int FRAMES = 32;
+
+	@Param({"256", "1024"})
+	public int size;
+
+	private Path dir;
+	private String path;
+	private ILazyDataset lazy;
+	private int frame;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		dir = Files.createTempDirectory("loader");
+		path = dir.resolve("stack.nxs").toString();
+		SyntheticData.createStackFile(Path.of(path), FRAMES, size, size);
+		lazy = LoaderFactory.getData(path).getLazyDataset(SyntheticData.DETECTOR_DATA);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		LoaderFactory.clear(path);
+		SyntheticData.delete(dir);
+	}
+
+	/**
+	 * Open file and read its tree without any data
+	 */
+	@Benchmark
+	public IDataHolder open() throws Exception {
+		LoaderFactory.clear(path);
+		return LoaderFactory.getData(path);
+	}
+
+	/**
+	 * Read one whole frame, i.e. one chunk
+	 */
+	@Benchmark
+	public IDataset readFrame() throws Exception {
+		frame = (frame + 1) % FRAMES;
+		return lazy.getSlice(new Slice(frame, frame + 1), null, null);
+	}
+
+	/**
+	 * Read a region of interest of every frame, i.e. part of every chunk
+	 */
+	@Benchmark
+	public IDataset readRegion() throws Exception {
+		int q = size / 4;
+		return lazy.getSlice(null, new Slice(q, 3 * q), new Slice(q, 3 * q));
+	}
+
+	/**
+	 * Read a sub-sampled view of every frame
+	 */
+	@Benchmark
+	public IDataset readStrided() throws Exception {
+		return lazy.getSlice(null, new Slice(null, null, 8), new Slice(null, null, 8));
+	}
+}
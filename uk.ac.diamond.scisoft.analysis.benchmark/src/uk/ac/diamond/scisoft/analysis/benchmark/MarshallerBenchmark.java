@@ -0,0 +1,84 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.dawnsci.analysis.api.roi.IROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.PolygonalROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.RectangularROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.SectorROI;
+import org.eclipse.dawnsci.json.MarshallerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JSON round-trips of regions of interest through {@link MarshallerService}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MarshallerBenchmark {
+
+	@Param({"rectangular", "sector", "polygon"})
+	public String roi;
+
+	private MarshallerService marshaller;
+	private IROI object;
+	private String json;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		marshaller = new MarshallerService();
+		switch (roi) {
+		case "rectangular":
+			object = new RectangularROI(-3.5, 4.0, 8.0, 6.1, 0.3);
+			break;
+		case "sector":
+			object = new SectorROI(512, 512, 10, 400, 0, Math.PI, 1, true, SectorROI.NONE);
+			break;
+		default:
+			PolygonalROI polygon = new PolygonalROI();
+			for (int i = 0; i < 1000; i++) {
+				double a = 2 * Math.PI * i / 1000;
+				polygon.insertPoint(100 * Math.cos(a), 100 * Math.sin(a));
+			}
+			object = polygon;
+			break;
+		}
+		json = marshaller.marshal(object);
+	}
+
+	@Benchmark
+	public String marshal() throws Exception {
+		return marshaller.marshal(object);
+	}
+
+	@Benchmark
+	public IROI unmarshal() throws Exception {
+		return marshaller.unmarshal(json, IROI.class);
+	}
+
+	@Benchmark
+	public IROI roundTrip() throws Exception {
+		return marshaller.unmarshal(marshaller.marshal(object), IROI.class);
+	}
+}
@@ -0,0 +1,72 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.ac.diamond.scisoft.analysis.diffraction.MillerSpaceMapper;
+import uk.ac.diamond.scisoft.analysis.io.LoaderFactory;
+
+/**
+ * Mapping of a synthetic rotation scan from a Pilatus 300K-sized detector to a volume in Miller space
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class MillerSpaceMapperBenchmark {
+
+	private static final int FRAMES = 50;
+	private static final int HEIGHT = 619;
+	private static final int WIDTH = 487;
+
+	@Param({"nearest", "gaussian"})
+	public String splitter;
+
+	private Path dir;
+	private String input;
+	private String output;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		dir = Files.createTempDirectory("msm");
+		Path scan = dir.resolve("scan.nxs");
+		SyntheticData.createScanFile(scan, FRAMES, HEIGHT, WIDTH);
+		input = scan.toString();
+		output = dir.resolve("volume.h5").toString();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		LoaderFactory.clear(input);
+		SyntheticData.delete(dir);
+	}
+
+	@Benchmark
+	public void mapVolume() throws Exception {
+		MillerSpaceMapper.processVolumeWithAutoBox(input, output, splitter, 0.5, 1, false, 0.005);
+	}
+}
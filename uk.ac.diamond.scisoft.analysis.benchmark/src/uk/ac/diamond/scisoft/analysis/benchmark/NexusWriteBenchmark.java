@@ -0,0 +1,99 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.dawnsci.analysis.api.processing.ExecutionType;
+import org.eclipse.dawnsci.analysis.api.processing.IOperationContext;
+import org.eclipse.dawnsci.analysis.api.processing.IOperationService;
+import org.eclipse.dawnsci.analysis.api.processing.model.EmptyModel;
+import org.eclipse.january.dataset.ILazyDataset;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.ac.diamond.scisoft.analysis.io.LoaderFactory;
+import uk.ac.diamond.scisoft.analysis.processing.OperationServiceImpl;
+import uk.ac.diamond.scisoft.analysis.processing.operations.SumOperation;
+import uk.ac.diamond.scisoft.analysis.processing.runner.OperationRunnerImpl;
+import uk.ac.diamond.scisoft.analysis.processing.runner.SeriesRunner;
+import uk.ac.diamond.scisoft.analysis.processing.visitor.NexusFileExecutionVisitor;
+
+/**
+ * Processing of an image stack where every frame and its sums are written by {@link NexusFileExecutionVisitor}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class NexusWriteBenchmark {
+
+	private static final int FRAMES = 100;
+	private static final int SIZE = 512;
+
+	@Param({"SERIES", "PARALLEL"})
+	public ExecutionType type;
+
+	@Param({"false", "true"})
+	public boolean swmr;
+
+	private Path dir;
+	private String input;
+	private String output;
+	private IOperationService service;
+	private ILazyDataset data;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		OperationRunnerImpl.setRunner(ExecutionType.SERIES, new SeriesRunner());
+		OperationRunnerImpl.setRunner(ExecutionType.PARALLEL, new SeriesRunner());
+		service = new OperationServiceImpl();
+
+		dir = Files.createTempDirectory("nexus");
+		Path stack = dir.resolve("stack.nxs");
+		SyntheticData.createStackFile(stack, FRAMES, SIZE, SIZE);
+		input = stack.toString();
+		output = dir.resolve("processed.nxs").toString();
+		data = LoaderFactory.getData(input).getLazyDataset(SyntheticData.DETECTOR_DATA);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		LoaderFactory.clear(input);
+		SyntheticData.delete(dir);
+	}
+
+	@Benchmark
+	public void process() throws Exception {
+		SumOperation op = new SumOperation();
+		op.setModel(new EmptyModel());
+
+		IOperationContext context = service.createContext();
+		context.setData(data);
+		context.setDataDimensions(new int[] {1, 2});
+		context.setVisitor(new NexusFileExecutionVisitor(output, swmr));
+		context.setSeries(op);
+		context.setExecutionType(type);
+		service.execute(context);
+	}
+}
@@ -0,0 +1,86 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.dawnsci.analysis.api.metadata.IDiffractionMetadata;
+import org.eclipse.january.dataset.Dataset;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.ac.diamond.scisoft.analysis.diffraction.powder.IPixelIntegrationCache;
+import uk.ac.diamond.scisoft.analysis.diffraction.powder.PixelIntegration;
+import uk.ac.diamond.scisoft.analysis.diffraction.powder.PixelIntegrationBean;
+import uk.ac.diamond.scisoft.analysis.diffraction.powder.PixelIntegrationCache;
+import uk.ac.diamond.scisoft.analysis.roi.XAxis;
+
+/**
+ * Azimuthal integration of a powder image to a 1D pattern or a 2D cake, with and without pixel splitting
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PixelIntegrationBenchmark {
+
+	@Param({"1024", "2048"})
+	public int size;
+
+	@Param({"false", "true"})
+	public boolean pixelSplitting;
+
+	@Param({"true", "false"})
+	public boolean to1D;
+
+	private IDiffractionMetadata metadata;
+	private PixelIntegrationBean bean;
+	private IPixelIntegrationCache cache;
+	private Dataset image;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		image = SyntheticData.createPowderImage(size, size);
+		metadata = SyntheticData.createDiffractionMetadata(size, size);
+		bean = new PixelIntegrationBean();
+		bean.setUsePixelSplitting(pixelSplitting);
+		bean.setTo1D(to1D);
+		bean.setNumberOfBinsAzimuthal(180);
+		bean.setxAxis(XAxis.Q);
+		cache = new PixelIntegrationCache(metadata, bean);
+	}
+
+	/**
+	 * Integrate with a cache that has already been created, as when processing a series of frames
+	 */
+	@Benchmark
+	public List<Dataset> integrate() {
+		return PixelIntegration.integrate(image, null, cache);
+	}
+
+	/**
+	 * Create a cache and integrate, as when processing a single frame
+	 */
+	@Benchmark
+	public List<Dataset> integrateFirst() {
+		return PixelIntegration.integrate(image, null, new PixelIntegrationCache(metadata, bean));
+	}
+}
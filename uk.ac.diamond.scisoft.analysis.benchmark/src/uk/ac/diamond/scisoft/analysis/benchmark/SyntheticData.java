@@ -0,0 +1,232 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.eclipse.dawnsci.analysis.api.diffraction.DetectorProperties;
+import org.eclipse.dawnsci.analysis.api.diffraction.DiffractionCrystalEnvironment;
+import org.eclipse.dawnsci.analysis.api.metadata.IDiffractionMetadata;
+import org.eclipse.dawnsci.analysis.api.tree.DataNode;
+import org.eclipse.dawnsci.analysis.api.tree.GroupNode;
+import org.eclipse.dawnsci.analysis.tree.TreeFactory;
+import org.eclipse.dawnsci.hdf5.nexus.NexusFileHDF5;
+import org.eclipse.dawnsci.nexus.NexusConstants;
+import org.eclipse.dawnsci.nexus.NexusException;
+import org.eclipse.dawnsci.nexus.NexusFile;
+import org.eclipse.january.DatasetException;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetFactory;
+import org.eclipse.january.dataset.DoubleDataset;
+import org.eclipse.january.dataset.FloatDataset;
+import org.eclipse.january.dataset.ILazyWriteableDataset;
+import org.eclipse.january.dataset.IntegerDataset;
+import org.eclipse.january.dataset.LazyWriteableDataset;
+import org.eclipse.january.dataset.Maths;
+import org.eclipse.january.dataset.Random;
+
+import uk.ac.diamond.scisoft.analysis.io.DiffractionMetadata;
+
+/**
+ * Generators of reproducible synthetic data for benchmarks so no external files are needed
+ */
+public class SyntheticData {
+
+	/**
+	 * Path of detector data in files created by {@link #createStackFile(Path, int, int, int)}
+	 * and {@link #createScanFile(Path, int, int, int)}
+	 */
+	public static final String DETECTOR_DATA = "/entry/instrument/detector/data";
+
+	private static final String DETECTOR = "/entry/instrument/detector";
+	private static final String DETECTOR_TRANSFORMATIONS = DETECTOR + "/transformations";
+	private static final String MODULE = DETECTOR + "/module";
+	private static final String SAMPLE = "/entry/sample";
+	private static final String SAMPLE_TRANSFORMATIONS = SAMPLE + "/transformations";
+
+	private static final long SEED = 12345;
+
+	private static final double PIXEL_SIZE = 0.172; // mm
+	private static final double DISTANCE = 500; // mm
+	private static final double ENERGY = 12; // keV
+	private static final double PHI_STEP = 0.1; // degrees
+
+	private SyntheticData() {
+	}
+
+	/**
+	 * @param shape image shape
+	 * @return diffraction metadata of a detector centred on and normal to the beam
+	 */
+	public static IDiffractionMetadata createDiffractionMetadata(int... shape) {
+		DetectorProperties dp = DetectorProperties.getDefaultDetectorProperties(shape);
+		return new DiffractionMetadata(null, dp, new DiffractionCrystalEnvironment(1.0));
+	}
+
+	/**
+	 * Create a powder pattern of Gaussian rings centred on the image with Poisson noise
+	 * @param height
+	 * @param width
+	 * @return image
+	 */
+	public static Dataset createPowderImage(int height, int width) {
+		Random.seed(SEED);
+		double[] image = new double[height * width];
+		double cy = height / 2.;
+		double cx = width / 2.;
+		double spacing = Math.min(height, width) / 12.;
+		int i = 0;
+		for (int y = 0; y < height; y++) {
+			double dy = y - cy;
+			for (int x = 0; x < width; x++) {
+				double dx = x - cx;
+				double r = Math.sqrt(dx * dx + dy * dy) / spacing;
+				double d = r - Math.rint(r);
+				image[i++] = 10 + 1000 * Math.exp(-50 * d * d) / (1 + r);
+			}
+		}
+		Dataset data = DatasetFactory.createFromObject(DoubleDataset.class, image, height, width);
+		return data.iadd(Random.poisson(10, height, width));
+	}
+
+	/**
+	 * Create a noisy spectrum of Gaussian peaks with random positions and heights on a sloping background
+	 * @param points
+	 * @param peaks
+	 * @return x and y datasets
+	 */
+	public static Dataset[] createPeaks(int points, int peaks) {
+		Random.seed(SEED);
+		Dataset x = DatasetFactory.createRange(points);
+		Dataset y = Maths.multiply(x, 0.01).iadd(5);
+		Dataset positions = Random.rand(0.1 * points, 0.9 * points, peaks);
+		Dataset heights = Random.rand(50, 200, peaks);
+		double width = points / (20. * peaks);
+		for (int i = 0; i < peaks; i++) {
+			Dataset d = Maths.subtract(x, positions.getDouble(i)).idivide(width);
+			y.iadd(Maths.exp(d.imultiply(d).imultiply(-0.5)).imultiply(heights.getDouble(i)));
+		}
+		return new Dataset[] {x, y.iadd(Random.randn(0, 1, points))};
+	}
+
+	/**
+	 * Create a NeXus file with a stack of powder images, chunked by frame as written by area detectors
+	 * @param file
+	 * @param frames
+	 * @param height
+	 * @param width
+	 * @throws NexusException
+	 * @throws DatasetException
+	 */
+	public static void createStackFile(Path file, int frames, int height, int width) throws NexusException, DatasetException {
+		try (NexusFile nf = NexusFileHDF5.createNexusFile(file.toString())) {
+			GroupNode detector = nf.getGroup("/entry:NXentry/instrument:NXinstrument/detector:NXdetector", true);
+			writeFrames(nf, detector, frames, height, width);
+		}
+	}
+
+	/**
+	 * Create a NeXus file of a rotation scan that follows the NXmx application definition as
+	 * read by the Miller space mapper. A cubic crystal is rotated about a vertical phi axis
+	 * in front of a single module detector that is normal to the beam
+	 * @param file
+	 * @param frames
+	 * @param height
+	 * @param width
+	 * @throws NexusException
+	 * @throws DatasetException
+	 */
+	public static void createScanFile(Path file, int frames, int height, int width) throws NexusException, DatasetException {
+		try (NexusFile nf = NexusFileHDF5.createNexusFile(file.toString())) {
+			GroupNode detector = nf.getGroup("/entry:NXentry/instrument:NXinstrument/detector:NXdetector", true);
+			writeFrames(nf, detector, frames, height, width);
+			nf.createData(detector, "count_time", DatasetFactory.createFromObject(0.1));
+			nf.createData(detector, "depends_on", DatasetFactory.createFromObject(DETECTOR_TRANSFORMATIONS + "/distance"));
+
+			GroupNode group = nf.getGroup(DETECTOR_TRANSFORMATIONS + ":" + NexusConstants.TRANSFORMATIONS, true);
+			writeTransformation(nf, group, "distance", DatasetFactory.createFromObject(DISTANCE), "mm", "translation",
+					new double[] {0, 0, 1}, null, ".");
+
+			group = nf.getGroup(MODULE + ":" + NexusConstants.DETECTORMODULE, true);
+			nf.createData(group, "data_origin", DatasetFactory.createFromObject(IntegerDataset.class, new int[] {0, 0}));
+			nf.createData(group, "data_size", DatasetFactory.createFromObject(IntegerDataset.class, new int[] {height, width}));
+			// place first pixel so beam hits centre of module
+			double[] offset = {width * PIXEL_SIZE / 2, height * PIXEL_SIZE / 2, 0};
+			writeTransformation(nf, group, "module_offset", DatasetFactory.createFromObject(0.), "mm", "translation",
+					new double[] {1, 0, 0}, offset, DETECTOR_TRANSFORMATIONS + "/distance");
+			writeTransformation(nf, group, "fast_pixel_direction", DatasetFactory.createFromObject(PIXEL_SIZE), "mm", "translation",
+					new double[] {-1, 0, 0}, null, MODULE + "/module_offset");
+			writeTransformation(nf, group, "slow_pixel_direction", DatasetFactory.createFromObject(PIXEL_SIZE), "mm", "translation",
+					new double[] {0, -1, 0}, null, MODULE + "/module_offset");
+
+			group = nf.getGroup(SAMPLE + ":" + NexusConstants.SAMPLE, true);
+			nf.createData(group, "depends_on", DatasetFactory.createFromObject(SAMPLE_TRANSFORMATIONS + "/phi"));
+			nf.createData(group, "unit_cell", DatasetFactory.createFromObject(new double[] {5.43, 5.43, 5.43, 90, 90, 90}));
+			nf.createData(group, "orientation_matrix", DatasetFactory.createFromObject(new double[] {1, 0, 0, 0, 1, 0, 0, 0, 1}, 3, 3));
+
+			group = nf.getGroup(SAMPLE + "/beam:" + NexusConstants.BEAM, true);
+			DataNode energy = nf.createData(group, "incident_energy", DatasetFactory.createFromObject(ENERGY));
+			nf.addAttribute(energy, TreeFactory.createAttribute(NexusConstants.UNITS, "keV"));
+
+			group = nf.getGroup(SAMPLE_TRANSFORMATIONS + ":" + NexusConstants.TRANSFORMATIONS, true);
+			Dataset phi = DatasetFactory.createRange(frames).imultiply(PHI_STEP);
+			writeTransformation(nf, group, "phi", phi, "deg", "rotation", new double[] {0, 1, 0}, null, ".");
+		}
+	}
+
+	private static void writeFrames(NexusFile nf, GroupNode detector, int frames, int height, int width) throws NexusException, DatasetException {
+		int[] shape = {frames, height, width};
+		int[] chunk = {1, height, width};
+		ILazyWriteableDataset lazy = new LazyWriteableDataset(NexusConstants.DATA_DATA, Float.class, shape, null, chunk, null);
+		nf.createData(detector, lazy);
+
+		Dataset image = createPowderImage(height, width).cast(FloatDataset.class);
+		image.setShape(chunk);
+		for (int i = 0; i < frames; i++) {
+			lazy.setSlice(null, image, new int[] {i, 0, 0}, new int[] {i + 1, height, width}, null);
+		}
+	}
+
+	private static void writeTransformation(NexusFile nf, GroupNode group, String name, Dataset value, String units,
+			String type, double[] vector, double[] offset, String dependsOn) throws NexusException {
+		DataNode node = nf.createData(group, name, value);
+		nf.addAttribute(node, TreeFactory.createAttribute(NexusConstants.UNITS, units));
+		nf.addAttribute(node, TreeFactory.createAttribute("transformation_type", type));
+		nf.addAttribute(node, TreeFactory.createAttribute("vector", vector));
+		if (offset != null) {
+			nf.addAttribute(node, TreeFactory.createAttribute("offset", offset));
+			nf.addAttribute(node, TreeFactory.createAttribute("offset_units", units));
+		}
+		nf.addAttribute(node, TreeFactory.createAttribute("depends_on", dependsOn));
+	}
+
+	/**
+	 * Delete directory and its contents
+	 * @param dir
+	 * @throws IOException
+	 */
+	public static void delete(Path dir) throws IOException {
+		if (dir == null || !Files.exists(dir)) {
+			return;
+		}
+		List<Path> paths;
+		try (Stream<Path> s = Files.walk(dir)) {
+			paths = s.sorted(Comparator.reverseOrder()).toList();
+		}
+		for (Path p : paths) {
+			Files.delete(p);
+		}
+	}
+}
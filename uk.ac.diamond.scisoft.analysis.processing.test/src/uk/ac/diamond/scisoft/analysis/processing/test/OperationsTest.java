@@ -9,6 +9,8 @@
 package uk.ac.diamond.scisoft.analysis.processing.test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import java.util.Collection;
 
@@ -19,13 +21,19 @@ import org.eclipse.dawnsci.analysis.api.processing.IOperationContext;
 import org.eclipse.dawnsci.analysis.api.processing.IOperationService;
 import org.eclipse.dawnsci.analysis.api.processing.OperationData;
 import org.eclipse.dawnsci.analysis.api.processing.OperationException;
+import org.eclipse.dawnsci.analysis.api.processing.model.SleepModel;
 import org.eclipse.dawnsci.analysis.api.processing.model.ValueModel;
 import org.eclipse.january.IMonitor;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetFactory;
+import org.eclipse.january.dataset.DatasetUtils;
 import org.eclipse.january.dataset.Random;
+import org.eclipse.january.dataset.Slice;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
 import uk.ac.diamond.scisoft.analysis.processing.OperationServiceImpl;
+import uk.ac.diamond.scisoft.analysis.processing.operations.SleepOperation;
 import uk.ac.diamond.scisoft.analysis.processing.runner.OperationRunnerImpl;
 import uk.ac.diamond.scisoft.analysis.processing.runner.SeriesRunner;
 
@@ -307,4 +315,80 @@ public class OperationsTest {
 		assertEquals("Not all jobs completed before timeout in parallel run! counter: " + counter + ", expected: 24", 24, counter);
 	}
 
+	@Test
+	public void testStagedParallel() throws Exception {
+
+		// atomic operation followed by one which is not, so pipeline runs in two stages
+		final SleepOperation sleep = new SleepOperation();
+		SleepModel sleepModel = new SleepModel();
+		sleepModel.setMilliseconds(20);
+		sleep.setModel(sleepModel);
+		final IOperation add = service.findFirst("add");
+		add.setModel(new ValueModel(101));
+
+		Dataset data = DatasetFactory.zeros(24, 16, 16);
+		for (int i = 0; i < 24; i++) {
+			data.getSliceView(new Slice(i, i + 1)).fill(i);
+		}
+
+		final IOperationContext context = service.createContext();
+		context.setData(data);
+		context.setDataDimensions(new int[]{1,2});
+		context.setExecutionType(ExecutionType.PARALLEL);
+
+		counter = 0;
+		context.setVisitor(new IExecutionVisitor.Stub() {
+			@Override
+			public void executed(OperationData result, IMonitor monitor) throws Exception {
+				// results arrive in slice order
+				double value = DatasetUtils.convertToDataset(result.getData()).min().doubleValue();
+				assertEquals(counter + 101, value, 1e-12);
+				counter++;
+			}
+		});
+		context.setSeries(sleep, add);
+		service.execute(context);
+
+		assertEquals(24, counter);
+	}
+
+	private String summary;
+
+	@Test
+	public void testProfiling() throws Exception {
+
+		final IOperation add      = service.findFirst("add");
+		add.setModel(new ValueModel(101));
+		final IOperation subtract = service.findFirst("subtractOperation");
+		subtract.setModel(new ValueModel(100));
+
+		final IOperationContext context = service.createContext();
+		context.setData(Random.rand(0.0, 10.0, 24, 16, 16));
+		context.setDataDimensions(new int[]{1,2});
+		context.setExecutionType(ExecutionType.PARALLEL);
+		context.setProfiling(true);
+
+		counter = 0;
+		summary = null;
+		context.setVisitor(new IExecutionVisitor.Stub() {
+			@Override
+			public void executed(OperationData result, IMonitor monitor) throws Exception {
+				counter++;
+			}
+
+			@Override
+			public void profiled(String s) {
+				summary = s;
+			}
+		});
+		context.setSeries(add, subtract);
+		service.execute(context);
+
+		assertEquals(24, counter);
+		assertNotNull(summary);
+		assertTrue(summary, summary.startsWith("Processed 24 slices"));
+		assertTrue(summary, summary.contains("0-" + add.getName()));
+		assertTrue(summary, summary.contains("1-" + subtract.getName()));
+	}
+
 }
@@ -0,0 +1,134 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.processing.test.expressions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.eclipse.dawnsci.analysis.api.expressions.ICompiledExpression;
+import org.eclipse.dawnsci.analysis.api.expressions.IExpressionEngine;
+import org.eclipse.dawnsci.analysis.api.expressions.IExpressionService;
+import org.eclipse.january.asserts.TestUtils;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetFactory;
+import org.eclipse.january.dataset.DoubleDataset;
+import org.eclipse.january.dataset.IntegerDataset;
+import org.eclipse.january.dataset.Maths;
+import org.junit.Test;
+
+import uk.ac.diamond.scisoft.analysis.processing.operations.expressions.ElementwiseExpression;
+
+public class ElementwiseExpressionTest {
+
+	private static final String FALLBACK = "fallback";
+
+	/**
+	 * Service whose compiled expressions only count evaluations
+	 */
+	private static class CountingService implements IExpressionService {
+		final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public IExpressionEngine getExpressionEngine() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public ICompiledExpression compileExpression(String expression) {
+			return new ICompiledExpression() {
+				@Override
+				public String getExpression() {
+					return expression;
+				}
+
+				@Override
+				public Collection<String> getVariableNames() {
+					return List.of();
+				}
+
+				@SuppressWarnings("unchecked")
+				@Override
+				public <T> T evaluate(Map<String, Object> variables) {
+					count.incrementAndGet();
+					return (T) FALLBACK;
+				}
+			};
+		}
+	}
+
+	@Test
+	public void testOnePass() throws Exception {
+		CountingService service = new CountingService();
+		Dataset data = DatasetFactory.createRange(DoubleDataset.class, 5000).reshape(50, 100);
+		Dataset q = Maths.multiply(DatasetFactory.createRange(DoubleDataset.class, 5000).reshape(50, 100), 1e-3);
+		Dataset i = DatasetFactory.createRange(IntegerDataset.class, 5000).reshape(50, 100);
+		Map<String, Object> variables = new HashMap<>();
+		variables.put("data", data);
+		variables.put("q", q);
+		variables.put("i", i);
+		variables.put("energy", 12.5);
+
+		ICompiledExpression e = ElementwiseExpression.compile(service, "(data - 2) * dnp:exp(-q) / energy + -q");
+		assertEquals(Arrays.asList("data", "q", "energy"), e.getVariableNames());
+		Dataset expected = Maths.subtract(Maths.divide(Maths.multiply(Maths.subtract(data, 2), Maths.exp(Maths.negative(q))), 12.5), q);
+		TestUtils.assertDatasetEquals(expected, e.evaluate(variables), false, 1e-14, 1e-14);
+
+		e = ElementwiseExpression.compile(service, "i * dnp:power(q, 2)");
+		TestUtils.assertDatasetEquals(Maths.multiply(i, Maths.power(q, 2)), e.evaluate(variables), false, 1e-14, 1e-14);
+
+		// views are read in place
+		variables.put("data", data.getSliceView(null, null, new int[] {1, 2}));
+		variables.put("q", q.getSliceView(null, null, new int[] {1, 2}));
+		e = ElementwiseExpression.compile(service, "dnp:hypot(data, q)");
+		TestUtils.assertDatasetEquals(Maths.hypot(data.getSliceView(null, null, new int[] {1, 2}), q.getSliceView(null, null, new int[] {1, 2})),
+				e.evaluate(variables), false, 1e-14, 1e-14);
+		assertEquals(0, service.count.get());
+	}
+
+	@Test
+	public void testFallback() throws Exception {
+		CountingService service = new CountingService();
+		Map<String, Object> variables = new HashMap<>();
+		variables.put("data", DatasetFactory.createRange(DoubleDataset.class, 10));
+		variables.put("i", DatasetFactory.createRange(IntegerDataset.class, 10));
+		variables.put("axis", DatasetFactory.createRange(DoubleDataset.class, 5));
+
+		String[] expressions = new String[] {"data > 2 ? data : 0", "i * 2", "i / i * data", "2 * 3 * data", "data * axis",
+				"dnp:max(data)", "data.getShape()", "data * 2L"};
+		for (String s : expressions) {
+			assertSame(s, FALLBACK, ElementwiseExpression.compile(service, s).evaluate(variables));
+		}
+		assertEquals(expressions.length, service.count.get());
+	}
+
+	@Test
+	public void testSharedBetweenThreads() throws Exception {
+		ICompiledExpression e = ElementwiseExpression.compile(new CountingService(), "data * scale + 1");
+		IntStream.range(0, 64).parallel().forEach(j -> {
+			Map<String, Object> variables = new HashMap<>();
+			Dataset data = DatasetFactory.createRange(DoubleDataset.class, 10000);
+			variables.put("data", data);
+			variables.put("scale", j);
+			try {
+				TestUtils.assertDatasetEquals(Maths.add(Maths.multiply(data, j), 1), e.evaluate(variables), false, 0, 0);
+			} catch (Exception ex) {
+				throw new RuntimeException(ex);
+			}
+		});
+	}
+}
@@ -0,0 +1,205 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.processing.test.operations;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.dawnsci.analysis.api.processing.ExecutionType;
+import org.eclipse.dawnsci.analysis.api.processing.IExecutionVisitor;
+import org.eclipse.dawnsci.analysis.api.processing.IOperationContext;
+import org.eclipse.dawnsci.analysis.api.processing.IOperationService;
+import org.eclipse.dawnsci.analysis.api.processing.IReducingOperation;
+import org.eclipse.dawnsci.analysis.api.processing.OperationData;
+import org.eclipse.dawnsci.analysis.api.processing.model.EmptyModel;
+import org.eclipse.dawnsci.analysis.dataset.slicer.SliceFromSeriesMetadata;
+import org.eclipse.dawnsci.analysis.dataset.slicer.SliceViewIterator;
+import org.eclipse.dawnsci.analysis.dataset.slicer.SourceInformation;
+import org.eclipse.january.IMonitor;
+import org.eclipse.january.asserts.TestUtils;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetUtils;
+import org.eclipse.january.dataset.IDataset;
+import org.eclipse.january.dataset.Random;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import uk.ac.diamond.scisoft.analysis.processing.OperationServiceImpl;
+import uk.ac.diamond.scisoft.analysis.processing.operations.AbstractReducingOperation;
+import uk.ac.diamond.scisoft.analysis.processing.operations.AveragingOperation;
+import uk.ac.diamond.scisoft.analysis.processing.operations.MaximumFramesOperation;
+import uk.ac.diamond.scisoft.analysis.processing.operations.MinimumFramesOperation;
+import uk.ac.diamond.scisoft.analysis.processing.operations.SumFramesOperation;
+import uk.ac.diamond.scisoft.analysis.processing.operations.VarianceFramesOperation;
+import uk.ac.diamond.scisoft.analysis.processing.runner.OperationRunnerImpl;
+import uk.ac.diamond.scisoft.analysis.processing.runner.SeriesRunner;
+
+public class ReducingOperationsTest {
+
+	private static final int N = 13;
+
+	private static IOperationService service;
+
+	@BeforeClass
+	public static void before() throws Exception {
+		service = new OperationServiceImpl();
+		OperationRunnerImpl.setRunner(ExecutionType.SERIES, new SeriesRunner());
+		OperationRunnerImpl.setRunner(ExecutionType.PARALLEL, new SeriesRunner());
+	}
+
+	private static Dataset createData() {
+		Random.seed(12345);
+		Dataset data = Random.rand(N, 4, 5);
+		data.setMetadata(new SliceFromSeriesMetadata(new SourceInformation("", "data", data)));
+		return data;
+	}
+
+	private static List<IDataset> getFrames(Dataset data) {
+		List<IDataset> frames = new ArrayList<>();
+		SliceViewIterator it = new SliceViewIterator(data, null, new int[] {1, 2});
+		while (it.hasNext()) {
+			frames.add(it.next().getSlice());
+		}
+		return frames;
+	}
+
+	/**
+	 * Execute operation on each frame in turn
+	 */
+	private static Dataset executeAll(AbstractReducingOperation<?> op, List<IDataset> frames) {
+		op.setModel(new EmptyModel());
+		op.init();
+		OperationData result = null;
+		for (IDataset f : frames) {
+			assertNull(result);
+			result = op.execute(f, null);
+		}
+		assertNotNull(result);
+		return DatasetUtils.convertToDataset(result.getData());
+	}
+
+	/**
+	 * Accumulate interleaved frames in three accumulators and combine them
+	 */
+	private static <A> Dataset reduce(IReducingOperation<A> op, List<IDataset> frames) {
+		List<A> accumulators = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			accumulators.add(op.createAccumulator());
+		}
+		for (int i = 0; i < frames.size(); i++) {
+			accumulators.set(i % 3, op.accumulate(accumulators.get(i % 3), frames.get(i)));
+		}
+		A total = op.combine(accumulators.get(0), op.combine(accumulators.get(1), accumulators.get(2)));
+		return DatasetUtils.convertToDataset(op.finish(total).getData());
+	}
+
+	/**
+	 * Run operation on all frames with the series runner
+	 * @return result sent to visitor
+	 */
+	private static Dataset run(AbstractReducingOperation<?> op, ExecutionType type) throws Exception {
+		op.setModel(new EmptyModel());
+		final List<IDataset> results = Collections.synchronizedList(new ArrayList<>());
+		IOperationContext context = service.createContext();
+		context.setData(createData());
+		context.setDataDimensions(new int[] {1, 2});
+		context.setSeries(op);
+		context.setExecutionType(type);
+		context.setNumberOfCores(4);
+		context.setVisitor(new IExecutionVisitor.Stub() {
+			@Override
+			public void executed(OperationData result, IMonitor monitor) throws Exception {
+				if (result != null && result.getData() != null) {
+					results.add(result.getData());
+				}
+			}
+		});
+		service.execute(context);
+
+		assertEquals(1, results.size());
+		return DatasetUtils.convertToDataset(results.get(0));
+	}
+
+	/**
+	 * Compare reduction by per-thread accumulators in parallel run with sequential run
+	 */
+	private static void checkParallel(Dataset expected, AbstractReducingOperation<?> sequential, AbstractReducingOperation<?> parallel) throws Exception {
+		expected.setShape(1, 4, 5);
+
+		Dataset series = run(sequential, ExecutionType.SERIES);
+		assertArrayEquals(expected.getShapeRef(), series.getShapeRef());
+		TestUtils.assertDatasetEquals(expected, series, false, 1e-12, 1e-12);
+
+		Dataset reduced = run(parallel, ExecutionType.PARALLEL);
+		assertArrayEquals(series.getShapeRef(), reduced.getShapeRef());
+		TestUtils.assertDatasetEquals(series, reduced, false, 1e-12, 1e-12);
+	}
+
+	private static void check(Dataset expected, AbstractReducingOperation<?> op) {
+		Dataset data = createData();
+		List<IDataset> frames = getFrames(data);
+		expected.setShape(1, 4, 5);
+
+		Dataset series = executeAll(op, frames);
+		assertArrayEquals(expected.getShapeRef(), series.getShapeRef());
+		TestUtils.assertDatasetEquals(expected, series, false, 1e-12, 1e-12);
+
+		Dataset reduced = reduce(op, frames);
+		assertArrayEquals(expected.getShapeRef(), reduced.getShapeRef());
+		TestUtils.assertDatasetEquals(expected, reduced, false, 1e-12, 1e-12);
+	}
+
+	@Test
+	public void testAverage() {
+		check(createData().mean(0), new AveragingOperation());
+	}
+
+	@Test
+	public void testSum() {
+		check(createData().sum(0), new SumFramesOperation());
+	}
+
+	@Test
+	public void testMaximum() {
+		check(createData().max(0), new MaximumFramesOperation());
+	}
+
+	@Test
+	public void testMinimum() {
+		check(createData().min(0), new MinimumFramesOperation());
+	}
+
+	@Test
+	public void testVariance() {
+		check(createData().variance(0), new VarianceFramesOperation());
+	}
+
+	@Test
+	public void testParallelAverage() throws Exception {
+		checkParallel(createData().mean(0), new AveragingOperation(), new AveragingOperation());
+	}
+
+	@Test
+	public void testParallelVariance() throws Exception {
+		checkParallel(createData().variance(0), new VarianceFramesOperation(), new VarianceFramesOperation());
+	}
+
+	@Test
+	public void testEmptyAccumulators() {
+		SumFramesOperation op = new SumFramesOperation();
+		assertNull(op.finish(op.combine(op.createAccumulator(), op.createAccumulator())));
+	}
+}
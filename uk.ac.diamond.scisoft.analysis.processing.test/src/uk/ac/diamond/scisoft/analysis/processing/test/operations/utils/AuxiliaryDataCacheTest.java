@@ -0,0 +1,139 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.processing.test.operations.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.dawnsci.analysis.api.processing.IOperation;
+import org.eclipse.dawnsci.analysis.dataset.slicer.SliceFromSeriesMetadata;
+import org.eclipse.dawnsci.analysis.dataset.slicer.SliceViewIterator;
+import org.eclipse.dawnsci.analysis.dataset.slicer.SourceInformation;
+import org.eclipse.january.IMonitor;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetFactory;
+import org.eclipse.january.dataset.DoubleDataset;
+import org.eclipse.january.dataset.IDataset;
+import org.eclipse.january.dataset.ILazyDataset;
+import org.eclipse.january.dataset.LazyDynamicDataset;
+import org.eclipse.january.dataset.SliceND;
+import org.eclipse.january.io.ILazyLoader;
+import org.junit.Test;
+
+import uk.ac.diamond.scisoft.analysis.processing.operations.utils.AuxiliaryDataCache;
+
+public class AuxiliaryDataCacheTest {
+
+	private static final int N = 6;
+	private static final String FILE = "/tmp/scan.nxs";
+
+	private final AtomicInteger reads = new AtomicInteger();
+
+	private ILazyDataset createLazy(final Dataset values) {
+		ILazyLoader loader = new ILazyLoader() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public boolean isFileReadable() {
+				return true;
+			}
+
+			@Override
+			public IDataset getDataset(IMonitor mon, SliceND slice) throws IOException {
+				reads.incrementAndGet();
+				return values.getSlice(slice);
+			}
+		};
+		int[] shape = values.getShape();
+		return new LazyDynamicDataset(loader, "monitor", 1, DoubleDataset.class, shape, shape, shape.clone());
+	}
+
+	private static IDataset[] getFrames(boolean live) {
+		Dataset data = DatasetFactory.zeros(N, 4, 5);
+		data.setMetadata(new SliceFromSeriesMetadata(new SourceInformation(FILE, "data", data, live)));
+		IDataset[] frames = new IDataset[N];
+		SliceViewIterator it = new SliceViewIterator(data, null, 1, 2);
+		for (int i = 0; it.hasNext(); i++) {
+			frames[i] = it.next().getSlice();
+		}
+		return frames;
+	}
+
+	private static AuxiliaryDataCache createCache(final ILazyDataset lazy) {
+		return new AuxiliaryDataCache() {
+			@Override
+			protected ILazyDataset getLazyDataset(IOperation<?, ?> op, String filePath, String datasetName) {
+				return lazy;
+			}
+		};
+	}
+
+	private static double getValue(AuxiliaryDataCache cache, IDataset frame) {
+		return cache.getMatchingValue(null, frame, FILE, "monitor").getDouble();
+	}
+
+	@Test
+	public void testStatic() {
+		Dataset values = DatasetFactory.createRange(1, N + 1, 1);
+		AuxiliaryDataCache cache = createCache(createLazy(values));
+		IDataset[] frames = getFrames(false);
+		for (int i = 0; i < N; i++) {
+			assertEquals(i + 1, getValue(cache, frames[i]), 0);
+		}
+		assertEquals(1, reads.get());
+
+		cache.clear();
+		assertEquals(3, getValue(cache, frames[2]), 0);
+		assertEquals(2, reads.get());
+	}
+
+	@Test
+	public void testScalar() {
+		Dataset values = DatasetFactory.createFromObject(new double[] {2.5});
+		AuxiliaryDataCache cache = createCache(createLazy(values));
+		IDataset[] frames = getFrames(true);
+		for (int i = 0; i < N; i++) {
+			assertEquals(2.5, getValue(cache, frames[i]), 0);
+		}
+		assertEquals(1, reads.get());
+	}
+
+	@Test
+	public void testLive() {
+		// allocated to full shape with fill values before frames are written
+		Dataset values = DatasetFactory.zeros(N).fill(Double.NaN);
+		AuxiliaryDataCache cache = createCache(createLazy(values));
+		IDataset[] frames = getFrames(true);
+
+		values.set(1, 0);
+		assertEquals(1, getValue(cache, frames[0]), 0);
+		assertEquals(1, reads.get());
+
+		values.set(2, 1);
+		assertEquals(2, getValue(cache, frames[1]), 0);
+		assertEquals(2, reads.get());
+
+		for (int i = 2; i < N; i++) {
+			values.set(i + 1, i);
+		}
+		assertEquals(5, getValue(cache, frames[4]), 0);
+		assertEquals(3, reads.get());
+
+		// earlier frames do not need another read
+		assertEquals(3, getValue(cache, frames[2]), 0);
+		assertEquals(4, getValue(cache, frames[3]), 0);
+		assertEquals(3, reads.get());
+
+		assertEquals(6, getValue(cache, frames[5]), 0);
+		assertEquals(4, reads.get());
+	}
+}
@@ -0,0 +1,188 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.processing.test.runner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.dawnsci.analysis.api.processing.IElementKernel;
+import org.eclipse.dawnsci.analysis.api.processing.IOperation;
+import org.eclipse.dawnsci.analysis.dataset.operations.AbstractOperationBase;
+import org.eclipse.dawnsci.analysis.dataset.slicer.SliceFromSeriesMetadata;
+import org.eclipse.dawnsci.analysis.dataset.slicer.SliceViewIterator;
+import org.eclipse.dawnsci.analysis.dataset.slicer.SourceInformation;
+import org.eclipse.january.asserts.TestUtils;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetUtils;
+import org.eclipse.january.dataset.IDataset;
+import org.eclipse.january.dataset.IntegerDataset;
+import org.eclipse.january.dataset.Maths;
+import org.eclipse.january.dataset.Random;
+import org.junit.Test;
+
+import uk.ac.diamond.scisoft.analysis.processing.operations.mask.ThresholdMask;
+import uk.ac.diamond.scisoft.analysis.processing.operations.mask.ThresholdMaskModel;
+import uk.ac.diamond.scisoft.analysis.processing.runner.FusedOperations;
+import uk.ac.diamond.scisoft.analysis.processing.scalar.AddScalarOperation;
+import uk.ac.diamond.scisoft.analysis.processing.scalar.DivideScalarOperation;
+import uk.ac.diamond.scisoft.analysis.processing.scalar.MutliplyScalarOperation;
+import uk.ac.diamond.scisoft.analysis.processing.scalar.ScalarModel;
+import uk.ac.diamond.scisoft.analysis.processing.scalar.SubtractScalarOperation;
+import uk.ac.diamond.scisoft.analysis.utils.ErrorPropagationUtils;
+
+public class FusedOperationsTest {
+
+	private static final int N = 7;
+
+	private static Dataset createData(boolean errors) {
+		Random.seed(12345);
+		Dataset data = Random.rand(N, 4, 5).imultiply(100);
+		if (errors) {
+			data.setErrors(Maths.sqrt(data));
+		}
+		data.setMetadata(new SliceFromSeriesMetadata(new SourceInformation("", "data", data)));
+		return data;
+	}
+
+	private static IDataset[] getFrames(Dataset data) {
+		IDataset[] frames = new IDataset[N];
+		SliceViewIterator it = new SliceViewIterator(data, null, new int[] {1, 2});
+		for (int i = 0; it.hasNext(); i++) {
+			frames[i] = it.next().getSlice();
+		}
+		return frames;
+	}
+
+	private static ScalarModel createModel(double value) {
+		ScalarModel model = new ScalarModel();
+		model.setValue(value);
+		return model;
+	}
+
+	private static IOperation<?, ?>[] createSeries() {
+		MutliplyScalarOperation multiply = new MutliplyScalarOperation();
+		multiply.setModel(createModel(2.5));
+		SubtractScalarOperation subtract = new SubtractScalarOperation();
+		subtract.setModel(createModel(10));
+		DivideScalarOperation divide = new DivideScalarOperation();
+		divide.setModel(createModel(4));
+		ThresholdMask threshold = new ThresholdMask();
+		threshold.setModel(new ThresholdMaskModel(40, 0));
+		AddScalarOperation add = new AddScalarOperation();
+		add.setModel(createModel(1));
+		return new IOperation<?, ?>[] {multiply, subtract, divide, threshold, add};
+	}
+
+	private static Dataset executeAll(IOperation<?, ?>[] series, IDataset frame) {
+		IDataset data = frame;
+		for (IOperation<?, ?> op : series) {
+			data = op.execute(data, null).getData();
+		}
+		return DatasetUtils.convertToDataset(data);
+	}
+
+	private static Dataset fuseAll(IOperation<?, ?>[] series, IDataset frame) {
+		FusedOperations fused = new FusedOperations(frame);
+		for (IOperation<?, ?> op : series) {
+			assertTrue(fused.add(op));
+		}
+		assertEquals(series.length, fused.size());
+		return DatasetUtils.convertToDataset(fused.execute().getData());
+	}
+
+	private static Dataset getMask(IDataset data) {
+		IDataset mask = AbstractOperationBase.getFirstMask(data);
+		assertNotNull(mask);
+		return DatasetUtils.convertToDataset(mask).getSliceView().squeeze();
+	}
+
+	private static void check(boolean errors) {
+		IOperation<?, ?>[] series = createSeries();
+		for (IDataset frame : getFrames(createData(errors))) {
+			Dataset expected = executeAll(series, frame.getSlice());
+			Dataset actual = fuseAll(series, frame.getSlice());
+
+			TestUtils.assertDatasetEquals(expected, actual, false, 1e-14, 1e-14);
+			if (errors) {
+				TestUtils.assertDatasetEquals(expected.getErrors(), actual.getErrors(), false, 1e-14, 1e-14);
+			} else {
+				assertNull(actual.getErrors());
+			}
+			TestUtils.assertDatasetEquals(getMask(expected), getMask(actual), true, 0, 0);
+			assertNotNull(actual.getFirstMetadata(SliceFromSeriesMetadata.class));
+		}
+	}
+
+	@Test
+	public void testSeries() {
+		check(false);
+	}
+
+	@Test
+	public void testSeriesWithErrors() {
+		check(true);
+	}
+
+	@Test
+	public void testIntegerInput() {
+		IOperation<?, ?>[] series = createSeries();
+		Dataset data = createData(false).cast(IntegerDataset.class);
+		data.setMetadata(new SliceFromSeriesMetadata(new SourceInformation("", "data", data)));
+		IDataset frame = getFrames(data)[0];
+
+		// adding would keep integer type
+		assertFalse(new FusedOperations(frame).add(series[4]));
+
+		FusedOperations fused = new FusedOperations(frame);
+		assertTrue(fused.add(series[0]));
+		assertTrue(fused.add(series[4]));
+	}
+
+	@Test
+	public void testEndOfRun() {
+		IOperation<?, ?>[] series = createSeries();
+		assertEquals(series.length, FusedOperations.endOfRun(series, 0, series.length));
+		assertEquals(3, FusedOperations.endOfRun(series, 0, 3));
+
+		series[1].setStoreOutput(true);
+		assertEquals(2, FusedOperations.endOfRun(series, 0, series.length));
+
+		series[3].setPassUnmodifiedData(true);
+		assertEquals(3, FusedOperations.endOfRun(series, 2, series.length));
+	}
+
+	@Test
+	public void testKernelWithOperandErrors() {
+		Random.seed(12345);
+		Dataset b = Random.rand(1, 2, 20);
+		b.setErrors(Maths.sqrt(b).imultiply(0.1));
+		for (boolean errors : new boolean[] {false, true}) {
+			Dataset a = Random.rand(10, 20, 20);
+			if (errors) {
+				a.setErrors(Maths.sqrt(a));
+			}
+			Dataset expected = ErrorPropagationUtils.divideWithUncertainty(a, b);
+			Dataset expectedErrors = expected.getErrors();
+
+			IElementKernel kernel = ErrorPropagationUtils.divideKernel(a, b);
+			assertTrue(kernel.hasUncertainty());
+			Dataset ae = a.getErrors();
+			double[] out = new double[2];
+			for (int i = 0; i < a.getSize(); i++) {
+				kernel.apply(i, a.getElementDoubleAbs(i), ae == null ? 0 : ae.getElementDoubleAbs(i), out);
+				assertEquals(expected.getElementDoubleAbs(i), out[0], 1e-14);
+				assertEquals(expectedErrors.getElementDoubleAbs(i), out[1], 1e-14);
+			}
+		}
+	}
+}
@@ -0,0 +1,111 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.processing.test.runner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.dawnsci.analysis.dataset.slicer.SliceFromSeriesMetadata;
+import org.eclipse.dawnsci.analysis.dataset.slicer.SliceViewIterator;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetFactory;
+import org.junit.Test;
+
+import uk.ac.diamond.scisoft.analysis.processing.runner.ParallelSliceExecutor;
+
+public class ParallelSliceExecutorTest {
+
+	private static final int N = 50;
+
+	private static SliceViewIterator createIterator() {
+		Dataset data = DatasetFactory.createRange(N * 10.).reshape(N, 10);
+		return new SliceViewIterator(data, null, 1);
+	}
+
+	private static int getIndex(Dataset slice) {
+		return slice.getFirstMetadata(SliceFromSeriesMetadata.class).getSliceInfo().getSliceNumber();
+	}
+
+	@Test
+	public void testOrderedResults() throws Exception {
+		List<Integer> results = Collections.synchronizedList(new ArrayList<>());
+		ParallelSliceExecutor<Integer> executor = new ParallelSliceExecutor<>(slice -> {
+			int i = getIndex(slice);
+			// make early slices slower so they complete out of order
+			Thread.sleep((N - i) % 7);
+			return i;
+		}, results::add, 4, 0, true);
+
+		executor.run(createIterator());
+
+		assertEquals(N, results.size());
+		for (int i = 0; i < N; i++) {
+			assertEquals(i, results.get(i).intValue());
+		}
+	}
+
+	@Test
+	public void testUnorderedResults() throws Exception {
+		List<Integer> results = Collections.synchronizedList(new ArrayList<>());
+		ParallelSliceExecutor<Integer> executor = new ParallelSliceExecutor<>(slice -> getIndex(slice), results::add, 4, 0, false);
+
+		executor.run(createIterator());
+
+		assertEquals(N, results.size());
+		Collections.sort(results);
+		for (int i = 0; i < N; i++) {
+			assertEquals(i, results.get(i).intValue());
+		}
+	}
+
+	@Test
+	public void testBytesInFlightBounded() throws Exception {
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		// each slice is 80 bytes so at most two may be held
+		ParallelSliceExecutor<Integer> executor = new ParallelSliceExecutor<>(slice -> {
+			int r = running.incrementAndGet();
+			maxRunning.accumulateAndGet(r, Math::max);
+			Thread.sleep(2);
+			running.decrementAndGet();
+			return null;
+		}, r -> {}, 8, 160, false);
+
+		executor.run(createIterator());
+
+		assertTrue(maxRunning.get() <= 2);
+	}
+
+	@Test
+	public void testFailurePropagates() throws Exception {
+		AtomicInteger processed = new AtomicInteger();
+		ParallelSliceExecutor<Integer> executor = new ParallelSliceExecutor<>(slice -> {
+			if (getIndex(slice) == 5) {
+				throw new IllegalStateException("Bad slice");
+			}
+			processed.incrementAndGet();
+			return null;
+		}, r -> {}, 2, 0, true);
+
+		try {
+			executor.run(createIterator());
+			fail("Exception should have been thrown");
+		} catch (IllegalStateException e) {
+			assertEquals("Bad slice", e.getMessage());
+		}
+		assertTrue(processed.get() < N);
+	}
+}
@@ -0,0 +1,70 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.processing.visitor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class NexusWriteQueueTest {
+
+	@Test(timeout = 10000)
+	public void testTasksRunInOrder() throws Exception {
+		NexusWriteQueue queue = new NexusWriteQueue("test", 2);
+		List<Integer> order = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			final int n = i;
+			queue.submit(() -> order.add(n));
+		}
+		queue.await();
+		queue.close();
+
+		assertEquals(20, order.size());
+		for (int i = 0; i < 20; i++) {
+			assertEquals(i, order.get(i).intValue());
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void testErrorInTask() throws Exception {
+		NexusWriteQueue queue = new NexusWriteQueue("test", 2);
+		queue.submit(() -> {
+			throw new AssertionError("Bad write");
+		});
+
+		// more tasks than the queue holds must not block
+		try {
+			for (int i = 0; i < 20; i++) {
+				queue.submit(() -> {});
+			}
+			queue.await();
+			fail("Error should have been thrown");
+		} catch (Exception e) {
+			checkError(e);
+		}
+
+		try {
+			queue.close();
+			fail("Error should have been thrown");
+		} catch (Exception e) {
+			checkError(e);
+		}
+	}
+
+	private static void checkError(Exception e) {
+		assertTrue(e.getCause() instanceof AssertionError);
+		assertEquals("Bad write", e.getCause().getMessage());
+	}
+}
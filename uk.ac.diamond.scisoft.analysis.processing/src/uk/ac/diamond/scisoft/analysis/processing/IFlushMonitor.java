@@ -12,5 +12,14 @@ package uk.ac.diamond.scisoft.analysis.processing;
 public interface IFlushMonitor {
 
 	public void fileFlushed();
-	
+
+	/**
+	 * Called after each flush with the state of the writer
+	 * @param queued number of writes waiting to be done
+	 * @param bytesWritten total number of bytes of data written
+	 * @param bytesPerSecond average write throughput
+	 */
+	public default void writeStatus(int queued, long bytesWritten, double bytesPerSecond) {
+		// do nothing by default
+	}
 }
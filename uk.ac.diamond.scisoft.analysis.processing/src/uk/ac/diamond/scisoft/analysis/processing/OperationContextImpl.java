@@ -16,6 +16,7 @@ import org.eclipse.january.dataset.ILazyDataset;
 import org.eclipse.january.dataset.SliceND;
 
 import uk.ac.diamond.scisoft.analysis.io.LoaderFactory;
+import uk.ac.diamond.scisoft.analysis.processing.runner.PipelineProfile;
 
 public class OperationContextImpl implements IOperationContext {
 
@@ -60,6 +61,22 @@ public class OperationContextImpl implements IOperationContext {
 	 */
 	private ExecutionType executionType = ExecutionType.SERIES;
 	private int numberOfCores = 1;
+
+	/**
+	 * Limit on loaded slices held in PARALLEL mode, zero to use the runner's default
+	 */
+	private long maxBytesInFlight = 0;
+	private boolean orderedResults = false;
+
+	/**
+	 * Number of slices read ahead of processing, 0 to read each slice when needed
+	 */
+	private int readAhead = 0;
+
+	/**
+	 * Record where time is spent, off unless the system property is set
+	 */
+	private boolean profiling = Boolean.getBoolean(PipelineProfile.PROFILE_PROPERTY);
 	
 	/* (non-Javadoc)
 	 * @see uk.ac.diamond.scisoft.analysis.processing.IOperationContext#getSeries()
@@ -259,6 +276,41 @@ public class OperationContextImpl implements IOperationContext {
 		this.poolSize = slugCount;
 	}
 
+	@Override
+	public long getMaxBytesInFlight() {
+		return maxBytesInFlight;
+	}
+	@Override
+	public void setMaxBytesInFlight(long maxBytes) {
+		this.maxBytesInFlight = maxBytes;
+	}
+	@Override
+	public boolean isOrderedResults() {
+		return orderedResults;
+	}
+	@Override
+	public void setOrderedResults(boolean ordered) {
+		this.orderedResults = ordered;
+	}
+
+	@Override
+	public int getReadAhead() {
+		return readAhead;
+	}
+	@Override
+	public void setReadAhead(int count) {
+		this.readAhead = count;
+	}
+
+	@Override
+	public boolean isProfiling() {
+		return profiling;
+	}
+	@Override
+	public void setProfiling(boolean profiling) {
+		this.profiling = profiling;
+	}
+
 	@Override
 	public int[] getDataDimensions() {
 		return dataDimensions;
@@ -24,7 +24,6 @@ import java.util.regex.Pattern;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.Platform;
-import org.eclipse.dawnsci.analysis.api.processing.Atomic;
 import org.eclipse.dawnsci.analysis.api.processing.ExecutionType;
 import org.eclipse.dawnsci.analysis.api.processing.IOperation;
 import org.eclipse.dawnsci.analysis.api.processing.IOperationBean;
@@ -55,6 +54,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import uk.ac.diamond.scisoft.analysis.processing.bean.OperationBean;
+import uk.ac.diamond.scisoft.analysis.processing.runner.OperationStage;
 import uk.ac.diamond.scisoft.analysis.utils.ClassUtils;
 
 /**
@@ -156,14 +156,14 @@ public class OperationServiceImpl implements IOperationService {
 	        
 	        
 	        if (context.getExecutionType() == ExecutionType.PARALLEL){
-	        	IOperation<?,?>[] operationSeries = context.getSeries();
-				for (IOperation<?,?> op : operationSeries) {
-					Atomic atomic = op.getClass().getAnnotation(Atomic.class);
-					if (atomic == null) {
-						context.setExecutionType(ExecutionType.SERIES);
-						logger.info("Switching to series runner!");
-						break;
-					}
+				// operations which are not atomic run in ordered stages, so only
+				// switch when nothing can run concurrently
+				List<OperationStage> stages = OperationStage.plan(context.getSeries());
+				if (stages.stream().noneMatch(OperationStage::isAtomic) && OperationStage.indexOfReduction(context.getSeries()) < 0) {
+					context.setExecutionType(ExecutionType.SERIES);
+					logger.info("Switching to series runner!");
+				} else if (stages.size() > 1) {
+					logger.info("Running pipeline in stages {}", stages);
 				}
 	        }
 	
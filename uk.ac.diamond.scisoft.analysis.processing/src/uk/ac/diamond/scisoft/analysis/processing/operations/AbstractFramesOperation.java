@@ -9,76 +9,48 @@
 
 package uk.ac.diamond.scisoft.analysis.processing.operations;
 
-import org.eclipse.dawnsci.analysis.api.processing.IExportOperation;
-import org.eclipse.dawnsci.analysis.api.processing.OperationData;
-import org.eclipse.dawnsci.analysis.api.processing.OperationRank;
-import org.eclipse.dawnsci.analysis.api.processing.model.EmptyModel;
-import org.eclipse.dawnsci.analysis.dataset.operations.AbstractOperation;
-import org.eclipse.dawnsci.analysis.dataset.slicer.SliceFromSeriesMetadata;
-import org.eclipse.january.IMonitor;
 import org.eclipse.january.dataset.Dataset;
-import org.eclipse.january.dataset.DatasetUtils;
-import org.eclipse.january.dataset.IDataset;
 
-public abstract class AbstractFramesOperation extends AbstractOperation<EmptyModel, OperationData> implements IExportOperation {
-	private Dataset currentData;
-	private int count;
+public abstract class AbstractFramesOperation extends AbstractReducingOperation<AbstractFramesOperation.FramesAccumulator> {
 	private IFramesOperation framesOperation;
 
 	public AbstractFramesOperation(IFramesOperation framesOperation) {
 		this.framesOperation = framesOperation;
 	}
 	
+	/**
+	 * Associative combination of two frames
+	 */
 	@FunctionalInterface
 	public interface IFramesOperation {
 		public Dataset execute(Dataset oldDataset, Dataset newDataset);
 	}
-	
+
+	public static class FramesAccumulator extends AbstractReducingOperation.Accumulator {
+		private Dataset currentData;
+	}
+
 	@Override
-	public final OperationRank getInputRank() {
-		return OperationRank.ANY;
+	public FramesAccumulator createAccumulator() {
+		return new FramesAccumulator();
 	}
 
 	@Override
-	public final OperationRank getOutputRank() {
-		return OperationRank.SAME;
+	protected void add(FramesAccumulator accumulator, Dataset frame) {
+		if (accumulator.currentData == null) {
+			accumulator.currentData = frame.getSlice();
+		} else {
+			accumulator.currentData = framesOperation.execute(accumulator.currentData, frame);
+		}
 	}
-	
+
 	@Override
-	public void init(){
-		currentData = null;
-		count = 0;
+	protected void merge(FramesAccumulator accumulator, FramesAccumulator other) {
+		accumulator.currentData = framesOperation.execute(accumulator.currentData, other.currentData);
 	}
 
 	@Override
-	protected final OperationData process(IDataset input, IMonitor monitor) {
-		SliceFromSeriesMetadata ssm = getSliceSeriesMetadata(input);
-		
-		if (currentData == null) {
-			currentData = DatasetUtils.convertToDataset(input.getSlice());
-		} else {
-			currentData = framesOperation.execute(currentData, DatasetUtils.convertToDataset(input));
-		}
-		
-		count++;
-		
-		if (count == ssm.getTotalSlices()) {
-			IDataset out = currentData.getSliceView();
-			copyMetadata(input, out);
-			out.clearMetadata(SliceFromSeriesMetadata.class);
-			currentData = null;
-			SliceFromSeriesMetadata outsmm = ssm.clone();
-			for (int i = 0; i < ssm.getParent().getRank(); i++) {
-				
-				if (!outsmm.isDataDimension(i)) outsmm.reducedDimensionToSingular(i);
-				
-			}
-			out.setMetadata(outsmm);
-			
-			return new OperationData(out);
-		}
-		
-		return null;
+	protected Dataset getResult(FramesAccumulator accumulator) {
+		return accumulator.currentData.getSliceView();
 	}
-	
 }
@@ -0,0 +1,151 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.processing.operations;
+
+import org.eclipse.dawnsci.analysis.api.processing.IExportOperation;
+import org.eclipse.dawnsci.analysis.api.processing.IReducingOperation;
+import org.eclipse.dawnsci.analysis.api.processing.OperationData;
+import org.eclipse.dawnsci.analysis.api.processing.OperationException;
+import org.eclipse.dawnsci.analysis.api.processing.OperationRank;
+import org.eclipse.dawnsci.analysis.api.processing.model.EmptyModel;
+import org.eclipse.dawnsci.analysis.dataset.operations.AbstractOperation;
+import org.eclipse.dawnsci.analysis.dataset.slicer.SliceFromSeriesMetadata;
+import org.eclipse.january.IMonitor;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetUtils;
+import org.eclipse.january.dataset.IDataset;
+
+/**
+ * Base of operations which reduce all frames of a series to one frame of the same shape.
+ * <p>
+ * When executed slice by slice, the operation keeps one accumulator and returns the result
+ * with the last slice. A parallel runner can instead use the {@link IReducingOperation} methods
+ * to accumulate on many threads.
+ *
+ * @param <A> accumulator type
+ */
+public abstract class AbstractReducingOperation<A extends AbstractReducingOperation.Accumulator> extends AbstractOperation<EmptyModel, OperationData> implements IExportOperation, IReducingOperation<A> {
+
+	/**
+	 * Partial reduction of some frames
+	 */
+	public abstract static class Accumulator {
+		private int count;
+		private IDataset slice; // holds metadata for result
+
+		/**
+		 * @return number of frames added
+		 */
+		public int getCount() {
+			return count;
+		}
+	}
+
+	private A accumulator;
+
+	/**
+	 * Add frame to accumulator
+	 * @param accumulator with count of frames before this one
+	 * @param frame
+	 */
+	protected abstract void add(A accumulator, Dataset frame);
+
+	/**
+	 * Merge one accumulator into another
+	 * @param accumulator with count of frames before merge
+	 * @param other
+	 */
+	protected abstract void merge(A accumulator, A other);
+
+	/**
+	 * @param accumulator with at least one frame
+	 * @return reduced frame
+	 */
+	protected abstract Dataset getResult(A accumulator);
+
+	@Override
+	public final OperationRank getInputRank() {
+		return OperationRank.ANY;
+	}
+
+	@Override
+	public final OperationRank getOutputRank() {
+		return OperationRank.SAME;
+	}
+
+	@Override
+	public void init() {
+		accumulator = null;
+	}
+
+	@Override
+	protected final OperationData process(IDataset input, IMonitor monitor) throws OperationException {
+		SliceFromSeriesMetadata ssm = getSliceSeriesMetadata(input);
+
+		if (accumulator == null) {
+			accumulator = createAccumulator();
+		}
+		add(accumulator, DatasetUtils.convertToDataset(input));
+		accumulator.count++;
+
+		if (accumulator.count == ssm.getTotalSlices()) {
+			IDataset out = createOutput(accumulator, input);
+			accumulator = null;
+			return new OperationData(out);
+		}
+
+		return null;
+	}
+
+	@Override
+	public A accumulate(A accumulator, IDataset slice) throws OperationException {
+		add(accumulator, DatasetUtils.convertToDataset(slice.getSliceView().squeeze()));
+		accumulator.count++;
+		accumulator.slice = slice;
+		return accumulator;
+	}
+
+	@Override
+	public A combine(A a, A b) throws OperationException {
+		if (b.count == 0) {
+			return a;
+		}
+		if (a.count == 0) {
+			return b;
+		}
+		merge(a, b);
+		a.count += b.count;
+		return a;
+	}
+
+	@Override
+	public OperationData finish(A accumulator) throws OperationException {
+		if (accumulator.count == 0) {
+			return null;
+		}
+		IDataset out = createOutput(accumulator, accumulator.slice.getSliceView().squeeze());
+		return updateOutputToFullRank(new OperationData(out), accumulator.slice);
+	}
+
+	private IDataset createOutput(A accumulator, IDataset input) {
+		SliceFromSeriesMetadata ssm = getSliceSeriesMetadata(input);
+		IDataset out = getResult(accumulator);
+		copyMetadata(input, out);
+		out.clearMetadata(SliceFromSeriesMetadata.class);
+		SliceFromSeriesMetadata outsmm = ssm.clone();
+		for (int i = 0; i < ssm.getParent().getRank(); i++) {
+
+			if (!outsmm.isDataDimension(i)) outsmm.reducedDimensionToSingular(i);
+
+		}
+		out.setMetadata(outsmm);
+		return out;
+	}
+}
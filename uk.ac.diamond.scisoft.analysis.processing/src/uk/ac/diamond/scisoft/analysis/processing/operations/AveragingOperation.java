@@ -1,68 +1,43 @@
 package uk.ac.diamond.scisoft.analysis.processing.operations;
 
 
-import org.eclipse.dawnsci.analysis.api.processing.IExportOperation;
-import org.eclipse.dawnsci.analysis.api.processing.OperationData;
-import org.eclipse.dawnsci.analysis.api.processing.OperationException;
-import org.eclipse.dawnsci.analysis.api.processing.OperationRank;
-import org.eclipse.dawnsci.analysis.api.processing.model.EmptyModel;
-import org.eclipse.dawnsci.analysis.dataset.operations.AbstractOperation;
-import org.eclipse.dawnsci.analysis.dataset.slicer.SliceFromSeriesMetadata;
-import org.eclipse.january.IMonitor;
-import org.eclipse.january.dataset.IDataset;
-import org.eclipse.january.dataset.RunningAverage;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetUtils;
+import org.eclipse.january.dataset.DoubleDataset;
 
-public class AveragingOperation extends AbstractOperation<EmptyModel, OperationData> implements IExportOperation{
+public class AveragingOperation extends AbstractReducingOperation<AveragingOperation.SumAccumulator> {
+
+	public static class SumAccumulator extends AbstractReducingOperation.Accumulator {
+		private DoubleDataset sum;
+	}
 
-	private RunningAverage average;
-	
 	@Override
 	public String getId() {
 		return "uk.ac.diamond.scisoft.analysis.processing.operations.AveragingOperation";
 	}
 	
 	@Override
-	public void init(){
-		average = null;
+	public SumAccumulator createAccumulator() {
+		return new SumAccumulator();
 	}
-	
-	protected OperationData process(IDataset input, IMonitor monitor) throws OperationException {
-		
-		SliceFromSeriesMetadata ssm = getSliceSeriesMetadata(input);
-		
-		if (average == null) {
-			average = new RunningAverage(input);
+
+	@Override
+	protected void add(SumAccumulator accumulator, Dataset frame) {
+		if (accumulator.sum == null) {
+			accumulator.sum = DatasetUtils.copy(DoubleDataset.class, frame);
 		} else {
-			average.update(input);
-		}
-		
-		if (average.getCount() == ssm.getTotalSlices()) {
-			IDataset out = average.getCurrentAverage();
-			copyMetadata(input, out);
-			out.clearMetadata(SliceFromSeriesMetadata.class);
-			average = null;
-			SliceFromSeriesMetadata outsmm = ssm.clone();
-			for (int i = 0; i < ssm.getParent().getRank(); i++) {
-				
-				if (!outsmm.isDataDimension(i)) outsmm.reducedDimensionToSingular(i);
-				
-			}
-			out.setMetadata(outsmm);
-			
-			return new OperationData(out);
+			accumulator.sum.iadd(frame);
 		}
-		
-		return null;
 	}
 
 	@Override
-	public OperationRank getInputRank() {
-		return OperationRank.ANY;
+	protected void merge(SumAccumulator accumulator, SumAccumulator other) {
+		accumulator.sum.iadd(other.sum);
 	}
 
 	@Override
-	public OperationRank getOutputRank() {
-		return OperationRank.SAME;
+	protected Dataset getResult(SumAccumulator accumulator) {
+		return accumulator.sum.idivide(accumulator.getCount());
 	}
 
 }
@@ -11,6 +11,8 @@ package uk.ac.diamond.scisoft.analysis.processing.operations;
 
 import java.util.Arrays;
 
+import org.eclipse.dawnsci.analysis.api.processing.IElementKernel;
+import org.eclipse.dawnsci.analysis.api.processing.IElementwiseOperation;
 import org.eclipse.dawnsci.analysis.api.processing.OperationData;
 import org.eclipse.dawnsci.analysis.api.processing.OperationException;
 import org.eclipse.dawnsci.analysis.api.processing.OperationRank;
@@ -25,9 +27,21 @@ import org.eclipse.january.dataset.ILazyDataset;
 import org.eclipse.january.dataset.ShapeUtils;
 
 import uk.ac.diamond.scisoft.analysis.processing.operations.internaldata.InternalDataModel;
-import uk.ac.diamond.scisoft.analysis.processing.operations.utils.ProcessingUtils;
+import uk.ac.diamond.scisoft.analysis.processing.operations.utils.AuxiliaryDataCache;
 
-public abstract class OperateOnDataAbstractOperation<T extends InternalDataModel> extends AbstractOperation<T, OperationData> {
+public abstract class OperateOnDataAbstractOperation<T extends InternalDataModel> extends AbstractOperation<T, OperationData> implements IElementwiseOperation {
+
+	private final AuxiliaryDataCache cache = new AuxiliaryDataCache();
+
+	@Override
+	public void init() {
+		cache.clear();
+	}
+
+	@Override
+	public void dispose() {
+		cache.clear();
+	}
 	
 	@Override
 	public final OperationRank getInputRank() {
@@ -46,7 +60,7 @@ public abstract class OperateOnDataAbstractOperation<T extends InternalDataModel
 		
 		String dataPath = getFilePath(input);
 		
-		IDataset val = ProcessingUtils.getMatchingValue(this, input, dataPath, model.getDatasetName());
+		IDataset val = cache.getMatchingValue(this, input, dataPath, model.getDatasetName());
 		
 		Dataset output = doMathematics(inputData, DatasetUtils.convertToDataset(val));
 		// copy metadata, except for the error metadata
@@ -55,7 +69,23 @@ public abstract class OperateOnDataAbstractOperation<T extends InternalDataModel
 		return new OperationData(output);
 		}
 	
+	@Override
+	public IElementKernel createKernel(IDataset slice, Class<?> elementClass) throws OperationException {
+		IDataset val = cache.getMatchingValue(this, slice, getFilePath(slice), model.getDatasetName());
+		return getKernel(slice, DatasetUtils.convertToDataset(val));
+	}
+
 	protected abstract Dataset doMathematics(Dataset a, Dataset b); 
+
+	/**
+	 * Override to let {@link #doMathematics(Dataset, Dataset)} be fused with other element-wise operations
+	 * @param a
+	 * @param b
+	 * @return per-element form of doMathematics or null
+	 */
+	protected IElementKernel getKernel(IDataset a, Dataset b) {
+		return null;
+	}
 	
 	protected abstract String getFilePath(IDataset input);
 	
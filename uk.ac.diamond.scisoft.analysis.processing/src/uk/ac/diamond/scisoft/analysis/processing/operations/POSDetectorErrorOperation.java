@@ -19,12 +19,14 @@ import org.eclipse.january.dataset.DatasetUtils;
 import org.eclipse.january.dataset.IDataset;
 import org.eclipse.january.dataset.Maths;
 
-import uk.ac.diamond.scisoft.analysis.processing.operations.utils.ProcessingUtils;
+import uk.ac.diamond.scisoft.analysis.processing.operations.utils.AuxiliaryDataCache;
 import uk.ac.diamond.scisoft.analysis.utils.ErrorPropagationUtils;
 
 public class POSDetectorErrorOperation extends GeneralDetectorErrorOperation<POSDetectorErrorModel> {
 	
 	private Integer nRepetitions = null;
+
+	private final AuxiliaryDataCache cache = new AuxiliaryDataCache();
 	
 	@Override
 	public String getId() {
@@ -34,6 +36,12 @@ public class POSDetectorErrorOperation extends GeneralDetectorErrorOperation<POS
 	@Override
 	public void init() {
 		nRepetitions = null;
+		cache.clear();
+	}
+
+	@Override
+	public void dispose() {
+		cache.clear();
 	}
 	
 	@Override
@@ -48,7 +56,7 @@ public class POSDetectorErrorOperation extends GeneralDetectorErrorOperation<POS
 		
 
 		Dataset scale = DatasetUtils.convertToDataset(
-				ProcessingUtils.getMatchingValue(this, input, ssm.getFilePath(), model.getDatasetName()));
+				cache.getMatchingValue(this, input, ssm.getFilePath(), model.getDatasetName()));
 		
 		int s = scale.getInt();
 		
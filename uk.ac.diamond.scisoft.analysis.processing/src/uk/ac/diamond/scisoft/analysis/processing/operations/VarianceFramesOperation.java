@@ -0,0 +1,86 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.processing.operations;
+
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetFactory;
+import org.eclipse.january.dataset.DoubleDataset;
+import org.eclipse.january.dataset.IndexIterator;
+
+/**
+ * Sample variance of each pixel over all frames.
+ * <p>
+ * Frames are added with Welford's update of the mean and sum of squared differences, and
+ * partial results are merged with Chan et al.'s pairwise formula.
+ */
+public class VarianceFramesOperation extends AbstractReducingOperation<VarianceFramesOperation.VarianceAccumulator> {
+
+	public static class VarianceAccumulator extends AbstractReducingOperation.Accumulator {
+		private int[] shape;
+		private double[] mean;
+		private double[] m2; // sum of squared differences from mean
+	}
+
+	@Override
+	public String getId() {
+		return "uk.ac.diamond.scisoft.analysis.processing.operations.VarianceFramesOperation";
+	}
+
+	@Override
+	public VarianceAccumulator createAccumulator() {
+		return new VarianceAccumulator();
+	}
+
+	@Override
+	protected void add(VarianceAccumulator accumulator, Dataset frame) {
+		if (accumulator.mean == null) {
+			accumulator.shape = frame.getShape();
+			accumulator.mean = new double[frame.getSize()];
+			accumulator.m2 = new double[frame.getSize()];
+		}
+		final double[] mean = accumulator.mean;
+		final double[] m2 = accumulator.m2;
+		final double n = accumulator.getCount() + 1;
+		IndexIterator it = frame.getIterator();
+		int i = 0;
+		while (it.hasNext()) {
+			double x = frame.getElementDoubleAbs(it.index);
+			double delta = x - mean[i];
+			mean[i] += delta / n;
+			m2[i] += delta * (x - mean[i]);
+			i++;
+		}
+	}
+
+	@Override
+	protected void merge(VarianceAccumulator accumulator, VarianceAccumulator other) {
+		final double na = accumulator.getCount();
+		final double nb = other.getCount();
+		final double n = na + nb;
+		final double[] mean = accumulator.mean;
+		final double[] m2 = accumulator.m2;
+		for (int i = 0; i < mean.length; i++) {
+			double delta = other.mean[i] - mean[i];
+			mean[i] += delta * nb / n;
+			m2[i] += other.m2[i] + delta * delta * na * nb / n;
+		}
+	}
+
+	@Override
+	protected Dataset getResult(VarianceAccumulator accumulator) {
+		final double[] m2 = accumulator.m2;
+		final double[] variance = new double[m2.length];
+		final int dof = Math.max(1, accumulator.getCount() - 1);
+		for (int i = 0; i < m2.length; i++) {
+			variance[i] = m2[i] / dof;
+		}
+		return DatasetFactory.createFromObject(DoubleDataset.class, variance, accumulator.shape);
+	}
+}
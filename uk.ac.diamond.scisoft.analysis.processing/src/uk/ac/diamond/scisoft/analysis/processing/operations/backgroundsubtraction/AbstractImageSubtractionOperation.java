@@ -3,6 +3,8 @@ package uk.ac.diamond.scisoft.analysis.processing.operations.backgroundsubtracti
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 
+import org.eclipse.dawnsci.analysis.api.processing.IElementKernel;
+import org.eclipse.dawnsci.analysis.api.processing.IElementwiseOperation;
 import org.eclipse.dawnsci.analysis.api.processing.OperationData;
 import org.eclipse.dawnsci.analysis.api.processing.OperationException;
 import org.eclipse.dawnsci.analysis.api.processing.OperationRank;
@@ -10,6 +12,8 @@ import org.eclipse.dawnsci.analysis.api.processing.model.AbstractOperationModel;
 import org.eclipse.dawnsci.analysis.dataset.operations.AbstractOperation;
 import org.eclipse.january.IMonitor;
 import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetUtils;
+import org.eclipse.january.dataset.DoubleDataset;
 import org.eclipse.january.dataset.IDataset;
 import org.eclipse.january.dataset.Maths;
 
@@ -33,6 +37,52 @@ public abstract class AbstractImageSubtractionOperation<T extends AbstractOperat
 		return new OperationData(output);
 	}
 
+	/**
+	 * Per-element form of {@link #process(IDataset, IMonitor)} for subclasses whose background
+	 * does not depend on the values of the input, so they can implement {@link IElementwiseOperation}
+	 * @param slice
+	 * @param elementClass
+	 * @return kernel or null
+	 * @throws OperationException
+	 */
+	protected IElementKernel createSubtractionKernel(IDataset slice, Class<?> elementClass) throws OperationException {
+		Dataset bg = image == null ? getImage(slice) : image;
+
+		// only fuse when subtraction gives doubles and does not broadcast
+		if (bg.getSize() != slice.getSize() || bg.getElementsPerItem() != 1 ||
+				(elementClass != Double.class && bg.getElementClass() != Double.class)) {
+			return null;
+		}
+
+		if (bg.getStrides() != null) { // make contiguous
+			bg = bg.getSlice();
+		}
+		final double[] b = DatasetUtils.cast(DoubleDataset.class, bg).getData();
+		return new IElementKernel() {
+			@Override
+			public boolean hasUncertainty() {
+				return false;
+			}
+
+			// subtraction does not propagate errors
+			@Override
+			public boolean keepsUncertainty() {
+				return false;
+			}
+
+			@Override
+			public double apply(int position, double value) {
+				return value - b[position];
+			}
+
+			@Override
+			public void apply(int position, double value, double error, double[] out) {
+				out[0] = value - b[position];
+				out[1] = 0;
+			}
+		};
+	}
+
 	@Override
 	public OperationRank getInputRank() {
 		return OperationRank.TWO;
@@ -4,6 +4,8 @@ import java.io.FileNotFoundException;
 import java.util.Arrays;
 
 import org.eclipse.dawnsci.analysis.api.io.IDataHolder;
+import org.eclipse.dawnsci.analysis.api.processing.IElementKernel;
+import org.eclipse.dawnsci.analysis.api.processing.IElementwiseOperation;
 import org.eclipse.dawnsci.analysis.api.processing.OperationException;
 import org.eclipse.dawnsci.analysis.dataset.slicer.SliceFromSeriesMetadata;
 import org.eclipse.january.dataset.Dataset;
@@ -14,7 +16,7 @@ import org.eclipse.january.dataset.LazyMaths;
 
 import uk.ac.diamond.scisoft.analysis.io.LoaderFactory;
 
-public class SubtractBackgroundImageOperation extends AbstractImageSubtractionOperation<SubtractBackgroundImageModel> {
+public class SubtractBackgroundImageOperation extends AbstractImageSubtractionOperation<SubtractBackgroundImageModel> implements IElementwiseOperation {
 
 	
 	@Override
@@ -22,6 +24,11 @@ public class SubtractBackgroundImageOperation extends AbstractImageSubtractionOp
 		return "uk.ac.diamond.scisoft.analysis.processing.operations.SubtractBackgroundImageOperation";
 	}
 	
+	@Override
+	public IElementKernel createKernel(IDataset slice, Class<?> elementClass) throws OperationException {
+		return createSubtractionKernel(slice, elementClass);
+	}
+
 	@Override
 	protected Dataset getImage(IDataset input) throws OperationException {
 		SliceFromSeriesMetadata ssm = getSliceSeriesMetadata(input);
@@ -0,0 +1,624 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.processing.operations.expressions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+import org.eclipse.dawnsci.analysis.api.expressions.ICompiledExpression;
+import org.eclipse.dawnsci.analysis.api.expressions.IExpressionService;
+import org.eclipse.january.dataset.CompoundDataset;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetFactory;
+import org.eclipse.january.dataset.DatasetUtils;
+import org.eclipse.january.dataset.DoubleDataset;
+import org.eclipse.january.dataset.IDataset;
+import org.eclipse.january.dataset.InterfaceUtils;
+
+/**
+ * Compiled expression that evaluates element-wise arithmetic of double datasets in a single pass.
+ * <p>
+ * Expressions made of numbers, variables, parentheses, the operators +, -, * and / and common
+ * functions in the dnp namespace (which the expression engine maps to {@link org.eclipse.january.dataset.Maths})
+ * are parsed into a tree. When dataset variables are all the same shape and every operation involves a
+ * double dataset, so the result would be a double dataset, the tree is evaluated over blocks of elements
+ * so that no sub-expression needs a temporary dataset the size of the result. Any other expression, or
+ * any other variables, are passed to the expression service.
+ */
+public final class ElementwiseExpression implements ICompiledExpression {
+
+	private static final int BLOCK = 2048;
+
+	private static final Map<String, DoubleUnaryOperator> UNARY_FUNCTIONS = new HashMap<>();
+	private static final Map<String, DoubleBinaryOperator> BINARY_FUNCTIONS = new HashMap<>();
+	private static final Set<String> RESERVED = Set.of("and", "div", "empty", "eq", "false", "ge", "gt",
+			"le", "lt", "mod", "ne", "new", "not", "null", "or", "size", "true", "var", "function", "return");
+
+	static {
+		UNARY_FUNCTIONS.put("abs", Math::abs);
+		UNARY_FUNCTIONS.put("sin", Math::sin);
+		UNARY_FUNCTIONS.put("cos", Math::cos);
+		UNARY_FUNCTIONS.put("tan", Math::tan);
+		UNARY_FUNCTIONS.put("arcsin", Math::asin);
+		UNARY_FUNCTIONS.put("arccos", Math::acos);
+		UNARY_FUNCTIONS.put("arctan", Math::atan);
+		UNARY_FUNCTIONS.put("sinh", Math::sinh);
+		UNARY_FUNCTIONS.put("cosh", Math::cosh);
+		UNARY_FUNCTIONS.put("tanh", Math::tanh);
+		UNARY_FUNCTIONS.put("exp", Math::exp);
+		UNARY_FUNCTIONS.put("expm1", Math::expm1);
+		UNARY_FUNCTIONS.put("log", Math::log);
+		UNARY_FUNCTIONS.put("log10", Math::log10);
+		UNARY_FUNCTIONS.put("log1p", Math::log1p);
+		UNARY_FUNCTIONS.put("sqrt", Math::sqrt);
+		UNARY_FUNCTIONS.put("cbrt", Math::cbrt);
+		UNARY_FUNCTIONS.put("square", x -> x * x);
+		UNARY_FUNCTIONS.put("floor", Math::floor);
+		UNARY_FUNCTIONS.put("ceil", Math::ceil);
+		UNARY_FUNCTIONS.put("rint", Math::rint);
+		UNARY_FUNCTIONS.put("signum", Math::signum);
+		UNARY_FUNCTIONS.put("negative", x -> -x);
+		UNARY_FUNCTIONS.put("toDegrees", Math::toDegrees);
+		UNARY_FUNCTIONS.put("toRadians", Math::toRadians);
+
+		BINARY_FUNCTIONS.put("power", Math::pow);
+		BINARY_FUNCTIONS.put("arctan2", Math::atan2);
+		BINARY_FUNCTIONS.put("hypot", Math::hypot);
+	}
+
+	private final String expression;
+	private final Node root;
+	private final int nodes;
+	private final Collection<String> names;
+	private final IExpressionService service;
+	private volatile ICompiledExpression fallback;
+
+	/**
+	 * Compile an expression
+	 * @param service expression service to use for expressions or variables that cannot be evaluated in one pass
+	 * @param expression
+	 * @return compiled expression
+	 * @throws Exception if expression cannot be parsed
+	 */
+	public static ICompiledExpression compile(IExpressionService service, String expression) throws Exception {
+		Parser parser = new Parser(expression);
+		Node root = parser.parse();
+		if (root == null) {
+			return service.compileExpression(expression);
+		}
+		return new ElementwiseExpression(service, expression, root, parser.count, parser.names);
+	}
+
+	private ElementwiseExpression(IExpressionService service, String expression, Node root, int nodes, Collection<String> names) {
+		this.service = service;
+		this.expression = expression;
+		this.root = root;
+		this.nodes = nodes;
+		this.names = Collections.unmodifiableList(new ArrayList<>(names));
+	}
+
+	@Override
+	public String getExpression() {
+		return expression;
+	}
+
+	@Override
+	public Collection<String> getVariableNames() {
+		return names;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> T evaluate(Map<String, Object> variables) throws Exception {
+		Dataset result = evaluateInOnePass(variables);
+		if (result != null) {
+			return (T) result;
+		}
+		return getFallback().evaluate(variables);
+	}
+
+	/**
+	 * @param variables
+	 * @return result or null if expression cannot be evaluated in one pass with these variables
+	 */
+	Dataset evaluateInOnePass(Map<String, Object> variables) {
+		Context context = new Context(nodes, variables);
+		if (root.bind(context) != Binding.DOUBLE) {
+			return null;
+		}
+
+		DoubleDataset result = DatasetFactory.zeros(DoubleDataset.class, context.shape);
+		double[] out = result.getData();
+		double[] buffer = context.buffers[root.id];
+		for (int start = 0; start < out.length; start += BLOCK) {
+			int n = Math.min(BLOCK, out.length - start);
+			root.evaluate(context, start, n);
+			System.arraycopy(buffer, 0, out, start, n);
+		}
+		return result;
+	}
+
+	private ICompiledExpression getFallback() throws Exception {
+		ICompiledExpression f = fallback;
+		if (f == null) {
+			synchronized (this) {
+				f = fallback;
+				if (f == null) {
+					if (service == null) {
+						throw new IllegalStateException("No expression service available to evaluate " + expression);
+					}
+					f = service.compileExpression(expression);
+					fallback = f;
+				}
+			}
+		}
+		return f;
+	}
+
+	private enum Binding {
+		/**
+		 * Cannot be evaluated in one pass
+		 */
+		INVALID,
+		/**
+		 * Same value for all elements
+		 */
+		SCALAR,
+		/**
+		 * Integer or float dataset, which is only converted to double when combined with a double dataset
+		 */
+		OTHER,
+		/**
+		 * Double dataset
+		 */
+		DOUBLE
+	}
+
+	/**
+	 * Per-evaluation state of nodes, so the same tree can be evaluated by many threads
+	 */
+	private static class Context {
+		final Map<String, Object> variables;
+		final double[][] buffers;
+		final double[][] data;
+		int[] shape;
+
+		Context(int nodes, Map<String, Object> variables) {
+			this.variables = variables;
+			buffers = new double[nodes][BLOCK];
+			data = new double[nodes][];
+		}
+	}
+
+	private abstract static class Node {
+		final int id;
+
+		Node(int id) {
+			this.id = id;
+		}
+
+		/**
+		 * Bind variables and fill buffers of scalars
+		 * @param context
+		 * @return binding
+		 */
+		abstract Binding bind(Context context);
+
+		/**
+		 * Evaluate block into buffer
+		 * @param context
+		 * @param start index of first element
+		 * @param n number of elements
+		 */
+		abstract void evaluate(Context context, int start, int n);
+	}
+
+	private static class Constant extends Node {
+		private final double value;
+
+		Constant(int id, double value) {
+			super(id);
+			this.value = value;
+		}
+
+		@Override
+		Binding bind(Context context) {
+			Arrays.fill(context.buffers[id], value);
+			return Binding.SCALAR;
+		}
+
+		@Override
+		void evaluate(Context context, int start, int n) {
+		}
+	}
+
+	private static class Variable extends Node {
+		private final String name;
+
+		Variable(int id, String name) {
+			super(id);
+			this.name = name;
+		}
+
+		@Override
+		Binding bind(Context context) {
+			Object v = context.variables.get(name);
+			if (v instanceof Number) {
+				Arrays.fill(context.buffers[id], ((Number) v).doubleValue());
+				return Binding.SCALAR;
+			}
+			if (!(v instanceof IDataset)) {
+				return Binding.INVALID;
+			}
+
+			Dataset d = DatasetUtils.convertToDataset((IDataset) v);
+			if (d.getRank() == 0 && !(d instanceof CompoundDataset)) {
+				Arrays.fill(context.buffers[id], d.getDouble());
+				return Binding.SCALAR;
+			}
+			Class<? extends Dataset> clazz = d.getClass();
+			if (d instanceof CompoundDataset || !(InterfaceUtils.isInteger(clazz) || InterfaceUtils.isFloating(clazz))) {
+				return Binding.INVALID;
+			}
+			int[] shape = d.getShape();
+			if (context.shape == null) {
+				context.shape = shape;
+			} else if (!Arrays.equals(context.shape, shape)) {
+				return Binding.INVALID;
+			}
+			if (d.getStrides() != null) { // make contiguous
+				d = d.getSlice();
+			}
+			context.data[id] = DatasetUtils.cast(DoubleDataset.class, d).getData();
+			return d instanceof DoubleDataset ? Binding.DOUBLE : Binding.OTHER;
+		}
+
+		@Override
+		void evaluate(Context context, int start, int n) {
+			double[] d = context.data[id];
+			if (d != null) {
+				System.arraycopy(d, start, context.buffers[id], 0, n);
+			}
+		}
+	}
+
+	private static class Negate extends Node {
+		private final Node child;
+
+		Negate(int id, Node child) {
+			super(id);
+			this.child = child;
+		}
+
+		@Override
+		Binding bind(Context context) {
+			Binding b = child.bind(context);
+			return b == Binding.DOUBLE || b == Binding.SCALAR ? b : Binding.INVALID;
+		}
+
+		@Override
+		void evaluate(Context context, int start, int n) {
+			child.evaluate(context, start, n);
+			double[] in = context.buffers[child.id];
+			double[] out = context.buffers[id];
+			for (int i = 0; i < n; i++) {
+				out[i] = -in[i];
+			}
+		}
+	}
+
+	private static class Binary extends Node {
+		private final char operator;
+		private final Node left;
+		private final Node right;
+
+		Binary(int id, char operator, Node left, Node right) {
+			super(id);
+			this.operator = operator;
+			this.left = left;
+			this.right = right;
+		}
+
+		@Override
+		Binding bind(Context context) {
+			return combine(left.bind(context), right.bind(context));
+		}
+
+		@Override
+		void evaluate(Context context, int start, int n) {
+			left.evaluate(context, start, n);
+			right.evaluate(context, start, n);
+			double[] a = context.buffers[left.id];
+			double[] b = context.buffers[right.id];
+			double[] out = context.buffers[id];
+			switch (operator) {
+			case '+':
+				for (int i = 0; i < n; i++) {
+					out[i] = a[i] + b[i];
+				}
+				break;
+			case '-':
+				for (int i = 0; i < n; i++) {
+					out[i] = a[i] - b[i];
+				}
+				break;
+			case '*':
+				for (int i = 0; i < n; i++) {
+					out[i] = a[i] * b[i];
+				}
+				break;
+			case '/':
+				for (int i = 0; i < n; i++) {
+					out[i] = a[i] / b[i];
+				}
+				break;
+			default:
+				throw new IllegalStateException("Unknown operator: " + operator);
+			}
+		}
+	}
+
+	private static class UnaryFunction extends Node {
+		private final DoubleUnaryOperator function;
+		private final Node child;
+
+		UnaryFunction(int id, DoubleUnaryOperator function, Node child) {
+			super(id);
+			this.function = function;
+			this.child = child;
+		}
+
+		@Override
+		Binding bind(Context context) {
+			return child.bind(context) == Binding.DOUBLE ? Binding.DOUBLE : Binding.INVALID;
+		}
+
+		@Override
+		void evaluate(Context context, int start, int n) {
+			child.evaluate(context, start, n);
+			double[] in = context.buffers[child.id];
+			double[] out = context.buffers[id];
+			for (int i = 0; i < n; i++) {
+				out[i] = function.applyAsDouble(in[i]);
+			}
+		}
+	}
+
+	private static class BinaryFunction extends Node {
+		private final DoubleBinaryOperator function;
+		private final Node left;
+		private final Node right;
+
+		BinaryFunction(int id, DoubleBinaryOperator function, Node left, Node right) {
+			super(id);
+			this.function = function;
+			this.left = left;
+			this.right = right;
+		}
+
+		@Override
+		Binding bind(Context context) {
+			return combine(left.bind(context), right.bind(context));
+		}
+
+		@Override
+		void evaluate(Context context, int start, int n) {
+			left.evaluate(context, start, n);
+			right.evaluate(context, start, n);
+			double[] a = context.buffers[left.id];
+			double[] b = context.buffers[right.id];
+			double[] out = context.buffers[id];
+			for (int i = 0; i < n; i++) {
+				out[i] = function.applyAsDouble(a[i], b[i]);
+			}
+		}
+	}
+
+	/**
+	 * Operations without a double dataset are left to the engine as their type depends on the types
+	 * of their operands
+	 * @param a
+	 * @param b
+	 * @return binding of operation
+	 */
+	private static Binding combine(Binding a, Binding b) {
+		if (a == Binding.INVALID || b == Binding.INVALID) {
+			return Binding.INVALID;
+		}
+		return a == Binding.DOUBLE || b == Binding.DOUBLE ? Binding.DOUBLE : Binding.INVALID;
+	}
+
+	/**
+	 * Recursive descent parser that returns null when expression uses anything beyond arithmetic
+	 */
+	private static class Parser {
+		private static final String NAMESPACE = "dnp";
+
+		private final String text;
+		private int pos;
+		int count;
+		final Set<String> names = new LinkedHashSet<>();
+
+		Parser(String text) {
+			this.text = text;
+		}
+
+		/**
+		 * @return root node or null if not supported
+		 */
+		Node parse() {
+			Node n = parseSum();
+			skipSpace();
+			return pos == text.length() ? n : null;
+		}
+
+		private Node parseSum() {
+			Node n = parseProduct();
+			while (n != null) {
+				char c = peek();
+				if (c != '+' && c != '-') {
+					break;
+				}
+				pos++;
+				Node r = parseProduct();
+				n = r == null ? null : new Binary(count++, c, n, r);
+			}
+			return n;
+		}
+
+		private Node parseProduct() {
+			Node n = parseUnary();
+			while (n != null) {
+				char c = peek();
+				if (c != '*' && c != '/') {
+					break;
+				}
+				pos++;
+				Node r = parseUnary();
+				n = r == null ? null : new Binary(count++, c, n, r);
+			}
+			return n;
+		}
+
+		private Node parseUnary() {
+			char c = peek();
+			if (c == '-') {
+				pos++;
+				Node n = parseUnary();
+				return n == null ? null : new Negate(count++, n);
+			} else if (c == '+') {
+				pos++;
+				return parseUnary();
+			}
+			return parsePrimary();
+		}
+
+		private Node parsePrimary() {
+			char c = peek();
+			if (c == '(') {
+				pos++;
+				Node n = parseSum();
+				if (n == null || peek() != ')') {
+					return null;
+				}
+				pos++;
+				return n;
+			}
+			if (Character.isDigit(c) || c == '.') {
+				return parseNumber();
+			}
+			if (!Character.isJavaIdentifierStart(c)) {
+				return null;
+			}
+
+			String name = parseIdentifier();
+			if (peek() == ':') {
+				pos++;
+				if (!NAMESPACE.equals(name)) {
+					return null;
+				}
+				skipSpace();
+				return parseFunction(parseIdentifier());
+			}
+			if (RESERVED.contains(name) || peek() == '(' || peek() == '.' || peek() == '[') {
+				return null;
+			}
+			names.add(name);
+			return new Variable(count++, name);
+		}
+
+		private Node parseFunction(String name) {
+			if (peek() != '(') {
+				return null;
+			}
+			pos++;
+			List<Node> args = new ArrayList<>();
+			while (true) {
+				Node a = parseSum();
+				if (a == null) {
+					return null;
+				}
+				args.add(a);
+				char c = peek();
+				pos++;
+				if (c == ')') {
+					break;
+				} else if (c != ',') {
+					return null;
+				}
+			}
+
+			if (args.size() == 1 && UNARY_FUNCTIONS.containsKey(name)) {
+				return new UnaryFunction(count++, UNARY_FUNCTIONS.get(name), args.get(0));
+			} else if (args.size() == 2 && BINARY_FUNCTIONS.containsKey(name)) {
+				return new BinaryFunction(count++, BINARY_FUNCTIONS.get(name), args.get(0), args.get(1));
+			}
+			return null;
+		}
+
+		private Node parseNumber() {
+			int start = pos;
+			while (pos < text.length() && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '.')) {
+				pos++;
+			}
+			if (pos < text.length() && (text.charAt(pos) == 'e' || text.charAt(pos) == 'E')) {
+				pos++;
+				if (pos < text.length() && (text.charAt(pos) == '+' || text.charAt(pos) == '-')) {
+					pos++;
+				}
+				while (pos < text.length() && Character.isDigit(text.charAt(pos))) {
+					pos++;
+				}
+			}
+			if (pos < text.length() && Character.isJavaIdentifierPart(text.charAt(pos))) {
+				return null; // typed literals such as 2L or 1.5f
+			}
+			try {
+				return new Constant(count++, Double.parseDouble(text.substring(start, pos)));
+			} catch (NumberFormatException e) {
+				return null;
+			}
+		}
+
+		private String parseIdentifier() {
+			int start = pos;
+			if (pos < text.length() && Character.isJavaIdentifierStart(text.charAt(pos))) {
+				pos++;
+				while (pos < text.length() && Character.isJavaIdentifierPart(text.charAt(pos))) {
+					pos++;
+				}
+			}
+			return text.substring(start, pos);
+		}
+
+		/**
+		 * @return next non-space character or zero at end
+		 */
+		private char peek() {
+			skipSpace();
+			return pos < text.length() ? text.charAt(pos) : 0;
+		}
+
+		private void skipSpace() {
+			while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+				pos++;
+			}
+		}
+	}
+}
@@ -1,6 +1,10 @@
 package uk.ac.diamond.scisoft.analysis.processing.operations.expressions;
 
-import org.eclipse.dawnsci.analysis.api.expressions.IExpressionEngine;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.dawnsci.analysis.api.expressions.ICompiledExpression;
 import org.eclipse.dawnsci.analysis.api.expressions.IExpressionService;
 import org.eclipse.dawnsci.analysis.api.processing.OperationData;
 import org.eclipse.dawnsci.analysis.api.processing.OperationException;
@@ -19,7 +23,10 @@ import uk.ac.diamond.osgi.services.ServiceProvider;
 
 public class Expression1DOperation<T extends Expression1DModel> extends AbstractOperation<T ,OperationData> {
 
-	IExpressionEngine engine;
+	private static final int MAX_EXPRESSIONS = 16;
+
+	// expressions are compiled once and shared by all threads, which each pass their own variables
+	private final Map<String, ICompiledExpression> expressions = new ConcurrentHashMap<>();
 	
 	@Override
 	public String getId() {
@@ -27,21 +34,13 @@ public class Expression1DOperation<T extends Expression1DModel> extends Abstract
 	}
 	
 	protected OperationData process(IDataset input, IMonitor monitor) throws OperationException {
-		if (engine == null) {
-			try {
-				IExpressionService service = ServiceProvider.getService(IExpressionService.class);
-				engine = service.getExpressionEngine();
-			} catch (Exception e) {
-				throw new OperationException(this, e.getMessage());
-			}
-		}
-		
-		engine.addLoadedVariable("data", input);
-		IDataset[] axes = addAxesToEngine(input);
+		Map<String, Object> variables = new HashMap<>();
+		variables.put("data", input);
+		IDataset[] axes = addAxes(input, variables);
 		
-		IDataset outdata = evaluateData(input, model.getDataExpression(),1);
+		IDataset outdata = evaluateData(input, model.getDataExpression(), 1, variables);
 		
-		IDataset outaxis = evaluateData(axes[0], model.getAxisExpressionX(), 1);
+		IDataset outaxis = evaluateData(axes[0], model.getAxisExpressionX(), 1, variables);
 		
 		outdata.setName("custom_expression");
 		if (model.getAxisExpressionX() != null && !model.getAxisExpressionX().isEmpty()) outaxis.setName("custom_x_axis");
@@ -72,7 +71,7 @@ public class Expression1DOperation<T extends Expression1DModel> extends Abstract
 		return OperationRank.ONE;
 	}
 	
-	protected IDataset[] addAxesToEngine(IDataset input) {
+	protected IDataset[] addAxes(IDataset input, Map<String, Object> variables) {
 		//1D should be in [0]
 		ILazyDataset[] axes = getFirstAxes(input);
 		IDataset axis;
@@ -82,28 +81,24 @@ public class Expression1DOperation<T extends Expression1DModel> extends Abstract
 			} catch (DatasetException e) {
 				throw new OperationException(this, e);
 			}
-			engine.addLoadedVariable("xaxis", axis);
+			variables.put("xaxis", axis);
 		} else {
 			axis = DatasetFactory.createRange(input.getSize());
-			engine.addLoadedVariable("xaxis", axis);
+			variables.put("xaxis", axis);
 		}
 		
 		return new IDataset[]{axis};
 	}
 	
-	protected IDataset evaluateData(IDataset input, String expression, int expectedRank) throws OperationException {
+	protected IDataset evaluateData(IDataset input, String expression, int expectedRank, Map<String, Object> variables) throws OperationException {
 		if (expression ==  null || expression.isEmpty()) {
 			return input;
 		} else {
 			IDataset outdata = null;
-			try {
-				engine.createExpression(expression);
-			} catch (Exception e) {
-				throw new OperationException(this, e.getMessage());
-			}
+			ICompiledExpression compiled = getCompiledExpression(expression);
 			
 			try {
-				Object ob =engine.evaluate();
+				Object ob = compiled.evaluate(variables);
 				if (ob instanceof IDataset && ((IDataset)ob).getRank() == expectedRank) {
 					outdata = (IDataset)ob;
 				} else {
@@ -117,6 +112,31 @@ public class Expression1DOperation<T extends Expression1DModel> extends Abstract
 		}
 		
 	}
+
+	/**
+	 * @param expression
+	 * @return compiled expression, which is cached
+	 * @throws OperationException if expression cannot be parsed
+	 */
+	protected ICompiledExpression getCompiledExpression(String expression) throws OperationException {
+		ICompiledExpression compiled = expressions.get(expression);
+		if (compiled == null) {
+			try {
+				IExpressionService service = ServiceProvider.getService(IExpressionService.class);
+				compiled = ElementwiseExpression.compile(service, expression);
+			} catch (Exception e) {
+				throw new OperationException(this, e.getMessage());
+			}
+			if (expressions.size() >= MAX_EXPRESSIONS) { // model has been edited many times
+				expressions.clear();
+			}
+			ICompiledExpression previous = expressions.putIfAbsent(expression, compiled);
+			if (previous != null) {
+				compiled = previous;
+			}
+		}
+		return compiled;
+	}
 	
 //	protected IDataset evaluateAxis() {
 //		if (model.getAxisExpressionX() ==  null) {
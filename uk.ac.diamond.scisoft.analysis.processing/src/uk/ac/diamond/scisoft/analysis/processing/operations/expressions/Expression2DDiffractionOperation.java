@@ -1,6 +1,7 @@
 package uk.ac.diamond.scisoft.analysis.processing.operations.expressions;
 
-import org.eclipse.dawnsci.analysis.api.expressions.IExpressionEngine;
+import java.util.Map;
+
 import org.eclipse.dawnsci.analysis.api.processing.OperationException;
 import org.eclipse.january.dataset.IDataset;
 import org.eclipse.dawnsci.analysis.api.metadata.IDiffractionMetadata;
@@ -14,28 +15,30 @@ public class Expression2DDiffractionOperation extends Expression2DOperation<Expr
 		return "uk.ac.diamond.scisoft.analysis.processing.operations.expressions.Expression2DDiffractionOperation";
 	}
 
-	IDiffractionMetadata meta = null;
-	IDataset q = null;
-	IDataset tth = null;
-	IDataset az = null;
+	/**
+	 * Arrays calculated from a calibration, replaced as a whole so slices can be processed in parallel
+	 */
+	private record Coordinates(IDiffractionMetadata meta, IDataset q, IDataset tth, IDataset az) {
+	}
+
+	private volatile Coordinates coordinates = null;
 
-	protected void addAdditionalValues(IDataset input, IExpressionEngine engine) throws OperationException {
+	@Override
+	protected void addAdditionalValues(IDataset input, Map<String, Object> variables) throws OperationException {
 		IDiffractionMetadata md = getFirstDiffractionMetadata(input);
 		if (md == null) throw new OperationException(this, "No detector calibration information!");
-		if (!md.equals(meta)) {
-			meta = md;
-			
-			q = PixelIntegrationUtils.generateQArray(meta);
-			tth = PixelIntegrationUtils.generate2ThetaArrayRadians(meta);
-			az = PixelIntegrationUtils.generateAzimuthalArray(input.getShape(), md, true);
+		Coordinates c = coordinates;
+		if (c == null || !md.equals(c.meta())) {
+			c = new Coordinates(md, PixelIntegrationUtils.generateQArray(md),
+					PixelIntegrationUtils.generate2ThetaArrayRadians(md),
+					PixelIntegrationUtils.generateAzimuthalArray(input.getShape(), md, true));
+			coordinates = c;
 		}
 		
-		if (meta == null) throw new OperationException(this, "No detector calibration information!");
-		
-		engine.addLoadedVariable("q", q);
-		engine.addLoadedVariable("tth", tth);
-		engine.addLoadedVariable("azimuth", az);
-		engine.addLoadedVariable("energy", meta.getDiffractionCrystalEnvironment().getEnergy());
+		variables.put("q", c.q());
+		variables.put("tth", c.tth());
+		variables.put("azimuth", c.az());
+		variables.put("energy", c.meta().getDiffractionCrystalEnvironment().getEnergy());
 		}
 	
 }
@@ -10,7 +10,9 @@
 package uk.ac.diamond.scisoft.analysis.processing.operations.externaldata;
 
 import org.eclipse.dawnsci.analysis.api.processing.Atomic;
+import org.eclipse.dawnsci.analysis.api.processing.IElementKernel;
 import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.IDataset;
 
 import uk.ac.diamond.scisoft.analysis.utils.ErrorPropagationUtils;
 
@@ -26,4 +28,9 @@ public class MultiplyExternalDataOperation extends AbstractExternalDataOperation
 	protected Dataset doMathematics(Dataset a, Dataset b) {
 		return ErrorPropagationUtils.multiplyWithUncertainty(a, b);
 	}
+
+	@Override
+	protected IElementKernel getKernel(IDataset a, Dataset b) {
+		return ErrorPropagationUtils.multiplyKernel(a, b);
+	}
 }
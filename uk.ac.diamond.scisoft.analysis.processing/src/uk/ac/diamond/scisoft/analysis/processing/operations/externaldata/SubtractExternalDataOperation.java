@@ -10,7 +10,9 @@
 package uk.ac.diamond.scisoft.analysis.processing.operations.externaldata;
 
 import org.eclipse.dawnsci.analysis.api.processing.Atomic;
+import org.eclipse.dawnsci.analysis.api.processing.IElementKernel;
 import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.IDataset;
 
 import uk.ac.diamond.scisoft.analysis.utils.ErrorPropagationUtils;
 
@@ -27,4 +29,9 @@ public class SubtractExternalDataOperation extends AbstractExternalDataOperation
 		return ErrorPropagationUtils.subtractWithUncertainty(a, b);
 	}
 
+	@Override
+	protected IElementKernel getKernel(IDataset a, Dataset b) {
+		return ErrorPropagationUtils.subtractKernel(a, b);
+	}
+
 }
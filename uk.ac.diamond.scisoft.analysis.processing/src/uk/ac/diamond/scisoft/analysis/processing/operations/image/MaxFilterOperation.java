@@ -8,8 +8,9 @@
  */
 package uk.ac.diamond.scisoft.analysis.processing.operations.image;
 
-import org.eclipse.dawnsci.analysis.api.image.IImageFilterService;
+import org.eclipse.dawnsci.analysis.dataset.impl.Image;
 import org.eclipse.january.IMonitor;
+import org.eclipse.january.dataset.DatasetUtils;
 import org.eclipse.january.dataset.IDataset;
 
 public class MaxFilterOperation extends AbstractSimpleImageOperation<KernelWidthModel> {
@@ -21,7 +22,6 @@ public class MaxFilterOperation extends AbstractSimpleImageOperation<KernelWidth
 
 	@Override
 	public IDataset processImage(IDataset dataset, IMonitor monitor) {
-		IImageFilterService service = getImageFilterService();
-		return service.filterMax(dataset, model.getWidth());
+		return Image.maxFilter(DatasetUtils.convertToDataset(dataset), model.getWidth());
 	}
 }
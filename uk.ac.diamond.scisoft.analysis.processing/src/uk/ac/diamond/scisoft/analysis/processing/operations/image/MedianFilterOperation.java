@@ -8,8 +8,9 @@
  */
 package uk.ac.diamond.scisoft.analysis.processing.operations.image;
 
-import org.eclipse.dawnsci.analysis.api.image.IImageFilterService;
+import org.eclipse.dawnsci.analysis.dataset.impl.Image;
 import org.eclipse.january.IMonitor;
+import org.eclipse.january.dataset.DatasetUtils;
 import org.eclipse.january.dataset.IDataset;
 
 public class MedianFilterOperation extends AbstractSimpleImageOperation<KernelWidthModel> {
@@ -21,7 +22,6 @@ public class MedianFilterOperation extends AbstractSimpleImageOperation<KernelWi
 
 	@Override
 	public IDataset processImage(IDataset dataset, IMonitor monitor) {
-		IImageFilterService service = getImageFilterService();
-		return service.filterMedian(dataset, model.getWidth());
+		return Image.medianFilter(DatasetUtils.convertToDataset(dataset), model.getWidth());
 	}
 }
@@ -11,6 +11,8 @@ package uk.ac.diamond.scisoft.analysis.processing.operations.mask;
 import java.util.Arrays;
 
 import org.eclipse.dawnsci.analysis.api.processing.Atomic;
+import org.eclipse.dawnsci.analysis.api.processing.IElementKernel;
+import org.eclipse.dawnsci.analysis.api.processing.IElementwiseOperation;
 import org.eclipse.dawnsci.analysis.api.processing.OperationData;
 import org.eclipse.dawnsci.analysis.api.processing.OperationException;
 import org.eclipse.dawnsci.analysis.api.processing.OperationRank;
@@ -27,7 +29,7 @@ import org.eclipse.january.metadata.MaskMetadata;
 import org.eclipse.january.metadata.MetadataFactory;
 
 @Atomic
-public class ThresholdMask extends AbstractOperation<ThresholdMaskModel, OperationData> {
+public class ThresholdMask extends AbstractOperation<ThresholdMaskModel, OperationData> implements IElementwiseOperation {
 
 	@Override
     public String getName() {
@@ -84,6 +86,68 @@ public class ThresholdMask extends AbstractOperation<ThresholdMaskModel, Operati
 
 	}
 
+	@Override
+	public IElementKernel createKernel(IDataset slice, Class<?> elementClass) {
+		// result is the input
+		if (elementClass != Double.class) {
+			return null;
+		}
+
+		Double upper  = (Double)model.getUpper();
+		final double u = upper == null ? Double.MAX_VALUE : upper;
+
+		Double lower  = (Double)model.getLower();
+		final double l = lower == null ? -Double.MAX_VALUE : lower;
+
+		final boolean[] outside = new boolean[slice.getSize()];
+		return new IElementKernel() {
+			@Override
+			public boolean hasUncertainty() {
+				return false;
+			}
+
+			@Override
+			public double apply(int position, double value) {
+				if (value>u || value<l) {
+					outside[position] = true;
+				}
+				return value;
+			}
+
+			@Override
+			public void apply(int position, double value, double error, double[] out) {
+				out[0] = apply(position, value);
+				out[1] = error;
+			}
+
+			@Override
+			public void finish(IDataset result) throws OperationException {
+				Dataset mask = DatasetUtils.convertToDataset(getFirstMask(result));
+				if (mask == null) {
+					mask = DatasetFactory.ones(BooleanDataset.class, result.getShape());
+				} else {
+					mask = mask.getSlice();
+				}
+
+				if (!Arrays.equals(result.getShape(), mask.getShape())) {
+					throw new OperationException(ThresholdMask.this, "Mask is incorrect shape!");
+				}
+
+				for (int i = 0; i < outside.length; i++) {
+					if (outside[i]) {
+						mask.setObjectAbs(i, false);
+					}
+				}
+
+				try {
+					result.setMetadata(MetadataFactory.createMetadata(MaskMetadata.class, mask));
+				} catch (MetadataException e) {
+					throw new OperationException(ThresholdMask.this, e);
+				}
+			}
+		};
+	}
+
 	@Override
 	public OperationRank getInputRank() {
 		return OperationRank.TWO;
@@ -55,6 +55,7 @@ public class AzimuthalPixelIntegrationOperation<T extends AzimuthalPixelIntegrat
 	protected IPixelIntegrationCache buildCache(T model, IDiffractionMetadata md, int[] shape) {
 		PixelIntegrationBean bean = new PixelIntegrationBean();
 		bean.setUsePixelSplitting(model.isPixelSplitting());
+		bean.setUseSparseLookup(model.isSparseLookup());
 		if (model.getNumberOfBins() != null) bean.setNumberOfBinsRadial(model.getNumberOfBins());
 		bean.setxAxis(model.getAxisType());
 		bean.setRadialRange(model.getRadialRange());
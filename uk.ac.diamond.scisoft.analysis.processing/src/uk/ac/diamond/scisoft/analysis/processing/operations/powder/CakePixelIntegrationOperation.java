@@ -59,6 +59,7 @@ public class CakePixelIntegrationOperation extends AbstractPixelIntegrationOpera
 	protected IPixelIntegrationCache buildCache(CakePixelIntegrationModel model, IDiffractionMetadata md, int[] shape) {
 		PixelIntegrationBean bean = new PixelIntegrationBean();
 		bean.setUsePixelSplitting(model.isPixelSplitting());
+		bean.setUseSparseLookup(model.isSparseLookup());
 		if (model.getNumberOfBins()!=null)bean.setNumberOfBinsRadial(model.getNumberOfBins());
 		if (model.getNumberOfBins2ndAxis() != null) bean.setNumberOfBinsAzimuthal(model.getNumberOfBins2ndAxis());
 		bean.setxAxis(model.getAxisType());
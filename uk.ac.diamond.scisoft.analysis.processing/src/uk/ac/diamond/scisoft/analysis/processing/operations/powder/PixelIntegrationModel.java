@@ -16,6 +16,9 @@ public abstract class PixelIntegrationModel extends AbstractOperationModel {
 	//hint="check to use pixel splitting integration algorithm, unchecked uses non-splitting algorithm"
 	@OperationModelField(label = "Pixel splitting")
 	private boolean pixelSplitting = false;
+	
+	@OperationModelField(label = "Sparse lookup", hint="Pixel splitting only, precalculates the pixel to bin weights once so each frame integrates faster at the cost of extra memory", enableif = "pixelSplitting")
+	private boolean sparseLookup = false;
 	@OperationModelField(min=2,max=1000000, hint="Number of bins for integration axis, leave blank for maximum pixel distance on detector",label = "Number of bins" )
 	private Integer numberOfBins = null;
 	
@@ -48,6 +51,14 @@ public abstract class PixelIntegrationModel extends AbstractOperationModel {
 		return pixelSplitting;
 	}
 
+	public boolean isSparseLookup() {
+		return sparseLookup;
+	}
+
+	public void setSparseLookup(boolean sparseLookup) {
+		firePropertyChange("sparseLookup", this.sparseLookup, this.sparseLookup = sparseLookup);
+	}
+
 	public Integer getNumberOfBins() {
 		return numberOfBins;
 	}
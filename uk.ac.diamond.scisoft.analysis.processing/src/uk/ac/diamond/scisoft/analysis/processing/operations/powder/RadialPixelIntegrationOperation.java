@@ -32,6 +32,7 @@ public class RadialPixelIntegrationOperation extends AzimuthalPixelIntegrationOp
 	protected IPixelIntegrationCache buildCache(AzimuthalPixelIntegrationModel model, IDiffractionMetadata md, int[] shape) {
 		PixelIntegrationBean bean = new PixelIntegrationBean();
 		bean.setUsePixelSplitting(model.isPixelSplitting());
+		bean.setUseSparseLookup(model.isSparseLookup());
 		if (model.getNumberOfBins() != null) bean.setNumberOfBinsAzimuthal(model.getNumberOfBins());
 		bean.setxAxis(model.getAxisType());
 		bean.setRadialRange(model.getRadialRange());
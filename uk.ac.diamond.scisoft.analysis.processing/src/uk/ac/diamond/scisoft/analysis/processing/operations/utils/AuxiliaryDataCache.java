@@ -0,0 +1,133 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.processing.operations.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.dawnsci.analysis.api.processing.IOperation;
+import org.eclipse.dawnsci.analysis.api.processing.OperationException;
+import org.eclipse.dawnsci.analysis.dataset.slicer.SliceFromSeriesMetadata;
+import org.eclipse.january.DatasetException;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetUtils;
+import org.eclipse.january.dataset.IDataset;
+import org.eclipse.january.dataset.IDynamicDataset;
+import org.eclipse.january.dataset.ILazyDataset;
+import org.eclipse.january.dataset.ShapeUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of auxiliary datasets, such as monitor, transmission or exposure time values, that are
+ * matched to each frame being processed.
+ * <p>
+ * Each dataset is read in full on first use and later values are sliced from memory, so that
+ * processing a scan does not need a small read for every frame. A live (SWMR) dataset may be
+ * allocated to its full shape before its values are written so it is read again when a frame
+ * comes after the frame that was processed when the values were last read. As frames are
+ * processed in the order they are written, the values of earlier frames will have been written.
+ * <p>
+ * An operation should own an instance and clear it in its {@link IOperation#init()} and
+ * {@link IOperation#dispose()} methods so that values are not kept between files.
+ */
+public class AuxiliaryDataCache {
+	private static final Logger logger = LoggerFactory.getLogger(AuxiliaryDataCache.class);
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	private static class Entry {
+		private final ILazyDataset lazy;
+		private Dataset values;
+		private boolean isScalar;
+		private int written; // number of last frame whose values had been written when read
+
+		Entry(ILazyDataset lazy) {
+			this.lazy = lazy;
+		}
+
+		/**
+		 * Read all values. Must hold lock on this
+		 * @param frame number of frame being processed
+		 */
+		private void read(int frame) throws DatasetException {
+			if (lazy instanceof IDynamicDataset) {
+				((IDynamicDataset) lazy).refreshShape();
+			}
+			values = DatasetUtils.sliceAndConvertLazyDataset(lazy);
+			isScalar = ShapeUtils.squeezeShape(values.getShapeRef(), false).length == 0;
+			written = frame;
+		}
+
+		synchronized IDataset getMatchingSlice(SliceFromSeriesMetadata ssm) throws DatasetException {
+			int frame = ssm.getSliceInfo().getSliceNumber();
+			if (values == null) {
+				read(frame);
+			} else if (frame > written && !isScalar && ssm.getSourceInfo().isLive() && lazy instanceof IDynamicDataset) {
+				logger.trace("Re-reading {} as frame {} is beyond frame {} when read", lazy.getName(), frame, written);
+				read(frame);
+			}
+			if (isScalar) {
+				return values.getView(true);
+			}
+
+			return ssm.getMatchingSlice(values);
+		}
+	}
+
+	/**
+	 * Create lazy dataset for entry
+	 * @param op current operation
+	 * @param filePath
+	 * @param datasetName
+	 * @return lazy dataset
+	 * @throws OperationException if the dataset cannot be read
+	 */
+	protected ILazyDataset getLazyDataset(IOperation<?,?> op, String filePath, String datasetName) throws OperationException {
+		return ProcessingUtils.getLazyDataset(op, filePath, datasetName);
+	}
+
+	/**
+	 * Get value from dataset that matches the given frame
+	 * @param op current operation
+	 * @param input frame with {@link SliceFromSeriesMetadata}
+	 * @param filePath
+	 * @param datasetName
+	 * @return scalar dataset
+	 * @throws OperationException if the dataset cannot be read or does not match frame
+	 * @see ProcessingUtils#getMatchingValue(IOperation, IDataset, String, String)
+	 */
+	public IDataset getMatchingValue(IOperation<?,?> op, IDataset input, String filePath, String datasetName) throws OperationException {
+		SliceFromSeriesMetadata ssm = input.getFirstMetadata(SliceFromSeriesMetadata.class);
+
+		if (ssm == null) {
+			throw new OperationException(op, "No Metadata found!");
+		}
+
+		Entry e = entries.computeIfAbsent(filePath + "#" + datasetName,
+				k -> new Entry(getLazyDataset(op, filePath, datasetName)));
+
+		IDataset val;
+		try {
+			val = e.getMatchingSlice(ssm);
+		} catch (DatasetException ex) {
+			throw new OperationException(op, ex);
+		}
+
+		return ProcessingUtils.checkMatchingValue(op, val, ssm, datasetName, e.lazy.getShape());
+	}
+
+	/**
+	 * Remove all cached values
+	 */
+	public void clear() {
+		entries.clear();
+	}
+}
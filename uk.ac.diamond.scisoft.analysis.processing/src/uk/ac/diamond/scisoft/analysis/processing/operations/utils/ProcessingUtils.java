@@ -260,6 +260,16 @@ public class ProcessingUtils {
 		
 	}
 	
+	/**
+	 * Get value from dataset that matches the given frame. This reads the dataset each time so
+	 * use an {@link AuxiliaryDataCache} when called for every frame
+	 * @param op current operation
+	 * @param input frame with {@link SliceFromSeriesMetadata}
+	 * @param filePath
+	 * @param datasetName
+	 * @return scalar dataset
+	 * @throws OperationException if the dataset cannot be read or does not match frame
+	 */
 	public static IDataset getMatchingValue(IOperation<?,?> op, IDataset input, String filePath, String datasetName) throws OperationException {
 		SliceFromSeriesMetadata ssm = input.getFirstMetadata(SliceFromSeriesMetadata.class);
 
@@ -282,8 +292,22 @@ public class ProcessingUtils {
 			throw new OperationException(op, e);
 		}
 
+		return checkMatchingValue(op, val, ssm, datasetName, lz.getShape());
+	}
+
+	/**
+	 * Check value matched to a frame
+	 * @param op current operation
+	 * @param val matching value (can be null)
+	 * @param ssm metadata of frame
+	 * @param datasetName
+	 * @param shape shape of dataset
+	 * @return squeezed value
+	 * @throws OperationException if value is null or not scalar
+	 */
+	static IDataset checkMatchingValue(IOperation<?,?> op, IDataset val, SliceFromSeriesMetadata ssm, String datasetName, int[] shape) throws OperationException {
 		// If a matching val was not found, throw
-		if (val == null) throw new OperationException(op, "Dataset " + datasetName + " " + Arrays.toString(lz.getShape()) + 
+		if (val == null) throw new OperationException(op, "Dataset " + datasetName + " " + Arrays.toString(shape) + 
 				" not a compatible shape with " + Arrays.toString(ssm.getParent().getShape()));
 		val.squeeze();
 
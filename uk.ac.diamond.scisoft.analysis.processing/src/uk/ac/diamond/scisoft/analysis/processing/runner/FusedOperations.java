@@ -0,0 +1,172 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.processing.runner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.dawnsci.analysis.api.processing.IElementKernel;
+import org.eclipse.dawnsci.analysis.api.processing.IElementwiseOperation;
+import org.eclipse.dawnsci.analysis.api.processing.IOperation;
+import org.eclipse.dawnsci.analysis.api.processing.OperationData;
+import org.eclipse.dawnsci.analysis.api.processing.OperationException;
+import org.eclipse.dawnsci.analysis.dataset.operations.AbstractOperation;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetFactory;
+import org.eclipse.january.dataset.DatasetUtils;
+import org.eclipse.january.dataset.DoubleDataset;
+import org.eclipse.january.dataset.IDataset;
+import org.eclipse.january.dataset.IndexIterator;
+
+/**
+ * Consecutive {@link IElementwiseOperation}s of a series fused into one pass over a slice.
+ * <p>
+ * Each element of the slice is passed through the kernels of all operations in turn and
+ * the result written to a single dataset, so no dataset is created for the intermediate
+ * results. The result has a copy of the slice's metadata, in the same way as each operation
+ * copies its input's metadata, and uncertainties if any kernel gives them.
+ * <p>
+ * Only the last operation of a run may have its output stored as the other operations'
+ * results are never created.
+ */
+public class FusedOperations {
+
+	private final Dataset input;
+	private final List<IOperation<?, ?>> operations = new ArrayList<>();
+	private final List<IElementKernel> kernels = new ArrayList<>();
+	private Class<?> elementClass;
+
+	/**
+	 * @param input slice to pass to the first operation
+	 */
+	public FusedOperations(IDataset input) {
+		this.input = DatasetUtils.convertToDataset(input);
+		elementClass = this.input.getElementsPerItem() == 1 ? input.getElementClass() : null;
+	}
+
+	/**
+	 * @param series
+	 * @param from index of first operation
+	 * @param to index after last operation that may be fused
+	 * @return index after the last operation of the run of element-wise operations which starts at from
+	 */
+	public static int endOfRun(IOperation<?, ?>[] series, int from, int to) {
+		int i = from;
+		while (i < to && series[i] instanceof IElementwiseOperation && !series[i].isPassUnmodifiedData()) {
+			if (series[i++].isStoreOutput()) {
+				break;
+			}
+		}
+		return i;
+	}
+
+	/**
+	 * Add operation to end of run
+	 * @param op
+	 * @return false if operation cannot be fused with those before it for this slice
+	 * @throws OperationException
+	 */
+	public boolean add(IOperation<?, ?> op) throws OperationException {
+		if (elementClass == null || !(op instanceof IElementwiseOperation)) {
+			return false;
+		}
+		IElementKernel kernel = ((IElementwiseOperation) op).createKernel(input, elementClass);
+		if (kernel == null) {
+			return false;
+		}
+		operations.add(op);
+		kernels.add(kernel);
+		elementClass = Double.class;
+		return true;
+	}
+
+	/**
+	 * @return number of operations in run
+	 */
+	public int size() {
+		return operations.size();
+	}
+
+	/**
+	 * Run all operations on the slice
+	 * @return result of last operation
+	 * @throws OperationException
+	 */
+	public OperationData execute() throws OperationException {
+		final int n = kernels.size();
+		final IElementKernel[] k = kernels.toArray(new IElementKernel[n]);
+
+		// work out which kernels are given uncertainties and which give them
+		double[] inputErrors = getData(input.getErrors());
+		final boolean[] given = new boolean[n];
+		final boolean[] gives = new boolean[n];
+		boolean errors = inputErrors != null;
+		for (int i = 0; i < n; i++) {
+			given[i] = errors && k[i].keepsUncertainty();
+			gives[i] = given[i] || k[i].hasUncertainty();
+			errors = gives[i];
+		}
+
+		final int[] shape = input.getShape();
+		DoubleDataset output = DatasetFactory.zeros(DoubleDataset.class, shape);
+		DoubleDataset outputErrors = errors ? DatasetFactory.zeros(DoubleDataset.class, shape) : null;
+		final double[] values = output.getData();
+		final double[] uncertainties = errors ? outputErrors.getData() : null;
+
+		final double[] out = new double[2];
+		IndexIterator it = input.getIterator();
+		for (int p = 0; it.hasNext(); p++) {
+			double v = input.getElementDoubleAbs(it.index);
+			double e = inputErrors == null ? 0 : inputErrors[inputErrors.length == 1 ? 0 : p];
+			for (int i = 0; i < n; i++) {
+				if (gives[i]) {
+					k[i].apply(p, v, given[i] ? e : 0, out);
+					v = out[0];
+					e = out[1];
+				} else {
+					v = k[i].apply(p, v);
+				}
+			}
+			values[p] = v;
+			if (uncertainties != null) {
+				uncertainties[p] = e;
+			}
+		}
+
+		AbstractOperation.copyMetadata(input, output);
+		output.setErrors(outputErrors);
+		for (IElementKernel kernel : k) {
+			kernel.finish(output);
+		}
+		return new OperationData(output);
+	}
+
+	private static double[] getData(Dataset d) {
+		if (d == null) {
+			return null;
+		}
+		if (d.getStrides() != null) { // make contiguous
+			d = d.getSlice();
+		}
+		return DatasetUtils.cast(DoubleDataset.class, d).getData();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder("fused [");
+		for (IOperation<?, ?> op : operations) {
+			if (s.length() > 7) {
+				s.append(", ");
+			}
+			s.append(op.getName());
+		}
+		return s.append(']').toString();
+	}
+}
@@ -0,0 +1,90 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.processing.runner;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations in buckets of powers of two nanoseconds, safe to record into from many threads
+ */
+class LatencyHistogram {
+
+	private static final int BUCKETS = Long.SIZE + 1;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final LongAdder total = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * @param nanos
+	 */
+	void record(long nanos) {
+		nanos = Math.max(0, nanos);
+		counts.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(nanos));
+		total.add(nanos);
+		max.accumulateAndGet(nanos, Math::max);
+	}
+
+	/**
+	 * @return number of durations recorded
+	 */
+	long getCount() {
+		long n = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			n += counts.get(i);
+		}
+		return n;
+	}
+
+	/**
+	 * @return sum of durations in nanoseconds
+	 */
+	long getTotal() {
+		return total.sum();
+	}
+
+	/**
+	 * @return longest duration in nanoseconds
+	 */
+	long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * @return mean duration in nanoseconds
+	 */
+	double getMean() {
+		long n = getCount();
+		return n == 0 ? 0 : getTotal() / (double) n;
+	}
+
+	/**
+	 * @param quantile between 0 and 1
+	 * @return upper bound in nanoseconds of bucket holding given quantile
+	 */
+	long getPercentile(double quantile) {
+		long n = getCount();
+		if (n == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(quantile * n));
+		long c = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			c += counts.get(i);
+			if (c >= rank) {
+				long upper = i == 0 ? 0 : i >= Long.SIZE - 1 ? Long.MAX_VALUE : (1L << i) - 1;
+				return Math.min(upper, getMax());
+			}
+		}
+		return getMax();
+	}
+}
@@ -0,0 +1,101 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.processing.runner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.dawnsci.analysis.api.processing.Atomic;
+import org.eclipse.dawnsci.analysis.api.processing.IOperation;
+import org.eclipse.dawnsci.analysis.api.processing.IReducingOperation;
+
+/**
+ * Maximal run of consecutive operations in a series which are either all {@link Atomic} or all not.
+ * <p>
+ * When a series is run in parallel, the slices are passed through atomic stages concurrently
+ * and through the other stages one at a time in slice order. An {@link IReducingOperation}
+ * ends the stages as its slices are accumulated concurrently.
+ */
+public class OperationStage {
+
+	private final int from;
+	private final int to;
+	private final boolean atomic;
+
+	private OperationStage(int from, int to, boolean atomic) {
+		this.from = from;
+		this.to = to;
+		this.atomic = atomic;
+	}
+
+	/**
+	 * @param op
+	 * @return true if operation can execute on different slices concurrently
+	 */
+	public static boolean isAtomicOperation(IOperation<?, ?> op) {
+		return op.getClass().getAnnotation(Atomic.class) != null;
+	}
+
+	/**
+	 * @param series
+	 * @return index of first operation which reduces all slices or -1 if there is none
+	 */
+	public static int indexOfReduction(IOperation<?, ?>[] series) {
+		for (int i = 0; i < series.length; i++) {
+			if (series[i] instanceof IReducingOperation) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Split series into stages
+	 * @param series
+	 * @return stages in order
+	 */
+	public static List<OperationStage> plan(IOperation<?, ?>[] series) {
+		List<OperationStage> stages = new ArrayList<>();
+		int from = 0;
+		for (int i = 1; i <= series.length; i++) {
+			if (i == series.length || isAtomicOperation(series[i]) != isAtomicOperation(series[from])) {
+				stages.add(new OperationStage(from, i, isAtomicOperation(series[from])));
+				from = i;
+			}
+		}
+		return stages;
+	}
+
+	/**
+	 * @return index of first operation in stage
+	 */
+	public int getFrom() {
+		return from;
+	}
+
+	/**
+	 * @return index after last operation in stage
+	 */
+	public int getTo() {
+		return to;
+	}
+
+	/**
+	 * @return true if stage can process slices concurrently
+	 */
+	public boolean isAtomic() {
+		return atomic;
+	}
+
+	@Override
+	public String toString() {
+		return (atomic ? "atomic" : "ordered") + " [" + from + ", " + to + ")";
+	}
+}
@@ -0,0 +1,63 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.processing.runner;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import org.eclipse.dawnsci.analysis.api.processing.IReducingOperation;
+import org.eclipse.dawnsci.analysis.api.processing.OperationData;
+import org.eclipse.january.dataset.IDataset;
+
+/**
+ * Reduction of slices with one accumulator per worker thread. Once every slice has been
+ * added, the accumulators are combined in a tree on the processing pool.
+ *
+ * @param <A> accumulator type
+ */
+class ParallelReduction<A> {
+
+	private final IReducingOperation<A> operation;
+	private final Map<Thread, A> accumulators = new ConcurrentHashMap<>();
+
+	private ParallelReduction(IReducingOperation<A> operation) {
+		this.operation = operation;
+	}
+
+	static <A> ParallelReduction<A> create(IReducingOperation<A> operation) {
+		return new ParallelReduction<>(operation);
+	}
+
+	/**
+	 * Add slice to the accumulator of the current thread
+	 * @param slice
+	 */
+	void accumulate(IDataset slice) {
+		Thread thread = Thread.currentThread();
+		A accumulator = accumulators.get(thread);
+		if (accumulator == null) {
+			accumulator = operation.createAccumulator();
+		}
+		accumulators.put(thread, operation.accumulate(accumulator, slice));
+	}
+
+	/**
+	 * Combine all accumulators
+	 * @param pool
+	 * @return result of reduction, null if no slices were added
+	 * @throws Exception
+	 */
+	OperationData finish(ForkJoinPool pool) throws Exception {
+		A total = pool.submit(() -> accumulators.values().parallelStream().reduce(operation::combine).orElse(null)).get();
+		accumulators.clear();
+		return total == null ? null : operation.finish(total);
+	}
+}
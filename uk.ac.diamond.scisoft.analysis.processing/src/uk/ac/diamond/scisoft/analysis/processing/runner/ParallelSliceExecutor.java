@@ -0,0 +1,347 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.processing.runner;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+import org.eclipse.dawnsci.analysis.dataset.SlicingUtils;
+import org.eclipse.dawnsci.analysis.dataset.slicer.ISliceViewIterator;
+import org.eclipse.january.DatasetException;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.ILazyDataset;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs a function over every slice of an {@link ISliceViewIterator} using a shared work-stealing pool.
+ * <p>
+ * Loading and processing are separate stages: the calling thread only reads slices and
+ * submits them to the pool, it never processes a slice itself. Memory is bounded by the number
+ * of bytes held by slices which have been read but not yet delivered, rather than by a task count.
+ * <p>
+ * The first exception thrown by the function or the consumer stops further slices being read
+ * and is re-thrown from {@link #run(ISliceViewIterator)} once all running slices have finished.
+ * <p>
+ * If ordered, results are passed to the consumer in slice order from a reorder buffer, one
+ * at a time. Otherwise the consumer is called concurrently from the worker threads as results complete.
+ *
+ * @param <T> result type
+ */
+public class ParallelSliceExecutor<T> {
+
+	private static final Logger logger = LoggerFactory.getLogger(ParallelSliceExecutor.class);
+
+	/**
+	 * Default limit of bytes in flight, a quarter of the maximum heap
+	 */
+	public static final long DEFAULT_MAX_BYTES = Runtime.getRuntime().maxMemory() / 4;
+
+	private static final Map<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+	@FunctionalInterface
+	public interface SliceFunction<T> {
+		/**
+		 * @param slice loaded slice
+		 * @return result, may be null
+		 * @throws Exception
+		 */
+		public T apply(Dataset slice) throws Exception;
+	}
+
+	@FunctionalInterface
+	public interface ResultConsumer<T> {
+		/**
+		 * @param result from slice function, may be null
+		 * @throws Exception
+		 */
+		public void accept(T result) throws Exception;
+	}
+
+	@FunctionalInterface
+	public interface SliceLoader {
+		/**
+		 * @param view slice view from iterator
+		 * @return loaded slice
+		 * @throws DatasetException
+		 */
+		public Dataset load(ILazyDataset view) throws DatasetException;
+	}
+
+	private final SliceFunction<T> function;
+	private final ResultConsumer<T> consumer;
+	private final int parallelism;
+	private final long maxBytes;
+	private final boolean ordered;
+	private BooleanSupplier cancelled = () -> false;
+	private SliceLoader loader = SlicingUtils::sliceWithAxesMetadata;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition changed = lock.newCondition();
+	private int tasksInFlight;
+	private long bytesInFlight;
+	private Exception failure;
+
+	// reorder buffer, guarded by lock
+	private final Map<Integer, Completed<T>> reorder = new HashMap<>();
+	private int nextToDeliver;
+	private boolean delivering;
+
+	/**
+	 * @param function run on each slice on a worker thread
+	 * @param consumer receives each result
+	 * @param parallelism number of worker threads
+	 * @param maxBytes maximum number of bytes of loaded slices held at once (at least one slice is always allowed)
+	 * @param ordered if true, pass results to consumer in slice order
+	 */
+	public ParallelSliceExecutor(SliceFunction<T> function, ResultConsumer<T> consumer, int parallelism, long maxBytes, boolean ordered) {
+		this.function = function;
+		this.consumer = consumer;
+		this.parallelism = Math.max(1, parallelism);
+		this.maxBytes = maxBytes <= 0 ? DEFAULT_MAX_BYTES : maxBytes;
+		this.ordered = ordered;
+	}
+
+	/**
+	 * @param cancelled checked before each slice is read
+	 */
+	public void setCancelled(BooleanSupplier cancelled) {
+		this.cancelled = cancelled;
+	}
+
+	/**
+	 * @param loader used on the calling thread to load each slice view
+	 */
+	public void setLoader(SliceLoader loader) {
+		this.loader = loader;
+	}
+
+	/**
+	 * Get (or create) the work-stealing pool shared by all runs with the given parallelism
+	 * @param parallelism
+	 * @return pool
+	 */
+	static ForkJoinPool getPool(int parallelism) {
+		return POOLS.computeIfAbsent(parallelism, p -> {
+			AtomicInteger count = new AtomicInteger();
+			return new ForkJoinPool(p, pool -> {
+				ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+				t.setName("Processing-" + p + "-" + count.incrementAndGet());
+				t.setDaemon(true);
+				return t;
+			}, null, true);
+		});
+	}
+
+	/**
+	 * Read every slice from the iterator and process it, returning when all results have been delivered
+	 * @param iterator
+	 * @throws Exception the first exception thrown while processing
+	 */
+	public void run(ISliceViewIterator iterator) throws Exception {
+		ForkJoinPool pool = getPool(parallelism);
+		int maxTasks = 2 * parallelism;
+		int index = 0;
+
+		try {
+			while (iterator.hasNext() && !cancelled.getAsBoolean()) {
+				if (hasFailed()) {
+					break;
+				}
+
+				final Dataset slice = loader.load(iterator.next());
+				final long bytes = slice.getNbytes();
+				final int i = index++;
+
+				if (!acquire(bytes, maxTasks)) {
+					break;
+				}
+
+				pool.execute(() -> process(i, slice, bytes));
+			}
+		} catch (Exception e) {
+			fail(e);
+		}
+
+		awaitCompletion();
+
+		lock.lock();
+		try {
+			if (failure != null) {
+				throw failure;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private boolean hasFailed() {
+		lock.lock();
+		try {
+			return failure != null;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Wait until there is room for a slice of given size
+	 * @return false if processing has failed
+	 */
+	private boolean acquire(long bytes, int maxTasks) throws InterruptedException {
+		lock.lock();
+		try {
+			while (failure == null && bytesInFlight > 0 &&
+					(bytesInFlight + bytes > maxBytes || tasksInFlight >= maxTasks)) {
+				changed.await();
+			}
+			if (failure != null) {
+				return false;
+			}
+			tasksInFlight++;
+			bytesInFlight += bytes;
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void process(int index, Dataset slice, long bytes) {
+		T result = null;
+		boolean ok = false;
+		try {
+			if (!hasFailed()) {
+				result = function.apply(slice);
+				ok = true;
+			}
+		} catch (Exception e) {
+			fail(e);
+		} catch (Throwable t) {
+			fail(new Exception(t));
+		}
+
+		if (ok && !ordered) {
+			try {
+				consumer.accept(result);
+			} catch (Exception e) {
+				fail(e);
+			}
+		}
+
+		lock.lock();
+		try {
+			tasksInFlight--;
+			if (ok && ordered) {
+				// bytes are released on delivery so that the reorder buffer counts towards the limit
+				reorder.put(index, new Completed<>(result, bytes));
+			} else {
+				bytesInFlight -= bytes;
+			}
+			changed.signalAll();
+		} finally {
+			lock.unlock();
+		}
+
+		if (ok && ordered) {
+			deliver();
+		}
+	}
+
+	/**
+	 * Pass on all consecutive results from the head of the reorder buffer. Only one
+	 * thread delivers at a time, other threads leave their results for it to pick up.
+	 */
+	private void deliver() {
+		while (true) {
+			Completed<T> c;
+			lock.lock();
+			try {
+				if (delivering || failure != null) {
+					return;
+				}
+				c = reorder.remove(nextToDeliver);
+				if (c == null) {
+					return;
+				}
+				delivering = true;
+				nextToDeliver++;
+			} finally {
+				lock.unlock();
+			}
+
+			try {
+				consumer.accept(c.result);
+			} catch (Exception e) {
+				fail(e);
+			} finally {
+				lock.lock();
+				try {
+					delivering = false;
+					bytesInFlight -= c.bytes;
+					changed.signalAll();
+				} finally {
+					lock.unlock();
+				}
+			}
+		}
+	}
+
+	private void fail(Exception e) {
+		lock.lock();
+		try {
+			if (failure == null) {
+				failure = e;
+			} else {
+				logger.error("Further failure during parallel processing", e);
+			}
+			changed.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void awaitCompletion() throws InterruptedException {
+		lock.lock();
+		try {
+			while (tasksInFlight > 0 || delivering) {
+				changed.await();
+			}
+			if (failure == null && !reorder.isEmpty()) {
+				// a worker may have finished just after another delivered
+				lock.unlock();
+				try {
+					deliver();
+				} finally {
+					lock.lock();
+				}
+			}
+			reorder.clear();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private static class Completed<T> {
+		private final T result;
+		private final long bytes;
+
+		Completed(T result, long bytes) {
+			this.result = result;
+			this.bytes = bytes;
+		}
+	}
+}
@@ -0,0 +1,351 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.processing.runner;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.eclipse.dawnsci.analysis.api.processing.IOperation;
+import org.eclipse.dawnsci.analysis.api.processing.OperationData;
+import org.eclipse.dawnsci.analysis.dataset.SlicingUtils;
+import org.eclipse.january.DatasetException;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.ILazyDataset;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Profile of one run of a series of operations.
+ * <p>
+ * Records a latency histogram and the bytes allocated for each operation, the bytes and time
+ * taken to read slices and to pass results to the visitor, and the time each thread was busy.
+ * Allocations and CPU time are taken from the {@link ThreadMXBean} where supported. While
+ * running, the profile is registered as an MXBean and each measurement is emitted as a
+ * {@link ProcessingEvent} to any flight recording.
+ */
+public class PipelineProfile implements PipelineProfileMXBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(PipelineProfile.class);
+
+	/**
+	 * System property to switch on profiling by default
+	 */
+	public static final String PROFILE_PROPERTY = "uk.ac.diamond.scisoft.analysis.processing.profile";
+
+	private static final String DOMAIN = "uk.ac.diamond.scisoft.analysis.processing";
+	private static final AtomicInteger RUNS = new AtomicInteger();
+	private static final double MB = 1024 * 1024;
+
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+	private static final com.sun.management.ThreadMXBean ALLOCATIONS = getAllocationBean();
+	private static final boolean CPU_TIME = THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+
+	private static com.sun.management.ThreadMXBean getAllocationBean() {
+		if (THREADS instanceof com.sun.management.ThreadMXBean bean && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+			return bean;
+		}
+		return null;
+	}
+
+	/**
+	 * Start of a measurement on one thread
+	 */
+	static class Sample {
+		private final long time;
+		private final long cpu;
+		private final long allocated;
+		private final ProcessingEvent event;
+
+		private Sample() {
+			event = new ProcessingEvent();
+			event.begin();
+			allocated = ALLOCATIONS == null ? 0 : ALLOCATIONS.getCurrentThreadAllocatedBytes();
+			cpu = CPU_TIME ? THREADS.getCurrentThreadCpuTime() : 0;
+			time = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Totals for one thread, only updated by that thread
+	 */
+	private static class ThreadStats {
+		private volatile long busy;
+		private volatile long cpu;
+		private volatile long allocated;
+	}
+
+	private final String[] names;
+	private final LatencyHistogram[] latencies;
+	private final LongAdder[] allocated;
+	private final Map<Thread, ThreadStats> threads = new ConcurrentHashMap<>();
+
+	private final LongAdder slicesRead = new LongAdder();
+	private final LongAdder bytesRead = new LongAdder();
+	private final LongAdder readTime = new LongAdder();
+	private final LongAdder resultsWritten = new LongAdder();
+	private final LongAdder bytesWritten = new LongAdder();
+	private final LongAdder writeTime = new LongAdder();
+
+	private volatile long startTime;
+	private volatile long endTime;
+	private ObjectName objectName;
+
+	/**
+	 * @param series
+	 */
+	public PipelineProfile(IOperation<?, ?>[] series) {
+		names = new String[series.length];
+		latencies = new LatencyHistogram[series.length];
+		allocated = new LongAdder[series.length];
+		for (int i = 0; i < series.length; i++) {
+			names[i] = i + "-" + series[i].getName();
+			latencies[i] = new LatencyHistogram();
+			allocated[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Start the clock and publish the profile over JMX
+	 */
+	public void start() {
+		startTime = System.nanoTime();
+		endTime = 0;
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			objectName = new ObjectName(DOMAIN + ":type=PipelineProfile,name=run-" + RUNS.incrementAndGet());
+			server.registerMBean(this, objectName);
+		} catch (JMException | SecurityException e) {
+			logger.warn("Could not register pipeline profile", e);
+			objectName = null;
+		}
+	}
+
+	/**
+	 * Stop the clock and withdraw the profile from JMX
+	 */
+	public void stop() {
+		endTime = System.nanoTime();
+		if (objectName != null) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+			} catch (JMException | SecurityException e) {
+				logger.warn("Could not unregister pipeline profile", e);
+			}
+			objectName = null;
+		}
+	}
+
+	/**
+	 * @return start of a measurement on the current thread
+	 */
+	Sample begin() {
+		return new Sample();
+	}
+
+	/**
+	 * Record operation at given position in series having run on a slice
+	 * @param sample
+	 * @param index
+	 */
+	void endOperation(Sample sample, int index) {
+		long[] d = end(sample);
+		latencies[index].record(d[0]);
+		allocated[index].add(d[1]);
+		commit(sample.event, ProcessingEvent.OPERATION, names[index], 0, d[1]);
+	}
+
+	/**
+	 * Record result having been passed to the visitor
+	 * @param sample
+	 * @param result (can be null)
+	 */
+	void endWrite(Sample sample, OperationData result) {
+		long[] d = end(sample);
+		long bytes = result == null || result.getData() == null ? 0 : getBytes(result.getData());
+		resultsWritten.increment();
+		bytesWritten.add(bytes);
+		writeTime.add(d[0]);
+		commit(sample.event, ProcessingEvent.WRITE, null, bytes, d[1]);
+	}
+
+	/**
+	 * Load slice, recording the bytes and time taken
+	 * @param view
+	 * @return slice
+	 * @throws DatasetException
+	 */
+	Dataset load(ILazyDataset view) throws DatasetException {
+		Sample sample = begin();
+		Dataset slice = SlicingUtils.sliceWithAxesMetadata(view);
+		long[] d = end(sample);
+		long bytes = slice.getNbytes();
+		slicesRead.increment();
+		bytesRead.add(bytes);
+		readTime.add(d[0]);
+		commit(sample.event, ProcessingEvent.READ, null, bytes, d[1]);
+		return slice;
+	}
+
+	/**
+	 * Add time since sample to current thread
+	 * @return elapsed nanoseconds and bytes allocated
+	 */
+	private long[] end(Sample sample) {
+		long time = System.nanoTime() - sample.time;
+		long cpu = CPU_TIME ? THREADS.getCurrentThreadCpuTime() - sample.cpu : 0;
+		long bytes = ALLOCATIONS == null ? 0 : ALLOCATIONS.getCurrentThreadAllocatedBytes() - sample.allocated;
+		ThreadStats stats = threads.computeIfAbsent(Thread.currentThread(), t -> new ThreadStats());
+		stats.busy += time;
+		stats.cpu += cpu;
+		stats.allocated += bytes;
+		return new long[] {time, bytes};
+	}
+
+	private static void commit(ProcessingEvent event, String kind, String operation, long bytes, long allocated) {
+		event.end();
+		if (event.shouldCommit()) {
+			event.kind = kind;
+			event.operation = operation;
+			event.bytes = bytes;
+			event.allocated = allocated;
+			event.commit();
+		}
+	}
+
+	private static long getBytes(ILazyDataset data) {
+		return data instanceof Dataset d ? d.getNbytes() : 0;
+	}
+
+	private long getElapsedNanos() {
+		long end = endTime;
+		return (end == 0 ? System.nanoTime() : end) - startTime;
+	}
+
+	@Override
+	public double getElapsedSeconds() {
+		return getElapsedNanos() * 1e-9;
+	}
+
+	@Override
+	public long getSlicesRead() {
+		return slicesRead.sum();
+	}
+
+	@Override
+	public long getBytesRead() {
+		return bytesRead.sum();
+	}
+
+	@Override
+	public double getReadSeconds() {
+		return readTime.sum() * 1e-9;
+	}
+
+	@Override
+	public long getResultsWritten() {
+		return resultsWritten.sum();
+	}
+
+	@Override
+	public long getBytesWritten() {
+		return bytesWritten.sum();
+	}
+
+	@Override
+	public double getWriteSeconds() {
+		return writeTime.sum() * 1e-9;
+	}
+
+	@Override
+	public Map<String, Long> getOperationCounts() {
+		return toLongMap(i -> latencies[i].getCount());
+	}
+
+	@Override
+	public Map<String, Double> getOperationMeanMillis() {
+		return toDoubleMap(i -> latencies[i].getMean() * 1e-6);
+	}
+
+	@Override
+	public Map<String, Double> getOperationMaxMillis() {
+		return toDoubleMap(i -> latencies[i].getMax() * 1e-6);
+	}
+
+	@Override
+	public Map<String, Long> getOperationAllocatedBytes() {
+		return toLongMap(i -> allocated[i].sum());
+	}
+
+	private Map<String, Long> toLongMap(ToLongFunction<Integer> value) {
+		Map<String, Long> map = new LinkedHashMap<>();
+		for (int i = 0; i < names.length; i++) {
+			map.put(names[i], value.applyAsLong(i));
+		}
+		return map;
+	}
+
+	private Map<String, Double> toDoubleMap(ToDoubleFunction<Integer> value) {
+		Map<String, Double> map = new LinkedHashMap<>();
+		for (int i = 0; i < names.length; i++) {
+			map.put(names[i], value.applyAsDouble(i));
+		}
+		return map;
+	}
+
+	@Override
+	public String getSummary() {
+		final double elapsed = getElapsedSeconds();
+		StringBuilder b = new StringBuilder();
+		b.append(String.format("Processed %d slices in %.3f s on %d threads%n", getSlicesRead(), elapsed, threads.size()));
+		b.append(String.format("Read %.1f MB in %.3f s (%.1f MB/s)%n", getBytesRead() / MB, getReadSeconds(), rate(getBytesRead(), getReadSeconds())));
+		b.append(String.format("Passed %d results of %.1f MB to visitor in %.3f s (%.1f MB/s)%n", getResultsWritten(), getBytesWritten() / MB, getWriteSeconds(), rate(getBytesWritten(), getWriteSeconds())));
+
+		long opTotal = 0;
+		for (LatencyHistogram h : latencies) {
+			opTotal += h.getTotal();
+		}
+		b.append(String.format("%-32s %8s %10s %10s %10s %10s %10s %6s %12s%n",
+				"operation", "count", "mean ms", "p50 ms", "p99 ms", "max ms", "total s", "share", "alloc MB"));
+		for (int i = 0; i < names.length; i++) {
+			LatencyHistogram h = latencies[i];
+			b.append(String.format("%-32s %8d %10.3f %10.3f %10.3f %10.3f %10.3f %5.1f%% %12.1f%n",
+					names[i], h.getCount(), h.getMean() * 1e-6, h.getPercentile(0.5) * 1e-6, h.getPercentile(0.99) * 1e-6,
+					h.getMax() * 1e-6, h.getTotal() * 1e-9, opTotal == 0 ? 0 : 100. * h.getTotal() / opTotal, allocated[i].sum() / MB));
+		}
+
+		List<Map.Entry<Thread, ThreadStats>> entries = new ArrayList<>(threads.entrySet());
+		entries.sort((x, y) -> x.getKey().getName().compareTo(y.getKey().getName()));
+		final long elapsedNanos = getElapsedNanos();
+		b.append(String.format("%-32s %10s %10s %10s %12s%n", "thread", "busy s", "idle s", "cpu s", "alloc MB"));
+		for (Map.Entry<Thread, ThreadStats> e : entries) {
+			ThreadStats s = e.getValue();
+			b.append(String.format("%-32s %10.3f %10.3f %10.3f %12.1f%n", e.getKey().getName(), s.busy * 1e-9,
+					Math.max(0, elapsedNanos - s.busy) * 1e-9, s.cpu * 1e-9, s.allocated / MB));
+		}
+		return b.toString();
+	}
+
+	private static double rate(long bytes, double seconds) {
+		return seconds > 0 ? bytes / MB / seconds : 0;
+	}
+}
@@ -0,0 +1,43 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.processing.runner;
+
+import java.util.Map;
+
+/**
+ * Metrics of a running pipeline published over JMX. Operations are keyed by their
+ * position and name in the series
+ */
+public interface PipelineProfileMXBean {
+
+	public double getElapsedSeconds();
+
+	public long getSlicesRead();
+
+	public long getBytesRead();
+
+	public double getReadSeconds();
+
+	public long getResultsWritten();
+
+	public long getBytesWritten();
+
+	public double getWriteSeconds();
+
+	public Map<String, Long> getOperationCounts();
+
+	public Map<String, Double> getOperationMeanMillis();
+
+	public Map<String, Double> getOperationMaxMillis();
+
+	public Map<String, Long> getOperationAllocatedBytes();
+
+	public String getSummary();
+}
@@ -0,0 +1,47 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.processing.runner;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for a slice read, an operation run on a slice or a result passed to the visitor
+ */
+@Name("uk.ac.diamond.scisoft.analysis.processing.Processing")
+@Label("Processing")
+@Category({"DAWN", "Processing"})
+@Description("Slice read, operation run on a slice or result passed to the execution visitor")
+@StackTrace(false)
+class ProcessingEvent extends Event {
+
+	static final String READ = "read";
+	static final String OPERATION = "operation";
+	static final String WRITE = "write";
+
+	@Label("Kind")
+	String kind;
+
+	@Label("Operation")
+	String operation;
+
+	@Label("Bytes")
+	@DataAmount
+	long bytes;
+
+	@Label("Allocated")
+	@DataAmount
+	long allocated;
+}
@@ -2,18 +2,26 @@ package uk.ac.diamond.scisoft.analysis.processing.runner;
 
 import java.io.File;
 import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
 
 import org.eclipse.dawnsci.analysis.api.processing.ExecutionType;
 import org.eclipse.dawnsci.analysis.api.processing.IExecutionVisitor;
 import org.eclipse.dawnsci.analysis.api.processing.IOperation;
 import org.eclipse.dawnsci.analysis.api.processing.IOperationContext;
 import org.eclipse.dawnsci.analysis.api.processing.IOperationRunner;
+import org.eclipse.dawnsci.analysis.api.processing.IReducingOperation;
 import org.eclipse.dawnsci.analysis.api.processing.ISavesToFile;
 import org.eclipse.dawnsci.analysis.api.processing.OperationData;
 import org.eclipse.dawnsci.analysis.api.processing.OperationException;
 import org.eclipse.dawnsci.analysis.dataset.slicer.DynamicSliceViewIterator;
 import org.eclipse.dawnsci.analysis.dataset.slicer.ISliceViewIterator;
+import org.eclipse.dawnsci.analysis.dataset.slicer.PrefetchingSliceViewIterator;
 import org.eclipse.dawnsci.analysis.dataset.slicer.SliceFromSeriesMetadata;
 import org.eclipse.dawnsci.analysis.dataset.slicer.SliceViewIterator;
 import org.eclipse.dawnsci.analysis.dataset.slicer.SliceVisitor;
@@ -41,6 +49,7 @@ public class SeriesRunner implements IOperationRunner {
 
 
 	private IOperationContext context;
+	private PipelineProfile profile;
 
 	public void init(IOperationContext context) {
 		this.context        = context;
@@ -66,85 +75,14 @@ public class SeriesRunner implements IOperationRunner {
 
 			@Override
 			public void visit(IDataset slice) throws Exception {
-
-				List<SliceFromSeriesMetadata> meta = slice.getMetadata(SliceFromSeriesMetadata.class);
-				SliceFromSeriesMetadata ssm = meta!=null && !meta.isEmpty() ? meta.get(0) : null;
-				SliceFromSeriesMetadata fullssm = null;
-				if (ssm!=null) {
-					fullssm = new SliceFromSeriesMetadata(finalSource, ssm.getSliceInfo());
-					slice.setMetadata(fullssm);
-				}
-
-				if (context.getMonitor() != null && context.getMonitor().isCancelled()) return;
-
-				String current = "";
-				if (fullssm != null) {
-					try {
-						current = Slice.createString(ssm.getSliceFromInput());
-					} catch (Exception e) {
-						//ignore
-					}
-				}
-				
-				String outputFile = null;
-				
-				if (visitor instanceof ISavesToFile) outputFile = ((ISavesToFile)visitor).getFileName();
-				
-				OperationData  data = new OperationData(slice, (Serializable[]) null);
-				long start = System.currentTimeMillis();
-				for (IOperation<?,?> i : context.getSeries()) {
-
-					OperationMetadataImpl operationMeta = new OperationMetadataImpl(outputFile, context.getSeries(), i);
-					data.getData().setMetadata(operationMeta);
-					if (context.getMonitor() != null) {
-						String update = "";
-						if (fullssm != null) {
-							try {
-								String filePath = fullssm.getFilePath();
-								File f = new File(filePath);
-								String name = f.getName();
-								String s = Slice.createString(fullssm.getSliceFromInput());
-								update = name+ " ["+ s + "] " + i.getName();
-							} catch (Exception e) {
-								logger.error("Could not update progres", e);
-							}
-						}
-						context.getMonitor().subTask(update);
-						
-					}
-
-					OperationData tmp = i.execute(data.getData(), context.getMonitor());
-					//TODO only set metadata if doesnt already contain it!
-					//TODO continue if null;
-					if (tmp == null || tmp.getData() == null) {
-						data = null;
-					} else {
-						List<SliceFromSeriesMetadata> md = tmp.getData().getMetadata(SliceFromSeriesMetadata.class);
-						
-						if (md == null || md.isEmpty())  {
-							tmp.getData().setMetadata(fullssm);
-						} else {
-							fullssm = md.get(0);
-						}
-					}
-
-					if (tmp != null) {
-						visitor.notify(i, tmp); // Optionally send intermediate result
-					}
-
-					data = i.isPassUnmodifiedData() ? data : tmp;
-					if (data == null || data.getData() == null) {
-						break;
-					}
-				}
-				logger.debug("Slice {} ran in: {} s : Thread {}", current, (System.currentTimeMillis()-start)/1000., Thread.currentThread());
-				if (context.getMonitor() != null) context.getMonitor().worked(1);
-				visitor.executed(data, context.getMonitor()); // Send result.
+				if (isCancelled()) return;
+				OperationData data = processSlice(slice, visitor, finalSource);
+				sendResult(visitor, data); // Send result.
 			}
 
 			@Override
 			public boolean isCancelled() {
-				return context.getMonitor()!=null ? context.getMonitor().isCancelled() : false;
+				return SeriesRunner.this.isCancelled();
 			}
 		};
 
@@ -161,15 +99,358 @@ public class SeriesRunner implements IOperationRunner {
 			iterator = new SliceViewIterator(context.getData(), context.getSlicing(), context.getDataDimensions());
 		}
 		
-		if (context.getExecutionType()==ExecutionType.SERIES) {
-			Slicer.visit(iterator,sv);
-		} else if (context.getExecutionType()==ExecutionType.PARALLEL) {
-			Slicer.visitParallel(iterator,sv,context.getNumberOfCores());
-		} else {
-			throw new OperationException(context.getSeries()[0], "The edges are needed to execute a graph using ptolemy!");
+		PrefetchingSliceViewIterator prefetch = null;
+		if (context.getReadAhead() > 0) {
+			prefetch = new PrefetchingSliceViewIterator(iterator, context.getData(), context.getReadAhead());
+			iterator = prefetch;
+		}
+
+		profile = context.isProfiling() ? new PipelineProfile(context.getSeries()) : null;
+		if (profile != null) profile.start();
+
+		try {
+			if (context.getExecutionType()==ExecutionType.SERIES) {
+				if (profile == null) {
+					Slicer.visit(iterator,sv);
+				} else {
+					while (iterator.hasNext()) {
+						sv.visit(profile.load(iterator.next()));
+						if (sv.isCancelled()) break;
+					}
+				}
+			} else if (context.getExecutionType()==ExecutionType.PARALLEL) {
+				IOperation<?,?>[] series = context.getSeries();
+				int reduction = OperationStage.indexOfReduction(series);
+				List<OperationStage> stages = OperationStage.plan(reduction < 0 ? series : Arrays.copyOf(series, reduction));
+				if (reduction >= 0 || stages.size() > 1 || (!stages.isEmpty() && !stages.get(0).isAtomic())) {
+					runStages(iterator, stages, reduction, visitor, finalSource);
+				} else {
+					ParallelSliceExecutor<OperationData> executor = new ParallelSliceExecutor<>(
+							slice -> isCancelled() ? null : processSlice(slice, visitor, finalSource),
+							data -> {
+								if (!isCancelled()) sendResult(visitor, data);
+							},
+							context.getNumberOfCores(), context.getMaxBytesInFlight(), context.isOrderedResults());
+					executor.setCancelled(this::isCancelled);
+					if (profile != null) executor.setLoader(profile::load);
+					executor.run(iterator);
+				}
+			} else {
+				throw new OperationException(context.getSeries()[0], "The edges are needed to execute a graph using ptolemy!");
+			}
+		} finally {
+			if (prefetch != null) prefetch.close();
+			if (profile != null) profile.stop();
 		}
 
 		logger.debug("Data ran in: {} s", (System.currentTimeMillis()-start)/1000.);
+		if (profile != null) {
+			String summary = profile.getSummary();
+			logger.info("Pipeline profile:{}{}", System.lineSeparator(), summary);
+			visitor.profiled(summary);
+		}
+	}
+
+	/**
+	 * Pass result to the visitor, timing it if profiling
+	 * @param visitor
+	 * @param data
+	 * @throws Exception
+	 */
+	private void sendResult(IExecutionVisitor visitor, OperationData data) throws Exception {
+		if (profile == null) {
+			visitor.executed(data, context.getMonitor());
+			return;
+		}
+		PipelineProfile.Sample sample = profile.begin();
+		visitor.executed(data, context.getMonitor());
+		profile.endWrite(sample, data);
+	}
+
+	private boolean isCancelled() {
+		return context.getMonitor()!=null ? context.getMonitor().isCancelled() : false;
+	}
+
+	/**
+	 * Run stages of the series in a pipeline. Slices are loaded in order and passed through
+	 * atomic stages concurrently, whereas each other stage takes slices one at a time in slice
+	 * order. Final results are sent to the visitor in slice order.
+	 * <p>
+	 * If the series contains a reducing operation, the stages end before it and their results
+	 * are accumulated by each worker thread. Once all slices are done, the accumulators are
+	 * combined and the rest of the series is run on the reduced result.
+	 * @param iterator
+	 * @param stages
+	 * @param reduction index of reducing operation or -1
+	 * @param visitor
+	 * @param source
+	 * @throws Exception the first exception thrown by an operation or the visitor
+	 */
+	private void runStages(ISliceViewIterator iterator, List<OperationStage> stages, int reduction, IExecutionVisitor visitor, SourceInformation source) throws Exception {
+		final IOperation<?,?>[] series = context.getSeries();
+		final int parallelism = context.getNumberOfCores();
+		final ForkJoinPool pool = ParallelSliceExecutor.getPool(parallelism);
+		final OperationStage first = stages.isEmpty() || !stages.get(0).isAtomic() ? null : stages.get(0);
+		final int nStages = stages.size();
+		final ParallelReduction<?> reducer = reduction < 0 ? null : ParallelReduction.create((IReducingOperation<?>) series[reduction]);
+
+		// last result to leave each stage (and to be sent to the visitor) so the next slice can wait on it
+		@SuppressWarnings("unchecked")
+		final CompletableFuture<OperationData>[] tails = new CompletableFuture[nStages + 1];
+		Arrays.fill(tails, CompletableFuture.completedFuture(null));
+		final Deque<CompletableFuture<OperationData>> pending = new ArrayDeque<>();
+
+		ParallelSliceExecutor<OperationData> executor = new ParallelSliceExecutor<>(
+				slice -> {
+					if (isCancelled()) return null;
+					OperationData data = prepare(slice, source);
+					return first != null ? runOperations(data, visitor, first.getFrom(), first.getTo()) : data;
+				},
+				data -> {
+					if (tails[nStages].isCompletedExceptionally()) {
+						join(tails[nStages]); // stop reading slices
+					}
+					CompletableFuture<OperationData> result = CompletableFuture.completedFuture(data);
+					for (int s = first != null ? 1 : 0; s < nStages; s++) {
+						final OperationStage stage = stages.get(s);
+						if (stage.isAtomic()) {
+							result = result.thenApplyAsync(d -> runStage(d, visitor, stage), pool);
+						} else {
+							result = tails[s].thenCombineAsync(result, (previous, d) -> runStage(d, visitor, stage), pool);
+							tails[s] = result;
+						}
+					}
+					if (reducer != null) {
+						result = result.thenApplyAsync(d -> {
+							if (d != null && d.getData() != null && !isCancelled()) {
+								PipelineProfile.Sample sample = profile == null ? null : profile.begin();
+								reducer.accumulate(d.getData());
+								if (sample != null) profile.endOperation(sample, reduction);
+							}
+							return null;
+						}, pool);
+					}
+					result = tails[nStages].thenCombine(result, (previous, d) -> {
+						if (!isCancelled()) {
+							try {
+								sendResult(visitor, d);
+							} catch (Exception e) {
+								throw new CompletionException(e);
+							}
+							if (context.getMonitor() != null) context.getMonitor().worked(1);
+						}
+						return d;
+					});
+					tails[nStages] = result;
+
+					pending.add(result);
+					while (pending.size() > 2 * parallelism) {
+						join(pending.remove());
+					}
+				},
+				parallelism, context.getMaxBytesInFlight(), true);
+		executor.setCancelled(this::isCancelled);
+		if (profile != null) executor.setLoader(profile::load);
+		try {
+			executor.run(iterator);
+		} finally {
+			// let stages finish before returning or passing on a failure
+			for (CompletableFuture<OperationData> f : pending) {
+				try {
+					f.join();
+				} catch (CompletionException e) {
+					// failure is passed on by join
+				}
+			}
+		}
+		join(tails[nStages]);
+
+		if (reducer != null && !isCancelled()) {
+			OperationData reduced = reducer.finish(pool);
+			if (reduced != null) {
+				visitor.notify(series[reduction], reduced);
+				reduced = runOperations(reduced, visitor, reduction + 1, series.length);
+			}
+			sendResult(visitor, reduced);
+		}
+	}
+
+	private OperationData runStage(OperationData data, IExecutionVisitor visitor, OperationStage stage) {
+		if (isCancelled()) return null;
+		try {
+			return runOperations(data, visitor, stage.getFrom(), stage.getTo());
+		} catch (Exception e) {
+			throw new CompletionException(e);
+		}
+	}
+
+	private static void join(CompletableFuture<?> future) throws Exception {
+		try {
+			future.join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof Exception) throw (Exception) cause;
+			throw e;
+		}
+	}
+
+	/**
+	 * Run the series of operations on a single slice, notifying the visitor of intermediate results
+	 * @param slice
+	 * @param visitor
+	 * @param source
+	 * @return final result (may be null)
+	 * @throws Exception
+	 */
+	private OperationData processSlice(IDataset slice, IExecutionVisitor visitor, SourceInformation source) throws Exception {
+
+		OperationData data = prepare(slice, source);
+		String current = "";
+		SliceFromSeriesMetadata fullssm = slice.getFirstMetadata(SliceFromSeriesMetadata.class);
+		if (fullssm != null) {
+			try {
+				current = Slice.createString(fullssm.getSliceFromInput());
+			} catch (Exception e) {
+				//ignore
+			}
+		}
+
+		long start = System.currentTimeMillis();
+		data = runOperations(data, visitor, 0, context.getSeries().length);
+		logger.debug("Slice {} ran in: {} s : Thread {}", current, (System.currentTimeMillis()-start)/1000., Thread.currentThread());
+		if (context.getMonitor() != null) context.getMonitor().worked(1);
+		return data;
+	}
+
+	/**
+	 * Set the full series metadata of a slice
+	 * @param slice
+	 * @param source
+	 * @return data to pass to the first operation
+	 * @throws Exception
+	 */
+	private OperationData prepare(IDataset slice, SourceInformation source) throws Exception {
+		List<SliceFromSeriesMetadata> meta = slice.getMetadata(SliceFromSeriesMetadata.class);
+		SliceFromSeriesMetadata ssm = meta!=null && !meta.isEmpty() ? meta.get(0) : null;
+		if (ssm!=null) {
+			slice.setMetadata(new SliceFromSeriesMetadata(source, ssm.getSliceInfo()));
+		}
+		return new OperationData(slice, (Serializable[]) null);
+	}
+
+	/**
+	 * Run a range of the series of operations, notifying the visitor of intermediate results.
+	 * Runs of element-wise operations are fused into one pass over the slice, in which case
+	 * only the last operation of a run is notified and profiled
+	 * @param data
+	 * @param visitor
+	 * @param from index of first operation
+	 * @param to index after last operation
+	 * @return result (may be null)
+	 * @throws Exception
+	 */
+	private OperationData runOperations(OperationData data, IExecutionVisitor visitor, int from, int to) throws Exception {
+		if (data == null || data.getData() == null) {
+			return data;
+		}
+		SliceFromSeriesMetadata fullssm = data.getData().getFirstMetadata(SliceFromSeriesMetadata.class);
+
+		String outputFile = null;
+		
+		if (visitor instanceof ISavesToFile) outputFile = ((ISavesToFile)visitor).getFileName();
+		
+		IOperation<?,?>[] series = context.getSeries();
+		for (int j = from; j < to; j++) {
+			PipelineProfile.Sample sample = profile == null ? null : profile.begin();
+			FusedOperations fused = fuse(data.getData(), j, to, outputFile, fullssm);
+			OperationData tmp;
+			if (fused == null) {
+				setCurrentOperation(data.getData(), series[j], outputFile, fullssm);
+				tmp = series[j].execute(data.getData(), context.getMonitor());
+			} else {
+				j += fused.size() - 1;
+				tmp = fused.execute();
+			}
+			if (sample != null) profile.endOperation(sample, j);
+			IOperation<?,?> i = series[j];
+			//TODO only set metadata if doesnt already contain it!
+			//TODO continue if null;
+			if (tmp == null || tmp.getData() == null) {
+				data = null;
+			} else {
+				List<SliceFromSeriesMetadata> md = tmp.getData().getMetadata(SliceFromSeriesMetadata.class);
+				
+				if (md == null || md.isEmpty())  {
+					tmp.getData().setMetadata(fullssm);
+				} else {
+					fullssm = md.get(0);
+				}
+			}
+
+			if (tmp != null) {
+				visitor.notify(i, tmp); // Optionally send intermediate result
+			}
+
+			data = i.isPassUnmodifiedData() ? data : tmp;
+			if (data == null || data.getData() == null) {
+				break;
+			}
+		}
+		return data;
+	}
+
+	/**
+	 * Create kernels of the run of element-wise operations that starts at the given operation
+	 * @param input
+	 * @param from index of first operation
+	 * @param to index after last operation of range being run
+	 * @param outputFile
+	 * @param fullssm
+	 * @return run of two or more operations or null if the operation should be executed on its own
+	 * @throws OperationException
+	 */
+	private FusedOperations fuse(IDataset input, int from, int to, String outputFile, SliceFromSeriesMetadata fullssm) throws OperationException {
+		IOperation<?,?>[] series = context.getSeries();
+		int end = FusedOperations.endOfRun(series, from, to);
+		if (end - from < 2) {
+			return null;
+		}
+		FusedOperations fused = new FusedOperations(input);
+		for (int j = from; j < end; j++) {
+			setCurrentOperation(input, series[j], outputFile, fullssm);
+			if (!fused.add(series[j])) {
+				break;
+			}
+		}
+		return fused.size() < 2 ? null : fused;
+	}
+
+	/**
+	 * Set operation metadata of data and report progress
+	 * @param data
+	 * @param op
+	 * @param outputFile
+	 * @param fullssm
+	 */
+	private void setCurrentOperation(IDataset data, IOperation<?,?> op, String outputFile, SliceFromSeriesMetadata fullssm) {
+		OperationMetadataImpl operationMeta = new OperationMetadataImpl(outputFile, context.getSeries(), op);
+		data.setMetadata(operationMeta);
+		if (context.getMonitor() != null) {
+			String update = "";
+			if (fullssm != null) {
+				try {
+					String filePath = fullssm.getFilePath();
+					File f = new File(filePath);
+					String name = f.getName();
+					String s = Slice.createString(fullssm.getSliceFromInput());
+					update = name+ " ["+ s + "] " + op.getName();
+				} catch (Exception e) {
+					logger.error("Could not update progres", e);
+				}
+			}
+			context.getMonitor().subTask(update);
+			
+		}
 	}
 
 	@Override
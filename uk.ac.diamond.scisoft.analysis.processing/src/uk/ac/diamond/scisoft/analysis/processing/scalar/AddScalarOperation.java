@@ -10,11 +10,16 @@
 package uk.ac.diamond.scisoft.analysis.processing.scalar;
 
 import org.eclipse.dawnsci.analysis.api.processing.Atomic;
+import org.eclipse.dawnsci.analysis.api.processing.IElementKernel;
+import org.eclipse.dawnsci.analysis.api.processing.IElementwiseOperation;
+import org.eclipse.january.dataset.DatasetFactory;
 import org.eclipse.january.dataset.DatasetUtils;
 import org.eclipse.january.dataset.IDataset;
 
+import uk.ac.diamond.scisoft.analysis.utils.ErrorPropagationUtils;
+
 @Atomic
-public class AddScalarOperation extends AbstractScalarMathsOperation<ScalarModel> {
+public class AddScalarOperation extends AbstractScalarMathsOperation<ScalarModel> implements IElementwiseOperation {
 
 	@Override
 	public String getId() {
@@ -30,4 +35,13 @@ public class AddScalarOperation extends AbstractScalarMathsOperation<ScalarModel
 		return output;
 	}
 
+	@Override
+	public IElementKernel createKernel(IDataset slice, Class<?> elementClass) {
+		// result keeps element type of input
+		if (elementClass != Double.class) {
+			return null;
+		}
+		return ErrorPropagationUtils.addKernel(slice, DatasetFactory.createFromObject(model.getValue()));
+	}
+
 }
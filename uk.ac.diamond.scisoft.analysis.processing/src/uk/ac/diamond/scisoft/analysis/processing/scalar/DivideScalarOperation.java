@@ -10,6 +10,8 @@
 package uk.ac.diamond.scisoft.analysis.processing.scalar;
 
 import org.eclipse.dawnsci.analysis.api.processing.Atomic;
+import org.eclipse.dawnsci.analysis.api.processing.IElementKernel;
+import org.eclipse.dawnsci.analysis.api.processing.IElementwiseOperation;
 import org.eclipse.january.dataset.DatasetFactory;
 import org.eclipse.january.dataset.DatasetUtils;
 import org.eclipse.january.dataset.IDataset;
@@ -17,7 +19,7 @@ import org.eclipse.january.dataset.IDataset;
 import uk.ac.diamond.scisoft.analysis.utils.ErrorPropagationUtils;
 
 @Atomic
-public class DivideScalarOperation extends AbstractScalarMathsOperation<ScalarModel> {
+public class DivideScalarOperation extends AbstractScalarMathsOperation<ScalarModel> implements IElementwiseOperation {
 
 	@Override
 	public String getId() {
@@ -29,4 +31,9 @@ public class DivideScalarOperation extends AbstractScalarMathsOperation<ScalarMo
 		return ErrorPropagationUtils.divideWithUncertainty(DatasetUtils.convertToDataset(data), DatasetFactory.createFromObject(value));
 	}
 
+	@Override
+	public IElementKernel createKernel(IDataset slice, Class<?> elementClass) {
+		return ErrorPropagationUtils.divideKernel(slice, DatasetFactory.createFromObject(model.getValue()));
+	}
+
 }
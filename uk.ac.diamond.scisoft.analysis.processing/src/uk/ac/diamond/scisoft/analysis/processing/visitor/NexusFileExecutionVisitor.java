@@ -85,6 +85,7 @@ public class NexusFileExecutionVisitor implements IExecutionVisitor, ISavesToFil
 	public static final String PROCESS = "process";
 	private static final String LIVE = "live";
 	private static final String FINISHED = "finished";
+	private static final String PROFILE = "profile";
 	public static final String DATA_NAME = "data";
 
 	private Map<IOperation<?, ?>, AtomicBoolean> firstNotifyMap;
@@ -99,6 +100,7 @@ public class NexusFileExecutionVisitor implements IExecutionVisitor, ISavesToFil
 	private String filePath;
 	private NexusFile nexusFile;
 	private long lastFlush = 0;
+	private NexusWriteQueue writeQueue;
 	
 	private String originalFilePath;
 	
@@ -106,6 +108,8 @@ public class NexusFileExecutionVisitor implements IExecutionVisitor, ISavesToFil
 	private String templatePath;
 
 	private final static Logger logger = LoggerFactory.getLogger(NexusFileExecutionVisitor.class);
+
+	private static final double MB = 1024 * 1024;
 	
 	public NexusFileExecutionVisitor(String filePath, boolean swmr, String originalFilePath, String templatePath) {
 		this.filePath = filePath;
@@ -170,6 +174,7 @@ public class NexusFileExecutionVisitor implements IExecutionVisitor, ISavesToFil
 		}
 		
 		lastFlush = System.currentTimeMillis();
+		writeQueue = new NexusWriteQueue(new File(filePath).getName(), NexusWriteQueue.DEFAULT_CAPACITY);
 	}
 
 	private GroupNode requireNXclass(String name, String NXclass) throws NexusException {
@@ -249,34 +254,33 @@ public class NexusFileExecutionVisitor implements IExecutionVisitor, ISavesToFil
 		
 		if (result == null && !swmring) return;
 		
-		if (result == null && swmring && !nullReturnSWMRMode.get()) {
-			nullReturnSWMRMode.set(true);
-			synchronized (nexusFile) {
-				if (swmring) {
-					nexusFile.activateSwmrMode();
-					logger.debug("SWMR-ING");
-				}
-			}
+		if (result == null && swmring && !nullReturnSWMRMode.getAndSet(true)) {
+			writeQueue.submit(() -> {
+				writeQueue.flushPending();
+				nexusFile.activateSwmrMode();
+				logger.debug("SWMR-ING");
+			});
 		}
 		
 		if (nullReturnSWMRMode.get() || result.getData() == null) {
-			flushDatasets(monitor);
+			writeQueue.submit(() -> flushDatasets(monitor));
 			return;
 		}
 
-		// not thread-safe but closer
-		boolean fNNE = firstNonNullExecution.getAndSet(false);
-		
 		// write data to file
 		final Dataset integrated = DatasetUtils.convertToDataset(result.getData());
 		SliceFromSeriesMetadata metadata = integrated.getMetadata(SliceFromSeriesMetadata.class).get(0);
 		int[] dataDims = metadata.getDataDimensions();
 		int[] shape = metadata.getSubSampledShape();
 		Slice[] slices = metadata.getSliceInOutput();
-		updateAxes(integrated, slices, shape, dataDims, results,fNNE);
-		integrated.setName(DATA_NAME);
 
-		synchronized (nexusFile) {
+		writeQueue.submit(() -> {
+			// tasks run in order on the writer thread so this is the first to be written
+			boolean fNNE = firstNonNullExecution.getAndSet(false);
+
+			updateAxes(integrated, slices, shape, dataDims, results,fNNE);
+			integrated.setName(DATA_NAME);
+
 			appendData(integrated,nexusFile.getGroup(results,false), slices,shape, nexusFile,dataDims);
 			if (fNNE){
 				GroupNode group = nexusFile.getGroup(results,false);
@@ -287,11 +291,17 @@ public class NexusFileExecutionVisitor implements IExecutionVisitor, ISavesToFil
 				applyTemplate();
 				
 				if (swmring) {
+					writeQueue.flushPending();
 					nexusFile.activateSwmrMode();
 					logger.debug("SWMR-ING");
 				}
 			}
 			flushDatasets(monitor);
+		});
+
+		if (swmring) {
+			// live readers expect each result in the file once it has been executed
+			writeQueue.await();
 		}
 	}
 
@@ -307,14 +317,17 @@ public class NexusFileExecutionVisitor implements IExecutionVisitor, ISavesToFil
 		}
 	}
 	
-	private void flushDatasets(IMonitor monitor) {
+	private void flushDatasets(IMonitor monitor) throws Exception {
 		long time = System.currentTimeMillis();
 		if (time - lastFlush > 2000) {
 			lastFlush = time;
+			writeQueue.flushPending();
 			nexusFile.flushAllCachedDatasets();
-			logger.debug("Flushing");
+			logger.debug("Flushing with {} writes queued, {} MB written at {} MB/s", writeQueue.getQueueDepth(),
+					writeQueue.getBytesWritten() / MB, writeQueue.getThroughput() / MB);
 			if (monitor instanceof IFlushMonitor) {
 				((IFlushMonitor)monitor).fileFlushed();
+				((IFlushMonitor)monitor).writeStatus(writeQueue.getQueueDepth(), writeQueue.getBytesWritten(), writeQueue.getThroughput());
 			}
 		}
 	}
@@ -340,8 +353,6 @@ public class NexusFileExecutionVisitor implements IExecutionVisitor, ISavesToFil
 		Map<String, Serializable> configured = data.getConfiguredFields();
 		if (!intermediateData.isStoreOutput() && isEmpty(auxData) && isEmpty(summaryData) && configured == null) return;
 
-		boolean first = firstNotifyMap.get(intermediateData).getAndSet(false);
-
 		String position = String.valueOf(positionMap.get(intermediateData));
 		String opGroupName = position + "-" + intermediateData.getName();
 
@@ -356,113 +367,143 @@ public class NexusFileExecutionVisitor implements IExecutionVisitor, ISavesToFil
 			return;
 		}
 
-		if (metadata != null) {
-			int[] dataDims = metadata.getDataDimensions();
-			int[] shape = metadata.getSubSampledShape();
-			Slice[] slices = metadata.getSliceInOutput();
+		// copy stored output as later operations may modify it
+		final Dataset output = metadata != null && intermediateData.isStoreOutput() ? DatasetUtils.convertToDataset(data.getData()).clone() : null;
+		final SliceFromSeriesMetadata fMetadata = metadata;
+
+		try {
+			writeQueue.submit(() -> {
+				// tasks run in order on the writer thread so this is the first to be written
+				boolean first = firstNotifyMap.get(intermediateData).getAndSet(false);
+
+				if (fMetadata != null) {
+					int[] dataDims = fMetadata.getDataDimensions();
+					int[] shape = fMetadata.getSubSampledShape();
+					Slice[] slices = fMetadata.getSliceInOutput();
 	
-			//if specified to save data, do it
-			GroupNode group = null;
-			if (intermediateData.isStoreOutput()) {
-				try {
-					String intermediatePosData = intermediate + Node.SEPARATOR + opGroupName;
-					synchronized (nexusFile) {
-						group = nexusFile.getGroup(intermediatePosData, true);
-					}
-					Dataset d = DatasetUtils.convertToDataset(data.getData());
-					
-					synchronized (nexusFile) {
-						d.setName(DATA_NAME);
-						appendData(d,group, slices,shape, nexusFile, dataDims);
-					}
-					if (first){
-						synchronized (nexusFile) {
-							nexusFile.addAttribute(group, TreeFactory.createAttribute(NexusConstants.DATA_SIGNAL, d.getName()));
-						}
-					}
-					updateAxes(d, slices, shape, dataDims, intermediatePosData,first);
+					//if specified to save data, do it
+					GroupNode group = null;
+					if (intermediateData.isStoreOutput()) {
+						try {
+							String intermediatePosData = intermediate + Node.SEPARATOR + opGroupName;
+							group = nexusFile.getGroup(intermediatePosData, true);
+							output.setName(DATA_NAME);
+							appendData(output,group, slices,shape, nexusFile, dataDims);
+							if (first){
+								nexusFile.addAttribute(group, TreeFactory.createAttribute(NexusConstants.DATA_SIGNAL, output.getName()));
+							}
+							updateAxes(output, slices, shape, dataDims, intermediatePosData,first);
 	
-				} catch (Exception e) {
-					logger.error("Could not append intermediate data", e);
-				}
+						} catch (Exception e) {
+							logger.error("Could not append intermediate data", e);
+						}
 	
-			}
+					}
 	
-			//save aux data (should be IDataset, with unit dimensions)
-			if (!isEmpty(auxData)) {
-				for (int i = 0; i < auxData.length; i++) {
-					if (auxData[i] instanceof IDataset) {
+					//save aux data (should be IDataset, with unit dimensions)
+					if (!isEmpty(auxData)) {
+						for (int i = 0; i < auxData.length; i++) {
+							if (auxData[i] instanceof IDataset) {
 						
-						try {
-							Dataset ds = DatasetUtils.convertToDataset((IDataset) auxData[i]);
-							String currentPath = Tree.ROOT + ENTRY + Node.SEPARATOR + AUX_GROUP;
-							String dsRelPath = opGroupName + Node.SEPARATOR + ds.getName();
-							synchronized (nexusFile) {
-								GroupNode auxG = requireNXclass(currentPath, NexusConstants.COLLECTION);
-								GroupNode subGroup = requireNXclass(auxG, dsRelPath, NexusConstants.DATA);
-								ds.setName(DATA_NAME);
-								appendData(ds, subGroup, slices, shape, nexusFile, dataDims);
-								if (first) {
-									nexusFile.addAttribute(subGroup, TreeFactory.createAttribute(NexusConstants.DATA_SIGNAL, ds.getName()));
+								try {
+									Dataset ds = DatasetUtils.convertToDataset((IDataset) auxData[i]);
+									String currentPath = Tree.ROOT + ENTRY + Node.SEPARATOR + AUX_GROUP;
+									String dsRelPath = opGroupName + Node.SEPARATOR + ds.getName();
+									GroupNode auxG = requireNXclass(currentPath, NexusConstants.COLLECTION);
+									GroupNode subGroup = requireNXclass(auxG, dsRelPath, NexusConstants.DATA);
+									ds.setName(DATA_NAME);
+									appendData(ds, subGroup, slices, shape, nexusFile, dataDims);
+									if (first) {
+										nexusFile.addAttribute(subGroup, TreeFactory.createAttribute(NexusConstants.DATA_SIGNAL, ds.getName()));
+									}
+
+									currentPath += Node.SEPARATOR + dsRelPath;
+									updateAxes(ds, slices, shape, dataDims, currentPath, first);
+								} catch (Exception e) {
+									logger.error("Could not append auxiliary data", e);
 								}
 							}
-
-							currentPath += Node.SEPARATOR + dsRelPath;
-							updateAxes(ds, slices, shape, dataDims, currentPath, first);
-						} catch (Exception e) {
-							logger.error("Could not append auxiliary data", e);
 						}
 					}
 				}
-			}
-		}
 
-		if (first && configured != null) {
-			String notePath = Tree.ROOT + ENTRY + Node.SEPARATOR + PROCESS + Node.SEPARATOR + position;
-			try {
-				synchronized (nexusFile) {
-					GroupNode nGroup = nexusFile.getGroup(notePath, false);
-					writeConfiguredFields(nGroup, configured);
+				if (first && configured != null) {
+					String notePath = Tree.ROOT + ENTRY + Node.SEPARATOR + PROCESS + Node.SEPARATOR + position;
+					try {
+						GroupNode nGroup = nexusFile.getGroup(notePath, false);
+						writeConfiguredFields(nGroup, configured);
+					} catch (NexusException e) {
+						logger.error("Could not write auto-configured fields", e);
+					}
 				}
-			} catch (NexusException e) {
-				logger.error("Could not write auto-configured fields", e);
-			}
-		}
 
-		// save summary data (should be IDataset)
-		if (!isEmpty(summaryData)) {
-			for (int i = 0; i < summaryData.length; i++) {
-				if (summaryData[i] instanceof IDataset) {
+				// save summary data (should be IDataset)
+				if (!isEmpty(summaryData)) {
+					for (int i = 0; i < summaryData.length; i++) {
+						if (summaryData[i] instanceof IDataset) {
 					
-					try {
-						Dataset ds = DatasetUtils.convertToDataset((IDataset) summaryData[i]).getView(false);
-						String currentPath = Tree.ROOT + ENTRY + Node.SEPARATOR + SUM_GROUP;
-						synchronized (nexusFile) {
-							GroupNode group = null;
 							try {
-								group = nexusFile.getGroup(currentPath, false);
-							} catch (NexusException ne) {
-								if (!first && swmring) {
-									logger.error("Cannot save any summary data in SWMR mode");
-									return;
+								Dataset ds = DatasetUtils.convertToDataset((IDataset) summaryData[i]).getView(false);
+								String currentPath = Tree.ROOT + ENTRY + Node.SEPARATOR + SUM_GROUP;
+								GroupNode group = null;
+								try {
+									group = nexusFile.getGroup(currentPath, false);
+								} catch (NexusException ne) {
+									if (!first && swmring) {
+										logger.error("Cannot save any summary data in SWMR mode");
+										return;
+									}
+									group = requireNXclass(currentPath, NexusConstants.COLLECTION);
 								}
-								group = requireNXclass(currentPath, NexusConstants.COLLECTION);
-							}
 
-							currentPath += Node.SEPARATOR + opGroupName + Node.SEPARATOR + ds.getName();
-							group = requireNXclass(currentPath, NexusConstants.DATA);
-							ds.setName(DATA_NAME);
-							writeData(ds, group, nexusFile);
-							nexusFile.addAttribute(group, TreeFactory.createAttribute(NexusConstants.DATA_SIGNAL, ds.getName()));
-						}
+								currentPath += Node.SEPARATOR + opGroupName + Node.SEPARATOR + ds.getName();
+								group = requireNXclass(currentPath, NexusConstants.DATA);
+								ds.setName(DATA_NAME);
+								writeData(ds, group, nexusFile);
+								nexusFile.addAttribute(group, TreeFactory.createAttribute(NexusConstants.DATA_SIGNAL, ds.getName()));
 						
-						writeAxes(ds, currentPath, true);
-					} catch (Exception e) {
-						logger.error("Could not append summary data", e);
+								writeAxes(ds, currentPath, true);
+							} catch (Exception e) {
+								logger.error("Could not append summary data", e);
+							}
+						}
 					}
 				}
-			}
+			});
+		} catch (Exception e) {
+			logger.error("Could not queue data to be written", e);
+		}
+	}
+
+	@Override
+	public void profiled(String summary) throws Exception {
+		if (writeQueue == null) return;
+		if (swmring && nullReturnSWMRMode.get()) {
+			// no new groups can be made once in SWMR mode
+			logger.info("Cannot save pipeline profile in SWMR mode");
+			return;
 		}
+
+		writeQueue.submit(() -> {
+			writeQueue.flushPending();
+			String text = String.format("%s%s: %.1f MB written at %.1f MB/s%n", summary, "NeXus writer",
+					writeQueue.getBytesWritten() / MB, writeQueue.getThroughput() / MB);
+			try {
+				String notePath = Tree.ROOT + ENTRY + Node.SEPARATOR + PROCESS + Node.SEPARATOR + PROFILE;
+				GroupNode note = requireNXclass(notePath, NexusConstants.NOTE);
+				writeNoteField(note, "type", "text/plain");
+				writeNoteField(note, "description", "Profile of processing pipeline");
+				writeNoteField(note, DATA_NAME, text);
+			} catch (Exception e) {
+				logger.error("Could not write pipeline profile", e);
+			}
+		});
+	}
+
+	private void writeNoteField(GroupNode note, String name, String value) throws NexusException {
+		Dataset d = DatasetFactory.createFromObject(value);
+		d.setName(name);
+		nexusFile.createData(note, d);
 	}
 
 	private void writeConfiguredFields(GroupNode note, Map<String, Serializable> configuredFields) {
@@ -562,34 +603,30 @@ public class NexusFileExecutionVisitor implements IExecutionVisitor, ISavesToFil
 									e.setName(axDataset.getName() + NexusConstants.DATA_ERRORS_SUFFIX);
 								}
 								// TODO update to 2014 axis standard
-								synchronized (nexusFile) {
-									DataNode dn = nexusFile.createData(nexusFile.getGroup(groupName, true), axDataset.squeeze());
-									dn.addAttribute(TreeFactory.createAttribute(NexusConstants.DATA_AXIS, String.valueOf(i+1)));
-									nexusFile.addAttribute(nexusFile.getGroup(groupName, true), TreeFactory.createAttribute(names[j]+NexusConstants.DATA_INDICES_SUFFIX, DatasetFactory.createFromObject(i)));
-									UnitMetadata unit = axDataset.getFirstMetadata(UnitMetadata.class);
-									if (unit != null) {
-										nexusFile.addAttribute(dn, TreeFactory.createAttribute(NexusConstants.UNITS,unit.toString()));
-									}
-									if (e != null) {
-										nexusFile.createData(nexusFile.getGroup(groupName, true), e);
-										nexusFile.addAttribute(groupName, TreeFactory.createAttribute(axDataset.getName() + NexusConstants.DATA_UNCERTAINTY_SUFFIX, e.getName()));
-									}
+								DataNode dn = nexusFile.createData(nexusFile.getGroup(groupName, true), axDataset.squeeze());
+								dn.addAttribute(TreeFactory.createAttribute(NexusConstants.DATA_AXIS, String.valueOf(i+1)));
+								nexusFile.addAttribute(nexusFile.getGroup(groupName, true), TreeFactory.createAttribute(names[j]+NexusConstants.DATA_INDICES_SUFFIX, DatasetFactory.createFromObject(i)));
+								UnitMetadata unit = axDataset.getFirstMetadata(UnitMetadata.class);
+								if (unit != null) {
+									nexusFile.addAttribute(dn, TreeFactory.createAttribute(NexusConstants.UNITS,unit.toString()));
+								}
+								if (e != null) {
+									nexusFile.createData(nexusFile.getGroup(groupName, true), e);
+									nexusFile.addAttribute(groupName, TreeFactory.createAttribute(axDataset.getName() + NexusConstants.DATA_UNCERTAINTY_SUFFIX, e.getName()));
 								}
 							}
 						} else {
-							synchronized (nexusFile) {
-								appendSingleValueAxis(axDataset, groupName, oSlice, oShape, i);
+							appendSingleValueAxis(axDataset, groupName, oSlice, oShape, i);
 
-								if (first) {
-									nexusFile.getData(groupName + Node.SEPARATOR + axDataset.getName()).addAttribute(TreeFactory.createAttribute(NexusConstants.DATA_AXIS, String.valueOf(i+1)));
-								}
+							if (first) {
+								nexusFile.getData(groupName + Node.SEPARATOR + axDataset.getName()).addAttribute(TreeFactory.createAttribute(NexusConstants.DATA_AXIS, String.valueOf(i+1)));
+							}
 
-								ILazyDataset error = axDataset.getErrors();
-								if (error != null) {
-									Dataset e = DatasetUtils.sliceAndConvertLazyDataset(error);
-									e.setName(axDataset.getName() + NexusConstants.DATA_ERRORS_SUFFIX);
-									appendSingleValueAxis(e,groupName, oSlice,oShape, i);
-								}
+							ILazyDataset error = axDataset.getErrors();
+							if (error != null) {
+								Dataset e = DatasetUtils.sliceAndConvertLazyDataset(error);
+								e.setName(axDataset.getName() + NexusConstants.DATA_ERRORS_SUFFIX);
+								appendSingleValueAxis(e,groupName, oSlice,oShape, i);
 							}
 						}
 
@@ -597,11 +634,9 @@ public class NexusFileExecutionVisitor implements IExecutionVisitor, ISavesToFil
 				}
 				
 				if (first && axNames != null) {
-					synchronized (nexusFile) {
-						GroupNode group = nexusFile.getGroup(groupName, false);
-						nexusFile.addAttribute(group, TreeFactory.createAttribute(NexusConstants.DATA_AXES, DatasetFactory.createFromObject(axNames)));
-						axNames = null;
-					}
+					GroupNode group = nexusFile.getGroup(groupName, false);
+					nexusFile.addAttribute(group, TreeFactory.createAttribute(NexusConstants.DATA_AXES, DatasetFactory.createFromObject(axNames)));
+					axNames = null;
 				}
 
 			}
@@ -665,32 +700,30 @@ public class NexusFileExecutionVisitor implements IExecutionVisitor, ISavesToFil
 								e.setName(axDataset.getName() + NexusConstants.DATA_ERRORS_SUFFIX);
 							}
 							// TODO update to 2014 axis standard
-							synchronized (nexusFile) {
-								GroupNode gn = nexusFile.getGroup(groupName, true);
-								if (gn.containsDataNode(name)) { // final check as there is a race condition
-									continue;
-								}
-								axDataset.squeeze();
-								if (axDataset.getRank() == 0) {
-									axDataset.setShape(1);
-								}
-								DataNode dn = nexusFile.createData(gn, axDataset);
-								dn.addAttribute(TreeFactory.createAttribute(NexusConstants.DATA_AXIS, String.valueOf(i + 1))); // FIXME needed???
-								Dataset indices = axDataset.getRank() <= 1 ? DatasetFactory.createFromObject(i) :
-									DatasetFactory.createRange(IntegerDataset.class, axDataset.getRank());
-								nexusFile.addAttribute(nexusFile.getGroup(groupName, true),
-										TreeFactory.createAttribute(names[j] + NexusConstants.DATA_INDICES_SUFFIX,
-												indices));
-								UnitMetadata unit = axDataset.getFirstMetadata(UnitMetadata.class);
-								if (unit != null) {
-									nexusFile.addAttribute(dn,
-											TreeFactory.createAttribute(NexusConstants.UNITS, unit.toString()));
-								}
-								if (e != null) {
-									nexusFile.createData(nexusFile.getGroup(groupName, true), e);
-									nexusFile.addAttribute(groupName, TreeFactory.createAttribute(
-											axDataset.getName() + NexusConstants.DATA_UNCERTAINTY_SUFFIX, e.getName()));
-								}
+							GroupNode gn = nexusFile.getGroup(groupName, true);
+							if (gn.containsDataNode(name)) { // final check as there is a race condition
+								continue;
+							}
+							axDataset.squeeze();
+							if (axDataset.getRank() == 0) {
+								axDataset.setShape(1);
+							}
+							DataNode dn = nexusFile.createData(gn, axDataset);
+							dn.addAttribute(TreeFactory.createAttribute(NexusConstants.DATA_AXIS, String.valueOf(i + 1))); // FIXME needed???
+							Dataset indices = axDataset.getRank() <= 1 ? DatasetFactory.createFromObject(i) :
+								DatasetFactory.createRange(IntegerDataset.class, axDataset.getRank());
+							nexusFile.addAttribute(nexusFile.getGroup(groupName, true),
+									TreeFactory.createAttribute(names[j] + NexusConstants.DATA_INDICES_SUFFIX,
+											indices));
+							UnitMetadata unit = axDataset.getFirstMetadata(UnitMetadata.class);
+							if (unit != null) {
+								nexusFile.addAttribute(dn,
+										TreeFactory.createAttribute(NexusConstants.UNITS, unit.toString()));
+							}
+							if (e != null) {
+								nexusFile.createData(nexusFile.getGroup(groupName, true), e);
+								nexusFile.addAttribute(groupName, TreeFactory.createAttribute(
+										axDataset.getName() + NexusConstants.DATA_UNCERTAINTY_SUFFIX, e.getName()));
 							}
 						}
 
@@ -698,11 +731,9 @@ public class NexusFileExecutionVisitor implements IExecutionVisitor, ISavesToFil
 				}
 				
 				if (first && axNames != null) {
-					synchronized (nexusFile) {
-						GroupNode group = nexusFile.getGroup(groupName, false);
-						nexusFile.addAttribute(group, TreeFactory.createAttribute(NexusConstants.DATA_AXES, DatasetFactory.createFromObject(axNames)));
-						axNames = null;
-					}
+					GroupNode group = nexusFile.getGroup(groupName, false);
+					nexusFile.addAttribute(group, TreeFactory.createAttribute(NexusConstants.DATA_AXES, DatasetFactory.createFromObject(axNames)));
+					axNames = null;
 				}
 
 			}
@@ -809,7 +840,7 @@ public class NexusFileExecutionVisitor implements IExecutionVisitor, ISavesToFil
 				dataset = dataset.getSliceView(nSlice);
 			}
 		}
-		wds.setSlice(null, dataset, s);
+		writeQueue.write(wds, s, dataset);
 
 
 		ILazyDataset error = dataset.getErrors();
@@ -828,7 +859,7 @@ public class NexusFileExecutionVisitor implements IExecutionVisitor, ISavesToFil
 
 			ILazyWriteableDataset wdse = dn.getWriteableDataset();
 			s = new SliceND(wdse.getShape(), wdse.getMaxShape(), sliceOut);
-			wdse.setSlice(null, e, s);
+			writeQueue.write(wdse, s, e);
 		}
 	}
 
@@ -889,6 +920,16 @@ public class NexusFileExecutionVisitor implements IExecutionVisitor, ISavesToFil
 
 	@Override
 	public void close() throws Exception {
+		try {
+			if (writeQueue != null) {
+				writeQueue.close();
+			}
+		} finally {
+			closeFile();
+		}
+	}
+
+	private void closeFile() throws Exception {
 		if (nexusFile != null) {
 			
 			if (swmring) {
@@ -917,7 +958,7 @@ public class NexusFileExecutionVisitor implements IExecutionVisitor, ISavesToFil
 	
 		ILazyWriteableDataset wds = dn.getWriteableDataset();
 		SliceND s = new SliceND(wds.getShape(), wds.getMaxShape(), oSlice[axisDim]);
-		wds.setSlice(null, dataset, s);
+		writeQueue.write(wds, s, dataset);
 	}
 
 	/**
@@ -0,0 +1,353 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.processing.visitor;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetUtils;
+import org.eclipse.january.dataset.IDataset;
+import org.eclipse.january.dataset.ILazyWriteableDataset;
+import org.eclipse.january.dataset.ShapeUtils;
+import org.eclipse.january.dataset.SliceND;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Queue of tasks which write to a NeXus file, run in order on a single writer thread.
+ * <p>
+ * Worker threads submit tasks and only block when the queue is full. Only the writer thread
+ * touches the file, so tasks need no locking. Slices written with {@link #write(ILazyWriteableDataset, SliceND, Dataset)}
+ * are held back and consecutive slices of the same dataset are combined into a single larger
+ * hyperslab write; held slices are written when the queue runs dry, when too many bytes are held
+ * or when {@link #flushPending()} is called.
+ * <p>
+ * A failed task does not stop the writer thread, which carries on running tasks so that submitters
+ * never block; the first failure is thrown by the next call to {@link #submit(WriteTask)}, {@link #await()}
+ * or {@link #close()}. Waiting callers also check the writer thread is still alive.
+ */
+class NexusWriteQueue {
+
+	private static final Logger logger = LoggerFactory.getLogger(NexusWriteQueue.class);
+
+	/**
+	 * Default number of tasks which may be queued before submitting blocks
+	 */
+	static final int DEFAULT_CAPACITY = 256;
+
+	private static final long MAX_PENDING_BYTES = 64 * 1024 * 1024;
+	private static final int MAX_PARTS = 256;
+
+	private static final long WAIT_MS = 100; // interval at which waiting threads check the writer thread is alive
+
+	@FunctionalInterface
+	interface WriteTask {
+		public void run() throws Exception;
+	}
+
+	private static final WriteTask STOP = () -> {};
+
+	private final Queue<WriteTask> queue = new ConcurrentLinkedQueue<>();
+	private final Semaphore items = new Semaphore(0);
+	private final Semaphore space;
+	private final AtomicInteger depth = new AtomicInteger();
+	private final Thread writer;
+
+	private volatile Exception failure;
+
+	// only accessed by writer thread
+	private final Map<ILazyWriteableDataset, Pending> pending = new IdentityHashMap<>();
+	private long pendingBytes;
+
+	private volatile long bytesWritten;
+	private final long startTime;
+
+	NexusWriteQueue(String name, int capacity) {
+		space = new Semaphore(capacity);
+		startTime = System.nanoTime();
+		writer = new Thread(this::runWriter, "NeXus writer " + name);
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Add task to queue, blocking if the queue is full
+	 * @param task
+	 * @throws Exception if an earlier task has failed
+	 */
+	void submit(WriteTask task) throws Exception {
+		checkFailure();
+		acquireSpace();
+		depth.incrementAndGet();
+		queue.add(task);
+		items.release();
+	}
+
+	/**
+	 * Wait until all tasks submitted so far have been run and their slices written
+	 * @throws Exception if any task has failed
+	 */
+	void await() throws Exception {
+		CountDownLatch latch = new CountDownLatch(1);
+		submit(() -> {
+			try {
+				flushPending();
+			} finally {
+				latch.countDown();
+			}
+		});
+		while (!latch.await(WAIT_MS, TimeUnit.MILLISECONDS)) {
+			checkWriter();
+		}
+		checkFailure();
+	}
+
+	/**
+	 * Run all outstanding tasks and stop writer thread
+	 * @throws Exception if any task has failed
+	 */
+	void close() throws Exception {
+		if (writer.isAlive()) {
+			acquireSpace();
+			depth.incrementAndGet();
+			queue.add(STOP);
+			items.release();
+			writer.join();
+		}
+		checkFailure();
+	}
+
+	private void checkFailure() throws Exception {
+		Exception e = failure;
+		if (e != null) {
+			throw e;
+		}
+	}
+
+	/**
+	 * @throws Exception if writer thread has stopped
+	 */
+	private void checkWriter() throws Exception {
+		if (!writer.isAlive()) {
+			checkFailure();
+			throw new IllegalStateException(writer.getName() + " has stopped");
+		}
+	}
+
+	private void acquireSpace() throws Exception {
+		while (!space.tryAcquire(WAIT_MS, TimeUnit.MILLISECONDS)) {
+			checkWriter();
+		}
+	}
+
+	/**
+	 * @return number of tasks waiting to be run
+	 */
+	int getQueueDepth() {
+		return depth.get();
+	}
+
+	/**
+	 * @return number of bytes of slices written
+	 */
+	long getBytesWritten() {
+		return bytesWritten;
+	}
+
+	/**
+	 * @return average number of bytes written per second since the queue was created
+	 */
+	double getThroughput() {
+		double seconds = (System.nanoTime() - startTime) * 1e-9;
+		return seconds > 0 ? bytesWritten / seconds : 0;
+	}
+
+	private void runWriter() {
+		while (true) {
+			WriteTask task;
+			try {
+				items.acquire();
+			} catch (InterruptedException e) {
+				fail(e);
+				Thread.currentThread().interrupt();
+				break;
+			}
+			task = queue.poll();
+			depth.decrementAndGet();
+			space.release();
+
+			if (task == STOP) {
+				break;
+			}
+
+			try {
+				task.run();
+			} catch (Throwable e) {
+				fail(e);
+			}
+
+			if (queue.isEmpty() || pendingBytes > MAX_PENDING_BYTES) {
+				try {
+					flushPending();
+				} catch (Throwable e) {
+					fail(e);
+				}
+			}
+		}
+
+		try {
+			flushPending();
+		} catch (Throwable e) {
+			fail(e);
+		}
+	}
+
+	private void fail(Throwable e) {
+		if (failure == null) {
+			failure = e instanceof Exception ex ? ex : new Exception("Could not write to NeXus file", e);
+		}
+		logger.error("Could not write to NeXus file", e);
+	}
+
+	/**
+	 * Write a slice of a dataset, possibly later and combined with neighbouring slices.
+	 * Must be called from a task
+	 * @param wds
+	 * @param slice
+	 * @param data
+	 * @throws Exception
+	 */
+	void write(ILazyWriteableDataset wds, SliceND slice, Dataset data) throws Exception {
+		Pending p = pending.get(wds);
+		if (p != null && !p.add(slice, data)) {
+			pending.remove(wds);
+			pendingBytes -= p.bytes;
+			p.write(wds);
+			p = null;
+		}
+		if (p == null) {
+			p = new Pending(slice, data);
+			pending.put(wds, p);
+		}
+		pendingBytes += data.getNbytes();
+	}
+
+	/**
+	 * Write all held slices. Must be called from a task
+	 * @throws Exception
+	 */
+	void flushPending() throws Exception {
+		Exception first = null;
+		try {
+			for (Map.Entry<ILazyWriteableDataset, Pending> e : pending.entrySet()) {
+				try {
+					e.getValue().write(e.getKey());
+				} catch (Exception ex) {
+					if (first == null) first = ex;
+				}
+			}
+		} finally {
+			pending.clear();
+			pendingBytes = 0;
+		}
+		if (first != null) {
+			throw first;
+		}
+	}
+
+	/**
+	 * Slices of a dataset which are adjacent along one dimension
+	 */
+	private class Pending {
+		private final SliceND merged;
+		private final List<Dataset> parts = new ArrayList<>();
+		private final boolean mergeable;
+		private int dim = -1;
+		private long bytes;
+
+		Pending(SliceND slice, Dataset data) {
+			merged = slice.clone();
+			Dataset shaped = reshape(data, slice.getShape());
+			mergeable = shaped != null;
+			parts.add(mergeable ? shaped : data);
+			bytes = data.getNbytes();
+		}
+
+		boolean add(SliceND slice, Dataset data) {
+			if (!mergeable || parts.size() >= MAX_PARTS) {
+				return false;
+			}
+			int[] mStart = merged.getStart();
+			int[] mStop = merged.getStop();
+			int[] mStep = merged.getStep();
+			int[] start = slice.getStart();
+			int[] stop = slice.getStop();
+			int[] step = slice.getStep();
+			if (mStart.length != start.length) {
+				return false;
+			}
+
+			int d = -1;
+			for (int i = 0; i < start.length; i++) {
+				if (mStart[i] == start[i] && mStop[i] == stop[i] && mStep[i] == step[i]) {
+					continue;
+				}
+				if (d >= 0 || (dim >= 0 && i != dim) || mStep[i] != 1 || step[i] != 1 || start[i] != mStop[i]) {
+					return false;
+				}
+				d = i;
+			}
+			if (d < 0) {
+				return false;
+			}
+
+			Dataset shaped = reshape(data, slice.getShape());
+			if (shaped == null) {
+				return false;
+			}
+
+			dim = d;
+			merged.setSlice(d, mStart[d], stop[d], 1);
+			parts.add(shaped);
+			bytes += data.getNbytes();
+			return true;
+		}
+
+		/**
+		 * @return view of data with the shape of its slice or null if not possible
+		 */
+		private Dataset reshape(Dataset data, int[] shape) {
+			if (data.getSize() != ShapeUtils.calcSize(shape)) {
+				return null;
+			}
+			try {
+				return data.reshape(shape);
+			} catch (IllegalArgumentException e) {
+				return null;
+			}
+		}
+
+		void write(ILazyWriteableDataset wds) throws Exception {
+			Dataset data = parts.size() == 1 ? parts.get(0) :
+				DatasetUtils.concatenate(parts.toArray(new IDataset[parts.size()]), dim);
+			wds.setSlice(null, data, merged);
+			bytesWritten += bytes;
+		}
+	}
+}
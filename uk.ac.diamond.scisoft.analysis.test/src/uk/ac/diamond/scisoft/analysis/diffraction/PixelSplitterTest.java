@@ -0,0 +1,122 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.diffraction;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.vecmath.Vector3d;
+
+import org.eclipse.dawnsci.hdf5.HDF5Utils;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetFactory;
+import org.eclipse.january.dataset.DoubleDataset;
+import org.eclipse.january.dataset.LazyWriteableDataset;
+import org.eclipse.january.dataset.Maths;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import uk.ac.diamond.scisoft.analysis.diffraction.PixelSplitter.BaseSplitter;
+import uk.ac.diamond.scisoft.analysis.diffraction.PixelSplitter.InverseSplitter;
+
+public class PixelSplitterTest {
+
+	private static final int THREADS = 4;
+	private static final int REPEATS = 20000;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testAtomicAddFromSharedClones() throws Exception {
+		DoubleDataset output = DatasetFactory.zeros(DoubleDataset.class, 4, 4, 4);
+		DoubleDataset weight = DatasetFactory.zeros(DoubleDataset.class, 4, 4, 4);
+		PixelSplitter splitter = new InverseSplitter(1);
+		splitter.setDatasets(output, weight);
+
+		final Vector3d dh = new Vector3d(0.5, 0.5, 0.5); // spread equally over 8 voxels
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> results = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				BaseSplitter clone = (BaseSplitter) splitter.clone();
+				clone.setAtomicAdd(true);
+				results.add(pool.submit(() -> {
+					int[] pos = new int[] {1, 1, 1};
+					for (int i = 0; i < REPEATS; i++) {
+						clone.splitValue(dh, pos, 8);
+					}
+				}));
+			}
+			for (Future<?> f : results) {
+				f.get();
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		// each voxel gets 1/8 of each value and no additions are lost
+		final double total = THREADS * REPEATS;
+		final double delta = 1e-9 * total;
+		assertEquals(total, output.get(1, 1, 1), delta);
+		assertEquals(total, output.get(2, 2, 2), delta);
+		assertEquals(total / 8, weight.get(2, 1, 2), delta);
+		assertEquals(8 * total, ((Number) output.sum()).doubleValue(), 8 * delta);
+	}
+
+	@Test
+	public void testMappedVolumeMatchesDatasets() throws Exception {
+		int[] shape = new int[] {5, 4, 3};
+		DoubleDataset output = DatasetFactory.zeros(DoubleDataset.class, shape);
+		DoubleDataset weight = DatasetFactory.zeros(DoubleDataset.class, shape);
+		BaseSplitter splitter = new InverseSplitter(1);
+		splitter.setDatasets(output, weight);
+		BaseSplitter vSplitter = (BaseSplitter) splitter.clone();
+
+		File dir = folder.newFolder("volume");
+		try (MappedVolume volume = new MappedVolume(dir.toPath(), shape)) {
+			vSplitter.setVolume(volume);
+			assertArrayEquals(shape, vSplitter.getShape());
+			assertEquals(output.get1DIndex(3, 2, 1), volume.get1DIndex(new int[] {3, 2, 1}));
+
+			Vector3d dh = new Vector3d(0.25, 0.5, 0.75);
+			int[] pos = new int[3];
+			for (int i = 0; i < shape[0] - 1; i++) {
+				for (int j = 0; j < shape[1] - 1; j++) {
+					pos[0] = i;
+					pos[1] = j;
+					pos[2] = (i + j) % (shape[2] - 1);
+					splitter.splitValue(dh, pos, i + 2 * j);
+					vSplitter.splitValue(dh, pos, i + 2 * j);
+				}
+			}
+
+			String file = new File(folder.getRoot(), "volume.h5").getAbsolutePath();
+			LazyWriteableDataset lazyVolume = HDF5Utils.createLazyDataset(file, "/entry", "volume", shape, null,
+					new int[] {2, 4, 3}, DoubleDataset.class, null, false);
+			LazyWriteableDataset lazyWeight = HDF5Utils.createLazyDataset(file, "/entry", "weight", shape, null,
+					new int[] {2, 4, 3}, DoubleDataset.class, null, false);
+			volume.save(lazyVolume, lazyWeight, 2);
+
+			Dataset expected = Maths.dividez(output, weight);
+			assertEquals(expected, lazyVolume.getSlice());
+			assertEquals(weight, lazyWeight.getSlice());
+		}
+		assertEquals(0, dir.list().length);
+	}
+}
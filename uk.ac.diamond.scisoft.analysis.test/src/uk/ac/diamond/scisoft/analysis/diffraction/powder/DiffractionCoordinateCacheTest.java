@@ -0,0 +1,101 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.diffraction.powder;
+
+import java.io.File;
+import java.nio.file.Path;
+
+import org.eclipse.dawnsci.analysis.api.metadata.IDiffractionMetadata;
+import org.eclipse.january.dataset.Dataset;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import uk.ac.diamond.scisoft.analysis.diffraction.QSpace;
+import uk.ac.diamond.scisoft.analysis.roi.XAxis;
+
+public class DiffractionCoordinateCacheTest extends AbstractPixelIntegrationTestBase {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path directory;
+
+	@Before
+	public void setUp() throws Exception {
+		directory = folder.newFolder("coords").toPath();
+		DiffractionCoordinateCache.getInstance().setDirectory(directory);
+	}
+
+	@After
+	public void tearDown() {
+		DiffractionCoordinateCache.getInstance().setDirectory(null);
+	}
+
+	@Test
+	public void testRadialArraysSavedAndLoaded() {
+		IDiffractionMetadata md = getDiffractionMetadata();
+		QSpace qSpace = new QSpace(md.getDetector2DProperties(), md.getDiffractionCrystalEnvironment());
+		int[] shape = new int[] {64, 48};
+
+		Dataset[] arrays = PixelIntegrationUtils.generateMinMaxRadialArray(shape, qSpace, XAxis.ANGLE);
+		Assert.assertEquals(1, countFiles());
+
+		String key = DiffractionCoordinateCache.createKey("radial", md.getDetector2DProperties(), qSpace.getWavelength(),
+				shape, XAxis.ANGLE, false, false);
+		Dataset[] loaded = DiffractionCoordinateCache.getInstance().getFromDisk(key, shape);
+		Assert.assertNotNull(loaded);
+		Assert.assertEquals(arrays.length, loaded.length);
+		for (int i = 0; i < arrays.length; i++) {
+			Assert.assertEquals(arrays[i], loaded[i]);
+		}
+
+		// different shape is a different entry
+		Assert.assertNull(DiffractionCoordinateCache.getInstance().getFromDisk(key, new int[] {48, 64}));
+		PixelIntegrationUtils.generateMinMaxRadialArray(new int[] {32, 32}, qSpace, XAxis.ANGLE);
+		Assert.assertEquals(2, countFiles());
+	}
+
+	@Test
+	public void testAzimuthalArraysLoaded() {
+		double[] beamCentre = new double[] {20.5, 30.5};
+		int[] shape = new int[] {64, 48};
+
+		Dataset[] arrays = PixelIntegrationUtils.generateMinMaxAzimuthalArray(beamCentre, shape, -90);
+		Dataset[] loaded = PixelIntegrationUtils.generateMinMaxAzimuthalArray(beamCentre, shape, -90);
+		Assert.assertNotSame(arrays[0], loaded[0]);
+		Assert.assertEquals(arrays[0], loaded[0]);
+		Assert.assertEquals(arrays[1], loaded[1]);
+		Assert.assertEquals(1, countFiles());
+
+		Dataset centre = PixelIntegrationUtils.generateAzimuthalArray(beamCentre, shape, false);
+		Assert.assertEquals(centre, PixelIntegrationUtils.generateAzimuthalArray(beamCentre, shape, false));
+		Assert.assertEquals(2, countFiles());
+	}
+
+	@Test
+	public void testDisabled() {
+		DiffractionCoordinateCache.getInstance().setDisabled(true);
+		try {
+			PixelIntegrationUtils.generateMinMaxAzimuthalArray(new double[] {1, 2}, new int[] {8, 8}, false);
+			Assert.assertEquals(0, countFiles());
+		} finally {
+			DiffractionCoordinateCache.getInstance().setDisabled(false);
+		}
+	}
+
+	private int countFiles() {
+		File[] files = directory.toFile().listFiles((d, n) -> n.endsWith(".dcc"));
+		return files == null ? 0 : files.length;
+	}
+}
@@ -0,0 +1,120 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.diffraction.powder;
+
+import java.util.List;
+
+import org.eclipse.dawnsci.analysis.api.metadata.IDiffractionMetadata;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DoubleDataset;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SparseBinLookupTest extends AbstractPixelIntegrationTestBase {
+
+	@Test
+	public void testAzimuthal() {
+		PixelIntegrationBean bean = new PixelIntegrationBean();
+		bean.setUsePixelSplitting(true);
+		compare(bean, null, false);
+
+		bean.setRadialRange(new double[]{1,5});
+		bean.setAzimuthalRange(new double[]{-180,-90});
+		compare(bean, null, false);
+	}
+
+	@Test
+	public void testRadial() {
+		PixelIntegrationBean bean = new PixelIntegrationBean();
+		bean.setUsePixelSplitting(true);
+		bean.setAzimuthalIntegration(false);
+		bean.setRadialRange(new double[]{1,5});
+		compare(bean, null, false);
+	}
+
+	@Test
+	public void testCake() {
+		PixelIntegrationBean bean = new PixelIntegrationBean();
+		bean.setUsePixelSplitting(true);
+		bean.setTo1D(false);
+		bean.setNumberOfBinsAzimuthal(90);
+		compare(bean, null, false);
+	}
+
+	@Test
+	public void testMaskAndNonFinite() {
+		PixelIntegrationBean bean = new PixelIntegrationBean();
+		bean.setUsePixelSplitting(true);
+		Dataset data = getData();
+		Assert.assertNotNull("Could not load test data", data);
+		compare(bean, getMask(data.getShape()), true);
+	}
+
+	@Test
+	public void testLookupReused() {
+		Dataset data = getData();
+		Assert.assertNotNull("Could not load test data", data);
+		IDiffractionMetadata meta = getDiffractionMetadata();
+		PixelIntegrationBean bean = new PixelIntegrationBean();
+		bean.setUsePixelSplitting(true);
+		bean.setUseSparseLookup(true);
+		IPixelIntegrationCache cache = new PixelIntegrationCache(meta, bean);
+
+		Dataset mask = getMask(data.getShape());
+		SparseBinLookup lookup = cache.getLookup(mask);
+		Assert.assertNotNull(lookup);
+		Assert.assertTrue(lookup.getNumberOfEntries() > 0);
+		Assert.assertSame(lookup, cache.getLookup(mask));
+		Assert.assertSame(lookup, cache.getLookup(mask.clone()));
+		Assert.assertNotSame(lookup, cache.getLookup(null));
+
+		// mask edited in place must not reuse lookup
+		lookup = cache.getLookup(mask);
+		mask.set(false, 500, 500);
+		SparseBinLookup edited = cache.getLookup(mask);
+		Assert.assertNotSame(lookup, edited);
+		Assert.assertTrue(edited.isValidFor(mask));
+		Assert.assertFalse(lookup.isValidFor(mask));
+
+		bean.setUseSparseLookup(false);
+		Assert.assertNull(new PixelIntegrationCache(meta, bean).getLookup(mask));
+	}
+
+	private void compare(PixelIntegrationBean bean, Dataset mask, boolean withNaNs) {
+		Dataset data = getData();
+		Assert.assertNotNull("Could not load test data", data);
+		data = data.cast(DoubleDataset.class);
+		data.setErrors(data.clone().iabs().ipower(0.5));
+		if (withNaNs) {
+			for (int i = 0; i < data.getSize(); i += 97) {
+				data.setObjectAbs(i, Double.NaN);
+			}
+		}
+
+		IDiffractionMetadata meta = getDiffractionMetadata();
+		PixelIntegrationBean sparse = bean.clone();
+		sparse.setUseSparseLookup(true);
+		bean.setUseSparseLookup(false);
+
+		List<Dataset> expected = PixelIntegration.integrate(data, mask, new PixelIntegrationCache(meta, bean));
+		IPixelIntegrationCache cache = new PixelIntegrationCache(meta, sparse);
+		Assert.assertNotNull(cache.getLookup(mask));
+		List<Dataset> actual = PixelIntegration.integrate(data, mask, cache);
+
+		Assert.assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			Assert.assertEquals(expected.get(i), actual.get(i));
+		}
+		Dataset expectedErrors = expected.get(1).getErrors();
+		if (expectedErrors != null) {
+			Assert.assertEquals(expectedErrors, actual.get(1).getErrors());
+		}
+	}
+}
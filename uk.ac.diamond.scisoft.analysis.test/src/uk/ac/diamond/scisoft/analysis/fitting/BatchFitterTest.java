@@ -0,0 +1,75 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.fitting;
+
+import org.eclipse.january.dataset.DatasetFactory;
+import org.eclipse.january.dataset.DoubleDataset;
+import org.junit.Assert;
+import org.junit.Test;
+
+import uk.ac.diamond.scisoft.analysis.fitting.functions.Add;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.Gaussian;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.Offset;
+
+public class BatchFitterTest {
+
+	private static final int ROWS = 5;
+	private static final int COLUMNS = 7;
+
+	private static double position(int r, int c) {
+		return 10 + 0.2 * r + 0.3 * c;
+	}
+
+	@Test
+	public void testMapFit() throws Exception {
+		DoubleDataset xAxis = DatasetFactory.createRange(DoubleDataset.class, 0, 20, 0.1);
+		int n = xAxis.getSize();
+		DoubleDataset stack = DatasetFactory.zeros(DoubleDataset.class, ROWS, COLUMNS, n);
+		for (int r = 0; r < ROWS; r++) {
+			for (int c = 0; c < COLUMNS; c++) {
+				Gaussian g = new Gaussian(position(r, c), 2, 5 + r);
+				DoubleDataset y = g.calculateValues(xAxis);
+				for (int i = 0; i < n; i++) {
+					stack.set(y.getDouble(i) + 0.5, r, c, i);
+				}
+			}
+		}
+
+		Gaussian g = new Gaussian(9, 3, 4);
+		g.getParameter(0).setLimits(0, 20);
+		g.getParameter(1).setLimits(0.1, 10);
+		g.getParameter(2).setLimits(0, 100);
+		Add model = new Add();
+		model.addFunction(g);
+		model.addFunction(new Offset(-10, 10));
+
+		for (boolean warm : new boolean[] {true, false}) {
+			BatchFitter fitter = new BatchFitter(model, xAxis);
+			fitter.setWarmStart(warm);
+			BatchFitter.Result result = fitter.fit(stack);
+
+			Assert.assertEquals(0, result.getNoOfFailures());
+			Assert.assertArrayEquals(new int[] {ROWS, COLUMNS}, result.getShape());
+			DoubleDataset posn = result.getParameterMap(0);
+			DoubleDataset area = result.getParameterMap(2);
+			DoubleDataset offset = result.getParameterMap(3);
+			for (int r = 0; r < ROWS; r++) {
+				for (int c = 0; c < COLUMNS; c++) {
+					Assert.assertEquals(position(r, c), posn.get(r, c), 1e-3);
+					Assert.assertEquals(5 + r, area.get(r, c), 1e-3);
+					Assert.assertEquals(0.5, offset.get(r, c), 1e-3);
+				}
+			}
+		}
+
+		// model is not changed
+		Assert.assertEquals(9, g.getParameterValue(0), 0);
+	}
+}
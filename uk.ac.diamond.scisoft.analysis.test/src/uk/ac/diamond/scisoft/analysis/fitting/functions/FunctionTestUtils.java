@@ -11,6 +11,9 @@ package uk.ac.diamond.scisoft.analysis.fitting.functions;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.eclipse.dawnsci.analysis.api.fitting.functions.IParameter;
 import org.eclipse.january.asserts.TestUtils;
 import org.eclipse.january.dataset.Dataset;
@@ -65,6 +68,38 @@ public class FunctionTestUtils {
 			}
 			TestUtils.assertDatasetEquals(actual, individual, AFunction.R_TOLERANCE, AFunction.A_TOLERANCE);
 		}
+
+		checkValuesAndJacobian(f, coord);
+	}
+
+	/**
+	 * Assert that values and Jacobian filled in one pass match those calculated separately
+	 * @param f
+	 * @param coord
+	 */
+	public static void checkValuesAndJacobian(AFunction f, DoubleDataset coord) {
+		List<IParameter> params = new ArrayList<>();
+		for (IParameter p : f.getParameters()) {
+			if (params.stream().noneMatch(o -> o == p)) {
+				params.add(p);
+			}
+		}
+
+		int size = coord.getSize();
+		CoordinatesIterator it = CoordinatesIterator.createIterator(null, coord);
+		DoubleDataset values = DatasetFactory.zeros(DoubleDataset.class, it.getShape());
+		double[][] jacobian = new double[size][params.size()];
+		f.fillWithValuesAndJacobian(values, params, jacobian, it);
+		TestUtils.assertDatasetEquals(f.calculateValues(coord), values, AFunction.R_TOLERANCE, AFunction.A_TOLERANCE);
+
+		for (int c = 0; c < params.size(); c++) {
+			DoubleDataset expected = f.calculatePartialDerivativeValues(params.get(c), coord);
+			DoubleDataset column = DatasetFactory.zeros(DoubleDataset.class, size);
+			for (int i = 0; i < size; i++) {
+				column.setAbs(i, jacobian[i][c]);
+			}
+			TestUtils.assertDatasetEquals(expected, column, 1e1 * AFunction.R_TOLERANCE, 1e1 * AFunction.A_TOLERANCE);
+		}
 	}
 
 	public static void checkValues(AFunction f) {
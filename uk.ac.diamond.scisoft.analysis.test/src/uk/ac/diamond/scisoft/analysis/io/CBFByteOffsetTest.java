@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.eclipse.january.dataset.IntegerDataset;
+import org.junit.Test;
+
+import uk.ac.diamond.scisoft.analysis.IOTestUtils;
+
+public class CBFByteOffsetTest {
+
+	private static byte[] compress(int[] values) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long last = 0;
+		for (int v : values) {
+			long delta = v - last;
+			last = v;
+			if (Math.abs(delta) < 128) {
+				out.write((int) delta);
+				continue;
+			}
+			out.write(0x80);
+			if (Math.abs(delta) < 32768) {
+				writeLittleEndian(out, delta, 2);
+				continue;
+			}
+			writeLittleEndian(out, 0x8000, 2);
+			if (Math.abs(delta) < Integer.MAX_VALUE) {
+				writeLittleEndian(out, delta, 4);
+				continue;
+			}
+			writeLittleEndian(out, 0x80000000L, 4);
+			writeLittleEndian(out, delta, 8);
+		}
+		return out.toByteArray();
+	}
+
+	private static void writeLittleEndian(ByteArrayOutputStream out, long v, int bytes) {
+		for (int i = 0; i < bytes; i++) {
+			out.write((int) (v >>> (8 * i)));
+		}
+	}
+
+	private static int[] createValues(int n) {
+		Random r = new Random(12345);
+		int[] values = new int[n];
+		for (int i = 0; i < n; i++) {
+			int k = r.nextInt(100);
+			values[i] = k < 90 ? r.nextInt(20) : (k < 98 ? r.nextInt(60000) - 30000 : r.nextInt());
+		}
+		values[n - 1] = Integer.MIN_VALUE; // needs 64-bit delta
+		return values;
+	}
+
+	@Test
+	public void testDecompress() {
+		for (int n : new int[] {10, 1000, 1000003}) { // last is decompressed in parallel
+			int[] values = createValues(n);
+			byte[] compressed = compress(values);
+			int[] actual = new int[n + 2];
+			int end = CBFByteOffset.decompress(compressed, 0, actual, 1, n);
+			assertEquals(compressed.length, end);
+			int[] expected = new int[n + 2];
+			System.arraycopy(values, 0, expected, 1, n);
+			assertArrayEquals(expected, actual);
+		}
+	}
+
+	@Test
+	public void testDecompressTruncated() {
+		for (int n : new int[] {1000, 1000003}) {
+			int[] values = createValues(n);
+			byte[] compressed = compress(values);
+			// zero padding after end of stream must not be decoded
+			byte[] padded = Arrays.copyOf(compressed, compressed.length + 4095);
+			int[] actual = new int[n];
+			try {
+				CBFByteOffset.decompress(padded, 0, compressed.length - 10, actual, 0, n);
+				fail("Truncated stream should fail");
+			} catch (IllegalArgumentException e) {
+				// expected
+			}
+			assertEquals(compressed.length, CBFByteOffset.decompress(padded, 0, compressed.length, actual, 0, n));
+			assertArrayEquals(values, actual);
+		}
+	}
+
+	private static void writeMiniCBF(File file, int x, int y, byte[] binary, String extraCIF) throws Exception {
+		String header = "###CBF: VERSION 1.5\r\n"
+				+ "data_test\r\n\r\n"
+				+ "_array_data.header_convention \"PILATUS_1.2\"\r\n"
+				+ extraCIF
+				+ "_array_data.data\r\n;\r\n"
+				+ "--CIF-BINARY-FORMAT-SECTION--\r\n"
+				+ "Content-Type: application/octet-stream;\r\n"
+				+ "     conversions=\"x-CBF_BYTE_OFFSET\"\r\n"
+				+ "Content-Transfer-Encoding: BINARY\r\n"
+				+ "X-Binary-Size: " + binary.length + "\r\n"
+				+ "X-Binary-ID: 1\r\n"
+				+ "X-Binary-Element-Type: \"signed 32-bit integer\"\r\n"
+				+ "X-Binary-Element-Byte-Order: LITTLE_ENDIAN\r\n"
+				+ "X-Binary-Number-of-Elements: " + (x * y) + "\r\n"
+				+ "X-Binary-Size-Fastest-Dimension: " + x + "\r\n"
+				+ "X-Binary-Size-Second-Dimension: " + y + "\r\n"
+				+ "X-Binary-Size-Padding: 4095\r\n\r\n";
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(header.getBytes(StandardCharsets.ISO_8859_1));
+		out.write(new byte[] {0x0c, 0x1a, 0x04, (byte) 0xd5});
+		out.write(binary);
+		out.write(new byte[4095]);
+		out.write("\r\n--CIF-BINARY-FORMAT-SECTION----\r\n;\r\n".getBytes(StandardCharsets.ISO_8859_1));
+		Files.write(file.toPath(), out.toByteArray());
+	}
+
+	@Test
+	public void testOpen() throws Exception {
+		String dir = IOTestUtils.setUpTest(CBFByteOffsetTest.class, "testOpen", true);
+		int x = 37;
+		int y = 23;
+		int[] values = createValues(x * y);
+		File file = new File(dir, "mini.cbf");
+		writeMiniCBF(file, x, y, compress(values), "");
+
+		CBFByteOffset cbf = CBFByteOffset.open(file.getAbsolutePath());
+		assertArrayEquals(new int[] {y, x}, cbf.getShape());
+		IntegerDataset image = cbf.decode(null);
+		assertArrayEquals(new int[] {y, x}, image.getShapeRef());
+		assertArrayEquals(values, image.getData());
+
+		assertSame(image, cbf.decode(image));
+
+		// stream ends before all values are read
+		byte[] compressed = compress(values);
+		writeMiniCBF(file, x, y, Arrays.copyOf(compressed, compressed.length / 2), "");
+		CBFByteOffset truncated = CBFByteOffset.open(file.getAbsolutePath());
+		try {
+			truncated.decode(null);
+			fail("Truncated stream should fail");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+
+		// orientation given by CIF header so left to CBFlib
+		writeMiniCBF(file, x, y, compress(values), "loop_\r\n_array_structure_list.array_id\r\n");
+		assertNull(CBFByteOffset.open(file.getAbsolutePath()));
+	}
+}
@@ -221,6 +221,23 @@ public class ImageStackLoaderTest {
 	
 	}
 	
+	@Test
+	public void testParallelRead() throws Exception {
+		String testScratchDirectoryName = IOTestUtils.setUpTest(ImageStackLoaderTest.class, "testParallelRead", true);
+
+		int[] multipliers= new int[]{2,3,4,5,6,7,8,9};
+		String[] imageFilenames = makeFiles(testScratchDirectoryName, multipliers);
+		ImageStackLoader loader = new ImageStackLoader(new int[] {2, 4}, imageFilenames);
+		int[] shape = loader.getShape();
+		for (Slice[] slice : new Slice[][] {{null}, {new Slice(1, 2), new Slice(0, 4, 3), new Slice(1, 8, 2), null}}) {
+			SliceND s = new SliceND(shape, slice);
+			loader.setParallel(false);
+			Dataset expected = loader.getDataset(null, s);
+			loader.setParallel(true);
+			assertEquals(expected, loader.getDataset(null, s));
+		}
+	}
+
 	String [] makeFiles(String testScratchDirectoryName, int[] multipliers) throws ScanFileHolderException{
 		String [] filePaths = new String[multipliers.length];
 		for( int i =0 ; i< multipliers.length;i++){
@@ -0,0 +1,157 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.io.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DataCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static final long ENTRY = 1024; // overhead per entry
+
+	private String createFile(String name) throws Exception {
+		return folder.newFile(name).getAbsolutePath();
+	}
+
+	@Test
+	public void testEvictsLeastRecentlyUsed() throws Exception {
+		DataCache<long[]> cache = new DataCache<>(v -> v[0]);
+		cache.setMaxBytes(3 * (ENTRY + 100));
+
+		String[] paths = new String[4];
+		for (int i = 0; i < paths.length; i++) {
+			paths[i] = createFile("f" + i);
+		}
+		for (int i = 0; i < 3; i++) {
+			assertTrue(cache.recordSoftReference(cache.createCacheKey(paths[i], true), new long[] {100}));
+		}
+		// touch first so second is least recently used
+		assertTrue(cache.getSoftReference(cache.createCacheKey(paths[0], true)) != null);
+		cache.recordSoftReference(cache.createCacheKey(paths[3], true), new long[] {100});
+
+		assertNull(cache.getSoftReference(cache.createCacheKey(paths[1], true)));
+		assertTrue(cache.getSoftReference(cache.createCacheKey(paths[0], true)) != null);
+		assertTrue(cache.getSoftReference(cache.createCacheKey(paths[2], true)) != null);
+		assertTrue(cache.getSoftReference(cache.createCacheKey(paths[3], true)) != null);
+
+		DataCache.Statistics stats = cache.getStatistics();
+		assertEquals(3, stats.entries());
+		assertEquals(1, stats.evictions());
+		assertEquals(3 * (ENTRY + 100), stats.bytes());
+	}
+
+	@Test
+	public void testTooLargeNotCached() throws Exception {
+		DataCache<long[]> cache = new DataCache<>(v -> v[0]);
+		cache.setMaxBytes(ENTRY + 100);
+		String path = createFile("big");
+		assertTrue(!cache.recordSoftReference(cache.createCacheKey(path, true), new long[] {200}));
+		assertEquals(0, cache.getStatistics().entries());
+	}
+
+	@Test
+	public void testModifiedFileInvalidates() throws Exception {
+		DataCache<long[]> cache = new DataCache<>(v -> v[0]);
+		String path = createFile("changing");
+		File file = new File(path);
+		file.setLastModified(1000000);
+
+		cache.recordSoftReference(cache.createCacheKey(path, true), new long[] {1});
+		assertTrue(cache.getSoftReference(cache.createCacheKey(path, true)) != null);
+
+		file.setLastModified(2000000);
+		assertNull(cache.getSoftReference(cache.createCacheKey(path, true)));
+
+		cache.recordSoftReference(cache.createCacheKey(path, true), new long[] {2});
+		assertEquals(2, cache.getSoftReference(cache.createCacheKey(path, true))[0]);
+		assertEquals(1, cache.getStatistics().entries());
+	}
+
+	@Test
+	public void testPeekNotCounted() throws Exception {
+		DataCache<long[]> cache = new DataCache<>(v -> v[0]);
+		String path = createFile("peeked");
+		String missing = createFile("missing");
+
+		cache.recordSoftReference(cache.createCacheKey(path, true), new long[] {1});
+		assertTrue(cache.peekSoftReference(cache.createCacheKey(path, true)) != null);
+		assertNull(cache.peekSoftReference(cache.createCacheKey(missing, true)));
+		DataCache.Statistics stats = cache.getStatistics();
+		assertEquals(0, stats.hits());
+		assertEquals(0, stats.misses());
+
+		assertTrue(cache.getSoftReference(cache.createCacheKey(path, true)) != null);
+		assertNull(cache.getSoftReference(cache.createCacheKey(missing, true)));
+		stats = cache.getStatistics();
+		assertEquals(1, stats.hits());
+		assertEquals(1, stats.misses());
+	}
+
+	@Test
+	public void testSingleFlightLoad() throws Exception {
+		final DataCache<long[]> cache = new DataCache<>(v -> v[0]);
+		final String path = createFile("shared");
+		final String other = createFile("other");
+		final AtomicInteger loads = new AtomicInteger();
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final long[] value = new long[] {10};
+
+		ExecutorService executor = Executors.newFixedThreadPool(5);
+		try {
+			List<Future<long[]>> results = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				results.add(executor.submit(() -> cache.load(cache.createCacheKey(path, true), null, () -> {
+					loads.incrementAndGet();
+					started.countDown();
+					release.await(5, TimeUnit.SECONDS);
+					return value;
+				})));
+			}
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+
+			// load of another file is not held up
+			long[] o = executor.submit(() -> cache.load(cache.createCacheKey(other, true), null, () -> new long[] {1})).get(5, TimeUnit.SECONDS);
+			assertEquals(1, o[0]);
+
+			// wait for other requests to join the running load
+			long end = System.currentTimeMillis() + 5000;
+			while (cache.getStatistics().coalesced() < 3 && System.currentTimeMillis() < end) {
+				Thread.sleep(1);
+			}
+			release.countDown();
+			for (Future<long[]> f : results) {
+				assertSame(value, f.get(5, TimeUnit.SECONDS));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(1, loads.get());
+	}
+}
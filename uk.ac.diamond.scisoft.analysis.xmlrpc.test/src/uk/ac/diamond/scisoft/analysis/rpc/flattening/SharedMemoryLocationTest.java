@@ -0,0 +1,89 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.rpc.flattening;
+
+import java.io.File;
+import java.util.Map;
+
+import org.eclipse.january.dataset.ComplexDoubleDataset;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetFactory;
+import org.eclipse.january.dataset.DoubleDataset;
+import org.eclipse.january.dataset.IntegerDataset;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import uk.ac.diamond.scisoft.analysis.rpc.flattening.helpers.DatasetHelper;
+
+/**
+ * Test setting shared memory location sends raw data sets inline or in mapped files
+ */
+public class SharedMemoryLocationTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testInline() throws Exception {
+		IRootFlattener root = new RootFlattener();
+		root.setSharedMemoryLocation(folder.getRoot().toString());
+
+		Dataset data = DatasetFactory.createRange(IntegerDataset.class, 100).reshape(10, 10);
+		Map<String, Object> flat = flatten(root, data);
+		Assert.assertEquals("<i4", flat.get(DatasetHelper.DTYPE));
+		Assert.assertNotNull(flat.get(DatasetHelper.DATA));
+		Assert.assertNull(flat.get(DatasetHelper.FILENAME));
+		Assert.assertEquals(data, root.unflatten(flat));
+
+		// views are made contiguous
+		Dataset view = data.getSliceView(null, null, new int[] {2, 3});
+		Assert.assertEquals(view, root.unflatten(flatten(root, view)));
+
+		Dataset complex = DatasetFactory.createComplexDataset(ComplexDoubleDataset.class, new double[] {1, 3}, new double[] {2, 4});
+		Assert.assertEquals(complex, root.unflatten(flatten(root, complex)));
+	}
+
+	@Test
+	public void testMappedFile() throws Exception {
+		IRootFlattener root = new RootFlattener();
+		root.setSharedMemoryLocation(folder.getRoot().toString());
+
+		Dataset data = DatasetFactory.createRange(DoubleDataset.class, 3 * DatasetHelper.INLINE_LIMIT).reshape(-1, 64);
+		Map<String, Object> flat = flatten(root, data);
+		Assert.assertEquals("<f8", flat.get(DatasetHelper.DTYPE));
+		Assert.assertNull(flat.get(DatasetHelper.DATA));
+		File file = new File((String) flat.get(DatasetHelper.FILENAME));
+		Assert.assertEquals(folder.getRoot(), file.getParentFile());
+		Assert.assertEquals(data.getSize() * Double.BYTES, file.length());
+
+		Assert.assertEquals(data, root.unflatten(flat));
+		Assert.assertFalse(file.exists());
+	}
+
+	@Test
+	public void testDefaultUsesNumPyFile() throws Exception {
+		IRootFlattener root = new RootFlattener();
+		Assert.assertNull(root.getSharedMemoryLocation());
+
+		Map<String, Object> flat = flatten(root, DatasetFactory.createRange(IntegerDataset.class, 100));
+		Assert.assertNull(flat.get(DatasetHelper.DTYPE));
+		File file = new File((String) flat.get(DatasetHelper.FILENAME));
+		Assert.assertTrue(file.getName().endsWith(".npy"));
+		root.unflatten(flat);
+		Assert.assertFalse(file.exists());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> flatten(IRootFlattener root, Dataset data) {
+		return (Map<String, Object>) root.flatten(data);
+	}
+}
@@ -84,4 +84,24 @@ public interface IRootFlattener {
 	 */
 	public void setTempLocation(String tempLocation);
 
+	/**
+	 * Current location for shared memory files.
+	 * 
+	 * @return shared memory location, or <code>null</code> to indicate data sets are sent as NumPy files in temp
+	 *         location
+	 */
+	public File getSharedMemoryLocation();
+
+	/**
+	 * Set a shared memory location, such as /dev/shm, for data sets. When set, data sets are sent as raw arrays that
+	 * are described by a type, shape and offset. Small arrays are sent inline and others are written to files in this
+	 * location, which the receiver maps rather than parses.
+	 * <p>
+	 * The location must be accessible to the unflattener at the other end.
+	 * 
+	 * @param location
+	 *            new shared memory location to use, or <code>null</code> to send NumPy files in temp location
+	 */
+	public void setSharedMemoryLocation(String location);
+
 }
@@ -52,9 +52,14 @@ import uk.ac.diamond.scisoft.analysis.rpc.flattening.helpers.UUIDHelper;
  * {@link IRootFlattener} implementation to flatten/unflatten objects for transportation over XMLRPC.
  */
 public class RootFlattener implements IRootFlattener {
+	/**
+	 * System property for default shared memory location
+	 */
+	public static final String SHARED_MEMORY_PROPERTY = "uk.ac.diamond.scisoft.analysis.rpc.sharedmemory";
 
 	private List<IFlattener<?>> flatteningHelpers;
 	private File tempLocation;
+	private File sharedMemoryLocation;
 
 	/**
 	 * Create a new {@link RootFlattener}.
@@ -99,6 +104,8 @@ public class RootFlattener implements IRootFlattener {
 		flatteningHelpers.add(new PrimitiveDoubleArrayHelper());
 		flatteningHelpers.add(new PrimitiveBoolArrayHelper());
 		flatteningHelpers.add(new ObjectArrayHelper());
+
+		setSharedMemoryLocation(System.getProperty(SHARED_MEMORY_PROPERTY));
 	}
 
 	@Override
@@ -169,6 +176,20 @@ public class RootFlattener implements IRootFlattener {
 		return tempLocation;
 	}
 
+	@Override
+	public void setSharedMemoryLocation(String location) {
+		if (location == null || location.isEmpty()) {
+			this.sharedMemoryLocation = null;
+		} else {
+			this.sharedMemoryLocation = new File(location);
+		}
+	}
+
+	@Override
+	public File getSharedMemoryLocation() {
+		return sharedMemoryLocation;
+	}
+
 	@Override
 	public void addHelper(IFlattener<?> helper) {
 		flatteningHelpers.add(0, helper);
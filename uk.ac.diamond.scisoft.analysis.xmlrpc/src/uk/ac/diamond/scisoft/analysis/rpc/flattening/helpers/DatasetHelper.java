@@ -10,8 +10,17 @@
 package uk.ac.diamond.scisoft.analysis.rpc.flattening.helpers;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Map;
 
+import org.apache.commons.lang3.ArrayUtils;
+
 import org.eclipse.dawnsci.analysis.api.io.IDataHolder;
 import org.eclipse.january.dataset.Dataset;
 import org.eclipse.january.dataset.IDataset;
@@ -36,6 +45,19 @@ public class DatasetHelper extends MapFlatteningHelper<IDataset> {
 	public static final String INDEX = "index";
 	/** Name of data set to load from data holder. Takes precedence over index. If absent, loads index 0. */
 	public static final String NAME = "name";
+	/** NumPy type string of raw data held inline or in file. If absent, file is a NumPy file */
+	public static final String DTYPE = "dtype";
+	/** Shape of raw data */
+	public static final String SHAPE = "shape";
+	/** Offset in bytes of raw data in file. If absent, data starts at beginning of file */
+	public static final String OFFSET = "offset";
+	/** Raw data held inline. Takes precedence over file */
+	public static final String DATA = "data";
+
+	/**
+	 * Maximum number of bytes of raw data sent inline when using shared memory location
+	 */
+	public static final int INLINE_LIMIT = 64 * 1024;
 
 	public DatasetHelper() {
 		super(IDataset.class);
@@ -43,6 +65,15 @@ public class DatasetHelper extends MapFlatteningHelper<IDataset> {
 
 	@Override
 	public IDataset unflatten(Map<?, ?> thisMap, IRootFlattener rootFlattener) {
+		final String dtype = (String) rootFlattener.unflatten(thisMap.get(DTYPE));
+		if (dtype != null) {
+			try {
+				return unflattenRaw(thisMap, dtype, rootFlattener);
+			} catch (Exception e) {
+				throw new UnsupportedOperationException("Failed to load Dataset from " + thisMap, e);
+			}
+		}
+
 		final String fileName = (String) rootFlattener.unflatten(thisMap.get(FILENAME));
 		final Boolean deleteFile = (Boolean) rootFlattener.unflatten(thisMap.get(DELETEFILEAFTERLOAD));
 		final Integer index = (Integer) rootFlattener.unflatten(thisMap.get(INDEX));
@@ -51,11 +82,7 @@ public class DatasetHelper extends MapFlatteningHelper<IDataset> {
 			final IDataHolder dataHolder = new NumPyFileLoader(fileName).loadFile();
 
 			if (deleteFile != null && deleteFile) {
-				File file = new File(fileName);
-				boolean success = file.delete();
-				if (!success) {
-					file.deleteOnExit();
-				}
+				deleteFile(fileName);
 			}
 
 			final IDataset data;
@@ -73,6 +100,40 @@ public class DatasetHelper extends MapFlatteningHelper<IDataset> {
 		}
 	}
 
+	private static void deleteFile(String fileName) {
+		File file = new File(fileName);
+		boolean success = file.delete();
+		if (!success) {
+			file.deleteOnExit();
+		}
+	}
+
+	private static IDataset unflattenRaw(Map<?, ?> thisMap, String dtype, IRootFlattener rootFlattener) throws IOException {
+		final Object[] shapeArray = (Object[]) thisMap.get(SHAPE);
+		final int[] shape = new int[shapeArray.length];
+		for (int i = 0; i < shape.length; i++) {
+			shape[i] = ((Number) shapeArray[i]).intValue();
+		}
+
+		final Object inline = thisMap.get(DATA);
+		if (inline != null) {
+			return RawDatasetCodec.decode(ByteBuffer.wrap((byte[]) inline), dtype, shape);
+		}
+
+		final String fileName = (String) rootFlattener.unflatten(thisMap.get(FILENAME));
+		final Boolean deleteFile = (Boolean) rootFlattener.unflatten(thisMap.get(DELETEFILEAFTERLOAD));
+		final Integer offset = (Integer) rootFlattener.unflatten(thisMap.get(OFFSET));
+		try (FileChannel fc = FileChannel.open(Path.of(fileName), StandardOpenOption.READ)) {
+			// copy straight from mapped pages into dataset
+			ByteBuffer buffer = fc.map(MapMode.READ_ONLY, offset == null ? 0 : offset, RawDatasetCodec.getNbytes(dtype, shape));
+			return RawDatasetCodec.decode(buffer, dtype, shape);
+		} finally {
+			if (deleteFile != null && deleteFile) {
+				deleteFile(fileName);
+			}
+		}
+	}
+
 	@Override
 	public boolean canFlatten(Object obj) {
 		return obj instanceof Dataset;
@@ -80,8 +141,16 @@ public class DatasetHelper extends MapFlatteningHelper<IDataset> {
 
 	@Override
 	public Object flatten(Object obj, IRootFlattener rootFlattener) {
-		final DataHolder dh = new DataHolder();
 		final Dataset data = (Dataset) obj;
+		final File shmLocation = rootFlattener.getSharedMemoryLocation();
+		if (shmLocation != null) {
+			String dtype = RawDatasetCodec.getDType(data);
+			if (dtype != null) {
+				return flattenRaw(data, dtype, shmLocation);
+			}
+		}
+
+		final DataHolder dh = new DataHolder();
 		dh.addDataset("", data);
 		final File tempFile;
 		try {
@@ -101,6 +170,41 @@ public class DatasetHelper extends MapFlatteningHelper<IDataset> {
 		return outMap;
 	}
 
+	/**
+	 * Flatten to a descriptor of raw data that is held inline if small or otherwise in a file in
+	 * shared memory that the receiver can map
+	 */
+	private Map<String, Object> flattenRaw(Dataset data, String dtype, File shmLocation) {
+		final int[] shape = data.getShapeRef();
+		final long nbytes = RawDatasetCodec.getNbytes(dtype, shape);
+
+		Map<String, Object> outMap = createMap(TYPE_NAME);
+		outMap.put(DTYPE, dtype);
+		outMap.put(SHAPE, ArrayUtils.toObject(shape));
+		if (nbytes <= INLINE_LIMIT) {
+			ByteBuffer buffer = ByteBuffer.allocate((int) nbytes);
+			RawDatasetCodec.encode(data, buffer);
+			outMap.put(DATA, buffer.array());
+			return outMap;
+		}
+
+		final Path file;
+		try {
+			file = Files.createTempFile(shmLocation.toPath(), "scisofttmp-", ".raw");
+			file.toFile().deleteOnExit();
+			try (FileChannel fc = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				RawDatasetCodec.encode(data, fc.map(MapMode.READ_WRITE, 0, nbytes));
+			}
+		} catch (IOException e) {
+			throw new UnsupportedOperationException("Unable to save Dataset", e);
+		}
+
+		outMap.put(FILENAME, file.toString());
+		outMap.put(DELETEFILEAFTERLOAD, true);
+		outMap.put(OFFSET, 0);
+		return outMap;
+	}
+
 	@Override
 	public boolean canUnFlatten(Object obj) {
 		if (obj instanceof Map<?, ?>) {
@@ -0,0 +1,175 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.rpc.flattening.helpers;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.january.dataset.BooleanDataset;
+import org.eclipse.january.dataset.ByteDataset;
+import org.eclipse.january.dataset.ComplexDoubleDataset;
+import org.eclipse.january.dataset.ComplexFloatDataset;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetFactory;
+import org.eclipse.january.dataset.DatasetUtils;
+import org.eclipse.january.dataset.DoubleDataset;
+import org.eclipse.january.dataset.FloatDataset;
+import org.eclipse.january.dataset.IntegerDataset;
+import org.eclipse.january.dataset.LongDataset;
+import org.eclipse.january.dataset.ShapeUtils;
+import org.eclipse.january.dataset.ShortDataset;
+
+/**
+ * Encode and decode datasets as raw little-endian arrays described by a NumPy type string and
+ * shape, so they can be wrapped by numpy.frombuffer or numpy.memmap without a file header
+ */
+final class RawDatasetCodec {
+
+	private RawDatasetCodec() {
+	}
+
+	private record Type(String dtype, Class<? extends Dataset> clazz, int bytes, boolean unsigned) {
+	}
+
+	private static final Map<String, Type> TYPES = new HashMap<>();
+	private static final Map<Class<? extends Dataset>, Type> CLASSES = new HashMap<>();
+
+	static {
+		add(new Type("|b1", BooleanDataset.class, 1, false));
+		add(new Type("|u1", ByteDataset.class, 1, true));
+		add(new Type("|i1", ByteDataset.class, 1, false));
+		add(new Type("<u2", ShortDataset.class, 2, true));
+		add(new Type("<i2", ShortDataset.class, 2, false));
+		add(new Type("<u4", IntegerDataset.class, 4, true));
+		add(new Type("<i4", IntegerDataset.class, 4, false));
+		add(new Type("<u8", LongDataset.class, 8, true)); // cannot be unwrapped so loaded as signed
+		add(new Type("<i8", LongDataset.class, 8, false));
+		add(new Type("<f4", FloatDataset.class, 4, false));
+		add(new Type("<f8", DoubleDataset.class, 8, false));
+		add(new Type("<c8", ComplexFloatDataset.class, 8, false));
+		add(new Type("<c16", ComplexDoubleDataset.class, 16, false));
+	}
+
+	private static void add(Type t) {
+		TYPES.put(t.dtype, t);
+		if (!t.unsigned) {
+			CLASSES.put(t.clazz, t);
+		}
+	}
+
+	/**
+	 * @param data
+	 * @return NumPy type string or null if dataset cannot be encoded
+	 */
+	static String getDType(Dataset data) {
+		Type t = CLASSES.get(data.getClass());
+		return t == null ? null : t.dtype;
+	}
+
+	/**
+	 * @param dtype
+	 * @param shape
+	 * @return number of bytes needed to hold dataset
+	 * @throws IllegalArgumentException if type is not supported
+	 */
+	static long getNbytes(String dtype, int[] shape) {
+		return getType(dtype).bytes * ShapeUtils.calcLongSize(shape);
+	}
+
+	private static Type getType(String dtype) {
+		Type t = TYPES.get(dtype);
+		if (t == null) {
+			throw new IllegalArgumentException("Unsupported NumPy type: " + dtype);
+		}
+		return t;
+	}
+
+	/**
+	 * Write dataset into buffer from its current position
+	 * @param data dataset whose type is supported
+	 * @param buffer
+	 */
+	static void encode(Dataset data, ByteBuffer buffer) {
+		if (data.getStrides() != null) { // make contiguous
+			data = data.clone();
+		}
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		if (data instanceof BooleanDataset b) {
+			for (boolean v : b.getData()) {
+				buffer.put((byte) (v ? 1 : 0));
+			}
+		} else if (data instanceof ByteDataset b) {
+			buffer.put(b.getData());
+		} else if (data instanceof ShortDataset s) {
+			buffer.asShortBuffer().put(s.getData());
+		} else if (data instanceof IntegerDataset i) {
+			buffer.asIntBuffer().put(i.getData());
+		} else if (data instanceof LongDataset l) {
+			buffer.asLongBuffer().put(l.getData());
+		} else if (data instanceof FloatDataset f) {
+			buffer.asFloatBuffer().put(f.getData());
+		} else if (data instanceof DoubleDataset d) {
+			buffer.asDoubleBuffer().put(d.getData());
+		} else if (data instanceof ComplexFloatDataset f) {
+			buffer.asFloatBuffer().put(f.getData());
+		} else if (data instanceof ComplexDoubleDataset d) {
+			buffer.asDoubleBuffer().put(d.getData());
+		} else {
+			throw new IllegalArgumentException("Unsupported dataset class: " + data.getClass());
+		}
+	}
+
+	/**
+	 * Read dataset from buffer at its current position
+	 * @param buffer
+	 * @param dtype NumPy type string
+	 * @param shape
+	 * @return dataset
+	 * @throws IllegalArgumentException if type is not supported or buffer is too small
+	 */
+	static Dataset decode(ByteBuffer buffer, String dtype, int[] shape) {
+		Type t = getType(dtype);
+		long n = getNbytes(dtype, shape);
+		if (buffer.remaining() < n) {
+			throw new IllegalArgumentException("Buffer size, " + buffer.remaining() + ", is less than expected, " + n);
+		}
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		Dataset data = DatasetFactory.zeros(t.clazz, shape);
+		if (data instanceof BooleanDataset b) {
+			boolean[] v = b.getData();
+			for (int i = 0; i < v.length; i++) {
+				v[i] = buffer.get() != 0;
+			}
+		} else if (data instanceof ByteDataset b) {
+			buffer.get(b.getData());
+		} else if (data instanceof ShortDataset s) {
+			buffer.asShortBuffer().get(s.getData());
+		} else if (data instanceof IntegerDataset i) {
+			buffer.asIntBuffer().get(i.getData());
+		} else if (data instanceof LongDataset l) {
+			buffer.asLongBuffer().get(l.getData());
+		} else if (data instanceof FloatDataset f) {
+			buffer.asFloatBuffer().get(f.getData());
+		} else if (data instanceof DoubleDataset d) {
+			buffer.asDoubleBuffer().get(d.getData());
+		} else if (data instanceof ComplexFloatDataset f) {
+			buffer.asFloatBuffer().get(f.getData());
+		} else if (data instanceof ComplexDoubleDataset d) {
+			buffer.asDoubleBuffer().get(d.getData());
+		}
+
+		if (t.unsigned && t.clazz != LongDataset.class) {
+			data = DatasetUtils.makeUnsigned(data, true);
+		}
+		return data;
+	}
+}
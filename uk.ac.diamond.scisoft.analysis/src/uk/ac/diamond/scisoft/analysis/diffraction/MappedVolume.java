@@ -0,0 +1,192 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.diffraction;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.eclipse.january.DatasetException;
+import org.eclipse.january.dataset.DatasetFactory;
+import org.eclipse.january.dataset.DoubleDataset;
+import org.eclipse.january.dataset.LazyWriteableDataset;
+import org.eclipse.january.dataset.ShapeUtils;
+import org.eclipse.january.dataset.Slice;
+import org.eclipse.january.dataset.SliceND;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Volume of values and weights held in a memory-mapped temporary file
+ * <p>
+ * This is used by {@link MillerSpaceMapper} when the output volume does not fit in memory so that
+ * each image is read and split once. The operating system pages parts of the file in and out as
+ * they are accessed so the heap only needs to hold the slabs used when saving. Values are added
+ * atomically so the volume can be shared by splitters in many threads.
+ */
+class MappedVolume implements AutoCloseable {
+	private static final Logger logger = LoggerFactory.getLogger(MappedVolume.class);
+
+	private static final VarHandle DOUBLES = MethodHandles.byteBufferViewVarHandle(double[].class, ByteOrder.nativeOrder());
+
+	private static final int ITEM_SHIFT = 4; // interleaved value and weight
+	private static final int SEGMENT_SHIFT = 26; // items per mapped segment (1GB)
+	private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+	private final int[] shape;
+	private final int size;
+	private final Path file;
+	private MappedByteBuffer[] segments;
+
+	/**
+	 * Create volume in file in given directory
+	 * @param directory can be null to use default temporary directory
+	 * @param shape
+	 * @throws IOException if file cannot be created or mapped or there is not enough space
+	 * @throws IllegalArgumentException if volume has too many items
+	 */
+	MappedVolume(Path directory, int... shape) throws IOException {
+		long n = ShapeUtils.calcLongSize(shape);
+		if (n > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Volume of shape " + Arrays.toString(shape) + " is too large");
+		}
+		this.shape = shape.clone();
+		size = (int) n;
+
+		long bytes = n << ITEM_SHIFT;
+		file = directory == null ? Files.createTempFile("volume", ".tmp") : Files.createTempFile(directory, "volume", ".tmp");
+		try {
+			long free = file.toFile().getUsableSpace();
+			if (free < bytes) {
+				throw new IOException(String.format("Not enough space in %s for volume (%d < %d bytes)", file.getParent(), free, bytes));
+			}
+
+			int ns = (int) ((n + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+			segments = new MappedByteBuffer[ns];
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				long segmentBytes = 1L << (SEGMENT_SHIFT + ITEM_SHIFT);
+				for (int i = 0; i < ns; i++) {
+					long pos = i * segmentBytes;
+					segments[i] = channel.map(MapMode.READ_WRITE, pos, Math.min(segmentBytes, bytes - pos));
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			close();
+			throw e;
+		}
+		logger.debug("Created volume of shape {} in {}", Arrays.toString(shape), file);
+	}
+
+	/**
+	 * @return shape of volume
+	 */
+	int[] getShape() {
+		return shape;
+	}
+
+	/**
+	 * @param pos
+	 * @return index of position
+	 */
+	int get1DIndex(final int[] pos) {
+		int r = shape.length;
+		if (pos.length != r) {
+			throw new IllegalArgumentException("Position has wrong rank");
+		}
+		int index = 0;
+		for (int i = 0; i < r; i++) {
+			int p = pos[i];
+			int s = shape[i];
+			if (p < 0 || p >= s) {
+				throw new ArrayIndexOutOfBoundsException("Index (" + p + ") out of range [0, " + s + ") in dimension " + i);
+			}
+			index = index * s + p;
+		}
+		return index;
+	}
+
+	/**
+	 * Add value and weight atomically
+	 * @param index
+	 * @param value
+	 * @param weight
+	 */
+	void add(final int index, final double value, final double weight) {
+		MappedByteBuffer b = segments[index >>> SEGMENT_SHIFT];
+		int offset = (int) ((index & SEGMENT_MASK) << ITEM_SHIFT);
+		add(b, offset, value);
+		add(b, offset + Double.BYTES, weight);
+	}
+
+	private static void add(final MappedByteBuffer b, final int offset, final double v) {
+		double o;
+		do {
+			o = (double) DOUBLES.getVolatile(b, offset);
+		} while (!DOUBLES.weakCompareAndSet(b, offset, o, o + v));
+	}
+
+	/**
+	 * Save normalized values and weights in slabs along first dimension. This must not be called
+	 * whilst values are being added
+	 * @param values
+	 * @param weights
+	 * @param rows number of rows in each slab
+	 * @throws DatasetException
+	 */
+	void save(LazyWriteableDataset values, LazyWriteableDataset weights, int rows) throws DatasetException {
+		int n = shape[0];
+		rows = Math.max(1, rows);
+		int[] sShape = shape.clone();
+		int rowSize = n == 0 ? 0 : size / n;
+		for (int r = 0; r < n; r += rows) {
+			int m = Math.min(rows, n - r);
+			sShape[0] = m;
+			DoubleDataset v = DatasetFactory.zeros(sShape);
+			DoubleDataset w = DatasetFactory.zeros(sShape);
+			double[] vd = v.getData();
+			double[] wd = w.getData();
+			int index = r * rowSize;
+			for (int i = 0; i < vd.length; i++, index++) {
+				MappedByteBuffer b = segments[index >>> SEGMENT_SHIFT];
+				int offset = (int) ((index & SEGMENT_MASK) << ITEM_SHIFT);
+				double t = (double) DOUBLES.get(b, offset + Double.BYTES);
+				wd[i] = t;
+				vd[i] = t == 0 ? 0 : (double) DOUBLES.get(b, offset) / t; // normalize by tally
+			}
+
+			SliceND slice = new SliceND(shape, new Slice(r, r + m));
+			logger.debug("Saving to {}", slice);
+			values.setSlice(v, slice);
+			weights.setSlice(w, slice);
+		}
+	}
+
+	/**
+	 * Release mapping and delete file
+	 */
+	@Override
+	public void close() {
+		segments = null; // mapping is released when buffers are garbage collected
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			logger.warn("Could not delete {} so will try on exit", file, e);
+			file.toFile().deleteOnExit();
+		}
+	}
+}
@@ -18,12 +18,13 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import javax.vecmath.Matrix3d;
@@ -365,7 +366,7 @@ public class MillerSpaceMapper {
 			}
 		}
 
-		return bean.getOutputMode().getRank() > 2 ? mapImagesByStrips(tree, trans, iMask, images, iters, ishape)
+		return bean.getOutputMode().getRank() > 2 ? mapImagesPipelined(tree, trans, iMask, images, iters, ishape)
 				: mapImagesIndividually(tree, trans, iMask, images, iters, ishape);
 	}
 
@@ -845,23 +846,45 @@ public class MillerSpaceMapper {
 		return images;
 	}
 
-	private int mapImagesByStrips(Tree tree, Dataset trans, Dataset iMask, ILazyDataset images, PositionIterator[] iters,
-			int[] ishape) throws DatasetException, ScanFileHolderException {
+	/*
+	 * Load images in this thread and queue them for workers which each map a whole image
+	 * into the shared volume using atomic adds. Loading, mapping and splatting of different
+	 * images overlap and the queue bounds the number of images held in memory
+	 */
+	private int mapImagesPipelined(Tree tree, Dataset trans, Dataset iMask, ILazyDataset images, PositionIterator[] iters,
+			int[] ishape) throws DatasetException {
 		warnExposureZero = true;
+		int size = Math.max(1, poolSize - 1); // reserve for loading next image
+		boolean isOldGDA = isOLDI16GDA(tree);
+
+		BlockingQueue<ImageJobConfig> queue = new ArrayBlockingQueue<>(2 * size);
+		List<QueueWorker> workers = new ArrayList<>();
+		List<Future<?>> running = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			PixelSplitter wSplitter = splitter.clone(); // shares datasets
+			if (!(wSplitter instanceof PixelSplitter.BaseSplitter b)) {
+				throw new IllegalStateException("Splitter must support atomic adds");
+			}
+			b.setAtomicAdd(true);
+			BicubicInterpolator upSampler = scale == 1 ? null : new BicubicInterpolator(true, ishape);
+			QueueWorker w = new QueueWorker(i, queue, upSampler, pixelMapping.clone(), wSplitter, iMask, trans, tree, ishape, vShape, isOldGDA);
+			workers.add(w);
+			running.add(pool.submit(w));
+		}
+
 		PositionIterator diter = iters[0]; // scan iterator
 		PositionIterator iter = iters[1]; // data iterator (omits image axes)
 		iter.reset();
 		diter.reset();
-		int ne = getImageNumbers(diter.getShape());
-
-		int[] dpos = diter.getPos();
-		int[] pos = iter.getPos();
-		int[] start = pos.clone();
-		int[] stop = iter.getStop().clone();
+		final int[] dpos = diter.getPos();
+		final int[] dShape = diter.getShape();
+		final int[] pos = iter.getPos();
+		final int[] start = pos.clone();
+		final int[] stop = iter.getStop().clone();
 		int rank  = pos.length;
 		int srank = rank - 2;
+		int ne = getImageNumbers(dShape);
 
-		boolean isOldGDA = isOLDI16GDA(tree);
 		int ni = 0;
 
 		start[srank] = begY;
@@ -870,30 +893,63 @@ public class MillerSpaceMapper {
 		stop[srank + 1] = endX;
 
 		final String inFile = tree instanceof TreeFile ? " in " + ((TreeFile) tree).getFilename() : "";
-		int miss = imagesSlice.getStart() + 1;
-		Dataset image = getNextImage(miss, images, iter, start, stop);
-		while (image != null && ni < ne) {
-			while (diter.hasNext() && --miss > 0) {
+		long wait = 0;
+		boolean finished = false;
+		try {
+			int miss = imagesSlice.getStart() + 1;
+			while (ni < ne) {
+				Dataset image = getNextImage(miss, images, iter, start, stop);
+				while (diter.hasNext() && --miss > 0) {
+				}
+				if (miss > 0 || image == null) {
+					break;
+				}
+
+				int[] s = Arrays.copyOfRange(image.getShapeRef(), srank, rank);
+				image.setShape(s);
+				miss = imagesSlice.getStep();
+				if (image.max().doubleValue() <= 0) {
+					logger.info("Skipping image at {}{}", Arrays.toString(dpos), inFile);
+				} else {
+					logger.info("Queuing image at {}/{}{}", Arrays.toString(dpos), Arrays.toString(dShape), inFile);
+					long begin = System.currentTimeMillis();
+					queue.put(new ImageJobConfig(image, dpos, dShape));
+					wait += System.currentTimeMillis() - begin;
+				}
+				ni++;
 			}
-			if (miss > 0) {
-				break;
+
+			ImageJobConfig lastJob = new ImageJobConfig(); // empty config to stop workers
+			for (int i = 0; i < size; i++) {
+				queue.put(lastJob);
 			}
+			finished = true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted whilst mapping images", e);
+		} finally {
+			if (!finished) {
+				for (Future<?> f : running) {
+					f.cancel(true);
+				}
+			}
+		}
+		if (wait > 0) {
+			logger.debug("Image loading waited {}ms for workers", wait);
+		}
 
-			int[] s = Arrays.copyOfRange(image.getShapeRef(), srank, rank);
-			image.setShape(s);
-			miss = imagesSlice.getStep();
-			if (image.max().doubleValue() <= 0) {
-				logger.info("Skipping image at {}{}", Arrays.toString(dpos), inFile);
-				image = getNextImage(miss, images, iter, start, stop);
-			} else {
-				logger.info("Mapping image at {}/{}{}", Arrays.toString(dpos), Arrays.toString(diter.getShape()), inFile);
-				initializeImagePixelMapping(pixelMapping, tree, ishape, dpos, isOldGDA);
-	
-				double tFactor = getTransmissionCorrection(trans, dpos);
-				image = mapImageByStripsMultiThreaded(ni < ne - 1, images, iter, start, stop, tFactor, iMask, image, ishape);
+		try {
+			for (Future<?> f : running) {
+				f.get();
 			}
+		} catch (InterruptedException | ExecutionException e) {
+			throw new RuntimeException("Multithreaded jobs did not finish successfully", e);
+		}
 
-			ni++;
+		if (reduceToNonZeroBB) {
+			for (QueueWorker w : workers) {
+				minMax(sMin, sMax, w.getMinLocal(), w.getMaxLocal());
+			}
 		}
 
 		return ni;
@@ -1082,124 +1138,6 @@ public class MillerSpaceMapper {
 		return 0.5 * ((muSq + 1) + (muSq - 1)*(cosTwoPhi * q + sinTwoPhi * u));
 	}
 
-	private static final int MIN_CHUNK = 128;
-
-	private boolean chunkSizeTooSmall(final int chunk, final int rows) {
-
-		if (chunk < MIN_CHUNK) {
-			logger.debug("Chunk smaller than min: {} < {}", chunk, MIN_CHUNK);
-			return true;
-		}
-
-		final Vector3d v = new Vector3d();
-		Vector3d ov = null;
-		double xCoord = 0.5;
-		final double[] voxelSides = vDel;
-		final double safetyFactor = 1./4;
-		for (int y = 0; y < rows; y += chunk) {
-			pixelMapping.map(xCoord, y + 0.5, v);
-
-			if (ov == null) {
-				ov = new Vector3d(v);
-			} else { // check if pixels from adjoining bands map to same voxel
-				if (Math.abs(v.x - ov.x) * safetyFactor < voxelSides[0]
-						&& Math.abs(v.y - ov.y) * safetyFactor < voxelSides[1]
-						&& (voxelSides.length < 3 || Math.abs(v.z - ov.z) * safetyFactor < voxelSides[2])) {
-					v.sub(ov);
-					logger.debug("Chunk is small enough for voxel contention: difference {} < {} (with safety factor {})", v, voxelSides, safetyFactor);
-					return true;
-				}
-				ov.set(v);
-			}
-		}
-
-		return false;
-	}
-
-	private Dataset mapImageByStripsMultiThreaded(boolean loadNext, ILazyDataset images, PositionIterator iter, int[] start, int[] stop, final double tFactor,
-			final Dataset iMask, final Dataset image, final int[] ishape) throws DatasetException {
-		int size = poolSize - 1; // reserve for loading next image
-		final int[] pos = iter.getPos();
-		if (size == 0) {
-			BicubicInterpolator upSampler = scale == 1 ? null : new BicubicInterpolator(true, ishape);
-			int[] regionSlice = new int[] { 0, ishape[1], 0, ishape[0] };
-			try {
-				mapImageToOutput(0, tFactor, upSampler, pixelMapping, splitter, sMin, sMax, regionSlice, iMask, image);
-				logger.debug("Finished mapping at {}", Arrays.toString(pos));
-			} catch (Exception e) {
-				logger.error("Failed mapping at {}", Arrays.toString(pos), e);
-			}
-
-			return loadNext ? getNextImage(imagesSlice.getStep(), images, iter, start, stop) : null;
-		}
-
-		final int rows = ishape[0];
-		double regionSize = rows;
-
-		int chunk = (int) Math.ceil(regionSize / size);
-		while (size > 1 && chunkSizeTooSmall(chunk, rows)) {
-			chunk = (int) Math.ceil(regionSize / --size);
-			logger.info("Chunk too small so decrementing parallelism to {}", size);
-		}
-		logger.info("Splitting images to bands of {} rows across {} threads", chunk, size);
-
-		final List<JobConfig> jobs = new ArrayList<>(size);
-		chunk = (int) (Math.ceil(chunk/scale)*scale); // round up to be divisible by scale
-		for (int i = 0; i < size; i++) {
-			int s = i * chunk;
-			int e = Math.min(s + chunk, rows);
-			logger.info("Chunk {}: {} -> {}", i, s, e);
-			BicubicInterpolator upSampler = scale == 1 ? null : new BicubicInterpolator(true, e - s, ishape[1]);
-			jobs.add(new JobConfig(i, upSampler, pixelMapping.clone(), splitter.clone(), s, e, vShape));
-		}
-
-		JobConfig loadJob = new JobConfig(-1, null, null, null, 0, 0, null); // load next image
-		jobs.add(loadJob); // load next image
-
-		Consumer<JobConfig> subTask = job -> {
-			if (job.getSplitter() == null) {
-				if (loadNext) {
-					try {
-						job.setData(getNextImage(imagesSlice.getStep(), images, iter, start, stop));
-					} catch (DatasetException e) {
-						job.setException(e);
-					}
-				}
-				return;
-			}
-			int[] sMinLocal = job.getMinLocal();
-			int[] sMaxLocal = job.getMaxLocal();
-			int[] regionSlice = new int[] { 0, ishape[1], job.getStart(), job.getEnd() };
-
-			try {
-				mapImageToOutput(job.getNo(), tFactor, job.getUpScaler(), job.getMapping(), job.getSplitter(), sMinLocal, sMaxLocal, regionSlice, iMask, image);
-				logger.debug("Job {}: finished mapping at {}", job.getNo(), Arrays.toString(pos));
-			} catch (Exception e) {
-				logger.error("Job {}: failed mapping at {}", job.getNo(), Arrays.toString(pos), e);
-			}
-		};
-
-		try {
-			pool.submit(() -> jobs.parallelStream().forEach(subTask)).get();
-		} catch (InterruptedException | ExecutionException e) {
-			throw new RuntimeException("Multithreaded jobs did not finish successfully", e);
-		}
-
-		if (reduceToNonZeroBB) {
-			for (JobConfig j : jobs) {
-				if (j.getMinLocal() != null) {
-					minMax(sMin, sMax, j.getMinLocal(), j.getMaxLocal());
-				}
-			}
-		}
-
-		DatasetException e = loadJob.getException();
-		if (e != null) {
-			throw e;
-		}
-		return loadJob.getData();
-	}
-
 	private static void minMax(double[] min, double[] max, Vector3d v) {
 		min[0] = Math.min(min[0], v.x);
 		max[0] = Math.max(max[0], v.x);
@@ -1322,7 +1260,7 @@ public class MillerSpaceMapper {
 				wSplitter.setDatasets(DatasetFactory.zeros(vShape), DatasetFactory.zeros(vShape));
 			}
 			BicubicInterpolator upSampler = scale == 1 ? null : new BicubicInterpolator(true, ishape);
-			QueueWorker w = new QueueWorker(i, queue, upSampler, pixelMapping.clone(), wSplitter, iMask, trans, tree, ishape, vShape);
+			QueueWorker w = new QueueWorker(i, queue, upSampler, pixelMapping.clone(), wSplitter, iMask, trans, tree, ishape, vShape, false);
 			workers.add(w);
 			pool.execute(w);
 		}
@@ -1995,7 +1933,7 @@ public class MillerSpaceMapper {
 			logger.info("Saving took {}ms", System.currentTimeMillis() - start);
 		} catch (IllegalArgumentException | OutOfMemoryError e) {
 			logger.warn("There is not enough memory (for output shape = {}) to do this all at once!", Arrays.toString(vShape));
-			logger.warn("Now attempting to segment volume");
+			logger.warn("Now attempting to stream to file-backed volume");
 			if (findResultBB) {
 				createOutputAxes(pixelMapping.getAxesName(), axes, vShape, vMin, null, vDel);
 			}
@@ -2004,33 +1942,40 @@ public class MillerSpaceMapper {
 			findResultBB = false;
 			reduceToNonZeroBB = false;
 
+			MappedVolume volume = createMappedVolume(output);
 			int parts = 1;
-			DoubleDataset map = null;
-			DoubleDataset weight = null;
-			// find biggest size that fits
-			int[] tShape = vShape.clone();
-			while (true) {
-				parts++;
-				tShape[0] = (vShape[0] + parts - 1)/parts + 1; // add one for overlapping split contributions
-				if (tShape[0] == 2) { // maybe use other dimensions too(!)
-					break;
+			if (volume == null) {
+				logger.warn("Now attempting to segment volume");
+				DoubleDataset map = null;
+				DoubleDataset weight = null;
+				// find biggest size that fits
+				int[] tShape = vShape.clone();
+				while (true) {
+					parts++;
+					tShape[0] = (vShape[0] + parts - 1)/parts + 1; // add one for overlapping split contributions
+					if (tShape[0] == 2) { // maybe use other dimensions too(!)
+						break;
+					}
+					try {
+						map = DatasetFactory.zeros(tShape);
+						weight = DatasetFactory.zeros(tShape);
+						break;
+					} catch (IllegalArgumentException | OutOfMemoryError ex) {
+						map = null;
+					}
 				}
-				try {
-					map = DatasetFactory.zeros(tShape);
-					weight = DatasetFactory.zeros(tShape);
-					break;
-				} catch (IllegalArgumentException | OutOfMemoryError ex) {
-					map = null;
+
+				if (map == null || weight == null) {
+					logger.error("Cannot segment volume fine enough to fit in memory!", e);
+					throw e;
 				}
-			}
+				splitter.setDatasets(map, weight);
 
-			if (map == null || weight == null) {
-				logger.error("Cannot segment volume fine enough to fit in memory!", e);
-				throw e;
+				logger.info("Mapping in {} parts, each of shape {}", parts, Arrays.toString(tShape));
+			} else {
+				((PixelSplitter.BaseSplitter) splitter).setVolume(volume);
+				logger.info("Mapping to file-backed volume of shape {}", Arrays.toString(vShape));
 			}
-			splitter.setDatasets(map, weight);
-
-			logger.info("Mapping in {} parts, each of shape {}", parts, Arrays.toString(tShape));
 			boolean isFileNew = !hasDeleted;
 			if (isFileNew) {
 				HDF5FileFactory.deleteFile(output);
@@ -2051,7 +1996,16 @@ public class MillerSpaceMapper {
 				writeDefaultAttributes(output, spaceName);
 			}
 
-			mapToVolumeAndSaveInParts(trees, allIters, lazyVolume, lazyWeight, parts);
+			if (volume == null) {
+				mapToVolumeAndSaveInParts(trees, allIters, lazyVolume, lazyWeight, parts);
+			} else {
+				try {
+					mapToVolumeAndSave(trees, allIters, volume, lazyVolume, lazyWeight, cShape[0]);
+				} finally {
+					splitter.setDatasets(null, null);
+					volume.close();
+				}
+			}
 
 			saveAxesAndAttributes(output, outputPath, outputName, new String[] {WEIGHT_NAME}, pixelMapping.getAxesUnits(), axes);
 			writeProcessingParameters(output, bean, entryPath);
@@ -2298,6 +2252,57 @@ public class MillerSpaceMapper {
 		HDF5Utils.writeAttributes(file, dataPath, true, attrs.toArray(new Dataset[attrs.size()]));
 	}
 
+	/**
+	 * @param output file path
+	 * @return file-backed volume in same directory as output or null if it cannot be created
+	 */
+	private MappedVolume createMappedVolume(String output) {
+		if (!(splitter instanceof PixelSplitter.BaseSplitter)) {
+			return null;
+		}
+		Path parent = Paths.get(output).toAbsolutePath().getParent();
+		try {
+			return new MappedVolume(parent, vShape);
+		} catch (IOException | IllegalArgumentException e) {
+			logger.warn("Could not create file-backed volume in {}", parent, e);
+		}
+		return null;
+	}
+
+	/**
+	 * Map images once to file-backed volume and save it
+	 * @param trees
+	 * @param allIters
+	 * @param volume
+	 * @param volumeOutput
+	 * @param weightOutput
+	 * @param rows number of rows in each slab saved
+	 * @throws ScanFileHolderException
+	 * @throws DatasetException
+	 */
+	private void mapToVolumeAndSave(Tree[] trees, PositionIterator[][] allIters, MappedVolume volume,
+			LazyWriteableDataset volumeOutput, LazyWriteableDataset weightOutput, int rows) throws ScanFileHolderException, DatasetException {
+		long start = System.currentTimeMillis();
+		loadTimeTotal = 0;
+		int nt = mapAllTrees(trees, allIters);
+		long now = System.currentTimeMillis();
+		long process = now - start;
+
+		start = now;
+		try {
+			volume.save(volumeOutput, weightOutput, rows);
+		} catch (DatasetException e) {
+			logger.error("Could not save volume", e);
+			throw new ScanFileHolderException("Could not save volume", e);
+		}
+		long save = System.currentTimeMillis() - start;
+
+		nt = Math.max(1, nt);
+		logger.info("For {} threads, processing took {}s ({}ms/frame)", poolSize, process/1000, process/nt);
+		logger.info("                loading {} frames took {}s ({}ms/frame)", nt, loadTimeTotal/1000, loadTimeTotal/nt);
+		logger.info("Saving took {}ms", save);
+	}
+
 	/**
 	 * Map images from given Nexus file to a volume in Miller (aka HKL) space
 	 * 
@@ -2572,81 +2577,6 @@ public class MillerSpaceMapper {
 		mapper.printMillerSpaceCorners(endsOnly);
 	}
 
-	class JobConfig {
-		private int jNo;
-		private BicubicInterpolator upScaler;
-		private ImagePixelMapping mapping;
-		private PixelSplitter pSplitter;
-		private int start;
-		private int end;
-		private Dataset data;
-		private int[] minLocal;
-		private int[] maxLocal;
-		private DatasetException exception;
-
-		public JobConfig(int jNo, BicubicInterpolator upScaler, ImagePixelMapping mapping, PixelSplitter splitter, int start, int end, int[] vshape) {
-			this.jNo = jNo;
-			this.upScaler = upScaler;
-			this.mapping = mapping;
-			this.pSplitter = splitter;
-			this.start = start;
-			this.end = end;
-			if (vshape != null) {
-				this.minLocal = new int[vshape.length];
-				this.maxLocal = new int[vshape.length];
-				initializeOutputBoundingBox(vshape, minLocal, maxLocal);
-			}
-		}
-
-		public int getNo() {
-			return jNo;
-		}
-
-		public void setException(DatasetException e) {
-			exception = e;
-		}
-
-		public DatasetException getException() {
-			return exception;
-		}
-
-		public BicubicInterpolator getUpScaler() {
-			return upScaler;
-		}
-
-		public ImagePixelMapping getMapping() {
-			return mapping;
-		}
-
-		public PixelSplitter getSplitter() {
-			return pSplitter;
-		}
-
-		public void setData(Dataset data) {
-			this.data = data;
-		}
-
-		public Dataset getData() {
-			return data;
-		}
-
-		public int getStart() {
-			return start;
-		}
-
-		public int getEnd() {
-			return end;
-		}
-
-		public int[] getMinLocal() {
-			return minLocal;
-		}
-
-		public int[] getMaxLocal() {
-			return maxLocal;
-		}
-	}
-
 	class ImageJobConfig {
 		private Dataset image;
 		private int[] pos;
@@ -2687,13 +2617,14 @@ public class MillerSpaceMapper {
 		final private Dataset mask;
 		final private Dataset trans;
 		final private Tree tree;
+		final private boolean isOldGDA;
 
 		boolean running = true;
 		private Thread thread;
 		private int ni = 0;
 
 		public QueueWorker(int wNo, BlockingQueue<ImageJobConfig> queue, BicubicInterpolator upSampler, ImagePixelMapping mapping, PixelSplitter splitter,
-				Dataset mask, Dataset trans, Tree tree, int[] iShape, int[] oShape) {
+				Dataset mask, Dataset trans, Tree tree, int[] iShape, int[] oShape, boolean isOldGDA) {
 			this.wNo = wNo;
 			this.queue = queue;
 			this.upSampler = upSampler;
@@ -2703,6 +2634,7 @@ public class MillerSpaceMapper {
 			this.mask = mask;
 			this.trans = trans;
 			this.tree = tree;
+			this.isOldGDA = isOldGDA;
 			this.region = new int[] { 0, iShape[1], 0, iShape[0] };
 
 			this.minLocal = new int[oShape.length];
@@ -2723,6 +2655,7 @@ public class MillerSpaceMapper {
 			thread = Thread.currentThread();
 
 			ImageJobConfig j;
+			Error error = null; // keep taking jobs after an error so loader is not blocked
 			while (running) {
 				try {
 					j = queue.take();
@@ -2736,18 +2669,28 @@ public class MillerSpaceMapper {
 					running = false;
 					break;
 				}
+				if (error != null) {
+					continue;
+				}
 				logger.info("Worker {}: initializing mapping at {}/{}", wNo, Arrays.toString(pos), Arrays.toString(j.getShape()));
 				try {
-					initializeImagePixelMapping(mapping, tree, iShape, pos, false);
+					initializeImagePixelMapping(mapping, tree, iShape, pos, isOldGDA);
 
 					double tFactor = getTransmissionCorrection(trans, pos);
 					mapImageToOutput(wNo, tFactor, upSampler, mapping, splitter, minLocal, maxLocal, region, mask, j.getImage());
 					logger.debug("Worker {}: finished mapping at {}", wNo, Arrays.toString(pos));
 				} catch (Exception e) {
 					logger.error("Worker {}: failed mapping at {}", wNo, Arrays.toString(pos), e);
+				} catch (Error e) {
+					logger.error("Worker {}: stopped mapping at {}", wNo, Arrays.toString(pos), e);
+					error = e;
+					continue;
 				}
 				ni++;
 			}
+			if (error != null) {
+				throw error;
+			}
 		}
 
 		public DoubleDataset[] getDatasets() {
@@ -9,6 +9,9 @@
 
 package uk.ac.diamond.scisoft.analysis.diffraction;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
 import javax.vecmath.Vector3d;
 
 import org.eclipse.january.dataset.DoubleDataset;
@@ -50,13 +53,80 @@ public interface PixelSplitter extends Cloneable {
 	public PixelSplitter clone();
 
 	class BaseSplitter implements PixelSplitter {
+		private static final VarHandle DOUBLES = MethodHandles.arrayElementVarHandle(double[].class);
+
 		protected DoubleDataset output;
 		protected DoubleDataset weight;
+		protected MappedVolume volume;
+		protected boolean atomicAdd;
+
+		/**
+		 * Set whether values are added atomically. This allows clones that share datasets to
+		 * be used by multiple threads at once
+		 * @param atomicAdd
+		 */
+		public void setAtomicAdd(boolean atomicAdd) {
+			this.atomicAdd = atomicAdd;
+		}
+
+		/**
+		 * Add values to datasets at given index
+		 * @param index
+		 * @param va value
+		 * @param vb value
+		 */
+		void addToDatasets(final int index, double va, double vb) {
+			if (volume != null) {
+				volume.add(index, va, vb);
+			} else if (atomicAdd) {
+				add(output.getData(), index, va);
+				add(weight.getData(), index, vb);
+			} else {
+				output.setAbs(index, output.getAbs(index) + va);
+				weight.setAbs(index, weight.getAbs(index) + vb);
+			}
+		}
+
+		private static void add(final double[] data, final int index, final double v) {
+			double o;
+			do {
+				o = (double) DOUBLES.getVolatile(data, index);
+			} while (!DOUBLES.weakCompareAndSet(data, index, o, o + v));
+		}
 
 		@Override
 		public void setDatasets(DoubleDataset output, DoubleDataset weight) {
 			this.output = output;
 			this.weight = weight;
+			this.volume = null;
+		}
+
+		/**
+		 * Set file-backed volume to use instead of datasets. Values are always added atomically
+		 * @param volume
+		 */
+		void setVolume(MappedVolume volume) {
+			this.output = null;
+			this.weight = null;
+			this.volume = volume;
+		}
+
+		/**
+		 * Make clone use the same datasets or volume
+		 * @param c clone
+		 */
+		protected void shareTargets(BaseSplitter c) {
+			c.output = output;
+			c.weight = weight;
+			c.volume = volume;
+		}
+
+		/**
+		 * @param pos
+		 * @return index of position in output
+		 */
+		protected int get1DIndex(int[] pos) {
+			return volume == null ? output.get1DIndex(pos) : volume.get1DIndex(pos);
 		}
 
 		@Override
@@ -66,6 +136,9 @@ public interface PixelSplitter extends Cloneable {
 
 		@Override
 		public int[] getShape() {
+			if (volume != null) {
+				return volume.getShape();
+			}
 			return output == null ? null : output.getShapeRef();
 		}
 
@@ -88,20 +161,9 @@ public interface PixelSplitter extends Cloneable {
 	 * This does not split pixel but places its value in the nearest voxel
 	 */
 	public static class NonSplitter extends BaseSplitter {
-		/**
-		 * Add values to datasets at given index
-		 * @param index
-		 * @param va value
-		 * @param vb value
-		 */
-		void addToDatasets(final int index, double va, double vb) {
-			output.setAbs(index, output.getAbs(index) + va);
-			weight.setAbs(index, weight.getAbs(index) + vb);
-		}
-
 		@Override
 		public void splitValue(Vector3d dh, int[] pos, double value) {
-			int idx = output.get1DIndex(pos);
+			int idx = get1DIndex(pos);
 			addToDatasets(idx, value, 1);
 		}
 
@@ -113,8 +175,7 @@ public interface PixelSplitter extends Cloneable {
 		@Override
 		public NonSplitter clone() {
 			NonSplitter c = new NonSplitter();
-			c.output = output;
-			c.weight = weight;
+			shareTargets(c);
 			return c;
 		}
 	}
@@ -187,30 +248,18 @@ public interface PixelSplitter extends Cloneable {
 		@Override
 		public InverseSplitter clone() {
 			InverseSplitter c = new InverseSplitter(f);
-			c.output = output;
-			c.weight = weight;
+			shareTargets(c);
 			return c;
 		}
 
-		/**
-		 * Add values to datasets at given index
-		 * @param index
-		 * @param va value
-		 * @param vb value
-		 */
-		void addToDatasets(final int index, double va, double vb) {
-			output.setAbs(index, output.getAbs(index) + va);
-			weight.setAbs(index, weight.getAbs(index) + vb);
-		}
-
 		@Override
 		public void splitValue(Vector3d dh, int[] pos, double value) {
 			calcWeights(dh.x, dh.y, dh.z);
-			int[] vShape = output.getShapeRef();
+			int[] vShape = getShape();
 			final int lMax = vShape[0];
 			final int mMax = vShape[1];
 			final int nMax = vShape[2];
-			final int idx = output.get1DIndex(pos);
+			final int idx = get1DIndex(pos);
 
 			double w;
 
@@ -288,8 +337,7 @@ public interface PixelSplitter extends Cloneable {
 		@Override
 		public ExponentialSplitter clone() {
 			ExponentialSplitter c = new ExponentialSplitter(1);
-			c.output = output;
-			c.weight = weight;
+			shareTargets(c);
 			c.f = f;
 			return c;
 		}
@@ -311,8 +359,7 @@ public interface PixelSplitter extends Cloneable {
 		@Override
 		public GaussianSplitter clone() {
 			GaussianSplitter c = new GaussianSplitter(1);
-			c.output = output;
-			c.weight = weight;
+			shareTargets(c);
 			c.f = f;
 			return c;
 		}
@@ -376,29 +423,17 @@ public interface PixelSplitter extends Cloneable {
 		@Override
 		public InverseSplitter2D clone() {
 			InverseSplitter2D c = new InverseSplitter2D(f);
-			c.output = output;
-			c.weight = weight;
+			shareTargets(c);
 			return c;
 		}
 
-		/**
-		 * Add values to datasets at given index
-		 * @param index
-		 * @param va value
-		 * @param vb value
-		 */
-		void addToDatasets(final int index, double va, double vb) {
-			output.setAbs(index, output.getAbs(index) + va);
-			weight.setAbs(index, weight.getAbs(index) + vb);
-		}
-
 		@Override
 		public void splitValue(Vector3d dh, int[] pos, double value) {
 			calcWeights2D(dh.x, dh.y, dh.z);
-			int[] vShape = output.getShapeRef();
+			int[] vShape = getShape();
 			final int lMax = vShape[0];
 			final int mMax = vShape[1];
-			final int idx = output.get1DIndex(pos);
+			final int idx = get1DIndex(pos);
 
 			double w;
 
@@ -444,8 +479,7 @@ public interface PixelSplitter extends Cloneable {
 		@Override
 		public ExponentialSplitter2D clone() {
 			ExponentialSplitter2D c = new ExponentialSplitter2D(1);
-			c.output = output;
-			c.weight = weight;
+			shareTargets(c);
 			c.f = f;
 			return c;
 		}
@@ -467,8 +501,7 @@ public interface PixelSplitter extends Cloneable {
 		@Override
 		public GaussianSplitter2D clone() {
 			GaussianSplitter2D c = new GaussianSplitter2D(1);
-			c.output = output;
-			c.weight = weight;
+			shareTargets(c);
 			c.f = f;
 			return c;
 		}
@@ -530,28 +563,16 @@ public interface PixelSplitter extends Cloneable {
 		@Override
 		public InverseSplitter1D clone() {
 			InverseSplitter1D c = new InverseSplitter1D(f);
-			c.output = output;
-			c.weight = weight;
+			shareTargets(c);
 			return c;
 		}
 
-		/**
-		 * Add values to datasets at given index
-		 * @param index
-		 * @param va value
-		 * @param vb value
-		 */
-		void addToDatasets(final int index, double va, double vb) {
-			output.setAbs(index, output.getAbs(index) + va);
-			weight.setAbs(index, weight.getAbs(index) + vb);
-		}
-
 		@Override
 		public void splitValue(Vector3d dh, int[] pos, double value) {
 			calcWeights1D(dh.x, dh.y, dh.z);
-			int[] vShape = output.getShapeRef();
+			int[] vShape = getShape();
 			final int lMax = vShape[0];
-			final int idx = output.get1DIndex(pos);
+			final int idx = get1DIndex(pos);
 
 			int i = idx;
 			addToDatasets(i, weight0 * value, weight0);
@@ -576,8 +597,7 @@ public interface PixelSplitter extends Cloneable {
 		@Override
 		public ExponentialSplitter1D clone() {
 			ExponentialSplitter1D c = new ExponentialSplitter1D(1);
-			c.output = output;
-			c.weight = weight;
+			shareTargets(c);
 			c.f = f;
 			return c;
 		}
@@ -601,8 +621,7 @@ public interface PixelSplitter extends Cloneable {
 		@Override
 		public GaussianSplitter1D clone() {
 			GaussianSplitter1D c = new GaussianSplitter1D(1);
-			c.output = output;
-			c.weight = weight;
+			shareTargets(c);
 			c.f = f;
 			return c;
 		}
@@ -9,23 +9,68 @@
 
 package uk.ac.diamond.scisoft.analysis.diffraction.powder;
 
+import java.io.IOException;
 import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HexFormat;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.eclipse.dawnsci.analysis.api.diffraction.DetectorProperties;
 import org.eclipse.dawnsci.analysis.api.diffraction.DiffractionCrystalEnvironment;
 import org.eclipse.dawnsci.analysis.api.metadata.IDiffractionMetadata;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetFactory;
+import org.eclipse.january.dataset.DoubleDataset;
+import org.eclipse.january.dataset.IndexIterator;
+import org.eclipse.january.dataset.ShapeUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import uk.ac.diamond.scisoft.analysis.roi.XAxis;
 
+/**
+ * Cache of coordinate arrays calculated from diffraction geometry.
+ * <p>
+ * Arrays are held in memory by weak references. If a directory is set, with {@link #setDirectory(Path)}
+ * or the system property {@value #CACHE_DIRECTORY}, arrays are also written to files named by a hash
+ * of everything used to calculate them so that other processes using the same calibration can
+ * memory-map them instead of recalculating.
+ */
 public class DiffractionCoordinateCache {
 	
+	private static final Logger logger = LoggerFactory.getLogger(DiffractionCoordinateCache.class);
+	
+	/**
+	 * System property for directory of on-disk cache
+	 */
+	public static final String CACHE_DIRECTORY = "uk.ac.diamond.scisoft.analysis.diffraction.powder.cachedir";
+	
+	private static final int MAGIC = 0x44434331; // DCC1
+	private static final int VERSION = 1; // change when calculation of any array changes
+	private static final String SUFFIX = ".dcc";
+	private static final int BUFFER_SIZE = 1 << 20;
+	
 	private static final Map<DiffractionCoordiateCacheKey, WeakReference<Object>> CACHE = Collections.synchronizedMap(new LinkedHashMap<>(6));
 	
 	private static final DiffractionCoordinateCache instance = new DiffractionCoordinateCache();
-	private boolean disabled = false;
+	private volatile boolean disabled = false;
+	private volatile Path directory = initialDirectory();
 	
 	private DiffractionCoordinateCache() {
 		
@@ -113,6 +158,161 @@ public class DiffractionCoordinateCache {
 		
 	}
 
+	private static Path initialDirectory() {
+		String dir = System.getProperty(CACHE_DIRECTORY);
+		return dir == null || dir.isEmpty() ? null : Paths.get(dir);
+	}
+
+	/**
+	 * @return directory of on-disk cache, can be null
+	 */
+	public Path getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * @param directory of on-disk cache (created if necessary) or null to not use disk
+	 */
+	public void setDirectory(Path directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Create key for on-disk cache
+	 * @param parts everything which determines the values of the arrays
+	 * @return hash as hexadecimal string
+	 */
+	static String createKey(Object... parts) {
+		try {
+			MessageDigest md = MessageDigest.getInstance("SHA-256");
+			md.update(Arrays.deepToString(new Object[] {VERSION, parts}).getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(md.digest());
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Create key for on-disk cache of arrays calculated from diffraction geometry
+	 * @param type of arrays
+	 * @param dp
+	 * @param wavelength
+	 * @param shape
+	 * @param parts other arguments of calculation
+	 * @return key
+	 */
+	static String createKey(String type, DetectorProperties dp, double wavelength, int[] shape, Object... parts) {
+		return createKey(type, dp.getOrigin(), dp.getOrientation(), dp.getBeamVector(), dp.getPx(), dp.getPy(),
+				dp.getHPxSize(), dp.getVPxSize(), wavelength, shape, parts);
+	}
+
+	/**
+	 * Load arrays from on-disk cache
+	 * @param key
+	 * @param shape of each array
+	 * @return arrays or null if not cached
+	 */
+	Dataset[] getFromDisk(String key, int[] shape) {
+		Path dir = directory;
+		if (disabled || dir == null) return null;
+		
+		Path file = dir.resolve(key + SUFFIX);
+		if (!Files.isRegularFile(file)) return null;
+
+		try (FileChannel fc = FileChannel.open(file, StandardOpenOption.READ)) {
+			MappedByteBuffer mb = fc.map(MapMode.READ_ONLY, 0, fc.size());
+			mb.order(ByteOrder.LITTLE_ENDIAN);
+			if (mb.getInt() != MAGIC) return null;
+			int n = mb.getInt();
+			int rank = mb.getInt();
+			int[] fShape = new int[rank];
+			for (int i = 0; i < rank; i++) {
+				fShape[i] = mb.getInt();
+			}
+			if (!Arrays.equals(shape, fShape)) return null;
+
+			int size = ShapeUtils.calcSize(fShape);
+			mb.position(headerBytes(rank));
+			if (mb.remaining() != (long) n * size * Double.BYTES) return null;
+
+			DoubleBuffer db = mb.asDoubleBuffer();
+			Dataset[] arrays = new Dataset[n];
+			for (int i = 0; i < n; i++) {
+				double[] data = new double[size];
+				db.get(data);
+				arrays[i] = DatasetFactory.createFromObject(DoubleDataset.class, data, fShape);
+			}
+			logger.debug("Coords loaded from {}", file);
+			return arrays;
+		} catch (IOException | RuntimeException e) {
+			logger.warn("Could not read coordinate cache file {}", file, e);
+		}
+		return null;
+	}
+
+	/**
+	 * Save arrays to on-disk cache
+	 * @param key
+	 * @param arrays of the same shape
+	 */
+	void putOnDisk(String key, Dataset[] arrays) {
+		Path dir = directory;
+		if (disabled || dir == null) return;
+
+		Path tmp = null;
+		try {
+			Files.createDirectories(dir);
+			Path file = dir.resolve(key + SUFFIX);
+			tmp = Files.createTempFile(dir, key, ".tmp");
+			int[] shape = arrays[0].getShape();
+			try (FileChannel fc = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+				ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+				buffer.putInt(MAGIC).putInt(arrays.length).putInt(shape.length);
+				for (int s : shape) {
+					buffer.putInt(s);
+				}
+				buffer.position(headerBytes(shape.length));
+				for (Dataset a : arrays) {
+					IndexIterator it = a.getIterator();
+					while (it.hasNext()) {
+						if (!buffer.hasRemaining()) {
+							write(fc, buffer);
+						}
+						buffer.putDouble(a.getElementDoubleAbs(it.index));
+					}
+				}
+				write(fc, buffer);
+			}
+			// other processes only ever see complete files
+			Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+			tmp = null;
+			logger.debug("Coords saved to {}", file);
+		} catch (IOException | RuntimeException e) {
+			logger.warn("Could not write coordinate cache file in {}", dir, e);
+		} finally {
+			if (tmp != null) {
+				try {
+					Files.deleteIfExists(tmp);
+				} catch (IOException e) {
+					// ignore
+				}
+			}
+		}
+	}
+
+	private static int headerBytes(int rank) {
+		int bytes = 3 * Integer.BYTES + rank * Integer.BYTES;
+		return (bytes + Double.BYTES - 1) & -Double.BYTES; // align data
+	}
+
+	private static void write(FileChannel fc, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			fc.write(buffer);
+		}
+		buffer.clear();
+	}
+
 	public boolean isDisabled() {
 		return disabled;
 	}
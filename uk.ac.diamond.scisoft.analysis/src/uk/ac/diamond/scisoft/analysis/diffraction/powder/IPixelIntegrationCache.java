@@ -10,6 +10,7 @@
 package uk.ac.diamond.scisoft.analysis.diffraction.powder;
 
 import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.IDataset;
 
 public interface IPixelIntegrationCache {
 
@@ -45,4 +46,12 @@ public interface IPixelIntegrationCache {
 	
 	boolean provideLookup();
 	
+	/**
+	 * @param mask can be null
+	 * @return sparse lookup for pixel splitting integration with given mask or null to integrate directly
+	 */
+	default SparseBinLookup getLookup(IDataset mask) {
+		return null;
+	}
+	
 }
@@ -26,6 +26,11 @@ public class PixelIntegration {
 
 	public static List<Dataset> integrate(IDataset data, IDataset mask, IPixelIntegrationCache bean) {
 		
+		if (bean.isPixelSplitting()) {
+			SparseBinLookup lookup = bean.getLookup(mask);
+			if (lookup != null && lookup.isValidShape(data)) return pixelSplittingLookup(data, lookup, bean);
+		}
+		
 		if (bean.isTo1D()) {
 			if (bean.isPixelSplitting()) return pixelSplitting1D(data, mask, bean);
 			return nonPixelSplitting1D(data, mask, bean);
@@ -241,6 +246,29 @@ public class PixelIntegration {
 		return result;
 	}
 	
+	private static List<Dataset> pixelSplittingLookup(IDataset data, SparseBinLookup lookup, IPixelIntegrationCache bean) {
+		
+		List<Dataset> result = new ArrayList<Dataset>();
+		
+		Dataset d = DatasetUtils.convertToDataset(data);
+		boolean is2d = !bean.isTo1D();
+		int[] shape = is2d ? new int[] {bean.getNumberOfBinsYAxis(), bean.getNumberOfBinsXAxis()} :
+			new int[] {bean.getNumberOfBinsXAxis()};
+		
+		DoubleDataset histo = DatasetFactory.zeros(DoubleDataset.class, shape);
+		DoubleDataset intensity = DatasetFactory.zeros(DoubleDataset.class, shape);
+		// errors are only propagated for 1D
+		double[] eb = !is2d && d.getErrors() != null ? new double[intensity.getSize()] : null;
+		
+		lookup.integrate(d, histo.getData(), intensity.getData(), eb);
+		
+		if (eb != null) intensity.setErrorBuffer(eb);
+		
+		processAndAddToResult(intensity, histo, result, bean, is2d);
+		
+		return result;
+	}
+	
 	private static List<Dataset> nonPixelSplitting2D(IDataset data, IDataset mask, IPixelIntegrationCache bean) {
 
 		List<Dataset> result = new ArrayList<Dataset>();
@@ -26,6 +26,7 @@ public class PixelIntegrationBean {
 	private XAxis xAxis = XAxis.Q;
 	private int[] shape = null;
 	private boolean sanitise = true;
+	private boolean useSparseLookup = false;
 	
 	public int getNumberOfBinsAzimuthal() {
 		return nBinsAzimuthal;
@@ -75,6 +76,18 @@ public class PixelIntegrationBean {
 		this.usePixelSplitting = usePixelSplitting;
 	}
 
+	public boolean isUseSparseLookup() {
+		return useSparseLookup;
+	}
+
+	/**
+	 * @param useSparseLookup if true, pixel splitting integration uses a sparse lookup built once
+	 * for the geometry and mask instead of recalculating bins for every frame
+	 */
+	public void setUseSparseLookup(boolean useSparseLookup) {
+		this.useSparseLookup = useSparseLookup;
+	}
+
 	public boolean isLog() {
 		return isLog;
 	}
@@ -145,6 +158,7 @@ public class PixelIntegrationBean {
 		bean.to1D = to1D;
 		bean.azimuthalIntegration = azimuthalIntegration;
 		bean.usePixelSplitting = usePixelSplitting;
+		bean.useSparseLookup = useSparseLookup;
 		bean.isLog = isLog;
 		bean.azimuthalRange = azimuthalRange != null ? azimuthalRange.clone() : null;
 		bean.radialRange = radialRange != null ? radialRange.clone() : null;
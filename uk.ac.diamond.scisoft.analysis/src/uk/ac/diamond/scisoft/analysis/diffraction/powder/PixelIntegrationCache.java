@@ -15,6 +15,7 @@ import org.eclipse.january.MetadataException;
 import org.eclipse.january.dataset.Dataset;
 import org.eclipse.january.dataset.DatasetFactory;
 import org.eclipse.january.dataset.DoubleDataset;
+import org.eclipse.january.dataset.IDataset;
 import org.eclipse.january.dataset.IndexIterator;
 import org.eclipse.january.dataset.Maths;
 import org.eclipse.january.metadata.MetadataFactory;
@@ -44,6 +45,8 @@ public class PixelIntegrationCache implements IPixelIntegrationCache {
 	
 	QSpace qSpace = null;
 	
+	private volatile SparseBinLookup lookup = null;
+	
 	
 	public PixelIntegrationCache(IDiffractionMetadata metadata, PixelIntegrationBean bean) {
 		this.qSpace = new QSpace(metadata.getDetector2DProperties(), 
@@ -377,6 +380,23 @@ public class PixelIntegrationCache implements IPixelIntegrationCache {
 		return false;
 	}
 	
+	@Override
+	public SparseBinLookup getLookup(IDataset mask) {
+		if (!bean.isUsePixelSplitting() || !bean.isUseSparseLookup()) return null;
+		
+		SparseBinLookup l = lookup;
+		if (l != null && l.isValidFor(mask)) return l;
+		
+		synchronized (this) {
+			l = lookup;
+			if (l == null || !l.isValidFor(mask)) {
+				l = SparseBinLookup.create(this, mask);
+				lookup = l;
+			}
+		}
+		return l;
+	}
+	
 	private void setUpPixelSplitting() {
 		
 		
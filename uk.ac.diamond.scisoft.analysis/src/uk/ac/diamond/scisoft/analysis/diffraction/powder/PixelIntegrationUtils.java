@@ -10,6 +10,7 @@
 package uk.ac.diamond.scisoft.analysis.diffraction.powder;
 
 import java.util.Arrays;
+import java.util.function.Supplier;
 
 import javax.vecmath.Vector3d;
 
@@ -70,6 +71,11 @@ public class PixelIntegrationUtils {
 	}
 	
 	public static Dataset generateAzimuthalArray(double[] beamCentre, int[] shape, boolean radians) {
+		return getFromDiskCache(() -> new Dataset[] {calculateAzimuthalArray(beamCentre, shape, radians)},
+				shape, "azimuthal", beamCentre, true, radians)[0];
+	}
+	
+	private static Dataset calculateAzimuthalArray(double[] beamCentre, int[] shape, boolean radians) {
 		
 		Dataset out = DatasetFactory.zeros(shape);
 		PositionIterator iter = out.getPositionIterator();
@@ -87,6 +93,11 @@ public class PixelIntegrationUtils {
 	}
 	
 	public static Dataset generateAzimuthalArray(double[] beamCentre, int[] shape, double min) {
+		return getFromDiskCache(() -> new Dataset[] {calculateAzimuthalArray(beamCentre, shape, min)},
+				shape, "azimuthal", beamCentre, true, min)[0];
+	}
+	
+	private static Dataset calculateAzimuthalArray(double[] beamCentre, int[] shape, double min) {
 		//Number of circles
 		int n = (int)Math.floor((min+180)/360);
 		double minInBase = (min - (360*n));
@@ -108,6 +119,11 @@ public class PixelIntegrationUtils {
 	}
 	
 	public static Dataset[] generateMinMaxAzimuthalArray(double[] beamCentre, int[] shape, double min) {
+		return getFromDiskCache(() -> calculateMinMaxAzimuthalArray(beamCentre, shape, min),
+				shape, "azimuthal", beamCentre, false, min);
+	}
+	
+	private static Dataset[] calculateMinMaxAzimuthalArray(double[] beamCentre, int[] shape, double min) {
 		//Number of circles
 		int n = (int)Math.floor((min+180)/360);
 		double minInBase = (min - (360*n));
@@ -160,6 +176,11 @@ public class PixelIntegrationUtils {
 	}
 	
 	public static Dataset[] generateMinMaxAzimuthalArray(double[] beamCentre, int[] shape, boolean radians) {
+		return getFromDiskCache(() -> calculateMinMaxAzimuthalArray(beamCentre, shape, radians),
+				shape, "azimuthal", beamCentre, false, radians);
+	}
+	
+	private static Dataset[] calculateMinMaxAzimuthalArray(double[] beamCentre, int[] shape, boolean radians) {
 		
 		Dataset aMax = DatasetFactory.zeros(shape);
 		Dataset aMin = DatasetFactory.zeros(shape);
@@ -208,7 +229,7 @@ public class PixelIntegrationUtils {
 		
 		if (qSpace == null) return null;
 		
-		Dataset[] cached = getFromCache(qSpace, xAxis, false, false);
+		Dataset[] cached = getFromCache(qSpace, shape, xAxis, false, false);
 		
 		if (cached != null) {
 			logger.info("Coords from cache");
@@ -271,7 +292,7 @@ public class PixelIntegrationUtils {
 		
 		Dataset[] output = new Dataset[]{radialArrayMin,radialArrayMax};
 		
-		putInCache(qSpace, xAxis, false, false, output);
+		putInCache(qSpace, shape, xAxis, false, false, output);
 		
 		return output;
 	}
@@ -286,7 +307,7 @@ public class PixelIntegrationUtils {
 		
 		if (qSpace == null) return null;
 	
-		Dataset[] cached = getFromCache(qSpace, xAxis, true, radians);
+		Dataset[] cached = getFromCache(qSpace, shape, xAxis, true, radians);
 		
 		if (cached != null) {
 			logger.info("Coords from cache");
@@ -333,38 +354,60 @@ public class PixelIntegrationUtils {
 			ra.setItem(value, pos);
 		}
 		
-		putInCache(qSpace, xAxis, true, radians, new Dataset[]{ra});
+		putInCache(qSpace, shape, xAxis, true, radians, new Dataset[]{ra});
 		
 		System.out.println(System.currentTimeMillis()-t);
 		
 		return ra;
 	}
 	
-	private static Dataset[] getFromCache(QSpace q, XAxis axis, boolean centre, boolean radians) {
+	private static Dataset[] getFromCache(QSpace q, int[] shape, XAxis axis, boolean centre, boolean radians) {
 		DiffractionCoordinateCache cacheInstance = DiffractionCoordinateCache.getInstance();
 		DiffractionMetadata md = new DiffractionMetadata("", q.getDetectorProperties(), new DiffractionCrystalEnvironment(q.getWavelength()));
 		Object object = cacheInstance.get(md, axis, centre, radians);
 		
-		if (object == null) return null;
-		
-		try {
-			if (centre) {
-				return new Dataset[]{(Dataset)object};
+		if (object != null) {
+			try {
+				Dataset[] cached = centre ? new Dataset[]{(Dataset)object} : (Dataset[])object;
+				if (Arrays.equals(shape, cached[0].getShape())) return cached;
+			} catch (Exception e) {
+				logger.error("Bad object in the cache");
 			}
-				
-			return (Dataset[])object;
-			
-		} catch (Exception e) {
-			logger.error("Bad object in the cache");
 		}
 		
-		return null;
+		Dataset[] cached = cacheInstance.getFromDisk(createRadialKey(q, shape, axis, centre, radians), shape);
+		if (cached != null) {
+			cacheInstance.put(md, axis, centre, radians, centre ? cached[0] : cached);
+		}
+		
+		return cached;
 	}
 	
-	private static void putInCache(QSpace q, XAxis axis, boolean centre, boolean radians, Dataset[] object) {
+	private static void putInCache(QSpace q, int[] shape, XAxis axis, boolean centre, boolean radians, Dataset[] object) {
 		DiffractionCoordinateCache cacheInstance = DiffractionCoordinateCache.getInstance();
 		DiffractionMetadata md = new DiffractionMetadata("", q.getDetectorProperties(), new DiffractionCrystalEnvironment(q.getWavelength()));
 		cacheInstance.put(md, axis, centre, radians, centre ? object[0] : object);
+		cacheInstance.putOnDisk(createRadialKey(q, shape, axis, centre, radians), object);
+	}
+	
+	private static String createRadialKey(QSpace q, int[] shape, XAxis axis, boolean centre, boolean radians) {
+		return DiffractionCoordinateCache.createKey("radial", q.getDetectorProperties(), q.getWavelength(), shape, axis, centre, radians);
+	}
+	
+	/**
+	 * Load arrays from on-disk cache, otherwise calculate and save them
+	 */
+	private static Dataset[] getFromDiskCache(Supplier<Dataset[]> calculator, int[] shape, Object... parts) {
+		DiffractionCoordinateCache cacheInstance = DiffractionCoordinateCache.getInstance();
+		if (cacheInstance.isDisabled() || cacheInstance.getDirectory() == null) return calculator.get();
+		
+		String key = DiffractionCoordinateCache.createKey(shape, parts);
+		Dataset[] arrays = cacheInstance.getFromDisk(key, shape);
+		if (arrays == null) {
+			arrays = calculator.get();
+			cacheInstance.putOnDisk(key, arrays);
+		}
+		return arrays;
 	}
 	
 	public static int[] getShape(IDiffractionMetadata metadata) {
@@ -0,0 +1,385 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.diffraction.powder;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetUtils;
+import org.eclipse.january.dataset.DoubleDataset;
+import org.eclipse.january.dataset.IDataset;
+import org.eclipse.january.dataset.IndexIterator;
+
+/**
+ * Pixel splitting integration held as a sparse matrix in compressed sparse row (CSR) form.
+ * <p>
+ * Each row is an integration bin and holds the indices of the pixels which contribute to it
+ * and their weights. The geometry, ranges and mask are applied once when the lookup is created
+ * so integrating a frame is a sparse matrix-vector product over primitive arrays. Rows are
+ * split into blocks which are integrated in parallel for large lookups.
+ * <p>
+ * The weights and the order of summation within each bin are the same as for
+ * {@link PixelIntegration} so results are identical.
+ */
+public class SparseBinLookup {
+
+	private static final int PARALLEL_THRESHOLD = 1 << 18; // entries
+	private static final int BLOCKS_PER_THREAD = 4;
+
+	private final int[] shape;
+	private final int nBins;
+	private final int[] rowPtr;
+	private final int[] pixels;
+	private final double[] weights;
+	private final int[] blocks;
+	private final Dataset mask;
+
+	private SparseBinLookup(int[] shape, int nBins, Builder builder, Dataset mask) {
+		this.shape = shape;
+		this.nBins = nBins;
+		this.mask = mask == null ? null : mask.clone();
+
+		// counting sort by bin is stable so each row keeps pixels in iteration order
+		int n = builder.size;
+		rowPtr = new int[nBins + 1];
+		for (int i = 0; i < n; i++) {
+			rowPtr[builder.bins[i] + 1]++;
+		}
+		for (int i = 0; i < nBins; i++) {
+			rowPtr[i + 1] += rowPtr[i];
+		}
+		int[] next = Arrays.copyOf(rowPtr, nBins);
+		pixels = new int[n];
+		weights = new double[n];
+		for (int i = 0; i < n; i++) {
+			int k = next[builder.bins[i]]++;
+			pixels[k] = builder.pixels[i];
+			weights[k] = builder.weights[i];
+		}
+		blocks = createBlocks();
+	}
+
+	/**
+	 * Create lookup for pixel splitting integration
+	 * @param bean
+	 * @param mask can be null
+	 * @return lookup or null if the integration cannot use one
+	 */
+	public static SparseBinLookup create(IPixelIntegrationCache bean, IDataset mask) {
+		if (!bean.isPixelSplitting()) {
+			return null;
+		}
+		Dataset m = DatasetUtils.convertToDataset(mask);
+		return bean.isTo1D() ? create1D(bean, m) : create2D(bean, m);
+	}
+
+	private static SparseBinLookup create1D(IPixelIntegrationCache bean, Dataset m) {
+		final int nbins = bean.getNumberOfBinsXAxis();
+		final double lo = bean.getXBinEdgeMin();
+		final double hi = bean.getXBinEdgeMax();
+		final double span = (hi - lo)/nbins;
+
+		Dataset[] a = bean.getXAxisArray();
+		if (span <= 0 || a == null) {
+			return null;
+		}
+
+		double[] integrationRange = bean.getYAxisRange();
+		Dataset[] r = bean.getYAxisArray();
+
+		Builder builder = new Builder(a[0].getSize());
+		IndexIterator iter = a[0].getIterator();
+
+		while (iter.hasNext()) {
+			if (m != null && !m.getElementBooleanAbs(iter.index)) continue;
+
+			double qMin = a[0].getElementDoubleAbs(iter.index);
+			double qMax = a[1].getElementDoubleAbs(iter.index);
+			double rangeScale = 1;
+
+			if (integrationRange != null && r != null) {
+				double rMin = r[0].getElementDoubleAbs(iter.index);
+				double rMax = r[1].getElementDoubleAbs(iter.index);
+
+				if (rMin > integrationRange[1]) continue;
+				if (rMax < integrationRange[0]) continue;
+
+				double fullRange = rMax-rMin;
+
+				rMin = integrationRange[0] > rMin ? integrationRange[0] : rMin;
+				rMax = integrationRange[1] < rMax ? integrationRange[1] : rMax;
+
+				rangeScale = (rMax-rMin)/fullRange;
+			}
+
+			if (qMax < lo || qMin > hi) {
+				continue;
+			}
+
+			double minBinExact = (qMin-lo)/span;
+			double maxBinExact = (qMax-lo)/span;
+
+			int minBin = (int)minBinExact;
+			int maxBin = (int)maxBinExact;
+
+			if (minBin == maxBin) {
+				if (minBin >= 0 && minBin < nbins) {
+					builder.add(iter.index, minBin, rangeScale);
+				}
+			} else {
+				double range = maxBinExact-minBinExact;
+
+				double minFrac = 1-(minBinExact-minBin);
+				double maxFrac = maxBinExact-maxBin;
+
+				for (int i = minBin; i <= maxBin; i++) {
+					if (i >= nbins || i < 0) continue;
+					double modify = rangeScale;
+					if (i == minBin) modify *= minFrac;
+					if (i == maxBin) modify *= maxFrac;
+					modify /= range;
+					builder.add(iter.index, i, modify);
+				}
+			}
+		}
+
+		return new SparseBinLookup(a[0].getShape(), nbins, builder, m);
+	}
+
+	private static SparseBinLookup create2D(IPixelIntegrationCache bean, Dataset m) {
+		final int nXBins = bean.getNumberOfBinsXAxis();
+		final int nYBins = bean.getNumberOfBinsYAxis();
+
+		final double minX = bean.getXBinEdgeMin();
+		final double maxX = bean.getXBinEdgeMax();
+		final double spanX = (maxX - minX)/nXBins;
+
+		final double minY = bean.getYBinEdgeMin();
+		final double maxY = bean.getYBinEdgeMax();
+		final double spanY = (maxY - minY)/nYBins;
+
+		Dataset x0 = bean.getXAxisArray()[0];
+		Dataset x1 = bean.getXAxisArray()[1];
+		Dataset y0 = bean.getYAxisArray()[0];
+		Dataset y1 = bean.getYAxisArray()[1];
+
+		Builder builder = new Builder(4 * x0.getSize());
+		IndexIterator iter = x0.getIterator();
+
+		while (iter.hasNext()) {
+			if (m != null && !m.getElementBooleanAbs(iter.index)) continue;
+
+			double xPixMax = x1.getElementDoubleAbs(iter.index);
+			double xPixMin = x0.getElementDoubleAbs(iter.index);
+			double yPixMax = y1.getElementDoubleAbs(iter.index);
+			double yPixMin = y0.getElementDoubleAbs(iter.index);
+
+			if (xPixMax < minX || xPixMin > maxX) {
+				continue;
+			}
+
+			if (yPixMax < minY || yPixMin > maxY) {
+				continue;
+			}
+
+			double minBinExactX = (xPixMin-minX)/spanX;
+			double maxBinExactX = (xPixMax-minX)/spanX;
+
+			double minBinExactY = (yPixMin-minY)/spanY;
+			double maxBinExactY = (yPixMax-minY)/spanY;
+
+			double partialScale = 1;
+			double iFull = (maxBinExactX-minBinExactX)*(maxBinExactY-minBinExactY);
+
+			//Partial pixel if outside of range
+			minBinExactX = xPixMin < minX ? 0 : minBinExactX;
+			maxBinExactX = xPixMax > maxX ? nXBins : maxBinExactX;
+			minBinExactY = yPixMin < minY ? 0 : minBinExactY;
+			maxBinExactY = yPixMax > maxY ? nYBins : maxBinExactY;
+
+			double iFraction = (maxBinExactX-minBinExactX)*(maxBinExactY-minBinExactY);
+			partialScale *= (iFraction/iFull);
+
+			int minBinX = (int)minBinExactX;
+			int maxBinX= (int)maxBinExactX;
+			int minBinY = (int)minBinExactY;
+			int maxBinY = (int)maxBinExactY;
+
+			double binArea = (maxBinExactX-minBinExactX)*(maxBinExactY-minBinExactY);
+
+			double minFracX = 1-(minBinExactX-minBinX);
+			double maxFracX = maxBinExactX-maxBinX;
+			double minFracY = 1-(minBinExactY-minBinY);
+			double maxFracY = maxBinExactY-maxBinY;
+
+			for (int i = minBinX ; i <= maxBinX; i++) {
+				if (i < 0 || i >= nXBins) continue;
+				for (int j = minBinY; j <= maxBinY; j++) {
+					if (j < 0 || j >= nYBins) continue;
+
+					double modify = partialScale;
+
+					if (i == minBinX && minBinX != maxBinX) modify *= (minFracX);
+					if (i == maxBinX && minBinX != maxBinX) modify *= (maxFracX);
+					if (j == minBinY && minBinY != maxBinY) modify *= (minFracY);
+					if (j == maxBinY && minBinY != maxBinY) modify *= (maxFracY);
+
+					if (j == maxBinY && maxBinY == minBinY) modify*=(maxBinExactY-minBinExactY);
+					if (j == maxBinX && maxBinX == minBinX) modify*=(maxBinExactX-minBinExactX);
+
+					modify /= binArea;
+					builder.add(iter.index, j * nXBins + i, modify);
+				}
+			}
+		}
+
+		return new SparseBinLookup(x0.getShape(), nXBins * nYBins, builder, m);
+	}
+
+	/**
+	 * @param m mask
+	 * @return true if lookup was created with a mask of the same values
+	 */
+	public boolean isValidFor(IDataset m) {
+		if (m == null || mask == null) {
+			return m == mask;
+		}
+		return mask.equals(DatasetUtils.convertToDataset(m));
+	}
+
+	/**
+	 * @param data
+	 * @return true if lookup can integrate data of this shape
+	 */
+	public boolean isValidShape(IDataset data) {
+		return Arrays.equals(shape, data.getShape());
+	}
+
+	/**
+	 * @return number of bins
+	 */
+	public int getNumberOfBins() {
+		return nBins;
+	}
+
+	/**
+	 * @return number of (pixel, bin) pairs
+	 */
+	public int getNumberOfEntries() {
+		return pixels.length;
+	}
+
+	/**
+	 * Integrate data. Non-finite values are ignored
+	 * @param data
+	 * @param histo sum of weights per bin
+	 * @param intensity weighted sum per bin
+	 * @param errors weighted sum of variances per bin, can be null
+	 */
+	public void integrate(Dataset data, double[] histo, double[] intensity, double[] errors) {
+		final double[] d = toDoubleArray(data);
+		Dataset e = errors == null ? null : data.getErrors();
+		final double[] std = e == null ? null : toDoubleArray(e);
+
+		int nBlocks = blocks.length - 1;
+		if (nBlocks == 1) {
+			integrate(0, nBins, d, std, histo, intensity, errors);
+		} else {
+			IntStream.range(0, nBlocks).parallel().forEach(b ->
+				integrate(blocks[b], blocks[b + 1], d, std, histo, intensity, errors));
+		}
+	}
+
+	private void integrate(int startBin, int stopBin, double[] d, double[] std, double[] h, double[] in, double[] eb) {
+		for (int b = startBin; b < stopBin; b++) {
+			double hs = 0;
+			double is = 0;
+			double es = 0;
+			for (int k = rowPtr[b], end = rowPtr[b + 1]; k < end; k++) {
+				final int p = pixels[k];
+				final double sig = d[p];
+				if (!Double.isFinite(sig)) continue;
+				final double w = weights[k];
+				hs += w;
+				is += sig * w;
+				if (std != null) {
+					final double s = std[p] * w;
+					es += s * s;
+				}
+			}
+			h[b] = hs;
+			in[b] = is;
+			if (eb != null && std != null) {
+				eb[b] = es;
+			}
+		}
+	}
+
+	/**
+	 * Split rows into blocks of similar numbers of entries
+	 * @return bin boundaries of blocks
+	 */
+	private int[] createBlocks() {
+		int threads = ForkJoinPool.getCommonPoolParallelism();
+		if (pixels.length < PARALLEL_THRESHOLD || threads < 2) {
+			return new int[] {0, nBins};
+		}
+		int n = threads * BLOCKS_PER_THREAD;
+		long perBlock = (pixels.length + n - 1) / n;
+		int[] bounds = new int[n + 1];
+		int count = 1;
+		for (int b = 1; b < nBins && count < n; b++) {
+			if (rowPtr[b] >= count * perBlock) {
+				bounds[count++] = b;
+			}
+		}
+		bounds[count] = nBins;
+		return Arrays.copyOf(bounds, count + 1);
+	}
+
+	private static double[] toDoubleArray(Dataset d) {
+		if (d instanceof DoubleDataset dd && d.getStrides() == null) {
+			return dd.getData();
+		}
+		return DatasetUtils.copy(DoubleDataset.class, d).getData();
+	}
+
+	/**
+	 * Growable lists of (pixel, bin, weight) in pixel order
+	 */
+	private static class Builder {
+		private int[] pixels;
+		private int[] bins;
+		private double[] weights;
+		private int size;
+
+		Builder(int capacity) {
+			capacity = Math.max(capacity, 16);
+			pixels = new int[capacity];
+			bins = new int[capacity];
+			weights = new double[capacity];
+		}
+
+		void add(int pixel, int bin, double weight) {
+			if (size == pixels.length) {
+				int capacity = size + (size >> 1);
+				pixels = Arrays.copyOf(pixels, capacity);
+				bins = Arrays.copyOf(bins, capacity);
+				weights = Arrays.copyOf(weights, capacity);
+			}
+			pixels[size] = pixel;
+			bins[size] = bin;
+			weights[size] = weight;
+			size++;
+		}
+	}
+}
@@ -0,0 +1,337 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.fitting;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.eclipse.dawnsci.analysis.api.fitting.functions.IFunction;
+import org.eclipse.dawnsci.analysis.api.fitting.functions.IParameter;
+import org.eclipse.january.IMonitor;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetFactory;
+import org.eclipse.january.dataset.DatasetUtils;
+import org.eclipse.january.dataset.DoubleDataset;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.ac.diamond.scisoft.analysis.optimize.ApacheOptimizer;
+import uk.ac.diamond.scisoft.analysis.optimize.ApacheOptimizer.Optimizer;
+
+/**
+ * Fit a model function to every spectrum in a stack, e.g. at each pixel of a map
+ * <p>
+ * The last dimension of the stack holds the spectra and the other (scan) dimensions are
+ * split into rows along their last dimension. When warm starts are used, the first spectrum
+ * of each row is fitted in turn from the parameters found for the previous row. Then the rows
+ * are fitted in parallel with each spectrum starting from the parameters found for its
+ * neighbour. A fit that fails restarts its neighbour from the model's initial parameters.
+ * <p>
+ * Each thread fits with its own copy of the model and results are written into arrays
+ * allocated once for the whole stack.
+ */
+public class BatchFitter {
+	private static final Logger logger = LoggerFactory.getLogger(BatchFitter.class);
+
+	private final IFunction model;
+	private final DoubleDataset[] coords;
+	private Optimizer optimizer = Optimizer.LEVENBERG_MARQUARDT;
+	private ForkJoinPool pool = ForkJoinPool.commonPool();
+	private boolean warmStart = true;
+	private IMonitor monitor;
+
+	/**
+	 * @param model function whose parameters are initial values
+	 * @param coords coordinates of spectra
+	 */
+	public BatchFitter(IFunction model, Dataset... coords) {
+		this.model = model;
+		this.coords = new DoubleDataset[coords.length];
+		for (int i = 0; i < coords.length; i++) {
+			this.coords[i] = DatasetUtils.cast(DoubleDataset.class, coords[i]);
+		}
+	}
+
+	/**
+	 * @param optimizer least-squares optimizer to use (default is Levenberg-Marquardt)
+	 */
+	public void setOptimizer(Optimizer optimizer) {
+		this.optimizer = optimizer;
+	}
+
+	/**
+	 * @param pool fork-join pool to use (default is common pool)
+	 */
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * @param warmStart if true, start fits from neighbours' parameters (default is true)
+	 */
+	public void setWarmStart(boolean warmStart) {
+		this.warmStart = warmStart;
+	}
+
+	/**
+	 * @param monitor can be null
+	 */
+	public void setMonitor(IMonitor monitor) {
+		this.monitor = monitor;
+	}
+
+	/**
+	 * Fitted parameters, their errors and residuals for a stack of spectra
+	 */
+	public static class Result {
+		private final int[] shape;
+		private final int nParams;
+		private final double[] parameters;
+		private final double[] errors;
+		private final double[] residuals;
+		private final AtomicInteger failures = new AtomicInteger();
+
+		private Result(int[] shape, int size, int nParams) {
+			this.shape = shape;
+			this.nParams = nParams;
+			parameters = new double[size * nParams];
+			errors = new double[size * nParams];
+			residuals = new double[size];
+		}
+
+		/**
+		 * @return shape of scan dimensions
+		 */
+		public int[] getShape() {
+			return shape.clone();
+		}
+
+		/**
+		 * @return number of parameters in model
+		 */
+		public int getNoOfParameters() {
+			return nParams;
+		}
+
+		/**
+		 * @return parameter values for each spectrum in turn (NaNs where fit failed)
+		 */
+		public double[] getParameters() {
+			return parameters;
+		}
+
+		/**
+		 * @return parameter errors for each spectrum in turn (zero for fixed parameters or
+		 * when optimizer does not estimate them)
+		 */
+		public double[] getErrors() {
+			return errors;
+		}
+
+		/**
+		 * @return sum of squared residuals for each spectrum
+		 */
+		public double[] getResiduals() {
+			return residuals;
+		}
+
+		/**
+		 * @return number of failed fits
+		 */
+		public int getNoOfFailures() {
+			return failures.get();
+		}
+
+		/**
+		 * @param i index of parameter
+		 * @return map of parameter values over scan dimensions
+		 */
+		public DoubleDataset getParameterMap(int i) {
+			return createMap(parameters, i);
+		}
+
+		/**
+		 * @param i index of parameter
+		 * @return map of parameter errors over scan dimensions
+		 */
+		public DoubleDataset getErrorMap(int i) {
+			return createMap(errors, i);
+		}
+
+		/**
+		 * @return map of residuals over scan dimensions
+		 */
+		public DoubleDataset getResidualMap() {
+			return DatasetFactory.createFromObject(DoubleDataset.class, residuals.clone(), shape);
+		}
+
+		private DoubleDataset createMap(double[] values, int i) {
+			if (i < 0 || i >= nParams) {
+				throw new IllegalArgumentException("Parameter index out of range");
+			}
+			double[] map = new double[residuals.length];
+			for (int s = 0, j = i; s < map.length; s++, j += nParams) {
+				map[s] = values[j];
+			}
+			return DatasetFactory.createFromObject(DoubleDataset.class, map, shape);
+		}
+
+		private boolean isOK(int s) {
+			return !Double.isNaN(parameters[s * nParams]);
+		}
+	}
+
+	private class Worker {
+		private final IFunction function;
+		private final DoubleDataset y;
+
+		Worker(int length) {
+			try {
+				function = model.copy();
+			} catch (Exception e) {
+				throw new IllegalStateException("Could not copy model", e);
+			}
+			y = DatasetFactory.zeros(DoubleDataset.class, length);
+		}
+	}
+
+	/**
+	 * Fit model to all spectra
+	 * @param stack dataset whose last dimension holds spectra
+	 * @return result
+	 * @throws IllegalArgumentException if spectra and coordinates do not match
+	 * @throws InterruptedException if interrupted or monitor is cancelled
+	 */
+	public Result fit(Dataset stack) throws InterruptedException {
+		int rank = stack.getRank();
+		int length = rank == 0 ? 1 : stack.getShapeRef()[rank - 1];
+		if (coords.length == 0 || coords[0].getSize() != length) {
+			throw new IllegalArgumentException("Spectra do not match coordinates");
+		}
+
+		DoubleDataset data = DatasetUtils.cast(DoubleDataset.class, stack);
+		if (data.getStrides() != null) {
+			data = data.clone();
+		}
+		int[] shape = rank == 0 ? new int[0] : Arrays.copyOf(stack.getShapeRef(), rank - 1);
+		int size = data.getSize() / length;
+		int rowLength = shape.length == 0 ? 1 : Math.max(1, shape[shape.length - 1]);
+		int rows = size / rowLength;
+
+		final double[] initial = model.getParameterValues();
+		final Result result = new Result(shape, size, initial.length);
+		if (size == 0) {
+			return result;
+		}
+
+		final DoubleDataset spectra = data;
+		final ThreadLocal<Worker> workers = ThreadLocal.withInitial(() -> new Worker(length));
+
+		if (warmStart) { // fit start of each row from previous
+			Worker w = workers.get();
+			double[] start = initial;
+			for (int r = 0; r < rows; r++) {
+				checkCancelled();
+				int s = r * rowLength;
+				start = fitSpectrum(w, spectra, s, start, result) ? w.function.getParameterValues() : initial;
+			}
+		}
+
+		try {
+			pool.submit(() -> IntStream.range(0, rows).parallel().forEach(r -> {
+				Worker w = workers.get();
+				int s = r * rowLength;
+				int end = s + rowLength;
+				if (warmStart) {
+					s++;
+				}
+				for (; s < end; s++) {
+					if (monitor != null && monitor.isCancelled()) {
+						return;
+					}
+					boolean warm = warmStart && result.isOK(s - 1);
+					fitSpectrum(w, spectra, s, warm ? Arrays.copyOfRange(result.parameters, (s - 1) * initial.length, s * initial.length) : initial, result);
+				}
+			})).get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Could not fit spectra", e.getCause());
+		}
+		checkCancelled();
+
+		if (result.getNoOfFailures() > 0) {
+			logger.warn("Could not fit {} of {} spectra", result.getNoOfFailures(), size);
+		}
+		return result;
+	}
+
+	private void checkCancelled() throws InterruptedException {
+		if (monitor != null && monitor.isCancelled()) {
+			throw new InterruptedException("Batch fitting cancelled");
+		}
+	}
+
+	/**
+	 * Fit spectrum and store result
+	 * @param w worker
+	 * @param spectra
+	 * @param s index of spectrum
+	 * @param start initial parameter values
+	 * @param result
+	 * @return true if fit succeeded
+	 */
+	private boolean fitSpectrum(Worker w, DoubleDataset spectra, int s, double[] start, Result result) {
+		int length = w.y.getSize();
+		System.arraycopy(spectra.getData(), s * length, w.y.getData(), 0, length);
+		w.y.setDirty();
+
+		IFunction f = w.function;
+		f.setParameterValues(start);
+		ApacheOptimizer opt = new ApacheOptimizer(optimizer);
+		int np = result.nParams;
+		int b = s * np;
+		try {
+			opt.optimize(coords, w.y, f);
+			double[] values = f.getParameterValues();
+			for (double v : values) {
+				if (!Double.isFinite(v)) {
+					throw new IllegalArgumentException("Fitted parameters are not finite");
+				}
+			}
+			System.arraycopy(values, 0, result.parameters, b, np);
+			result.residuals[s] = opt.calculateResidual();
+		} catch (Exception e) {
+			logger.debug("Could not fit spectrum {}", s, e);
+			result.failures.incrementAndGet();
+			Arrays.fill(result.parameters, b, b + np, Double.NaN);
+			Arrays.fill(result.errors, b, b + np, Double.NaN);
+			result.residuals[s] = Double.NaN;
+			return false;
+		}
+
+		double[] e = opt.guessParametersErrors();
+		if (e != null) {
+			List<IParameter> free = opt.getParameters();
+			for (int i = 0; i < np; i++) {
+				IParameter p = f.getParameter(i);
+				for (int j = 0; j < free.size(); j++) {
+					if (free.get(j) == p) {
+						result.errors[b + i] = e[j];
+						break;
+					}
+				}
+			}
+		}
+		return true;
+	}
+}
@@ -20,17 +20,21 @@ import org.eclipse.dawnsci.analysis.api.fitting.functions.IOperator;
 import org.eclipse.dawnsci.analysis.api.fitting.functions.IParameter;
 import org.eclipse.january.IMonitor;
 import org.eclipse.january.dataset.Comparisons;
+import org.eclipse.january.dataset.Dataset;
 import org.eclipse.january.dataset.DatasetFactory;
 import org.eclipse.january.dataset.DatasetUtils;
 import org.eclipse.january.dataset.DoubleDataset;
 import org.eclipse.january.dataset.IDataset;
+import org.eclipse.january.dataset.IndexIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Base abstract class for IFunction implementation. At a minimum, getNoOfParamers and fillWithValues() methods need
  * to be added. The fillWithPartialDerivativeValues() and/or calculatePartialDerivativeValues()
- * methods can be overridden if exact derivatives are needed.
+ * methods can be overridden if exact derivatives are needed. Alternatively, override
+ * hasAnalyticPartialDerivatives() and calcValueAndPartialDerivatives() to provide exact derivatives
+ * which are also used to evaluate values and all derivatives in one pass when fitting.
  * 
  * Note, if the implemented function can alter the number of parameters then it should call its
  * parent operator's update parameters method.
@@ -279,13 +283,39 @@ public abstract class AFunction implements IFunction, Serializable {
 	 */
 	@Override
 	public double partialDeriv(IParameter parameter, double... values) {
-		if (indexOfParameter(parameter) < 0) {
+		int i = indexOfParameter(parameter);
+		if (i < 0) {
 			return 0;
 		}
 
+		if (hasAnalyticPartialDerivatives() && !isDuplicated(parameter)) {
+			double[] derivs = new double[getNoOfParameters()];
+			calcValueAndPartialDerivatives(values, derivs);
+			return derivs[i];
+		}
 		return calcNumericalDerivative(A_TOLERANCE, R_TOLERANCE, parameter, values);
 	}
 
+	/**
+	 * Override this and {@link #calcValueAndPartialDerivatives(double[], double[])} to provide exact
+	 * partial derivatives
+	 * @return true if function can calculate its value and all its partial derivatives at once
+	 */
+	protected boolean hasAnalyticPartialDerivatives() {
+		return false;
+	}
+
+	/**
+	 * Calculate value and partial derivatives with respect to all parameters. Implementations
+	 * should update any cached parameters if dirty
+	 * @param values coordinates
+	 * @param derivs array to fill with partial derivatives in order of parameters
+	 * @return value
+	 */
+	protected double calcValueAndPartialDerivatives(double[] values, double[] derivs) {
+		throw new UnsupportedOperationException("Analytic partial derivatives are not supported");
+	}
+
 	/**
 	 * @param param
 	 * @return true if there is more than one occurrence of given parameter in function
@@ -441,9 +471,136 @@ public abstract class AFunction implements IFunction, Serializable {
 	 * @param it
 	 */
 	public void fillWithPartialDerivativeValues(IParameter parameter, DoubleDataset data, CoordinatesIterator it) {
+		int j = indexOfParameter(parameter);
+		if (j >= 0 && hasAnalyticPartialDerivatives() && !isDuplicated(parameter)) {
+			double[] derivs = new double[getNoOfParameters()];
+			it.reset();
+			double[] coords = it.getCoordinates();
+			int i = 0;
+			double[] buffer = data.getData();
+			while (it.hasNext()) {
+				calcValueAndPartialDerivatives(coords, derivs);
+				buffer[i++] = derivs[j];
+			}
+			return;
+		}
+
 		calcNumericalDerivativeDataset(A_TOLERANCE, R_TOLERANCE, parameter, data, it);
 	}
 
+	/**
+	 * Fill dataset with values and Jacobian matrix with partial derivatives. This is used by
+	 * least-squares optimizers
+	 * @param data
+	 * @param params parameters in order of columns
+	 * @param jacobian matrix with a row for each coordinate and a column for each parameter
+	 * @param it
+	 */
+	public void fillWithValuesAndJacobian(DoubleDataset data, List<IParameter> params, double[][] jacobian, CoordinatesIterator it) {
+		data.fill(0);
+		for (double[] row : jacobian) {
+			Arrays.fill(row, 0);
+		}
+		addValuesAndJacobian(data.getData(), params, jacobian, it);
+	}
+
+	/**
+	 * Add values and partial derivatives to given arrays. Functions with analytic partial
+	 * derivatives evaluate these in one pass over the coordinates. Implementations should reset
+	 * the iterator before use
+	 * @param values
+	 * @param params parameters in order of columns
+	 * @param jacobian matrix with a row for each coordinate and a column for each parameter
+	 * @param it
+	 */
+	protected void addValuesAndJacobian(double[] values, List<IParameter> params, double[][] jacobian, CoordinatesIterator it) {
+		int[] columns = hasAnalyticPartialDerivatives() ? findJacobianColumns(params) : null;
+		if (columns != null) {
+			int n = columns.length;
+			double[] derivs = new double[n];
+			it.reset();
+			double[] coords = it.getCoordinates();
+			int i = 0;
+			while (it.hasNext()) {
+				values[i] += calcValueAndPartialDerivatives(coords, derivs);
+				double[] row = jacobian[i++];
+				for (int j = 0; j < n; j++) {
+					int c = columns[j];
+					if (c >= 0) {
+						row[c] += derivs[j];
+					}
+				}
+			}
+			return;
+		}
+
+		DoubleDataset temp = DatasetFactory.zeros(DoubleDataset.class, it.getShape());
+		fillWithValues(temp, it);
+		addToValues(values, temp);
+		for (int c = 0, cmax = params.size(); c < cmax; c++) {
+			IParameter p = params.get(c);
+			if (indexOfParameter(p) >= 0) {
+				fillWithPartialDerivativeValues(p, temp, it);
+				addToColumn(jacobian, c, temp);
+			}
+		}
+	}
+
+	/**
+	 * @param params
+	 * @return columns of parameters in Jacobian (-1 if not found) or null if any parameter is duplicated
+	 */
+	private int[] findJacobianColumns(List<IParameter> params) {
+		int n = getNoOfParameters();
+		int[] columns = new int[n];
+		for (int j = 0; j < n; j++) {
+			IParameter p = getParameter(j);
+			for (int k = 0; k < j; k++) {
+				if (getParameter(k) == p) {
+					return null;
+				}
+			}
+
+			columns[j] = -1;
+			for (int c = 0, cmax = params.size(); c < cmax; c++) {
+				if (params.get(c) == p) {
+					columns[j] = c;
+					break;
+				}
+			}
+		}
+		return columns;
+	}
+
+	/**
+	 * Add dataset to values
+	 * @param values
+	 * @param d
+	 */
+	protected static void addToValues(double[] values, IDataset d) {
+		Dataset v = DatasetUtils.convertToDataset(d);
+		IndexIterator iter = v.getIterator();
+		int i = 0;
+		while (iter.hasNext()) {
+			values[i++] += v.getElementDoubleAbs(iter.index);
+		}
+	}
+
+	/**
+	 * Add dataset to column of Jacobian
+	 * @param jacobian
+	 * @param c column
+	 * @param d
+	 */
+	protected static void addToColumn(double[][] jacobian, int c, IDataset d) {
+		Dataset v = DatasetUtils.convertToDataset(d);
+		IndexIterator iter = v.getIterator();
+		int i = 0;
+		while (iter.hasNext()) {
+			jacobian[i++][c] += v.getElementDoubleAbs(iter.index);
+		}
+	}
+
 	/**
 	 * Calculate partial derivatives up to tolerances
 	 * @param abs
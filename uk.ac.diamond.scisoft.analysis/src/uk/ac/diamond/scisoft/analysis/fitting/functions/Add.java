@@ -10,6 +10,7 @@
 package uk.ac.diamond.scisoft.analysis.fitting.functions;
 
 import java.io.Serializable;
+import java.util.List;
 
 import org.eclipse.dawnsci.analysis.api.fitting.functions.IFunction;
 import org.eclipse.dawnsci.analysis.api.fitting.functions.IOperator;
@@ -137,4 +138,26 @@ public class Add extends ANaryOperator implements IOperator, Serializable {
 			}
 		}
 	}
+
+	@Override
+	protected void addValuesAndJacobian(double[] values, List<IParameter> params, double[][] jacobian, CoordinatesIterator it) {
+		for (int i = 0, imax = getNoOfFunctions(); i < imax; i++) {
+			IFunction f = getFunction(i);
+			if (f == null) {
+				continue;
+			}
+
+			if (f instanceof AFunction) {
+				((AFunction) f).addValuesAndJacobian(values, params, jacobian, it);
+			} else {
+				addToValues(values, f.calculateValues(it.getValues()));
+				for (int c = 0, cmax = params.size(); c < cmax; c++) {
+					IParameter p = params.get(c);
+					if (indexOfParameter(f, p) >= 0) {
+						addToColumn(jacobian, c, f.calculatePartialDerivativeValues(p, it.getValues()));
+					}
+				}
+			}
+		}
+	}
 }
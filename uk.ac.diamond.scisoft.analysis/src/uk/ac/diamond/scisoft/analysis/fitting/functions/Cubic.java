@@ -123,6 +123,24 @@ public class Cubic extends AFunction {
 		}
 	}
 
+	@Override
+	protected boolean hasAnalyticPartialDerivatives() {
+		return true;
+	}
+
+	@Override
+	protected double calcValueAndPartialDerivatives(double[] values, double[] derivs) {
+		if (isDirty())
+			calcCachedParameters();
+
+		double p = values[0];
+		derivs[0] = p * p * p;
+		derivs[1] = p * p;
+		derivs[2] = p;
+		derivs[3] = 1;
+		return a * p * p * p + b * p * p + c * p + d;
+	}
+
 	@Override
 	public double partialDeriv(IParameter parameter, double... position) {
 		if (isDuplicated(parameter))
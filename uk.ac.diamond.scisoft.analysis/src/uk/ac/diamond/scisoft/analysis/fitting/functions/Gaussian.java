@@ -129,6 +129,27 @@ public class Gaussian extends APeak {
 		}
 	}
 	
+	@Override
+	protected boolean hasAnalyticPartialDerivatives() {
+		return true;
+	}
+
+	@Override
+	protected double calcValueAndPartialDerivatives(double[] values, double[] derivs) {
+		if (isDirty()) {
+			calcCachedParameters();
+		}
+
+		final double arg = fr * (values[0] - pos);
+		final double sqarg = arg * arg;
+		final double ex = Math.exp(-sqarg);
+		final double v = height * ex;
+		derivs[POSN] = 2 * v * arg * fr;
+		derivs[FWHM] = fr * v * (2 * sqarg - 1) / CONST_A;
+		derivs[AREA] = CONST_B * fr * ex;
+		return v;
+	}
+
 	@Override
 	public double partialDeriv(IParameter parameter, double... position) {
 		if (isDirty()) {
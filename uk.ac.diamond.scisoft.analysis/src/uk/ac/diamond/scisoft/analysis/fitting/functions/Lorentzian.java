@@ -123,4 +123,23 @@ public class Lorentzian extends APeak {
 			buffer[i++] = height / ( dist * dist + 1);
 		}
 	}
+
+	@Override
+	protected boolean hasAnalyticPartialDerivatives() {
+		return true;
+	}
+
+	@Override
+	protected double calcValueAndPartialDerivatives(double[] values, double[] derivs) {
+		if (isDirty())
+			calcCachedParameters();
+
+		double dist = (values[0] - pos) / halfw;
+		double q = 1 / (dist * dist + 1);
+		double v = height * q;
+		derivs[POSN] = 2 * v * q * dist / halfw;
+		derivs[FWHM] = v * (2 * q * dist * dist - 1) / (2 * halfw);
+		derivs[AREA] = q / (Math.PI * halfw);
+		return v;
+	}
 }
@@ -10,6 +10,7 @@
 package uk.ac.diamond.scisoft.analysis.fitting.functions;
 
 import org.apache.commons.math3.special.Beta;
+import org.apache.commons.math3.special.Gamma;
 import org.eclipse.dawnsci.analysis.api.fitting.functions.IParameter;
 import org.eclipse.january.dataset.DoubleDataset;
 
@@ -34,6 +35,7 @@ public class PearsonVII extends APeak {
 
 	private static final int POWER = AREA + 1;
 	private static final double DEF_POWER = 2;
+	private static final double LN2 = Math.log(2);
 
 	public PearsonVII() {
 		this(PARAMS);
@@ -133,15 +135,22 @@ public class PearsonVII extends APeak {
 		setNames(NAME, DESC, LOCAL_PARAM_NAMES);
 	}
 
-	private transient double pos, halfwp, power;
+	private transient double pos, halfwp, power, scale, norm, dlogHalfwp, dlogBeta;
 
 	@Override
 	protected void calcCachedParameters() {
 		pos = getParameterValue(POSN);
 		power = getParameterValue(POWER);
-		halfwp = 0.5 * getParameterValue(FWHM) / Math.sqrt(Math.pow(2, 1. / power)  - 1);
+		double p = Math.pow(2, 1. / power);
+		scale = 0.5 / Math.sqrt(p - 1);
+		halfwp = scale * getParameterValue(FWHM);
 		double beta = Math.exp(Beta.logBeta(power - 0.5,  0.5));
-		height = getParameterValue(AREA) / (beta * halfwp);
+		norm = 1 / (beta * halfwp);
+		height = getParameterValue(AREA) * norm;
+
+		// derivatives of logarithms with respect to power
+		dlogHalfwp = 0.5 * p * LN2 / (power * power * (p - 1));
+		dlogBeta = Gamma.digamma(power - 0.5) - Gamma.digamma(power);
 
 		setDirty(false);
 	}
@@ -171,4 +180,27 @@ public class PearsonVII extends APeak {
 			buffer[i++] = height / Math.pow((1.0 + arg * arg), power);
 		}
 	}
+
+	@Override
+	protected boolean hasAnalyticPartialDerivatives() {
+		return true;
+	}
+
+	@Override
+	protected double calcValueAndPartialDerivatives(double[] values, double[] derivs) {
+		if (isDirty())
+			calcCachedParameters();
+
+		double arg = (values[0] - pos) / halfwp;
+		double u = 1.0 + arg * arg;
+		double e = Math.pow(u, -power);
+		double v = height * e;
+		double t = 2 * power * arg * arg / u;
+
+		derivs[POSN] = 2 * v * power * arg / (u * halfwp);
+		derivs[FWHM] = v * scale * (t - 1) / halfwp;
+		derivs[AREA] = norm * e;
+		derivs[POWER] = v * (dlogHalfwp * (t - 1) - dlogBeta - Math.log(u));
+		return v;
+	}
 }
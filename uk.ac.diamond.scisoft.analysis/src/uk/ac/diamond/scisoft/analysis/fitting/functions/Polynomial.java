@@ -162,6 +162,31 @@ public class Polynomial extends AFunction {
 		}
 	}
 
+	@Override
+	protected boolean hasAnalyticPartialDerivatives() {
+		return true;
+	}
+
+	@Override
+	protected double calcValueAndPartialDerivatives(double[] values, double[] derivs) {
+		if (isDirty()) {
+			calcCachedParameters();
+		}
+
+		final double p = values[0];
+		double v = a[0];
+		for (int j = 1; j < nparams; j++) {
+			v = v * p + a[j];
+		}
+
+		double d = 1;
+		for (int j = nparams - 1; j >= 0; j--) {
+			derivs[j] = d;
+			d *= p;
+		}
+		return v;
+	}
+
 	@Override
 	public double partialDeriv(IParameter parameter, double... position) {
 		if (isDuplicated(parameter))
@@ -166,7 +166,7 @@ public class PseudoVoigt extends APeak {
 	private static final double CONST_A = Math.sqrt(Math.log(2.));
 	private static final double CONST_B = Math.sqrt(Math.PI / Math.log(2.));
 
-	private transient double pos, halfwg, halfwl, mixing;
+	private transient double pos, halfwg, halfwl, mixing, norm;
 
 	@Override
 	protected void calcCachedParameters() {
@@ -175,8 +175,8 @@ public class PseudoVoigt extends APeak {
 		halfwg = getParameterValue(FWHMG) / 2.0;
 		mixing = getParameter(MIX).getValue();
 
-		height = getParameterValue(AREA) / (halfwl * Math.PI * mixing +
-				halfwg * CONST_B * (1 - mixing));
+		norm = 1 / (halfwl * Math.PI * mixing + halfwg * CONST_B * (1 - mixing));
+		height = getParameterValue(AREA) * norm;
 
 		setDirty(false);
 	}
@@ -219,6 +219,36 @@ public class PseudoVoigt extends APeak {
 		}
 	}
 
+	@Override
+	protected boolean hasAnalyticPartialDerivatives() {
+		return true;
+	}
+
+	@Override
+	protected double calcValueAndPartialDerivatives(double[] values, double[] derivs) {
+		if (isDirty())
+			calcCachedParameters();
+
+		double delta = values[0] - pos;
+		// Lorentzian part
+		double dist = delta / halfwl;
+		double l = 1 / (dist * dist + 1);
+		// Gaussian part
+		double arg = CONST_A * delta / halfwg;
+		double g = Math.exp(- arg * arg);
+		double ex = mixing * l + (1 - mixing) * g;
+		double v = height * ex;
+
+		double ll = mixing * l * l;
+		double mg = (1 - mixing) * g;
+		derivs[POSN] = 2 * height * (ll * dist / halfwl + mg * arg * CONST_A / halfwg);
+		derivs[FWHM] = height * (ll * dist * dist / halfwl - 0.5 * Math.PI * mixing * ex * norm);
+		derivs[AREA] = ex * norm;
+		derivs[FWHMG] = height * (mg * arg * arg / halfwg - 0.5 * CONST_B * (1 - mixing) * ex * norm);
+		derivs[MIX] = height * (l - g - (halfwl * Math.PI - halfwg * CONST_B) * ex * norm);
+		return v;
+	}
+
 	@Override
 	public double getFWHM() {
 		if (isDirty())
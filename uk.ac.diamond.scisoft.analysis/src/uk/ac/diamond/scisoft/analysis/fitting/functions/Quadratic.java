@@ -125,6 +125,23 @@ public class Quadratic extends AFunction {
 		}
 	}
 
+	@Override
+	protected boolean hasAnalyticPartialDerivatives() {
+		return true;
+	}
+
+	@Override
+	protected double calcValueAndPartialDerivatives(double[] values, double[] derivs) {
+		if (isDirty())
+			calcCachedParameters();
+
+		double p = values[0];
+		derivs[0] = p * p;
+		derivs[1] = p;
+		derivs[2] = 1;
+		return a * p * p + b * p + c;
+	}
+
 	@Override
 	public double partialDeriv(IParameter parameter, double... position) {
 		if (isDuplicated(parameter))
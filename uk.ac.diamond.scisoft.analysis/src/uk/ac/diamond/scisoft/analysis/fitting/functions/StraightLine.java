@@ -107,6 +107,22 @@ public class StraightLine extends AFunction {
 		}
 	}
 
+	@Override
+	protected boolean hasAnalyticPartialDerivatives() {
+		return true;
+	}
+
+	@Override
+	protected double calcValueAndPartialDerivatives(double[] values, double[] derivs) {
+		if (isDirty())
+			calcCachedParameters();
+
+		double p = values[0];
+		derivs[0] = p;
+		derivs[1] = 1;
+		return a * p + b;
+	}
+
 	@Override
 	public double partialDeriv(IParameter parameter, double... position) {
 		if (isDuplicated(parameter))
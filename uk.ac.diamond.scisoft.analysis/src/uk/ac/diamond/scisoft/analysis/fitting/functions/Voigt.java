@@ -131,7 +131,7 @@ public class Voigt extends APeak {
 
 	private static final double CONST = Math.sqrt(8 * Math.log(2.));
 
-	private transient double r, ft, fr, zi;
+	private transient double r, ft, fr, zi, gw;
 
 	@Override
 	protected void calcCachedParameters() {
@@ -141,6 +141,7 @@ public class Voigt extends APeak {
 		if (sigma < 5 * Double.MIN_NORMAL) { // fix Lorentzian limit
 			sigma = 10 * Double.MIN_NORMAL;
 		}
+		gw = sigma * CONST;
 		fr = Math.sqrt(0.5) / sigma;
 		zi = fr * l;
 		ft = fr * getParameterValue(AREA) / Math.sqrt(Math.PI);
@@ -178,4 +179,33 @@ public class Voigt extends APeak {
 			buffer[i++] = ft * w.getReal();
 		}
 	}
+
+	private static final double TWO_OVER_ROOT_PI = 2 / Math.sqrt(Math.PI);
+
+	@Override
+	protected boolean hasAnalyticPartialDerivatives() {
+		return true;
+	}
+
+	@Override
+	protected double calcValueAndPartialDerivatives(double[] values, double[] derivs) {
+		if (isDirty()) {
+			calcCachedParameters();
+		}
+
+		double zr = fr * (values[0] - r);
+		Complex w = Faddeeva.w(new Complex(zr, zi), 0);
+		double wr = w.getReal();
+		double wi = w.getImaginary();
+		// w'(z) = -2 z w(z) + 2i/sqrt(pi)
+		double dr = -2 * (zr * wr - zi * wi);
+		double di = -2 * (zr * wi + zi * wr) + TWO_OVER_ROOT_PI;
+
+		double v = ft * wr;
+		derivs[POSN] = -ft * fr * dr;
+		derivs[FWHM] = -0.5 * ft * fr * di;
+		derivs[AREA] = fr * wr / Math.sqrt(Math.PI);
+		derivs[FWHMG] = -ft * (wr + zr * dr - zi * di) / gw;
+		return v;
+	}
 }
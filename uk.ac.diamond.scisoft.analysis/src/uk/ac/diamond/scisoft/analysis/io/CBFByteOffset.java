@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.analysis.io;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import org.eclipse.january.dataset.DatasetFactory;
+import org.eclipse.january.dataset.IntegerDataset;
+
+/**
+ * Pure Java reader of mini-CBF images (as written by Pilatus and Eiger detectors) whose binary
+ * section is compressed with the byte-offset scheme.
+ * <p>
+ * Byte-offset compression stores the difference of each value from the previous one as a
+ * signed byte, or as the escape byte 0x80 followed by a little-endian short, or then the escape
+ * short 0x8000 followed by an int, or then the escape int 0x80000000 followed by a long. Large
+ * images are decompressed in parallel by first scanning for where segments of the stream start
+ * and then decoding each segment relative to its first value before adding the running total
+ * of the previous segments. Decoding is bounded by the size of the binary section given in its
+ * MIME header so a corrupt or truncated stream is not read into the padding after it.
+ * <p>
+ * Only images without array structure or frame categories in their CIF header are read so that
+ * their orientation matches that given by {@link CBFLoader}.
+ */
+public class CBFByteOffset {
+
+	/**
+	 * System property to disable reading with this class in {@link CBFLoader} and
+	 * {@link ImageStackLoader} (true by default)
+	 */
+	public static final String JAVA_DECODER = "uk.ac.diamond.scisoft.analysis.io.cbf.java";
+
+	private static final byte[] BINARY_MARKER = {0x0c, 0x1a, 0x04, (byte) 0xd5};
+	private static final String BYTE_OFFSET = "x-CBF_BYTE_OFFSET";
+	private static final String[] ORIENTING_CATEGORIES = {"_array_structure_list", "_diffrn_data_frame", "_diffrn_frame_data"};
+	private static final int SEGMENT = 1 << 16;
+	private static final int PARALLEL_ELEMENTS = 4 * SEGMENT;
+
+	private static volatile boolean enabled = Boolean.parseBoolean(System.getProperty(JAVA_DECODER, "true"));
+
+	private final byte[] bytes;
+	private final int offset;
+	private final int end;
+	private final int[] shape;
+
+	/**
+	 * @return true if CBF loading can use this class
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Set whether CBF loading can use this class
+	 * @param enable
+	 */
+	public static void setEnabled(boolean enable) {
+		enabled = enable;
+	}
+
+	/**
+	 * Read file and parse header of its binary section
+	 * @param fileName
+	 * @return image or null if file is not a supported byte-offset compressed mini-CBF
+	 * @throws IOException if file cannot be read or its binary section is truncated
+	 */
+	public static CBFByteOffset open(String fileName) throws IOException {
+		byte[] bytes = Files.readAllBytes(Path.of(fileName));
+		int marker = indexOf(bytes, BINARY_MARKER);
+		if (marker < 0) {
+			return null;
+		}
+
+		String header = new String(bytes, 0, marker, StandardCharsets.ISO_8859_1);
+		int section = header.lastIndexOf("--CIF-BINARY-FORMAT-SECTION--");
+		if (section < 0) {
+			return null;
+		}
+		String cif = header.substring(0, section);
+		for (String c : ORIENTING_CATEGORIES) {
+			if (cif.contains(c)) {
+				return null;
+			}
+		}
+
+		String mime = header.substring(section);
+		if (!mime.contains(BYTE_OFFSET)) {
+			return null;
+		}
+		String type = getField(mime, "X-Binary-Element-Type");
+		String order = getField(mime, "X-Binary-Element-Byte-Order");
+		if (type == null || !type.contains("integer") || type.contains("64-bit")
+				|| (order != null && !order.equalsIgnoreCase("LITTLE_ENDIAN"))) {
+			return null;
+		}
+		String x = getField(mime, "X-Binary-Size-Fastest-Dimension");
+		String y = getField(mime, "X-Binary-Size-Second-Dimension");
+		String n = getField(mime, "X-Binary-Number-of-Elements");
+		String size = getField(mime, "X-Binary-Size");
+		if (x == null || y == null || n == null || size == null) {
+			return null;
+		}
+		int[] shape;
+		long length;
+		try {
+			shape = new int[] {Integer.parseInt(y), Integer.parseInt(x)};
+			if ((long) shape[0] * shape[1] != Long.parseLong(n)) {
+				return null;
+			}
+			length = Long.parseLong(size);
+		} catch (NumberFormatException e) {
+			return null;
+		}
+		if (length < 0) {
+			return null;
+		}
+		int offset = marker + BINARY_MARKER.length;
+		if (offset + length > bytes.length) {
+			throw new IOException("Binary section of " + fileName + " is truncated");
+		}
+		return new CBFByteOffset(bytes, offset, (int) (offset + length), shape);
+	}
+
+	private CBFByteOffset(byte[] bytes, int offset, int end, int[] shape) {
+		this.bytes = bytes;
+		this.offset = offset;
+		this.end = end;
+		this.shape = shape;
+	}
+
+	/**
+	 * @return shape of image
+	 */
+	public int[] getShape() {
+		return shape.clone();
+	}
+
+	/**
+	 * Decompress image into given buffer
+	 * @param dst
+	 * @param dstOff
+	 * @throws IllegalArgumentException if binary section is too short for image
+	 */
+	public void decode(int[] dst, int dstOff) {
+		decompress(bytes, offset, end, dst, dstOff, shape[0] * shape[1]);
+	}
+
+	/**
+	 * Decompress image
+	 * @param reuse dataset to reuse if it has the same shape (can be null)
+	 * @return image
+	 * @throws IllegalArgumentException if binary section is too short for image
+	 */
+	public IntegerDataset decode(IntegerDataset reuse) {
+		IntegerDataset image = reuse != null && reuse.getSize() == shape[0] * shape[1] ? reuse : DatasetFactory.zeros(IntegerDataset.class, shape);
+		image.setShape(shape);
+		decode(image.getData(), 0);
+		image.setDirty();
+		return image;
+	}
+
+	/**
+	 * Decompress byte-offset stream. Large streams are decompressed in parallel
+	 * @param src
+	 * @param srcOff
+	 * @param dst
+	 * @param dstOff
+	 * @param n number of values
+	 * @return position in source after stream
+	 * @throws IllegalArgumentException if stream is truncated
+	 */
+	public static int decompress(byte[] src, int srcOff, int[] dst, int dstOff, int n) {
+		return decompress(src, srcOff, src.length, dst, dstOff, n);
+	}
+
+	/**
+	 * Decompress byte-offset stream. Large streams are decompressed in parallel
+	 * @param src
+	 * @param srcOff
+	 * @param srcEnd position in source after end of stream
+	 * @param dst
+	 * @param dstOff
+	 * @param n number of values
+	 * @return position in source after stream
+	 * @throws IllegalArgumentException if stream is truncated
+	 */
+	public static int decompress(byte[] src, int srcOff, int srcEnd, int[] dst, int dstOff, int n) {
+		try {
+			if (n < PARALLEL_ELEMENTS) {
+				return checkEnd(decompressSegment(src, srcOff, dst, dstOff, n), srcEnd);
+			}
+
+			final int segments = (n + SEGMENT - 1) / SEGMENT;
+			final int[] starts = new int[segments];
+			int p = srcOff;
+			for (int s = 0; s < segments; s++) {
+				starts[s] = p;
+				p = skip(src, p, Math.min(SEGMENT, n - s * SEGMENT));
+			}
+			checkEnd(p, srcEnd);
+
+			IntStream.range(0, segments).parallel().forEach(s ->
+				decompressSegment(src, starts[s], dst, dstOff + s * SEGMENT, Math.min(SEGMENT, n - s * SEGMENT)));
+
+			final int[] bases = new int[segments];
+			for (int s = 1; s < segments; s++) {
+				bases[s] = bases[s - 1] + dst[dstOff + s * SEGMENT - 1];
+			}
+			IntStream.range(1, segments).parallel().forEach(s -> {
+				final int base = bases[s];
+				final int end = dstOff + Math.min(n, (s + 1) * SEGMENT);
+				for (int i = dstOff + s * SEGMENT; i < end; i++) {
+					dst[i] += base;
+				}
+			});
+			return p;
+		} catch (ArrayIndexOutOfBoundsException e) {
+			throw new IllegalArgumentException("Byte-offset stream is truncated", e);
+		}
+	}
+
+	private static int checkEnd(int p, int end) {
+		if (p > end) {
+			throw new IllegalArgumentException("Byte-offset stream is truncated");
+		}
+		return p;
+	}
+
+	/**
+	 * Decompress values relative to zero
+	 * @return position after values
+	 */
+	private static int decompressSegment(byte[] src, int p, int[] dst, int dstOff, int n) {
+		int value = 0;
+		final int end = dstOff + n;
+		for (int i = dstOff; i < end; i++) {
+			byte b = src[p];
+			if (b != Byte.MIN_VALUE) {
+				value += b;
+				p++;
+			} else {
+				short s = readShort(src, p + 1);
+				if (s != Short.MIN_VALUE) {
+					value += s;
+					p += 3;
+				} else {
+					int v = readInt(src, p + 3);
+					if (v != Integer.MIN_VALUE) {
+						value += v;
+						p += 7;
+					} else {
+						value += readInt(src, p + 7); // only low bits of long are kept
+						p += 15;
+					}
+				}
+			}
+			dst[i] = value;
+		}
+		return p;
+	}
+
+	/**
+	 * @return position after given number of values
+	 */
+	private static int skip(byte[] src, int p, int n) {
+		for (int i = 0; i < n; i++) {
+			if (src[p] != Byte.MIN_VALUE) {
+				p++;
+			} else if (readShort(src, p + 1) != Short.MIN_VALUE) {
+				p += 3;
+			} else if (readInt(src, p + 3) != Integer.MIN_VALUE) {
+				p += 7;
+			} else {
+				p += 15;
+			}
+		}
+		return p;
+	}
+
+	private static short readShort(byte[] b, int i) {
+		return (short) ((b[i] & 0xff) | (b[i + 1] & 0xff) << 8);
+	}
+
+	private static int readInt(byte[] b, int i) {
+		return (b[i] & 0xff) | (b[i + 1] & 0xff) << 8 | (b[i + 2] & 0xff) << 16 | (b[i + 3] & 0xff) << 24;
+	}
+
+	private static int indexOf(byte[] bytes, byte[] pattern) {
+		int last = bytes.length - pattern.length;
+		outer:
+		for (int i = 0; i <= last; i++) {
+			for (int j = 0; j < pattern.length; j++) {
+				if (bytes[i + j] != pattern[j]) {
+					continue outer;
+				}
+			}
+			return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * @return value of MIME header field without quotes or null if missing
+	 */
+	private static String getField(String mime, String field) {
+		Matcher m = Pattern.compile("(?im)^" + Pattern.quote(field) + ":\\s*\"?([^\"\r\n]*)\"?").matcher(mime);
+		return m.find() ? m.group(1).trim() : null;
+	}
+}
@@ -17,6 +17,7 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.DoubleBuffer;
 import java.nio.IntBuffer;
+import java.util.Arrays;
 import java.util.HashMap;
 
 import javax.vecmath.Matrix3d;
@@ -102,6 +103,14 @@ public class CBFLoader extends AbstractFileLoader {
 
 		logger.info("Loading {}", fileName);
 
+		if (!loadMetadata && !loadLazily && CBFByteOffset.isEnabled()) {
+			Dataset image = readByteOffsetData();
+			if (image != null) {
+				output.addDataset(DEF_IMAGE_NAME, image);
+				return output;
+			}
+		}
+
 		cbf_handle_struct chs = new cbf_handle_struct(fileName);
 
 		try {
@@ -775,6 +784,52 @@ _diffrn_radiation_wavelength.wt 1.0
 		return data;
 	}
 
+	/**
+	 * Read mini-CBF image with byte-offset compression without using CBFlib
+	 * @return image or null if file cannot be read this way
+	 * @throws ScanFileHolderException
+	 */
+	@SuppressWarnings("unchecked")
+	private Dataset readByteOffsetData() throws ScanFileHolderException {
+		if (orientation != null && (orientation.getInterface() != IntegerDataset.class || !orientation.isXIncreasing()
+				|| orientation.isYIncreasing() || !orientation.isRowsX())) {
+			return null;
+		}
+
+		IntegerDataset data;
+		try {
+			CBFByteOffset image = CBFByteOffset.open(fileName);
+			if (image == null || (orientation != null && !Arrays.equals(orientation.getShape(), image.getShape()))) {
+				return null;
+			}
+			data = image.decode(null);
+		} catch (IOException | IllegalArgumentException e) {
+			throw new ScanFileHolderException("Could not read CBF binary data from " + fileName, e);
+		}
+
+		try {
+			StatisticsMetadata<Number> stats = MetadataFactory.createMetadata(StatisticsMetadata.class, data);
+			int amax = Integer.MIN_VALUE;
+			int amin = Integer.MAX_VALUE;
+			int hash = 0;
+			for (int value : data.getData()) {
+				hash = hash * 19 + value;
+				if (value > amax) {
+					amax = value;
+				}
+				if (value < amin) {
+					amin = value;
+				}
+			}
+			stats.setMaximumMinimumSum(amax, amin, null);
+			stats.setHash(hash * 19 + data.getClass().hashCode() * 17 + data.getElementsPerItem());
+			data.addMetadata(stats);
+		} catch (MetadataException e) {
+			logger.error("Could not create max/min metadata", e);
+		}
+		return data;
+	}
+
 	private int getInteger(String key) throws ScanFileHolderException {
 		try {
 			String value = metadataMap.get(key);
@@ -11,8 +11,13 @@ package uk.ac.diamond.scisoft.analysis.io;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
 
 import org.eclipse.dawnsci.analysis.api.io.IDataHolder;
 import org.eclipse.dawnsci.analysis.api.io.IFileLoader;
@@ -23,6 +28,7 @@ import org.eclipse.january.dataset.DatasetFactory;
 import org.eclipse.january.dataset.DatasetUtils;
 import org.eclipse.january.dataset.IDataset;
 import org.eclipse.january.dataset.ILazyDataset;
+import org.eclipse.january.dataset.IntegerDataset;
 import org.eclipse.january.dataset.InterfaceUtils;
 import org.eclipse.january.dataset.LazyDataset;
 import org.eclipse.january.dataset.ShapeUtils;
@@ -43,6 +49,14 @@ import org.eclipse.january.metadata.IMetadata;
 public class ImageStackLoader implements ILazyLoader {
 	private static final long serialVersionUID = 4819702059158702208L;
 
+	/**
+	 * System property to set whether images of a stack are read in parallel by default (true
+	 * if not set)
+	 */
+	public static final String PARALLEL_READ = "uk.ac.diamond.scisoft.analysis.io.imagestack.parallel";
+
+	private static final boolean PARALLEL_DEFAULT = Boolean.parseBoolean(System.getProperty(PARALLEL_READ, "true"));
+
 	private StringDataset filenames;
 	private int[] fShape; // filename shape
 	private long[] mShape; // max total shape
@@ -53,11 +67,27 @@ public class ImageStackLoader implements ILazyLoader {
 	private Class<? extends IFileLoader> loaderClass;
 	private boolean onlyOne;
 	private String datasetName;
+	private boolean parallel = PARALLEL_DEFAULT;
 	
 	public Class<? extends Dataset> getInterface() {
 		return clazz;
 	}
 
+	/**
+	 * @return true if images of a slice are read in parallel
+	 */
+	public boolean isParallel() {
+		return parallel;
+	}
+
+	/**
+	 * Set whether images of a slice are read in parallel
+	 * @param parallel
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
 	public ImageStackLoader(List<String> imageFilenames, IMonitor mon) throws Exception {
 		this(imageFilenames, LoaderFactory.getData(imageFilenames.get(0), mon), mon);
 	}
@@ -112,6 +142,10 @@ public class ImageStackLoader implements ILazyLoader {
 	}
 
 	private ILazyDataset getDatasetFromFile(int[] location, IMonitor mon) throws ScanFileHolderException {
+		return loadDataset(getFile(location).getAbsolutePath(), mon);
+	}
+
+	private File getFile(int[] location) {
 		File f = new File(filenames.get(location));
 		File nf = null;
 		if (parent != null) { // try local directory first
@@ -130,7 +164,7 @@ public class ImageStackLoader implements ILazyLoader {
 			nf = getDLSWindowsPath(f);
 		}
 
-		return loadDataset(nf.getAbsolutePath(), mon);
+		return nf;
 	}
 
 	private ILazyDataset loadDataset(String filename, IMonitor mon) throws ScanFileHolderException {
@@ -216,34 +250,115 @@ public class ImageStackLoader implements ILazyLoader {
 		}
 		int[] iShape = iSlice.getShape();
 		SliceND dSlice = it.getOutputSlice();
+		if (result == null) {
+			it.hasNext();
+			IDataset image = readImage(pos, iSlice, mon);
+			image.setShape(iShape);
+			result = DatasetUtils.convertToDataset(image);
+			result.setShape(newShape);
+			return result;
+		}
+
+		List<int[]> positions = new ArrayList<>();
+		List<SliceND> slices = new ArrayList<>();
 		while (it.hasNext()) {
-			ILazyDataset lazy;
-			IDataset image;
-			try {
-				lazy = getDatasetFromFile(pos, mon);
-				int[] lShape = lazy.getShape();
-				SliceND nSlice;
+			positions.add(pos.clone());
+			slices.add(dSlice.clone());
+		}
+
+		final Dataset out = result;
+		final SliceND imageSlice = iSlice;
+		final Queue<IntegerDataset> buffers = new ConcurrentLinkedQueue<>();
+		IntStream images = IntStream.range(0, positions.size());
+		if (parallel) {
+			images = images.parallel();
+		}
+		try {
+			images.forEach(i -> {
 				try {
-					iSlice.checkShapes(lShape, null);
-					nSlice = iSlice;
-				} catch (IllegalArgumentException e) { // in case image shape changes in stack
-					nSlice = new SliceND(lShape, iSlice.getStart(), iSlice.getStop(), iSlice.getStep());
+					readImage(positions.get(i), imageSlice, slices.get(i), out, buffers, mon);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
 				}
-				image = lazy.getSlice(nSlice);
-			} catch (Exception e) {
-				throw new IOException(e);
-			}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
 
-			image.setShape(iShape);
-			if (result == null) {
-				result = DatasetUtils.convertToDataset(image);
-				result.setShape(newShape);
-				break;
+		return result;
+	}
+
+	/**
+	 * @param lShape shape of image in file
+	 * @param iSlice slice of images
+	 * @return slice of image in file
+	 */
+	private static SliceND getImageSlice(int[] lShape, SliceND iSlice) {
+		try {
+			iSlice.checkShapes(lShape, null);
+			return iSlice;
+		} catch (IllegalArgumentException e) { // in case image shape changes in stack
+			return new SliceND(lShape, iSlice.getStart(), iSlice.getStop(), iSlice.getStep());
+		}
+	}
+
+	private IDataset readImage(int[] pos, SliceND iSlice, IMonitor mon) throws IOException {
+		try {
+			ILazyDataset lazy = getDatasetFromFile(pos, mon);
+			return lazy.getSlice(getImageSlice(lazy.getShape(), iSlice));
+		} catch (Exception e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Read slice of image into result. Byte-offset compressed CBFs are decoded in Java and straight
+	 * into the result when whole images are read
+	 * @param pos position in filenames
+	 * @param iSlice slice of image
+	 * @param dSlice slice of result
+	 * @param result
+	 * @param buffers images to reuse for decoding CBFs
+	 * @param mon
+	 * @throws IOException
+	 */
+	private void readImage(int[] pos, SliceND iSlice, SliceND dSlice, Dataset result, Queue<IntegerDataset> buffers, IMonitor mon) throws IOException {
+		IDataset image = null;
+		if (loaderClass == CBFLoader.class && datasetName == null && CBFByteOffset.isEnabled()) {
+			CBFByteOffset cbf = CBFByteOffset.open(getFile(pos).getAbsolutePath());
+			if (cbf != null) {
+				int[] lShape = cbf.getShape();
+				SliceND nSlice = getImageSlice(lShape, iSlice);
+				if (result instanceof IntegerDataset r && nSlice == iSlice && Arrays.equals(iSlice.getShape(), lShape)
+						&& Arrays.stream(iSlice.getStep()).allMatch(s -> s == 1)) { // whole image is contiguous in result
+					try {
+						cbf.decode(r.getData(), r.get1DIndex(dSlice.getStart()));
+					} catch (IllegalArgumentException e) {
+						throw new IOException(e);
+					}
+					return;
+				}
+				IntegerDataset decoded = null;
+				try {
+					decoded = cbf.decode(buffers.poll());
+					image = decoded.getSlice(nSlice);
+				} catch (IllegalArgumentException e) {
+					throw new IOException(e);
+				} finally {
+					if (decoded != null) {
+						buffers.offer(decoded);
+					}
+				}
 			}
-			result.setSlice(image, dSlice);
+		}
+		if (image == null) {
+			image = readImage(pos, iSlice, mon);
 		}
 
-		return result;
+		image.setShape(dSlice.getShape());
+		synchronized (result) {
+			result.setSlice(image, dSlice);
+		}
 	}
 
 	public int[] getShape() {
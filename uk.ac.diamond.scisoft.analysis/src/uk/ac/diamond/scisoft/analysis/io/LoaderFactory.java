@@ -18,7 +18,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -27,6 +26,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.zip.GZIPInputStream;
@@ -36,6 +36,7 @@ import org.eclipse.dawnsci.analysis.api.io.IDataHolder;
 import org.eclipse.dawnsci.analysis.api.io.IFileLoader;
 import org.eclipse.dawnsci.analysis.api.io.ScanFileHolderException;
 import org.eclipse.january.IMonitor;
+import org.eclipse.january.dataset.Dataset;
 import org.eclipse.january.dataset.IDataset;
 import org.eclipse.january.dataset.ILazyDataset;
 import org.eclipse.january.io.IMetaLoader;
@@ -104,9 +105,9 @@ public class LoaderFactory {
 	 */
 	static {
 		
-		LOADERS   = new HashMap<String, CachedListIterator<Class<? extends IFileLoader>>>(19);
-		UNZIPPERS = new HashMap<String, Class<? extends InputStream>>(3);
-		dataCache = new DataCache<IDataHolder>();
+		LOADERS   = new ConcurrentHashMap<String, CachedListIterator<Class<? extends IFileLoader>>>(19);
+		UNZIPPERS = new ConcurrentHashMap<String, Class<? extends InputStream>>(3);
+		dataCache = new DataCache<IDataHolder>(LoaderFactory::estimateBytes);
 		IGNORE_EXTS   = new HashSet<String>(3);
 		
 		registerLoaderWithException("npy", NumPyFileLoader.class);
@@ -290,8 +291,8 @@ public class LoaderFactory {
 	 * all the loaders for a given extension if the extension is registered already. 
 	 * Otherwise it tries all loaders - in no particular order.
 	 * 
-	 *   *synchronized* is REQUIRED because multiple threads load data simultaneously and without
-	 *   a synchronized you can get data loaded twice which is SLOW.
+	 *   Concurrent calls for the same file wait for a single load so data is not loaded twice,
+	 *   while calls for different files load in parallel.
 	 * 
 	 * @param path to file
 	 * @param willLoadMetadata dictates whether metadata is not loaded (if possible)
@@ -320,8 +321,8 @@ public class LoaderFactory {
 	 * all the loaders for a given extension if the extension is registered already. 
 	 * Otherwise it tries all loaders - in no particular order.
 	 * 
-	 *   *synchronized* is REQUIRED because multiple threads load data simultaneously and without
-	 *   a synchronized you can get data loaded twice which is SLOW.
+	 *   Concurrent calls for the same file wait for a single load so data is not loaded twice,
+	 *   while calls for different files load in parallel.
 	 * 
 	 * @param path to file
 	 * @param willLoadMetadata dictates whether metadata is not loaded (if possible)
@@ -332,7 +333,7 @@ public class LoaderFactory {
 	 * @return DataHolder
 	 * @throws Exception
 	 */
-	public static /*THIS IS REQUIRED:*/ synchronized  IDataHolder getData(String path,
+	public static IDataHolder getData(String path,
 																		  final boolean willLoadMetadata, 
 																		  final boolean loadImageStacks, 
 																		  final boolean lazily, 
@@ -371,59 +372,28 @@ public class LoaderFactory {
 		IDataHolder holder = null;
 		if (cachedObject!=null && cachedObject instanceof IDataHolder) holder = (IDataHolder)cachedObject;
 
-		if (holder==null) { // try and load it
-			final Iterator<Class<? extends IFileLoader>> it = getIterator(path);
-			if (it == null) return null;
-	
-			// Currently this method simply cycles through all loaders.
-			// When it finds one which does not give an exception on loading it
-			// returns the data from this loader.
-			while (it.hasNext()) {
-				final Class<? extends IFileLoader> clazz = it.next();
-				IFileLoader loader = null;
-				try {
-					loader = getLoader(clazz, path);
-				} catch (Throwable t) {
-					// do nothing
-				}
-				if (loader == null) {
-					continue;
-				}
-				loader.setLoadMetadata(willLoadMetadata);
-				loader.setLoadAllLazily(lazily);
-				try {
-					// NOTE Assumes loader fails quickly and nicely
-					// if given the wrong file. If a loader does not
-					// do this it should not be registered with LoaderFactory
-					holder = loader.loadFile(mon);
-					holder.setLoaderClass(clazz);
-					holder.setFilePath(path);
-
-					if (!lazily) {
-						key.setMetadata(holder.getMetadata()!=null);
-						boolean cached = dataCache.recordSoftReference(key, holder);
-						if (!cached) System.err.println("Loader factory failed to cache "+path);
-					}
-					break;
-					
-				} catch (OutOfMemoryError ome) {
-					logger.error("There was not enough memory to load {}", path);
-					throw new ScanFileHolderException("Out of memory in loader factory", ome);
-				} catch (Throwable ne) {
-					logger.trace("Loader {} caused", loader, ne);
-					continue;
-				}
-			}
+		if (holder==null) { // try and load it, waiting for any identical load already running
+			holder = dataCache.load(dataCache.createCacheKey(path, willLoadMetadata), lazily, () -> {
+				final IDataHolder cached = dataCache.peekSoftReference(dataCache.createCacheKey(path, willLoadMetadata));
+				return cached != null ? cached : loadFileData(path, willLoadMetadata, lazily, mon);
+			});
 		}
 		
 		// For images, we can put another item in the data holder
 		// which represents the stack of other images in the same directory.
+		// The holder may be shared through the cache so the stack is added
+		// to a copy which then replaces the cached holder.
 		try {
 			if (loadImageStacks && holder!=null) {
 
 				if (holder.size()==1 && holder.getLazyDataset(0).getRank()==2 && !isH5(path)) {
 					final Map<String,ILazyDataset> stack = getImageStack(path, holder, mon);
-					if (stack!=null) for (String name : stack.keySet()) holder.addDataset(name, stack.get(name));
+					if (stack!=null) {
+						final IDataHolder copy = holder.clone();
+						for (String name : stack.keySet()) copy.addDataset(name, stack.get(name));
+						if (dataCache.peekSoftReference(key) == holder) dataCache.recordSoftReference(key, copy);
+						holder = copy;
+					}
 				}
 
 			}
@@ -433,12 +403,76 @@ public class LoaderFactory {
 		return holder;
 	}
 
-	
+	private static IDataHolder loadFileData(final String path, final boolean willLoadMetadata,
+			final boolean lazily, final IMonitor mon) throws Exception {
+		final Iterator<Class<? extends IFileLoader>> it = getIterator(path);
+		if (it == null) return null;
+
+		// Currently this method simply cycles through all loaders.
+		// When it finds one which does not give an exception on loading it
+		// returns the data from this loader.
+		while (it.hasNext()) {
+			final Class<? extends IFileLoader> clazz = it.next();
+			IFileLoader loader = null;
+			try {
+				loader = getLoader(clazz, path);
+			} catch (Throwable t) {
+				// do nothing
+			}
+			if (loader == null) {
+				continue;
+			}
+			loader.setLoadMetadata(willLoadMetadata);
+			loader.setLoadAllLazily(lazily);
+			try {
+				// NOTE Assumes loader fails quickly and nicely
+				// if given the wrong file. If a loader does not
+				// do this it should not be registered with LoaderFactory
+				final IDataHolder holder = loader.loadFile(mon);
+				holder.setLoaderClass(clazz);
+				holder.setFilePath(path);
+
+				if (!lazily) {
+					final CacheKey key = dataCache.createCacheKey(path, holder.getMetadata()!=null);
+					boolean cached = dataCache.recordSoftReference(key, holder);
+					if (!cached) logger.debug("Loader factory did not cache {}", path);
+				}
+				return holder;
+
+			} catch (OutOfMemoryError ome) {
+				logger.error("There was not enough memory to load {}", path);
+				throw new ScanFileHolderException("Out of memory in loader factory", ome);
+			} catch (Throwable ne) {
+				logger.trace("Loader {} caused", loader, ne);
+				continue;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Estimate number of bytes held in memory by data holder
+	 * @param holder
+	 * @return bytes of datasets which are loaded
+	 */
+	private static long estimateBytes(IDataHolder holder) {
+		long bytes = 0;
+		for (int i = 0, imax = holder.size(); i < imax; i++) {
+			final ILazyDataset lz = holder.getLazyDataset(i);
+			if (lz instanceof Dataset d) {
+				bytes += d.getNbytes();
+			} else if (lz instanceof IDataset) {
+				bytes += (long) lz.getSize() * lz.getElementsPerItem() * Long.BYTES;
+			}
+		}
+		return bytes;
+	}
+
 	/**
 	 * Call to load file into memory with specific loader class
 	 * 
-	 *   *synchronized* is REQUIRED because multiple threads load data simultaneously and without
-	 *   a synchronized you can get data loaded twice which is SLOW.
+	 *   Concurrent calls for the same file wait for a single load so data is not loaded twice,
+	 *   while calls for different files load in parallel.
      *
 	 * @param clazz loader class
 	 * @param path to file
@@ -447,7 +481,7 @@ public class LoaderFactory {
 	 * @return data holder (can be null)
 	 * @throws ScanFileHolderException
 	 */
-	public static /*THIS IS REQUIRED:*/ synchronized IDataHolder getData(Class<? extends IFileLoader> clazz, 
+	public static IDataHolder getData(Class<? extends IFileLoader> clazz, 
 						                         String path, 
 			                                     boolean willLoadMetadata, 
 			                                     IMonitor mon) throws Exception {
@@ -465,6 +499,15 @@ public class LoaderFactory {
 		if (cachedObject!=null && cachedObject instanceof IDataHolder) holder = (IDataHolder)cachedObject;
 		if (holder!=null) return holder;
 
+		final String fPath = path;
+		return dataCache.load(dataCache.createCacheKey(path, willLoadMetadata), clazz, () -> {
+			final IDataHolder cached = dataCache.peekSoftReference(dataCache.createCacheKey(fPath, willLoadMetadata));
+			return cached != null ? cached : loadFileData(clazz, fPath, willLoadMetadata, mon);
+		});
+	}
+
+	private static IDataHolder loadFileData(Class<? extends IFileLoader> clazz, String path,
+			boolean willLoadMetadata, IMonitor mon) throws Exception {
 		IFileLoader loader;
 		try {
 			loader = getLoader(clazz, path);
@@ -479,13 +522,13 @@ public class LoaderFactory {
 
 		loader.setLoadMetadata(willLoadMetadata);
 		try {
-			holder = loader.loadFile(mon);
+			final IDataHolder holder = loader.loadFile(mon);
 			holder.setLoaderClass(clazz);
 			holder.setFilePath(path);
 			
-			key.setMetadata(holder.getMetadata()!=null);
+			final CacheKey key = dataCache.createCacheKey(path, holder.getMetadata()!=null);
 			boolean cached = dataCache.recordSoftReference(key, holder);
-			if (!cached) System.err.println("Loader factory failed to cache " + path);
+			if (!cached) logger.debug("Loader factory did not cache {}", path);
 			return holder;
 			
 		} catch (OutOfMemoryError ome) {
@@ -661,7 +704,7 @@ public class LoaderFactory {
 	 * @return IMetadata
 	 * @throws Exception
 	 */
-	public static synchronized IMetadata getMetadata(String path, final IMonitor mon) throws Exception {
+	public static IMetadata getMetadata(String path, final IMonitor mon) throws Exception {
 
 		path = Utils.translateDLSFilePath(path);
 		if (!(new File(path)).exists()) throw new FileNotFoundException(path);
@@ -683,7 +726,20 @@ public class LoaderFactory {
 			if (meta!=null) return meta;
 			logger.warn("Cached object is not a metadata object or contain one");
 		}
-		
+
+		final String fPath = path;
+		final IDataHolder holder = dataCache.load(key, IMetadata.class, () -> {
+			final CacheKey k = dataCache.createCacheKey(fPath, true);
+			k.setMetadataOnly(true);
+			final IDataHolder cached = dataCache.peekSoftReferenceWithMetadata(k);
+			if (cached != null && cached.getMetadata() != null) return cached;
+			final IMetadata meta = loadMetadata(fPath, mon);
+			return meta == null ? null : new DataHolder(meta);
+		});
+		return holder == null ? null : holder.getMetadata();
+	}
+
+	private static IMetadata loadMetadata(final String path, final IMonitor mon) throws Exception {
 		final Iterator<Class<? extends IFileLoader>> it = getIterator(path);
 		if (it == null) return null;
 
@@ -701,6 +757,7 @@ public class LoaderFactory {
 				// do this, it should not be registered with LoaderFactory
 				((IMetaLoader) loader).loadMetadata(mon);
 				IMetadata meta = ((IMetaLoader) loader).getMetadata();
+				final CacheKey key = dataCache.createCacheKey(path, true);
 				key.setMetadataOnly(true); // We are definitely recording only metadata with this step.
 				dataCache.recordSoftReference(key, new DataHolder(meta));
 				return meta;
@@ -755,7 +812,7 @@ public class LoaderFactory {
 	 * @param path
 	 * @return true if can load metadata without all data being loaded.
 	 */
-	public static synchronized boolean isMetaLoader(final String path) throws Exception {
+	public static boolean isMetaLoader(final String path) throws Exception {
 
 		return isInstanceSupported(path, IMetaLoader.class);
 	}
@@ -765,8 +822,7 @@ public class LoaderFactory {
 		final String extension = FileUtils.getFileExtension(path).toLowerCase();
 
 		if (LOADERS.containsKey(extension)) {
-			final CachedListIterator<Class<? extends IFileLoader>> loaders = LOADERS.get(extension);
-			loaders.reset();
+			final Iterator<Class<? extends IFileLoader>> loaders = LOADERS.get(extension).snapshot();
 
 			while (loaders.hasNext()) {
 				Class<? extends IFileLoader> clazz = loaders.next();
@@ -813,13 +869,12 @@ public class LoaderFactory {
 	 * @param extension
 	 * @return loader class
 	 */
-	public static synchronized Class<? extends IFileLoader> getLoaderClass(String extension) {
+	public static Class<? extends IFileLoader> getLoaderClass(String extension) {
 		CachedListIterator<Class<? extends IFileLoader>> list = LOADERS.get(extension);
 		if (list == null) {
 			return null;
 		}
-		list.reset();
-		return list.next();
+		return list.snapshot().next();
 	}
 
 	/**
@@ -856,8 +911,7 @@ public class LoaderFactory {
 		CachedListIterator<Class<? extends IFileLoader>> list = null;
 
 		if (LOADERS.containsKey(extension)) {
-			it = list = LOADERS.get(extension);
-			list.reset();
+			it = LOADERS.get(extension).snapshot();
 		} else if (!IGNORE_EXTS.contains(extension)) {
 			// We may have a zipped file type that we support
 			final File file = new File(path);
@@ -869,17 +923,13 @@ public class LoaderFactory {
 				if (LOADERS.keySet().contains(realExt)) {
 					list = new CachedListIterator<Class<? extends IFileLoader>>();
 					list.add(CompressedLoader.class);
-					return list;
+					return list.snapshot();
 				}
 			}
 
 			final Set<Class<? extends IFileLoader>> all = new HashSet<Class<? extends IFileLoader>>();
 			for (String ext : LOADERS.keySet()) {
-				list = LOADERS.get(ext);
-				list.reset();
-				while (list.hasNext()) {
-					all.add(list.next());
-				}
+				all.addAll(LOADERS.get(ext).toList());
 			}
 			it = all.iterator();
 		}
@@ -1001,12 +1051,14 @@ public class LoaderFactory {
 	/**
 	 * Caches the last thing returned by iterator so that once it is reset, the
 	 * iteration returns the cached value first
+	 * <p>
+	 * Use {@link #snapshot()} when the list may be used by several threads at once
 	 *
 	 * @param <T>
 	 */
 	private static class CachedListIterator<T> implements Iterator<T> {
 		private List<T> list;
-		private T last; // last thing returned by iterator
+		private volatile T last; // last thing returned by iterator
 		private Iterator<T> it;
 
 		public CachedListIterator() {
@@ -1019,7 +1071,7 @@ public class LoaderFactory {
 		 * @param e element must not be null
 		 * @return true if list contains element
 		 */
-		public boolean contains(T e) {
+		public synchronized boolean contains(T e) {
 			if (e == null) {
 				throw new IllegalArgumentException("Null value not allowed");
 			}
@@ -1031,7 +1083,7 @@ public class LoaderFactory {
 		 * @param e element must not be null
 		 * @return true if was added
 		 */
-		public boolean add(T e) {
+		public synchronized boolean add(T e) {
 			if (e == null) {
 				throw new IllegalArgumentException("Null value not allowed");
 			}
@@ -1043,7 +1095,7 @@ public class LoaderFactory {
 		 * @param position
 		 * @param e element must not be null
 		 */
-		public void add(int position, T e) {
+		public synchronized void add(int position, T e) {
 			if (e == null) {
 				throw new IllegalArgumentException("Null value not allowed");
 			}
@@ -1072,7 +1124,7 @@ public class LoaderFactory {
 		/**
 		 * Must call before re-use
 		 */
-		public void reset() {
+		public synchronized void reset() {
 			T cached = list.size() > 1 ? last : null;
 
 			if (cached != null) {
@@ -1085,6 +1137,40 @@ public class LoaderFactory {
 				it = list.iterator();
 			}
 		}
+
+		/**
+		 * @return copy of list
+		 */
+		public synchronized List<T> toList() {
+			return new ArrayList<>(list);
+		}
+
+		/**
+		 * Independent iterator over a copy of the list which returns the cached value first
+		 * and updates the cached value as it goes
+		 * @return iterator
+		 */
+		public synchronized Iterator<T> snapshot() {
+			final LinkedList<T> nl = new LinkedList<>(list);
+			T cached = nl.size() > 1 ? last : null;
+			if (cached != null && nl.remove(cached)) { // in case cached item has been removed
+				nl.addFirst(cached);
+			}
+			final Iterator<T> sit = nl.iterator();
+			return new Iterator<T>() {
+				@Override
+				public boolean hasNext() {
+					return sit.hasNext();
+				}
+
+				@Override
+				public T next() {
+					T n = sit.next();
+					last = n;
+					return n;
+				}
+			};
+		}
 	}
 
 	/**
@@ -1152,4 +1238,20 @@ public class LoaderFactory {
 		dataCache.clear(filePath);
 	}
 
+	/**
+	 * Set maximum number of bytes of loaded data to cache. The default is a quarter
+	 * of the maximum heap size or can be set with the system property {@value DataCache#CACHE_SIZE}
+	 * @param maxBytes
+	 */
+	public static void setCacheSize(long maxBytes) {
+		dataCache.setMaxBytes(maxBytes);
+	}
+
+	/**
+	 * @return statistics of data cache
+	 */
+	public static DataCache.Statistics getCacheStatistics() {
+		return dataCache.getStatistics();
+	}
+
 }
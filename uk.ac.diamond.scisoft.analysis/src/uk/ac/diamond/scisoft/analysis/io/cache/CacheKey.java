@@ -34,6 +34,22 @@ public class CacheKey {
 	protected CacheKey() {
 	}
 
+	/**
+	 * @return copy of key which is unaffected by later changes to this key
+	 */
+	CacheKey copy() {
+		final CacheKey key = new CacheKey();
+		key.filePath     = filePath;
+		key.timeStamp    = timeStamp;
+		key.datasetName  = datasetName;
+		key.datasetNames = datasetNames;
+		key.slice        = slice;
+		key.imageNumber  = imageNumber;
+		key.metadata     = metadata;
+		key.metadataOnly = metadataOnly;
+		return key;
+	}
+
 	public String getFilePath() {
 		return filePath;
 	}
@@ -12,49 +12,133 @@ package uk.ac.diamond.scisoft.analysis.io.cache;
 import java.lang.ref.Reference;
 import java.lang.ref.SoftReference;
 import java.lang.ref.WeakReference;
-import java.util.Hashtable;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
 
 import org.eclipse.dawnsci.analysis.api.io.IDataHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Class to encapsulate data caching for LoaderFactory
+ * <p>
+ * Entries are kept in least-recently-used order and evicted when the estimated size of all
+ * entries exceeds the byte budget. Entries are also held by soft references so they can still be
+ * reclaimed when the system is short on memory. Keys include the time stamp of the file so a
+ * modified file is never served from the cache; entries of the older version are dropped when
+ * the newer one is stored.
+ * <p>
+ * {@link #load(CacheKey, Object, Callable)} ensures that concurrent requests for the same key
+ * are loaded only once while requests for other keys proceed in parallel.
  */
 public class DataCache<T> {
 
+	private static final Logger logger = LoggerFactory.getLogger(DataCache.class);
 
 	private static final String NO_CACHING = "uk.ac.diamond.scisoft.analysis.io.nocaching";
 
+	/**
+	 * System property to set byte budget of cache
+	 */
+	public static final String CACHE_SIZE = "uk.ac.diamond.scisoft.analysis.io.cachesize";
+
 	// used when we are caching items do not have an image number
 	private static final int NOT_A_SINGLE_IMAGE = -1;
 
+	// nominal size of each entry so that entries without data are still bounded
+	private static final long ENTRY_OVERHEAD = 1024;
+
+	/**
+	 * Entries in access order, guarded by lock
+	 */
+	private final LinkedHashMap<CacheKey, Entry<T>> cache;
+
 	/**
-	 * A caching mechanism using soft references. Soft references attempt to keep things
-	 * in memory until the system is short on memory. Hashtable used because it is synchronized
-	 * which should reduce chances of getting the wrong data for the key.
+	 * Time stamp and number of entries for each file path, guarded by lock
 	 */
-	private final Map<CacheKey, Reference<T>> cache;
-	
+	private final Map<String, PathInfo> paths;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Map<List<Object>, CompletableFuture<T>> loading = new ConcurrentHashMap<>();
+
+	private final ToLongFunction<T> weigher;
+	private volatile long maxBytes;
+	private long bytes; // guarded by lock
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder collected = new LongAdder();
+	private final LongAdder loads = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+
 	public DataCache() {
-		cache = new Hashtable<CacheKey, Reference<T>>(89);
+		this(v -> 0);
+	}
+
+	/**
+	 * @param weigher estimates number of bytes held by a value
+	 */
+	public DataCache(ToLongFunction<T> weigher) {
+		this.weigher = weigher;
+		cache = new LinkedHashMap<>(89, 0.75f, true);
+		paths = new HashMap<>(89);
+		maxBytes = Long.getLong(CACHE_SIZE, Runtime.getRuntime().maxMemory() / 4);
 	}
 
 	/**
-	 * Used for synchronization.
+	 * @return byte budget
 	 */
-	private final static Object LOCK = new Object();
-	
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * Set byte budget, evicting entries if necessary
+	 * @param maxBytes
+	 */
+	public void setMaxBytes(long maxBytes) {
+		this.maxBytes = maxBytes;
+		lock.lock();
+		try {
+			evict();
+		} finally {
+			lock.unlock();
+		}
+	}
+
 	public void clear() {
-		cache.clear();
+		lock.lock();
+		try {
+			cache.clear();
+			paths.clear();
+			bytes = 0;
+		} finally {
+			lock.unlock();
+		}
 	}
+
 	public void clear(String filePath) {
-		for (Iterator<CacheKey> it = cache.keySet().iterator();it.hasNext();) {
-			CacheKey key = it.next();
-			if (filePath.equals(key.getFilePath())) it.remove();
+		lock.lock();
+		try {
+			removePath(filePath);
+		} finally {
+			lock.unlock();
 		}
 	}
-	
+
 	public CacheKey createCacheKey(String path, boolean loadMeta) {
 		final CacheKey key = new CacheKey();
 		key.setFilePath(path);
@@ -69,6 +153,16 @@ public class DataCache<T> {
 	 * @return the object referenced or null if it got garbaged or was not cached yet
 	 */
 	public T getSoftReference(CacheKey key) {
+		return count(key, peekSoftReference(key));
+	}
+
+	/**
+	 * Same as {@link #getSoftReference(CacheKey)} but not counted in statistics, for checks made
+	 * while loading
+	 * @param key
+	 * @return the object referenced or null if it got garbaged or was not cached yet
+	 */
+	public T peekSoftReference(CacheKey key) {
 		T o = getReference(key);
 		if (o != null) {
 			return o;
@@ -86,6 +180,20 @@ public class DataCache<T> {
 	 * @return the object referenced or null if it got garbaged or was not cached yet
 	 */
 	public T getSoftReferenceWithMetadata(CacheKey key) {
+		T o = getReference(key);
+		if (o != null) return count(key, o);
+
+		CacheKey k = findKeyWithMetadata(key);
+		return k == null ? count(key, null) : count(k, getReference(k));
+	}
+
+	/**
+	 * Same as {@link #getSoftReferenceWithMetadata(CacheKey)} but not counted in statistics, for
+	 * checks made while loading
+	 * @param key
+	 * @return the object referenced or null if it got garbaged or was not cached yet
+	 */
+	public T peekSoftReferenceWithMetadata(CacheKey key) {
 		T o = getReference(key);
 		if (o != null) return o;
 
@@ -93,6 +201,49 @@ public class DataCache<T> {
 		return k == null ? null : getReference(k);
 	}
 
+	/**
+	 * Load value for key, running the loader at most once at a time for the same key and variant.
+	 * Other callers with the same key and variant wait for and share the value being loaded.
+	 * The loader is responsible for recording the value in the cache if appropriate.
+	 *
+	 * @param key
+	 * @param variant distinguishes loads with the same key but differing results (can be null)
+	 * @param loader
+	 * @return value (can be null)
+	 * @throws Exception from loader
+	 */
+	public T load(CacheKey key, Object variant, Callable<T> loader) throws Exception {
+		final List<Object> id = Arrays.asList(key.copy(), variant);
+		final CompletableFuture<T> future = new CompletableFuture<>();
+		final CompletableFuture<T> existing = loading.putIfAbsent(id, future);
+		if (existing != null) {
+			coalesced.increment();
+			try {
+				return existing.get();
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof Exception ex) {
+					throw ex;
+				}
+				if (cause instanceof Error er) {
+					throw er;
+				}
+				throw e;
+			}
+		}
+
+		loads.increment();
+		try {
+			T value = loader.call();
+			future.complete(value);
+			return value;
+		} catch (Throwable t) {
+			future.completeExceptionally(t);
+			throw t;
+		} finally {
+			loading.remove(id, future);
+		}
+	}
 
 	/**
 	 * May be null
@@ -101,33 +252,69 @@ public class DataCache<T> {
 	 */
 	private T getReference(CacheKey key) {
 		if (Boolean.getBoolean(NO_CACHING)) return null;
-		synchronized (LOCK) {
-			try {
-		        final Reference<T> ref = cache.get(key);
-		        if (ref == null) return null;
-		        T got = ref.get();
-		        return got;
-			} catch (Throwable ne) {
-				return null;
+		T got = null;
+		lock.lock();
+		try {
+			final Entry<T> e = cache.get(key);
+			if (e != null) {
+				got = e.ref.get();
+				if (got == null) { // reclaimed by garbage collector
+					remove(key);
+					collected.increment();
+				}
 			}
+		} finally {
+			lock.unlock();
 		}
+		return got;
+	}
+
+	/**
+	 * Count lookup in statistics
+	 * @param key of entry found
+	 * @param got value found (can be null)
+	 * @return got
+	 */
+	private T count(CacheKey key, T got) {
+		if (got == null) {
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+
+		// values such as data holders can grow after they are cached
+		final long weight = weigh(got);
+		lock.lock();
+		try {
+			final Entry<T> e = cache.get(key);
+			if (e != null && e.bytes != weight) {
+				bytes += weight - e.bytes;
+				e.bytes = weight;
+				evict();
+			}
+		} finally {
+			lock.unlock();
+		}
+		return got;
 	}
 
 	private CacheKey findKeyWithMetadata(CacheKey key) {
 		if (Boolean.getBoolean(NO_CACHING)) return null;
-		synchronized (LOCK) {
+		lock.lock();
+		try {
 			for (CacheKey k : cache.keySet()) {
 				if (k.isSameFile(key) && k.hasMetadata()) {
 					return k;
 				}
 			}
 			return null;
+		} finally {
+			lock.unlock();
 		}
-
 	}
 
 	/**
-	 * 
+	 *
 	 * @param key
 	 * @param value
 	 * @return true if value has been stored
@@ -135,15 +322,99 @@ public class DataCache<T> {
 	public boolean recordSoftReference(CacheKey key, T value) {
 
 		if (Boolean.getBoolean(NO_CACHING)) return false;
-		synchronized (LOCK) {
-			try {
-				Reference<T> ref = Boolean.getBoolean("uk.ac.diamond.scisoft.analysis.io.weakcaching")
-						         ? new WeakReference<T>(value)
-						         : new SoftReference<T>(value);
-				cache.put(key, ref);
-				return true;
-			} catch (Throwable ne) {
-				return false;
+		final long weight = weigh(value);
+		if (weight > maxBytes) {
+			logger.debug("Not caching {} as it is larger than cache size", key);
+			return false;
+		}
+
+		final Reference<T> ref = Boolean.getBoolean("uk.ac.diamond.scisoft.analysis.io.weakcaching")
+				         ? new WeakReference<T>(value)
+				         : new SoftReference<T>(value);
+		final CacheKey k = key.copy();
+		lock.lock();
+		try {
+			remove(k);
+			final String path = k.getFilePath();
+			if (path != null) {
+				PathInfo info = paths.get(path);
+				if (info != null && info.timeStamp != k.getTimeStamp()) { // file has changed
+					removePath(path);
+					info = null;
+				}
+				if (info == null) {
+					info = new PathInfo(k.getTimeStamp());
+					paths.put(path, info);
+				}
+				info.entries++;
+			}
+
+			cache.put(k, new Entry<>(ref, weight));
+			bytes += weight;
+			evict();
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private long weigh(T value) {
+		try {
+			return ENTRY_OVERHEAD + weigher.applyAsLong(value);
+		} catch (Throwable ne) {
+			logger.trace("Could not estimate size of cached value", ne);
+			return ENTRY_OVERHEAD;
+		}
+	}
+
+	/**
+	 * Remove least recently used entries until within budget. Must hold lock
+	 */
+	private void evict() {
+		final Iterator<Map.Entry<CacheKey, Entry<T>>> it = cache.entrySet().iterator();
+		while (bytes > maxBytes && it.hasNext()) {
+			final Map.Entry<CacheKey, Entry<T>> e = it.next();
+			it.remove();
+			removed(e.getKey(), e.getValue());
+			evictions.increment();
+		}
+	}
+
+	/**
+	 * Must hold lock
+	 */
+	private void remove(CacheKey key) {
+		final Entry<T> e = cache.remove(key);
+		if (e != null) {
+			removed(key, e);
+		}
+	}
+
+	/**
+	 * Remove all entries of given file path. Must hold lock
+	 * @param filePath
+	 */
+	private void removePath(String filePath) {
+		for (Iterator<Map.Entry<CacheKey, Entry<T>>> it = cache.entrySet().iterator(); it.hasNext();) {
+			final Map.Entry<CacheKey, Entry<T>> e = it.next();
+			final CacheKey key = e.getKey();
+			if (filePath.equals(key.getFilePath())) {
+				it.remove();
+				removed(key, e.getValue());
+			}
+		}
+	}
+
+	/**
+	 * Update accounting for removed entry. Must hold lock
+	 */
+	private void removed(CacheKey key, Entry<T> entry) {
+		bytes -= entry.bytes;
+		final String path = key.getFilePath();
+		if (path != null) {
+			final PathInfo info = paths.get(path);
+			if (info != null && --info.entries <= 0) {
+				paths.remove(path);
 			}
 		}
 	}
@@ -159,7 +430,7 @@ public class DataCache<T> {
 
 	/**
 	 * Store data into cache
-	 * 
+	 *
      *
 	 * @param holder
 	 * @param imageNumber must be non-negative
@@ -173,7 +444,7 @@ public class DataCache<T> {
 
 	/**
 	 * Store data into cache
-	 * 
+	 *
      *
 	 * @param holder
 	 * @param imageNumber
@@ -188,7 +459,7 @@ public class DataCache<T> {
 		key.setImageNumber(imageNumber);
 
 		if (!recordSoftReference(key, holder))
-			System.err.println("Loader factory failed to cache "+key);
+			logger.debug("Loader factory did not cache {}", key);
 	}
 
 	/**
@@ -235,4 +506,51 @@ public class DataCache<T> {
 		return cachedObject;
 	}
 
+	/**
+	 * @return snapshot of cache statistics
+	 */
+	public Statistics getStatistics() {
+		lock.lock();
+		try {
+			return new Statistics(cache.size(), bytes, maxBytes, hits.sum(), misses.sum(), evictions.sum(),
+					collected.sum(), loads.sum(), coalesced.sum());
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Cache statistics
+	 * @param entries number of entries
+	 * @param bytes estimated number of bytes held by entries
+	 * @param maxBytes byte budget
+	 * @param hits number of lookups which found a value
+	 * @param misses number of lookups which did not find a value
+	 * @param evictions number of entries evicted to stay within budget
+	 * @param collected number of entries found reclaimed by the garbage collector
+	 * @param loads number of loads run
+	 * @param coalesced number of loads which waited for an identical load already running
+	 */
+	public record Statistics(int entries, long bytes, long maxBytes, long hits, long misses, long evictions,
+			long collected, long loads, long coalesced) {
+	}
+
+	private static class Entry<T> {
+		private final Reference<T> ref;
+		private long bytes;
+
+		Entry(Reference<T> ref, long bytes) {
+			this.ref = ref;
+			this.bytes = bytes;
+		}
+	}
+
+	private static class PathInfo {
+		private final long timeStamp;
+		private int entries;
+
+		PathInfo(long timeStamp) {
+			this.timeStamp = timeStamp;
+		}
+	}
 }
@@ -105,18 +105,16 @@ public class ApacheOptimizer extends AbstractOptimizer implements ILeastSquaresO
 		final int size = coords[0].getSize();
 		final AFunction afn;
 		final CoordinatesIterator it;
-		final DoubleDataset vd, pvd;
+		final DoubleDataset vd;
 		final double[][] dm = new double[size][n];
 		if (function instanceof AFunction) {
 			afn = (AFunction) function;
 			it = CoordinatesIterator.createIterator(data == null ? null : data.getShapeRef(), coords);
 			vd = DatasetFactory.zeros(coords[0].getShapeRef());
-			pvd = vd.clone();
 		} else {
 			afn = null;
 			it = null;
 			vd = null;
-			pvd = null;
 		}
 
 		return new MultivariateJacobianFunction() {
@@ -136,16 +134,7 @@ public class ApacheOptimizer extends AbstractOptimizer implements ILeastSquaresO
 				final double[] dv ;
 				if (afn != null) {
 					dv = vd.getData();
-					AFunction afn = (AFunction) function;
-					afn.fillWithValues(vd, it);
-					double[] pd = pvd.getData();
-					for (int i = 0; i < n; i++) { // assuming number of parameters is less than number of coordinates
-						IParameter p = params.get(i);
-						afn.fillWithPartialDerivativeValues(p, pvd, it);
-						for (int j = 0; j < size; j++) {
-							dm[j][i] = pd[j];
-						}
-					}
+					afn.fillWithValuesAndJacobian(vd, params, dm, it);
 				} else {
 					dv = calculateValues().getData();
 					for (int i = 0; i < n; i++) {
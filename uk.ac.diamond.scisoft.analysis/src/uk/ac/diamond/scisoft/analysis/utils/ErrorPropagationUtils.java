@@ -9,10 +9,13 @@
 
 package uk.ac.diamond.scisoft.analysis.utils;
 
+import org.eclipse.dawnsci.analysis.api.processing.IElementKernel;
 import org.eclipse.january.dataset.BroadcastIterator;
 import org.eclipse.january.dataset.Dataset;
 import org.eclipse.january.dataset.DatasetFactory;
+import org.eclipse.january.dataset.DatasetUtils;
 import org.eclipse.january.dataset.DoubleDataset;
+import org.eclipse.january.dataset.IDataset;
 import org.eclipse.january.dataset.IndexIterator;
 
 /**
@@ -116,7 +119,59 @@ public class ErrorPropagationUtils {
 	public static DoubleDataset arcSineWithUncertainty(Dataset a) {
 		return operateWithUncertainty(a, new ArcSin());
 	}
-	
+
+	/**
+	 * Per-element form of {@link #addWithUncertainty(Dataset, Dataset)} so that it
+	 * can be applied in one pass with other element-wise operations.
+	 * @param a
+	 * 			Dataset operand, only used to check the size of b
+	 * @param b
+	 * 			scalar or dataset operand
+	 * @return kernel which adds the matching element of b to each value
+	 */
+	public static IElementKernel addKernel(IDataset a, Dataset b) {
+		return new BinaryUncertaintyKernel(a, b, new Add());
+	}
+
+	/**
+	 * Per-element form of {@link #subtractWithUncertainty(Dataset, Dataset)}
+	 * @param a
+	 * 			Dataset operand, only used to check the size of b
+	 * @param b
+	 * 			scalar or dataset operand
+	 * @return kernel which subtracts the matching element of b from each value
+	 * @see #addKernel(IDataset, Dataset)
+	 */
+	public static IElementKernel subtractKernel(IDataset a, Dataset b) {
+		return new BinaryUncertaintyKernel(a, b, new Subtract());
+	}
+
+	/**
+	 * Per-element form of {@link #multiplyWithUncertainty(Dataset, Dataset)}
+	 * @param a
+	 * 			Dataset operand, only used to check the size of b
+	 * @param b
+	 * 			scalar or dataset operand
+	 * @return kernel which multiplies each value by the matching element of b
+	 * @see #addKernel(IDataset, Dataset)
+	 */
+	public static IElementKernel multiplyKernel(IDataset a, Dataset b) {
+		return new BinaryUncertaintyKernel(a, b, new Multiply());
+	}
+
+	/**
+	 * Per-element form of {@link #divideWithUncertainty(Dataset, Dataset)}
+	 * @param a
+	 * 			Dataset operand, only used to check the size of b
+	 * @param b
+	 * 			scalar or dataset operand
+	 * @return kernel which divides each value by the matching element of b
+	 * @see #addKernel(IDataset, Dataset)
+	 */
+	public static IElementKernel divideKernel(IDataset a, Dataset b) {
+		return new BinaryUncertaintyKernel(a, b, new Divide());
+	}
+
 	private static DoubleDataset operateWithUncertainty(Dataset input, Dataset operand, BinaryUncertaintyOperator operator) {
 
 		if (operand.getSize() != 1 && input.getSize() != operand.getSize()) throw new IllegalArgumentException("Cannot process datasets of these shapes!");
@@ -223,6 +278,55 @@ interface BinaryUncertaintyOperator {
 	double operate(double a, double b);
 }
 
+/**
+ * Applies a binary operator to values with the matching element of an operand, treating
+ * uncertainties in the same way as {@link ErrorPropagationUtils} does for whole datasets
+ */
+class BinaryUncertaintyKernel implements IElementKernel {
+	private final BinaryUncertaintyOperator operator;
+	private final double[] b;
+	private final double[] be;
+
+	BinaryUncertaintyKernel(IDataset input, Dataset operand, BinaryUncertaintyOperator operator) {
+		if (operand.getSize() != 1 && input.getSize() != operand.getSize()) throw new IllegalArgumentException("Cannot process datasets of these shapes!");
+
+		this.operator = operator;
+		b = getData(operand);
+		Dataset operandUncert = operand.getErrors();
+		be = operandUncert == null ? null : getData(operandUncert);
+	}
+
+	private static double[] getData(Dataset d) {
+		if (d.getStrides() != null) { // make contiguous
+			d = d.getSlice();
+		}
+		return DatasetUtils.cast(DoubleDataset.class, d).getData();
+	}
+
+	private static double get(double[] d, int position) {
+		return d.length == 1 ? d[0] : d[position];
+	}
+
+	@Override
+	public boolean hasUncertainty() {
+		return be != null;
+	}
+
+	@Override
+	public double apply(int position, double value) {
+		return operator.operate(value, get(b, position));
+	}
+
+	@Override
+	public void apply(int position, double value, double error, double[] out) {
+		if (be == null) {
+			operator.operate(value, get(b, position), error, out);
+		} else {
+			operator.operate(value, get(b, position), error, get(be, position), out);
+		}
+	}
+}
+
 interface UnaryUncertaintyOperator {
 	void operate(double a, double ae, double[] out);
 		
@@ -53,6 +53,21 @@ def settemplocation(loc=None):
     _TEMP_LOCATION = loc
     _TEMP_LOCATION_SET = True
 
+_SHM_LOCATION_SET = False
+_SHM_LOCATION = None
+
+def setsharedmemorylocation(loc=None):
+    '''
+     Set a shared memory location, such as /dev/shm, for arrays. When set, arrays are sent as raw data described by
+     a dtype, shape and offset. Small arrays are sent inline and others are written to files in this location which
+     the unflattener at the other end maps rather than parses.
+
+     loc new shared memory location to use, or None to send .npy files in temp location
+    '''
+    global _SHM_LOCATION, _SHM_LOCATION_SET
+    _SHM_LOCATION = loc
+    _SHM_LOCATION_SET = True
+
 class flatteningHelper(object):
     def __init__(self, typeObj, typeName):
         self.typeObj = typeObj
@@ -202,6 +217,12 @@ class ndArrayHelper(flatteningHelper):
     DELETEFILEAFTERLOAD = "deletefile"
     INDEX = "index"
     NAME = "name"
+    DTYPE = "dtype"
+    SHAPE = "shape"
+    OFFSET = "offset"
+    DATA = "data"
+    INLINE_LIMIT = 64 * 1024
+    RAW_TYPES = ('|b1', '|u1', '|i1', '<u2', '<i2', '<u4', '<i4', '<u8', '<i8', '<f4', '<f8', '<c8', '<c16')
     
     def __init__(self):
         super(ndArrayHelper, self).__init__(_np.ndarray, self.TYPE_NAME)
@@ -211,6 +232,15 @@ class ndArrayHelper(flatteningHelper):
         if isinstance(obj, _core.ndarrayRGB):
             obj = obj.view(_np.ndarray)
         if isinstance(obj, _np.ndarray):
+            global _SHM_LOCATION, _SHM_LOCATION_SET
+            if not _SHM_LOCATION_SET:
+                _SHM_LOCATION = os.getenv('SCISOFT_RPC_SHM')
+                _SHM_LOCATION_SET = True
+            if _SHM_LOCATION:
+                raw = _np.ascontiguousarray(obj, dtype=obj.dtype.newbyteorder('<'))
+                if raw.dtype.str in self.RAW_TYPES:
+                    return self._flattenraw(raw)
+
             global _TEMP_LOCATION, _TEMP_LOCATION_SET
             if not _TEMP_LOCATION_SET:
                 _TEMP_LOCATION = os.getenv('SCISOFT_RPC_TEMP')
@@ -242,7 +272,30 @@ class ndArrayHelper(flatteningHelper):
         rval[TYPE] = self.TYPE_NAME
         return rval
 
+    def _flattenraw(self, obj):
+        rval = dict()
+        rval[TYPE] = self.TYPE_NAME
+        rval[self.DTYPE] = obj.dtype.str
+        rval[self.SHAPE] = [int(s) for s in obj.shape]
+        if obj.nbytes <= self.INLINE_LIMIT:
+            rval[self.DATA] = _wrapper.binarywrapper(obj.tobytes())
+            return rval
+
+        (osfd, filename) = mkstemp(suffix='.raw', prefix='scisofttmp-', dir=_SHM_LOCATION)
+        os.close(osfd)
+        try:
+            obj.tofile(filename)
+        except:
+            os.remove(filename)
+            raise
+        rval[self.FILENAME] = filename
+        rval[self.DELETEFILEAFTERLOAD] = True
+        rval[self.OFFSET] = 0
+        return rval
+
     def unflatten(self, obj):
+        if self.DTYPE in obj:
+            return self._unflattenraw(obj)
         filename = obj[self.FILENAME]
         deletefile = False
         if self.DELETEFILEAFTERLOAD in obj:
@@ -252,6 +305,22 @@ class ndArrayHelper(flatteningHelper):
         finally:
             if deletefile:
                 os.remove(filename)
+
+    def _unflattenraw(self, obj):
+        dtype = _np.dtype(obj[self.DTYPE])
+        shape = tuple(obj[self.SHAPE])
+        if self.DATA in obj:
+            data = obj[self.DATA]
+            data = data.data if hasattr(data, 'data') else data
+            return _np.frombuffer(data, dtype=dtype).reshape(shape).copy()
+
+        filename = obj[self.FILENAME]
+        try:
+            # map file copy-on-write so pages are shared until written and file can be removed
+            return _np.memmap(filename, dtype=dtype, mode='c', offset=obj.get(self.OFFSET, 0), shape=shape)
+        finally:
+            if obj.get(self.DELETEFILEAFTERLOAD, False):
+                os.remove(filename)
                 
     def canflatten(self, obj):
         return isinstance(obj, (_np.ndarray, _wrapper.datasetdescriptor))
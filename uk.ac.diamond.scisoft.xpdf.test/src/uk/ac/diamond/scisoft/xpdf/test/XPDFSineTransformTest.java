@@ -0,0 +1,95 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.xpdf.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import uk.ac.diamond.scisoft.xpdf.XPDFSineTransform;
+
+public class XPDFSineTransformTest {
+
+	private static final int NQ = 2000;
+	private static final int NR = 500;
+
+	private static double[] createQ(boolean uniform) {
+		double[] q = new double[NQ];
+		for (int i = 0; i < NQ; i++) {
+			q[i] = 0.05 + 0.01 * i + (uniform ? 0 : 1e-6 * i * i);
+		}
+		return q;
+	}
+
+	private static double[] createF(double[] q) {
+		double[] f = new double[q.length];
+		for (int i = 0; i < q.length; i++) {
+			f[i] = q[i] * Math.exp(-0.2 * q[i]) * Math.sin(2.5 * q[i]);
+		}
+		return f;
+	}
+
+	private static double[] createR() {
+		double[] r = new double[NR];
+		for (int i = 0; i < NR; i++) {
+			r[i] = 0.01 + 0.02 * i;
+		}
+		return r;
+	}
+
+	@Test
+	public void testFastSine() {
+		double[] r = createR();
+		for (boolean uniform : new boolean[] {true, false}) {
+			double[] q = createQ(uniform);
+			double[] f = createF(q);
+			double[] d = XPDFSineTransform.directSine(q, f, r);
+			double[] s = XPDFSineTransform.fastSine(q, f, r);
+
+			double max = 0;
+			for (double v : d) {
+				max = Math.max(max, Math.abs(v));
+			}
+			assertArrayEquals(d, s, 1e-3 * max);
+
+			double error = XPDFSineTransform.estimateError(q, f, r, s);
+			assertTrue(error < 1e-3);
+			assertEquals(0, XPDFSineTransform.estimateError(q, f, r, d), 1e-12);
+		}
+	}
+
+	@Test
+	public void testFastSineSquared() {
+		double[] r = createR();
+		double[] q = createQ(false);
+		double[] w = createF(q);
+		for (int i = 0; i < w.length; i++) {
+			w[i] *= w[i];
+		}
+		double[] d = XPDFSineTransform.directSineSquared(q, w, r);
+		double[] s = XPDFSineTransform.fastSineSquared(q, w, r);
+
+		double max = 0;
+		for (double v : d) {
+			max = Math.max(max, Math.abs(v));
+		}
+		assertArrayEquals(d, s, 1e-3 * max);
+	}
+
+	@Test
+	public void testNonUniformRadiiUseDirectSum() {
+		double[] q = createQ(true);
+		double[] f = createF(q);
+		double[] r = new double[] {0.1, 0.3, 0.4, 1.2};
+		assertArrayEquals(XPDFSineTransform.directSine(q, f, r), XPDFSineTransform.fastSine(q, f, r), 0);
+	}
+}
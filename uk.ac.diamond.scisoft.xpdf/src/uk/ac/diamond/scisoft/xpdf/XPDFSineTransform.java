@@ -0,0 +1,238 @@
+/*-
+ * Copyright 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package uk.ac.diamond.scisoft.xpdf;
+
+import org.eclipse.dawnsci.analysis.dataset.impl.FFT;
+import org.eclipse.january.dataset.ComplexDoubleDataset;
+import org.eclipse.january.dataset.DatasetFactory;
+
+/**
+ * Sine transforms of sampled functions, as used by the Lorch Fourier transform.
+ * <p>
+ * The direct transform sums f(q<sub>j</sub>) sin(q<sub>j</sub> r) over all samples for each r
+ * and so takes O(N<sub>q</sub>N<sub>r</sub>) time. The fast transform treats that sum as the
+ * midpoint rule for an integral over q, resamples the integrand onto a uniform grid whose
+ * spacing makes the phase steps between r values multiples of 2&pi;/N, and evaluates all r at
+ * once with one FFT of length N. The r values must be uniformly spaced.
+ */
+public class XPDFSineTransform {
+
+	private static final int MAX_POINTS = 1 << 24;
+	private static final int ERROR_SAMPLES = 16;
+
+	private XPDFSineTransform() {
+	}
+
+	/**
+	 * Calculate sum of f(q) sin(q r) directly
+	 * @param q
+	 * @param f
+	 * @param r
+	 * @return transform at each r
+	 */
+	public static double[] directSine(double[] q, double[] f, double[] r) {
+		double[] s = new double[r.length];
+		for (int i = 0; i < r.length; i++) {
+			double ri = r[i];
+			double sum = 0;
+			for (int j = 0; j < q.length; j++) {
+				sum += f[j] * Math.sin(q[j] * ri);
+			}
+			s[i] = sum;
+		}
+		return s;
+	}
+
+	/**
+	 * Calculate sum of w(q) sin<sup>2</sup>(q r) directly
+	 * @param q
+	 * @param w
+	 * @param r
+	 * @return transform at each r
+	 */
+	public static double[] directSineSquared(double[] q, double[] w, double[] r) {
+		double[] s = new double[r.length];
+		for (int i = 0; i < r.length; i++) {
+			double ri = r[i];
+			double sum = 0;
+			for (int j = 0; j < q.length; j++) {
+				double sin = Math.sin(q[j] * ri);
+				sum += w[j] * sin * sin;
+			}
+			s[i] = sum;
+		}
+		return s;
+	}
+
+	/**
+	 * Calculate sum of f(q) sin(q r) with a FFT. This falls back to the direct sum if r is not
+	 * uniformly spaced or its spacing is too coarse for the range of q
+	 * @param q increasing values
+	 * @param f
+	 * @param r uniformly spaced values
+	 * @return transform at each r
+	 */
+	public static double[] fastSine(double[] q, double[] f, double[] r) {
+		double dr = getSpacing(r);
+		double[][] e = dr > 0 ? fastExponential(q, f, r[0], dr, r.length) : null;
+		return e == null ? directSine(q, f, r) : e[1];
+	}
+
+	/**
+	 * Calculate sum of w(q) sin<sup>2</sup>(q r) with a FFT, using sin<sup>2</sup>(x) = (1 - cos(2x))/2.
+	 * This falls back to the direct sum if r is not uniformly spaced or its spacing is too coarse
+	 * for the range of q
+	 * @param q increasing values
+	 * @param w
+	 * @param r uniformly spaced values
+	 * @return transform at each r
+	 */
+	public static double[] fastSineSquared(double[] q, double[] w, double[] r) {
+		double dr = getSpacing(r);
+		double[][] e = dr > 0 ? fastExponential(q, w, 2 * r[0], 2 * dr, r.length) : null;
+		if (e == null) {
+			return directSineSquared(q, w, r);
+		}
+
+		double total = 0;
+		for (double v : w) {
+			total += v;
+		}
+		double[] s = e[0];
+		for (int i = 0; i < s.length; i++) {
+			s[i] = 0.5 * (total - s[i]);
+		}
+		return s;
+	}
+
+	/**
+	 * Estimate error of a transform by comparing it with direct sums at a sample of r values
+	 * @param q
+	 * @param f
+	 * @param r
+	 * @param s transform to check
+	 * @return maximum absolute difference relative to maximum absolute direct sum
+	 */
+	public static double estimateError(double[] q, double[] f, double[] r, double[] s) {
+		int n = Math.min(ERROR_SAMPLES, r.length);
+		if (n == 0) {
+			return 0;
+		}
+		double[] rs = new double[n];
+		int[] is = new int[n];
+		for (int i = 0; i < n; i++) {
+			is[i] = n == 1 ? 0 : (int) Math.round(i * (r.length - 1.) / (n - 1));
+			rs[i] = r[is[i]];
+		}
+
+		double[] d = directSine(q, f, rs);
+		double maxDiff = 0;
+		double maxAbs = 0;
+		for (int i = 0; i < n; i++) {
+			maxDiff = Math.max(maxDiff, Math.abs(s[is[i]] - d[i]));
+			maxAbs = Math.max(maxAbs, Math.abs(d[i]));
+		}
+		return maxAbs == 0 ? maxDiff : maxDiff / maxAbs;
+	}
+
+	/**
+	 * @param r
+	 * @return spacing of uniform values or zero if not uniform
+	 */
+	private static double getSpacing(double[] r) {
+		int n = r.length;
+		if (n < 2) {
+			return 0;
+		}
+		double dr = (r[n - 1] - r[0]) / (n - 1);
+		double tolerance = 1e-6 * Math.abs(dr);
+		for (int i = 1; i < n - 1; i++) {
+			if (Math.abs(r[i] - r[0] - i * dr) > tolerance) {
+				return 0;
+			}
+		}
+		return dr;
+	}
+
+	/**
+	 * Calculate sums of f(q) exp(i q r) for uniformly spaced r
+	 * @param q increasing values
+	 * @param f
+	 * @param r0 first value of r
+	 * @param dr spacing of r
+	 * @param nr number of r values
+	 * @return real and imaginary parts of sums or null if q is not increasing or would be aliased
+	 */
+	private static double[][] fastExponential(double[] q, double[] f, double r0, double dr, int nr) {
+		int n = q.length;
+		if (n < 2) {
+			return null;
+		}
+
+		// integrand is sample divided by width of its midpoint cell
+		double[] h = new double[n];
+		for (int j = 0; j < n; j++) {
+			double w = j == 0 ? q[1] - q[0] : (j == n - 1 ? q[n - 1] - q[n - 2] : (q[j + 1] - q[j - 1]) / 2);
+			if (w <= 0) {
+				return null;
+			}
+			h[j] = f[j] / w;
+		}
+		double qLo = q[0] - (q[1] - q[0]) / 2;
+		double qHi = q[n - 1] + (q[n - 1] - q[n - 2]) / 2;
+		if ((qHi - qLo) * dr >= 2 * Math.PI) {
+			return null;
+		}
+
+		// grid of N points with spacing no coarser than the samples' mean spacing
+		double minPoints = 2 * Math.PI * n / (dr * (qHi - qLo));
+		int m = Integer.highestOneBit(Math.max(nr, (int) Math.min(MAX_POINTS, Math.ceil(minPoints))));
+		if (m < nr || m < minPoints) {
+			m <<= 1;
+		}
+		if (m > MAX_POINTS) {
+			return null;
+		}
+		double dq = 2 * Math.PI / (m * dr);
+
+		double[] re = new double[m];
+		double[] im = new double[m];
+		long kHi = (long) Math.floor(qHi / dq);
+		int j = 0;
+		for (long k = (long) Math.ceil(qLo / dq); k <= kHi; k++) {
+			double qk = k * dq;
+			double v;
+			if (qk <= q[0]) {
+				v = h[0];
+			} else if (qk >= q[n - 1]) {
+				v = h[n - 1];
+			} else {
+				while (q[j + 1] < qk) {
+					j++;
+				}
+				v = h[j] + (qk - q[j]) * (h[j + 1] - h[j]) / (q[j + 1] - q[j]);
+			}
+			v *= dq;
+			double phase = qk * r0;
+			int l = (int) Math.floorMod(k, m);
+			re[l] += v * Math.cos(phase);
+			im[l] += v * Math.sin(phase);
+		}
+
+		ComplexDoubleDataset g = DatasetFactory.createComplexDataset(ComplexDoubleDataset.class, re, im);
+		double[] t = ((ComplexDoubleDataset) FFT.ifft(g)).getData(); // scaled by 1/m
+		double[][] e = new double[2][nr];
+		for (int i = 0; i < nr; i++) {
+			e[0][i] = m * t[2 * i];
+			e[1][i] = m * t[2 * i + 1];
+		}
+		return e;
+	}
+}
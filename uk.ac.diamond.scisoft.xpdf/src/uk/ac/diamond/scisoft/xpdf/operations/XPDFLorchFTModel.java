@@ -27,6 +27,8 @@ public class XPDFLorchFTModel extends AbstractOperationModel {
 	private boolean seekNextZero = false;
 	@OperationModelField(hint="Seek the next extremum after Qmax?", label="Seek next minimum?")
 	private boolean seekNextExtremum = true;
+	@OperationModelField(hint="Use a fast Fourier transform rather than a direct sum for each radius?", label="Fast transform?")
+	private boolean fastTransform = true;
 	
 	public double getrMax() {
 		return rMax;
@@ -64,4 +66,10 @@ public class XPDFLorchFTModel extends AbstractOperationModel {
 	public void setSeekNextExtremum(boolean seekNextExtremum) {
 		firePropertyChange("seekNextExtremum", this.seekNextExtremum, this.seekNextExtremum = seekNextExtremum);
 	}
+	public boolean isFastTransform() {
+		return fastTransform;
+	}
+	public void setFastTransform(boolean fastTransform) {
+		firePropertyChange("fastTransform", this.fastTransform, this.fastTransform = fastTransform);
+	}
 }
@@ -9,9 +9,6 @@
 
 package uk.ac.diamond.scisoft.xpdf.operations;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import org.eclipse.dawnsci.analysis.api.processing.Atomic;
 import org.eclipse.dawnsci.analysis.api.processing.OperationData;
 import org.eclipse.dawnsci.analysis.api.processing.OperationException;
@@ -28,8 +25,11 @@ import org.eclipse.january.dataset.IndexIterator;
 import org.eclipse.january.dataset.Maths;
 import org.eclipse.january.metadata.AxesMetadata;
 import org.eclipse.january.metadata.MetadataFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import uk.ac.diamond.scisoft.xpdf.XPDFCoordinates;
+import uk.ac.diamond.scisoft.xpdf.XPDFSineTransform;
 import uk.ac.diamond.scisoft.xpdf.metadata.XPDFMetadata;
 
 /**
@@ -47,6 +47,7 @@ import uk.ac.diamond.scisoft.xpdf.metadata.XPDFMetadata;
 public class XPDFLorchFTOperation extends
 		AbstractOperation<XPDFLorchFTModel, OperationData> {
 
+	private static final Logger logger = LoggerFactory.getLogger(XPDFLorchFTOperation.class);
 	
 	protected OperationData process(IDataset thSoq, IMonitor monitor) throws OperationException {
 	
@@ -92,45 +93,35 @@ public class XPDFLorchFTOperation extends
 		System.err.println("Lorch cutoff at q = " + theXPDFMetadata.getLorchCutOff());
 		
 		Dataset r = DatasetFactory.createRange(DoubleDataset.class, model.getrStep()/2, model.getrMax(), model.getrStep());
-		Dataset hofr = doLorchFT(DatasetUtils.convertToDataset(thSoq).getSliceView(new int[]{0}, new int[]{iCutoff}, new int[]{1}),
-					q.getSliceView(new int[]{0}, new int[]{iCutoff}, new int[]{1}), r, model.getLorchWidth(), numberDensity);
+		double[] rValues = toArray(r);
+		Dataset qCut = q.getSliceView(new int[]{0}, new int[]{iCutoff}, new int[]{1});
+		double[] qValues = toArray(qCut);
+		double[] f = toArray(Maths.multiply(Maths.multiply(qCut, DatasetUtils.convertToDataset(thSoq).getSliceView(new int[]{0}, new int[]{iCutoff}, new int[]{1})),
+				lorchWindow(qCut, model.getLorchWidth())));
+		double[] s = model.isFastTransform() ? XPDFSineTransform.fastSine(qValues, f, rValues) : XPDFSineTransform.directSine(qValues, f, rValues);
+		double lorchError = 0;
+		if (model.isFastTransform()) {
+			lorchError = XPDFSineTransform.estimateError(qValues, f, rValues, s);
+			logger.debug("Lorch transform error estimate: {}", lorchError);
+		}
+		double[] scale = lorchScale(qValues, rValues, numberDensity);
+		for (int i = 0; i < s.length; i++) {
+			s[i] *= scale[i];
+		}
+		Dataset hofr = DatasetFactory.createFromObject(s);
 		// Error propagation: through the Fourier transform
 		if (thSoq.getErrors() != null) {
-			// Prepare the Datasets to receive the transformed values. They all
-			// need to be held at the same time to allow for the (logical)
-			// transpose
-			List<Dataset> sigmaF = new ArrayList<Dataset>(q.getSize());
-			
-			for (int iq = 0; iq < q.getSize(); iq++) {
-				Dataset covarQ = DatasetFactory.zeros(DoubleDataset.class, 4);
-				// The vector to transform is zero, except at element iq it
-				// holds the uncertainty variance (error squared) of the data
-				// point at iq
-				IDataset sl = thSoq.getErrors().getSlice();
-				covarQ.set(Maths.square(sl.getDouble(iq)), 0);
-				Dataset qSlice = Maths.add(q.getDouble(iq), Maths.multiply(q.getDouble(3)-q.getDouble(2), DatasetFactory.createRange(DoubleDataset.class, 0, 4, 1))); 
-						
-				// Transform this vector exactly as the data
-				sigmaF.add(iq, doLorchFT(covarQ, qSlice, r, model.getLorchWidth(), numberDensity));
-			}
-
-			Dataset hofrError = hofr.copy(DoubleDataset.class);
-			for (int ir = 0; ir < r.getSize(); ir++) {
-				DoubleDataset covarQR = DatasetFactory.zeros(q, DoubleDataset.class);
-				// Create the vector to be transformed
-				for (int iq = 0; iq < q.getSize(); iq++) {
-					covarQR.setAbs(iq, sigmaF.get(iq).getDouble(ir));
-				}
-				// Transform the semi-transformed variance. Take the ir-th 
-				// element, and assign the square root to the ir-th element of
-				// the final error vector. 
-				
-				// Only a subset of r is needed
-				Dataset rSubset = r.getSlice(new int[] {ir}, new int[] {ir+1}, new int[] {1});
-				
-				hofrError.set(Maths.sqrt(doLorchFT(covarQR, q, rSubset, model.getLorchWidth(), numberDensity).getDouble(0)), ir);
+			// Each variance is transformed twice, so h(r) has a variance of
+			// scale(r)^2 sum_q var(q) (q lorch(q))^2 sin^2(q r)
+			double[] qAll = toArray(q);
+			Dataset qLorch = Maths.multiply(q, lorchWindow(q, model.getLorchWidth()));
+			double[] w = toArray(Maths.multiply(Maths.square(DatasetUtils.convertToDataset(thSoq.getErrors().getSlice())), Maths.square(qLorch)));
+			double[] v = model.isFastTransform() ? XPDFSineTransform.fastSineSquared(qAll, w, rValues) : XPDFSineTransform.directSineSquared(qAll, w, rValues);
+			double[] errorScale = lorchScale(qAll, rValues, numberDensity);
+			for (int i = 0; i < v.length; i++) {
+				v[i] = Math.abs(errorScale[i]) * Math.sqrt(Math.max(0, v[i]));
 			}
-			hofr.setErrors(hofrError);
+			hofr.setErrors(DatasetFactory.createFromObject(v));
 		}
 		
 		Dataset gofr = Maths.divide(hofr, g0minus1);
@@ -158,33 +149,35 @@ public class XPDFLorchFTOperation extends
 		
 		IDataset iCalCon = DatasetFactory.createFromObject(new double[]{theXPDFMetadata.getCalibrationConstant()}),
 				iFluoro = DatasetFactory.createFromObject(new double[]{theXPDFMetadata.getFluorescenceScale()}),
-				iLorch = DatasetFactory.createFromObject(new double[]{theXPDFMetadata.getLorchCutOff()});
+				iLorch = DatasetFactory.createFromObject(new double[]{theXPDFMetadata.getLorchCutOff()}),
+				iLorchError = DatasetFactory.createFromObject(new double[]{lorchError});
 		iCalCon.setName("Calibration constant");
 		iFluoro.setName("Fluorescence scaling");
 		iLorch.setName("Lorch transform cut off");
+		iLorchError.setName("Lorch transform error estimate");
 		
-		return new OperationData(dofr, iCalCon, iFluoro, iLorch);
+		return new OperationData(dofr, iCalCon, iFluoro, iLorch, iLorchError);
 	}
 	
-	private Dataset doLorchFT(Dataset thSoq, Dataset q, Dataset r, double lorchWidth, double numberDensity) {
-		//	    # based heavily on deanFT above
-		//	    # Seems to work, at least produces something that resembles an FT. 
-		//	    # The only thing is that the peak is in the wrong place. 
-		//	    output = np.zeros(shape(r))
-		//	    qhq = q*soq
-		//	    QD = q*Soper_Lorch_width
-		//	    Lorch = 3*np.power(QD,-3)*(np.sin(QD)-QD*np.cos(QD))
-		//	    Lorch[0] = 0
-		//
-		//	    for i in range(0,size(r)):
-		//	        output[i] = (np.sin(q*r[i])*qhq*Lorch).sum()
-		//	    output = output*(q[3]-q[2])*np.power(2.0*np.square(pi)*rho*r,-1)
+	//	    # based heavily on deanFT above
+	//	    # Seems to work, at least produces something that resembles an FT. 
+	//	    # The only thing is that the peak is in the wrong place. 
+	//	    output = np.zeros(shape(r))
+	//	    qhq = q*soq
+	//	    QD = q*Soper_Lorch_width
+	//	    Lorch = 3*np.power(QD,-3)*(np.sin(QD)-QD*np.cos(QD))
+	//	    Lorch[0] = 0
+	//
+	//	    for i in range(0,size(r)):
+	//	        output[i] = (np.sin(q*r[i])*qhq*Lorch).sum()
+	//	    output = output*(q[3]-q[2])*np.power(2.0*np.square(pi)*rho*r,-1)
 
-		// Calculate th_soq, if it does not exist
-		
-		
-		Dataset output = DatasetFactory.zeros(r, DoubleDataset.class);
-		Dataset qhq = Maths.multiply(q, thSoq);
+	/**
+	 * @param q
+	 * @param lorchWidth
+	 * @return Lorch window function
+	 */
+	private static Dataset lorchWindow(Dataset q, double lorchWidth) {
 		Dataset qd = Maths.multiply(q, lorchWidth);
 		Dataset lorch = 
 				Maths.multiply(
@@ -193,28 +186,27 @@ public class XPDFLorchFTOperation extends
 							Maths.sin(qd), 
 							Maths.multiply(qd, Maths.cos(qd))));
 		if (q.getDouble(0) <= 0.0) lorch.set(0.0, 0);
-		
-		// Something resembling a Discrete Sine Transform
-		for (int i = 0; i < output.getSize(); i++) {
-			output.set(
-					Maths.multiply(
-							Maths.multiply(
-									Maths.sin(
-											Maths.multiply(q, r.getDouble(i))), 
-									qhq),
-							lorch).sum(true),
-						i);
+		return lorch;
+	}
+
+	/**
+	 * @param q
+	 * @param r
+	 * @param numberDensity
+	 * @return factor to scale the sine transform at each r
+	 */
+	private static double[] lorchScale(double[] q, double[] r, double numberDensity) {
+		double[] scale = new double[r.length];
+		for (int i = 0; i < r.length; i++) {
+			scale[i] = (q[3] - q[2]) / (2 * Math.pow(Math.PI, 2) * numberDensity * r[i]);
 		}
-		output.imultiply(Maths.divide(
-				(q.getDouble(3) - q.getDouble(2)), 
-				Maths.multiply(
-						2 * Math.pow(Math.PI, 2) * numberDensity,
-						r)));
-		
-	    return output;
+		return scale;
+	}
+
+	private static double[] toArray(Dataset a) {
+		return DatasetUtils.cast(DoubleDataset.class, a.getSlice()).getData();
 	}
 
-	
 	@Override
 	public String getId() {
 		return "uk.ac.diamond.scisoft.xpdf.operations.XPDFLorchFTOperation";